@@ -0,0 +1,127 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.benchmarks.core;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openrewrite.internal.ListUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+/**
+ * Compares {@link ListUtils} against the copy-then-remove-nulls approach it used previously, on lists the size of
+ * typical LST children.
+ */
+@Fork(1)
+@Measurement(iterations = 2)
+@Warmup(iterations = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class ListUtilsBenchmark {
+
+    @Param({"4", "16", "128"})
+    int size;
+
+    List<Object> ls;
+    Object last;
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(ListUtilsBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ls = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ls.add(new Object());
+        }
+        last = ls.get(size - 1);
+    }
+
+    @Benchmark
+    public List<Object> mapUnchanged() {
+        return ListUtils.map(ls, t -> t);
+    }
+
+    @Benchmark
+    public List<Object> mapUnchangedBaseline() {
+        return copyThenRemoveNulls(ls, t -> t);
+    }
+
+    @Benchmark
+    public List<Object> mapRemoveLast() {
+        return ListUtils.map(ls, t -> t == last ? null : t);
+    }
+
+    @Benchmark
+    public List<Object> mapRemoveLastBaseline() {
+        return copyThenRemoveNulls(ls, t -> t == last ? null : t);
+    }
+
+    @Benchmark
+    public List<Object> mapRemoveAll() {
+        return ListUtils.map(ls, t -> null);
+    }
+
+    @Benchmark
+    public List<Object> mapRemoveAllBaseline() {
+        return copyThenRemoveNulls(ls, t -> null);
+    }
+
+    @Benchmark
+    public List<Object> flatMapExpandLast() {
+        return ListUtils.flatMap(ls, t -> t == last ? Arrays.asList(t, new Object()) : t);
+    }
+
+    @Benchmark
+    public List<Object> concat() {
+        return ListUtils.concat(ls, last);
+    }
+
+    private static List<Object> copyThenRemoveNulls(List<Object> ls, UnaryOperator<Object> map) {
+        List<Object> newLs = ls;
+        for (int i = 0; i < ls.size(); i++) {
+            Object tree = ls.get(i);
+            Object newTree = map.apply(tree);
+            if (newTree != tree) {
+                if (newLs == ls) {
+                    newLs = new ArrayList<>(ls);
+                }
+                newLs.set(i, newTree);
+            }
+        }
+
+        if (newLs != ls) {
+            //noinspection StatementWithEmptyBody
+            while (newLs.remove(null)) ;
+        }
+
+        return newLs;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.benchmarks.java;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.java.Java11Parser;
+
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses and type attributes the same source files with a fresh type cache each time, so that the time spent
+ * mapping types, and waiting on the symbol lock to do so, is part of every measurement.
+ */
+@Fork(1)
+@Measurement(iterations = 3)
+@Warmup(iterations = 2)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class Java11ParserBenchmark {
+    @Param({"1", "4"})
+    int parallelism;
+
+    List<Path> inputs;
+
+    @Setup(Level.Trial)
+    public void setup() throws URISyntaxException {
+        inputs = JavaCompilationUnitState.inputs();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(Java11ParserBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opt).run();
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        blackhole.consume(Java11Parser.builder()
+                .classpath("jsr305", "classgraph", "jackson-annotations", "micrometer-core", "slf4j-api",
+                        "org.eclipse.jgit")
+                .parallelism(parallelism)
+                .build()
+                .parse(inputs, null, new InMemoryExecutionContext(Throwable::printStackTrace)));
+    }
+}
@@ -33,10 +33,19 @@ public class JavaCompilationUnitState {
 
     @Setup(Level.Trial)
     public void setup() throws URISyntaxException {
+        sourceFiles = JavaParser.fromJavaVersion()
+                .classpath("jsr305", "classgraph", "jackson-annotations", "micrometer-core", "slf4j-api",
+                        "org.eclipse.jgit")
+//                .logCompilationWarningsAndErrors(true)
+                .build()
+                .parse(inputs(), null, new InMemoryExecutionContext(Throwable::printStackTrace));
+    }
+
+    static List<Path> inputs() throws URISyntaxException {
         Path rewriteRoot = Paths.get(ChangeTypeBenchmark.class.getResource("./")
                 .toURI()).resolve("../../../../../../../../").normalize();
 
-        List<Path> inputs = Arrays.asList(
+        return Arrays.asList(
                 rewriteRoot.resolve("rewrite-core/src/main/java/org/openrewrite/internal/lang/Nullable.java"),
                 rewriteRoot.resolve("rewrite-core/src/main/java/org/openrewrite/internal/lang/NullUtils.java"),
                 rewriteRoot.resolve("rewrite-core/src/main/java/org/openrewrite/internal/MetricsHelper.java"),
@@ -66,13 +75,6 @@ public class JavaCompilationUnitState {
                 rewriteRoot.resolve("rewrite-core/src/main/java/org/openrewrite/config/ClasspathScanningLoader.java"),
                 rewriteRoot.resolve("rewrite-core/src/main/java/org/openrewrite/config/RecipeIntrospectionException.java")
         );
-
-        sourceFiles = JavaParser.fromJavaVersion()
-                .classpath("jsr305", "classgraph", "jackson-annotations", "micrometer-core", "slf4j-api",
-                        "org.eclipse.jgit")
-//                .logCompilationWarningsAndErrors(true)
-                .build()
-                .parse(inputs, null, new InMemoryExecutionContext(Throwable::printStackTrace));
     }
 
     @TearDown(Level.Trial)
@@ -21,7 +21,6 @@ import org.openrewrite.internal.lang.Nullable;
 import java.util.*;
 import java.util.function.Function;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static java.util.stream.StreamSupport.stream;
@@ -67,12 +66,15 @@ public class Cursor {
     }
 
     private static class CursorIterator implements Iterator<Object> {
+        @Nullable
         private Cursor cursor;
 
-        private Predicate<Object> filter = v -> true;
+        @Nullable
+        private final Predicate<Object> filter;
 
         private CursorIterator(Cursor cursor) {
             this.cursor = cursor;
+            this.filter = null;
         }
 
         private CursorIterator(Cursor cursor, Predicate<Object> filter) {
@@ -82,35 +84,32 @@ public class Cursor {
 
         @Override
         public boolean hasNext() {
-            for (Cursor c = cursor; c != null; c = c.parent) {
-                if (filter.test(c.value)) {
-                    return true;
+            if (filter != null) {
+                while (cursor != null && !filter.test(cursor.value)) {
+                    cursor = cursor.parent;
                 }
             }
-            return false;
+            return cursor != null;
         }
 
         @Override
         public Object next() {
-            for (; cursor != null; cursor = cursor.parent) {
-                Object v = cursor.value;
-                if (filter.test(v)) {
-                    cursor = cursor.parent;
-                    return v;
-                }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
             }
-            throw new NoSuchElementException();
+            //noinspection ConstantConditions
+            Object v = cursor.value;
+            cursor = cursor.parent;
+            return v;
         }
     }
 
     @Nullable
     public <T> T firstEnclosing(Class<T> tClass) {
-        CursorIterator iter = new CursorIterator(this);
-        while (iter.hasNext()) {
-            Object value = iter.next();
-            if (tClass.isInstance(value)) {
+        for (Cursor c = this; c != null; c = c.parent) {
+            if (tClass.isInstance(c.value)) {
                 //noinspection unchecked
-                return (T) value;
+                return (T) c.value;
             }
         }
         return null;
@@ -126,13 +125,14 @@ public class Cursor {
 
     @Override
     public String toString() {
-        return "Cursor{" +
-                stream(Spliterators.spliteratorUnknownSize(getPath(), 0), false)
-                        .map(t -> t instanceof Tree ?
-                                t.getClass().getSimpleName() :
-                                t.toString())
-                        .collect(Collectors.joining("->"))
-                + "}";
+        StringBuilder s = new StringBuilder("Cursor{");
+        for (Cursor c = this; c != null; c = c.parent) {
+            if (c != this) {
+                s.append("->");
+            }
+            s.append(c.value instanceof Tree ? c.value.getClass().getSimpleName() : c.value.toString());
+        }
+        return s.append('}').toString();
     }
 
     public Cursor dropParentUntil(Predicate<Object> valuePredicate) {
@@ -191,8 +191,12 @@ public class Cursor {
     }
 
     public boolean isScopeInPath(Tree scope) {
-        return value instanceof Tree && ((Tree) value).getId().equals(scope.getId()) ||
-                getPathAsStream().anyMatch(p -> p instanceof Tree && ((Tree) p).getId().equals(scope.getId()));
+        for (Cursor c = this; c != null; c = c.parent) {
+            if (c.value instanceof Tree && ((Tree) c.value).getId().equals(scope.getId())) {
+                return true;
+            }
+        }
+        return false;
     }
 
     public void putMessageOnFirstEnclosing(Class<?> enclosing, String key, Object value) {
@@ -17,6 +17,7 @@ package org.openrewrite;
 
 import org.openrewrite.internal.lang.Nullable;
 
+import java.time.Duration;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
@@ -51,4 +52,9 @@ public class DelegatingExecutionContext implements ExecutionContext {
     public BiConsumer<Throwable, ExecutionContext> getOnTimeout() {
         return delegate.getOnTimeout();
     }
+
+    @Override
+    public Duration getRunTimeout(int inputs) {
+        return delegate.getRunTimeout(inputs);
+    }
 }
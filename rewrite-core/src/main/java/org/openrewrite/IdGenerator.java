@@ -0,0 +1,49 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite;
+
+import java.util.UUID;
+
+/**
+ * Generates the ids of {@link Tree} elements, markers and other things that are created in large numbers while
+ * parsing and running recipes. Ids only have to be unique, not unpredictable.
+ *
+ * @see Tree#randomId()
+ */
+@Incubating(since = "7.23.0")
+@FunctionalInterface
+public interface IdGenerator {
+    /**
+     * Generates ids with {@link UUID#randomUUID()}, which draws on a shared {@link java.security.SecureRandom}.
+     */
+    IdGenerator RANDOM = UUID::randomUUID;
+
+    UUID nextId();
+
+    static IdGenerator get() {
+        return IdGeneratorHolder.idGenerator;
+    }
+
+    /**
+     * @param idGenerator The id generator used by {@link Tree#randomId()} from now on.
+     * @return The id generator that was previously installed.
+     */
+    static IdGenerator set(IdGenerator idGenerator) {
+        IdGenerator previous = IdGeneratorHolder.idGenerator;
+        IdGeneratorHolder.idGenerator = idGenerator;
+        return previous;
+    }
+}
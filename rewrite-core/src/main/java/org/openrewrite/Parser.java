@@ -19,13 +19,18 @@ import org.openrewrite.internal.StringUtils;
 import org.openrewrite.internal.lang.Nullable;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
@@ -38,14 +43,7 @@ public interface Parser<S extends SourceFile> {
     default List<S> parse(Iterable<Path> sourceFiles, @Nullable Path relativeTo, ExecutionContext ctx) {
         return parseInputs(StreamSupport
                         .stream(sourceFiles.spliterator(), false)
-                        .map(sourceFile -> new Input(sourceFile, () -> {
-                                    try {
-                                        return Files.newInputStream(sourceFile);
-                                    } catch (IOException e) {
-                                        throw new UncheckedIOException(e);
-                                    }
-                                })
-                        )
+                        .map(Input::fromFile)
                         .collect(toList()),
                 relativeTo,
                 ctx
@@ -110,14 +108,44 @@ public interface Parser<S extends SourceFile> {
         private final Path path;
         private final Supplier<InputStream> source;
 
+        /**
+         * The file on disk the source is read from, when there is one.
+         */
+        @Nullable
+        private final Path file;
+
+        @Nullable
+        private volatile Content content;
+
         public Input(Path path, Supplier<InputStream> source) {
             this(path, source, false);
         }
 
         public Input(Path path, Supplier<InputStream> source, boolean synthetic) {
+            this(path, source, synthetic, null);
+        }
+
+        private Input(Path path, Supplier<InputStream> source, boolean synthetic, @Nullable Path file) {
             this.path = path;
             this.source = source;
             this.synthetic = synthetic;
+            this.file = file;
+        }
+
+        /**
+         * @param file A file on disk.
+         * @return An input whose {@link #getContent() content} is read straight from the file, memory-mapping it
+         * when it is large.
+         */
+        @Incubating(since = "7.23.0")
+        public static Input fromFile(Path file) {
+            return new Input(file, () -> {
+                try {
+                    return Files.newInputStream(file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, false, file);
         }
 
         @Incubating(since = "7.0.0")
@@ -157,8 +185,34 @@ public interface Parser<S extends SourceFile> {
             return relativeTo == null ? path : relativeTo.relativize(path);
         }
 
+        /**
+         * @return A stream of the source, which is served from memory once the {@link #getContent() content} has
+         * been read.
+         */
         public InputStream getSource() {
-            return source.get();
+            Content c = content;
+            return c == null ? source.get() : c.newInputStream();
+        }
+
+        /**
+         * Reads the source the first time it is called, and returns the same content on every later call, so that
+         * parsers that need the source more than once do not read and decode it again.
+         *
+         * @return The content of the source.
+         */
+        @Incubating(since = "7.23.0")
+        public Content getContent() {
+            Content c = content;
+            if (c == null) {
+                synchronized (this) {
+                    c = content;
+                    if (c == null) {
+                        c = file == null ? Content.read(source.get()) : Content.read(file);
+                        content = c;
+                    }
+                }
+            }
+            return c;
         }
 
         public boolean isSynthetic() {
@@ -177,6 +231,128 @@ public interface Parser<S extends SourceFile> {
         public int hashCode() {
             return Objects.hash(path);
         }
+
+        /**
+         * The bytes of a source, along with the charset they were detected to be in and the text they decode to.
+         */
+        @Incubating(since = "7.23.0")
+        public static class Content {
+            /**
+             * Files at least this large are memory-mapped rather than copied onto the heap.
+             */
+            private static final long MEMORY_MAP_THRESHOLD = 1024 * 1024;
+
+            private final ByteBuffer bytes;
+            private final Charset charset;
+
+            @Nullable
+            private volatile String text;
+
+            private Content(ByteBuffer bytes) {
+                this.bytes = bytes;
+                this.charset = detectCharset(bytes);
+            }
+
+            static Content read(Path file) {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    long size = channel.size();
+                    if (size >= MEMORY_MAP_THRESHOLD) {
+                        return new Content(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+                    }
+                    ByteBuffer bytes = ByteBuffer.allocate((int) size);
+                    while (bytes.hasRemaining() && channel.read(bytes) >= 0) {
+                        // keep reading until the buffer is full or the file ends
+                    }
+                    bytes.flip();
+                    return new Content(bytes);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            static Content read(InputStream source) {
+                try (InputStream is = source) {
+                    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+                    byte[] buffer = new byte[4096];
+                    int n;
+                    while ((n = is.read(buffer)) != -1) {
+                        bos.write(buffer, 0, n);
+                    }
+                    return new Content(ByteBuffer.wrap(bos.toByteArray()));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            /**
+             * Sources with a UTF-16 byte order mark are UTF-16, and all others are taken to be UTF-8. The byte order
+             * mark itself is kept as the first character of the text, so that printing the source reproduces it.
+             */
+            private static Charset detectCharset(ByteBuffer bytes) {
+                if (bytes.remaining() >= 2) {
+                    int b0 = bytes.get(bytes.position()) & 0xFF;
+                    int b1 = bytes.get(bytes.position() + 1) & 0xFF;
+                    if (b0 == 0xFE && b1 == 0xFF) {
+                        return StandardCharsets.UTF_16BE;
+                    } else if (b0 == 0xFF && b1 == 0xFE) {
+                        return StandardCharsets.UTF_16LE;
+                    }
+                }
+                return StandardCharsets.UTF_8;
+            }
+
+            /**
+             * @return A read-only view of the bytes of the source.
+             */
+            public ByteBuffer getBytes() {
+                return bytes.asReadOnlyBuffer();
+            }
+
+            public Charset getCharset() {
+                return charset;
+            }
+
+            /**
+             * @return The source decoded in its {@link #getCharset() charset}, with malformed input replaced. It is
+             * decoded on the first call, so sources only ever looked at as bytes are never decoded.
+             */
+            public String getText() {
+                String t = text;
+                if (t == null) {
+                    t = charset.decode(bytes.duplicate()).toString();
+                    text = t;
+                }
+                return t;
+            }
+
+            InputStream newInputStream() {
+                ByteBuffer buffer = bytes.duplicate();
+                return new InputStream() {
+                    @Override
+                    public int read() {
+                        return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+                    }
+
+                    @Override
+                    public int read(byte[] b, int off, int len) {
+                        if (len == 0) {
+                            return 0;
+                        }
+                        if (!buffer.hasRemaining()) {
+                            return -1;
+                        }
+                        int n = Math.min(len, buffer.remaining());
+                        buffer.get(b, off, n);
+                        return n;
+                    }
+
+                    @Override
+                    public int available() {
+                        return buffer.remaining();
+                    }
+                };
+            }
+        }
     }
 
     Path sourcePathFromSourceText(Path prefix, String sourceCode);
@@ -19,6 +19,12 @@ import org.openrewrite.internal.lang.Nullable;
 
 public class PrintOutputCapture<P> {
     private final P p;
+
+    /**
+     * Printers should write through {@link #append(String)} and {@link #append(char)} rather than to this buffer
+     * directly. {@link StreamingPrintOutputCapture} streams what is written here too, but moves it out of this
+     * buffer as soon as anything else is appended.
+     */
     public final StringBuilder out = new StringBuilder();
 
     public PrintOutputCapture(P p) {
@@ -32,6 +32,7 @@ import java.lang.reflect.Field;
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 import static java.util.Collections.emptyList;
 
@@ -161,6 +162,18 @@ public abstract class Recipe {
         return false;
     }
 
+    /**
+     * @return Determines whether this recipe skips source files that no recipe has changed since it last visited
+     * them. By default, a recipe visits every source file on every cycle. A recipe whose visitor produces a result
+     * that depends on nothing but the source file it visits, and in particular not on {@link ExecutionContext}
+     * messages written while visiting other source files, can return true, since visiting an unchanged source file
+     * again would produce the same result.
+     */
+    @Incubating(since = "7.23.0")
+    public boolean onlyRevisitsChangedSourceFiles() {
+        return false;
+    }
+
     @JsonIgnore
     private final List<Recipe> recipeList = new CopyOnWriteArrayList<>();
 
@@ -286,6 +299,22 @@ public abstract class Recipe {
         return recipeScheduler.scheduleRun(this, before, ctx, maxCycles, minCycles);
     }
 
+    /**
+     * Run this recipe against source files that are supplied lazily, holding at most a window of them in memory at once.
+     *
+     * @see RecipeScheduler#scheduleRun(Recipe, Iterator, ExecutionContext, int, int, int, Consumer)
+     */
+    @Incubating(since = "7.23.0")
+    public final void run(Iterator<? extends SourceFile> before,
+                          ExecutionContext ctx,
+                          RecipeScheduler recipeScheduler,
+                          int windowSize,
+                          int maxCycles,
+                          int minCycles,
+                          Consumer<Result> onResult) {
+        recipeScheduler.scheduleRun(this, before, ctx, windowSize, maxCycles, minCycles, onResult);
+    }
+
     @SuppressWarnings("unused")
     @Incubating(since = "7.0.0")
     public Validated validate(ExecutionContext ctx) {
@@ -17,28 +17,25 @@ package org.openrewrite;
 
 import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.Metrics;
-import io.micrometer.core.instrument.Timer;
 import org.openrewrite.internal.ListUtils;
-import org.openrewrite.internal.MetricsHelper;
-import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.internal.TreeChangeDetector;
 import org.openrewrite.marker.Generated;
-import org.openrewrite.marker.Markers;
 import org.openrewrite.marker.RecipesThatMadeChanges;
 import org.openrewrite.scheduling.WatchableExecutionContext;
 
-import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singleton;
-import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toSet;
 import static org.openrewrite.Recipe.PANIC;
-import static org.openrewrite.Tree.randomId;
 
 public interface RecipeScheduler {
     default <T> List<T> mapAsync(List<T> input, UnaryOperator<T> mapFn) {
@@ -75,7 +72,7 @@ public interface RecipeScheduler {
                 .register(Metrics.globalRegistry)
                 .record(before.size());
 
-        Map<UUID, Stack<Recipe>> recipeThatDeletedSourceFile = new HashMap<>();
+        Map<UUID, Stack<Recipe>> recipeThatDeletedSourceFile = new ConcurrentHashMap<>();
         List<? extends SourceFile> acc = before;
         List<? extends SourceFile> after = acc;
 
@@ -88,8 +85,8 @@ public interface RecipeScheduler {
             if (i + 1 >= minCycles && ((after == acc && !ctxWithWatch.hasNewMessages()) || !recipe.causesAnotherCycle())) {
                 break;
             }
-            acc = after;
             ctxWithWatch.resetHasNewMessages();
+            acc = after;
         }
 
         if (after == before) {
@@ -114,35 +111,7 @@ public interface RecipeScheduler {
                         continue;
                     }
 
-                    boolean isChanged = !original.getSourcePath().equals(s.getSourcePath());
-                    if (!isChanged) {
-                        TreeVisitor<Tree, PrintOutputCapture<ExecutionContext>> markerIdPrinter = new TreeVisitor<Tree, PrintOutputCapture<ExecutionContext>>() {
-                            @Override
-                            public Tree visit(@Nullable Tree tree, PrintOutputCapture<ExecutionContext> p) {
-                                if (tree instanceof Markers) {
-                                    String markerIds = ((Markers) tree).entries().stream()
-                                            .filter(marker -> !(marker instanceof RecipesThatMadeChanges))
-                                            .map(marker -> String.valueOf(marker.hashCode()))
-                                            .collect(joining(","));
-                                    if (!markerIds.isEmpty()) {
-                                        p.out
-                                                .append("markers[")
-                                                .append(markerIds)
-                                                .append("]->");
-                                    }
-                                }
-                                return super.visit(tree, p);
-                            }
-                        };
-
-                        PrintOutputCapture<ExecutionContext> originalOutput = new PrintOutputCapture<>(ctx);
-                        PrintOutputCapture<ExecutionContext> sOutput = new PrintOutputCapture<>(ctx);
-                        markerIdPrinter.visit(original, originalOutput);
-                        markerIdPrinter.visit(s, sOutput);
-                        isChanged = !originalOutput.toString().equals(sOutput.toString());
-                    }
-
-                    if (isChanged) {
+                    if (TreeChangeDetector.isChanged(original, s)) {
                         results.add(new Result(original, s, s.getMarkers()
                                 .findFirst(RecipesThatMadeChanges.class)
                                 .orElseThrow(() -> new IllegalStateException("SourceFile changed but no recipe reported making a change?"))
@@ -166,6 +135,62 @@ public interface RecipeScheduler {
         return results;
     }
 
+    /**
+     * Run a recipe against source files that are supplied lazily, for example as they are parsed, in windows of
+     * a fixed size. Each window is run to completion as if it were the only set of source files in the repository,
+     * and its results are handed to the callback before the next window is read, so at most one window of source
+     * files (plus whatever results the callback retains) is held in memory at a time.
+     * <p>
+     * Recipes that need to see every source file at once, either through a {@link Recipe#getApplicableTest()} or by
+     * overriding {@link Recipe#visit(List, ExecutionContext)}, only see the source files of one window at a time.
+     *
+     * @param recipe      The recipe to run.
+     * @param before      The source files to run the recipe against, consumed once.
+     * @param ctx         The execution context shared by every window.
+     * @param windowSize  The maximum number of source files to hold in memory at once.
+     * @param maxCycles   The maximum number of cycles to run on each window.
+     * @param minCycles   The minimum number of cycles to run on each window.
+     * @param onResult    Receives each result as soon as the window that produced it completes.
+     */
+    @Incubating(since = "7.23.0")
+    default void scheduleRun(Recipe recipe,
+                             Iterator<? extends SourceFile> before,
+                             ExecutionContext ctx,
+                             int windowSize,
+                             int maxCycles,
+                             int minCycles,
+                             Consumer<Result> onResult) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("The window size must be at least 1, but was " + windowSize);
+        }
+
+        List<SourceFile> window = new ArrayList<>(windowSize);
+        while (before.hasNext()) {
+            window.add(before.next());
+            if (window.size() == windowSize || !before.hasNext()) {
+                List<Result> results = scheduleRun(recipe, window, ctx, maxCycles, minCycles);
+
+                // release the window before results are handed off, so source files no recipe
+                // changed can be collected while the callback is busy
+                window = new ArrayList<>(windowSize);
+                for (Result result : results) {
+                    onResult.accept(result);
+                }
+            }
+        }
+    }
+
+    @Incubating(since = "7.23.0")
+    default void scheduleRun(Recipe recipe,
+                             Stream<? extends SourceFile> before,
+                             ExecutionContext ctx,
+                             int windowSize,
+                             int maxCycles,
+                             int minCycles,
+                             Consumer<Result> onResult) {
+        scheduleRun(recipe, before.iterator(), ctx, windowSize, maxCycles, minCycles, onResult);
+    }
+
     default <S extends SourceFile> List<S> scheduleVisit(Stack<Recipe> recipeStack,
                                                          List<S> before,
                                                          ExecutionContext ctx,
@@ -178,130 +203,24 @@ public interface RecipeScheduler {
             ((WatchableExecutionContext) ctx).resetHasNewMessages();
         }
 
-        if (recipe.getApplicableTest() != null) {
-            boolean applicable = false;
-            for (S s : before) {
-                if (recipe.getApplicableTest().visit(s, ctx) != s) {
-                    applicable = true;
-                    break;
-                }
-
-                for (TreeVisitor<?, ExecutionContext> applicableTest : recipe.getApplicableTests()) {
-                    if (applicableTest.visit(s, ctx) != s) {
-                        applicable = true;
-                        break;
-                    }
-                }
-            }
-
-            if (!applicable) {
-                return before;
-            }
+        if (!RecipeSchedulerUtils.isApplicable(this, recipe, before, ctx)) {
+            return before;
         }
 
         List<S> after = !recipe.validate(ctx).isValid() ?
                 before :
-                mapAsync(before, s -> {
-                    Timer.Builder timer = Timer.builder("rewrite.recipe.visit").tag("recipe", recipe.getDisplayName());
-                    Timer.Sample sample = Timer.start();
-
-                    if (recipe.getSingleSourceApplicableTest() != null) {
-                        if (recipe.getSingleSourceApplicableTest().visit(s, ctx) == s) {
-                            sample.stop(MetricsHelper.successTags(timer, "skipped").register(Metrics.globalRegistry));
-                            return s;
-                        }
-                    }
-
-                    for (TreeVisitor<?, ExecutionContext> singleSourceApplicableTest : recipe.getSingleSourceApplicableTests()) {
-                        if (singleSourceApplicableTest.visit(s, ctx) == s) {
-                            sample.stop(MetricsHelper.successTags(timer, "skipped").register(Metrics.globalRegistry));
-                            return s;
-                        }
-                    }
-
-                    Duration duration = Duration.ofNanos(System.nanoTime() - startTime);
-                    if (duration.compareTo(ctx.getRunTimeout(before.size())) > 0) {
-                        if (thrownErrorOnTimeout.compareAndSet(false, true)) {
-                            RecipeTimeoutException t = new RecipeTimeoutException(recipe);
-                            ctx.getOnError().accept(t);
-                            ctx.getOnTimeout().accept(t, ctx);
-                        }
-                        sample.stop(MetricsHelper.successTags(timer, "timeout").register(Metrics.globalRegistry));
-                        return s;
-                    }
-
-                    if (ctx.getMessage(PANIC) != null) {
-                        return s;
-                    }
-
-                    TreeVisitor<?, ExecutionContext> visitor = recipe.getVisitor();
-                    if (!visitor.isAcceptable(s, ctx)) {
-                        return s;
-                    }
-
-                    try {
-                        @SuppressWarnings("unchecked") S afterFile = (S) visitor.visit(s, ctx);
-                        if (afterFile != null && afterFile != s) {
-                            List<Stack<Recipe>> recipeStackList = new ArrayList<>(1);
-                            recipeStackList.add(recipeStack);
-                            afterFile = afterFile.withMarkers(afterFile.getMarkers().computeByType(
-                                    new RecipesThatMadeChanges(randomId(), recipeStackList),
-                                    (r1, r2) -> {
-                                        r1.getRecipes().addAll(r2.getRecipes());
-                                        return r1;
-                                    }));
-                            sample.stop(MetricsHelper.successTags(timer, "changed").register(Metrics.globalRegistry));
-                        } else if (afterFile == null) {
-                            recipeThatDeletedSourceFile.put(s.getId(), recipeStack);
-                            sample.stop(MetricsHelper.successTags(timer, "deleted").register(Metrics.globalRegistry));
-                        } else {
-                            sample.stop(MetricsHelper.successTags(timer, "unchanged").register(Metrics.globalRegistry));
-                        }
-                        return afterFile;
-                    } catch (Throwable t) {
-                        sample.stop(MetricsHelper.errorTags(timer, t).register(Metrics.globalRegistry));
-                        ctx.getOnError().accept(t);
-                        return s;
-                    }
-                });
+                mapAsync(before, s -> RecipeSchedulerUtils.isVisitRequired(recipe, s, ctx) ?
+                        RecipeSchedulerUtils.visitSourceFile(recipeStack, s, ctx, startTime,
+                                before.size(), thrownErrorOnTimeout, recipeThatDeletedSourceFile) :
+                        s);
 
         // The type of the list is widened at this point, since a source file type may be generated that isn't
         // of a type that is in the original set of source files (e.g. only XML files are given, and the
         // recipe generates Java code).
 
         //noinspection unchecked
-        List<SourceFile> afterWidened = recipe.visit((List<SourceFile>) after, ctx);
-
-        if (afterWidened != after) {
-            Map<UUID, SourceFile> originalMap = new HashMap<>(after.size());
-            for (SourceFile file : after) {
-                originalMap.put(file.getId(), file);
-            }
-            afterWidened = ListUtils.map(afterWidened, s -> {
-                SourceFile original = originalMap.get(s.getId());
-                if (original == null) {
-                    // a new source file generated
-                    recipeThatDeletedSourceFile.put(s.getId(), recipeStack);
-                } else if (s != original) {
-                    List<Stack<Recipe>> recipeStackList = new ArrayList<>(1);
-                    recipeStackList.add(recipeStack);
-                    return s.withMarkers(s.getMarkers().computeByType(
-                            new RecipesThatMadeChanges(randomId(), recipeStackList),
-                            (r1, r2) -> {
-                                r1.getRecipes().addAll(r2.getRecipes());
-                                return r1;
-                            }));
-                }
-                return s;
-            });
-
-            for (SourceFile maybeDeleted : after) {
-                if (!afterWidened.contains(maybeDeleted)) {
-                    // a source file deleted
-                    recipeThatDeletedSourceFile.put(maybeDeleted.getId(), recipeStack);
-                }
-            }
-        }
+        List<SourceFile> afterWidened = RecipeSchedulerUtils.visitSourceFiles(recipeStack, (List<SourceFile>) after,
+                ctx, recipeThatDeletedSourceFile);
 
         for (Recipe r : recipe.getRecipeList()) {
             if (ctx.getMessage(PANIC) != null) {
@@ -320,5 +239,32 @@ public interface RecipeScheduler {
         return (List<S>) afterWidened;
     }
 
+    /**
+     * Visit the whole recipe tree at the top of the recipe stack one source file at a time, so that every
+     * recipe's visitor runs against a source file in a single scheduled task rather than each recipe
+     * waiting on every source file to complete the recipe before it.
+     * <p>
+     * Source files are still synchronized as a batch wherever a recipe needs to see all of them at once, i.e.
+     * before evaluating a recipe's {@link Recipe#getApplicableTest()} and around a recipe that overrides
+     * {@link Recipe#visit(List, ExecutionContext)}. Visitors that communicate with one another through
+     * {@link ExecutionContext} messages across source files in the same cycle should not rely on every other
+     * source file having been visited by preceding recipes.
+     *
+     * @see org.openrewrite.scheduling.SourceFileMajorScheduler
+     */
+    @Incubating(since = "7.23.0")
+    default <S extends SourceFile> List<S> scheduleVisitBySourceFile(Stack<Recipe> recipeStack,
+                                                                     List<S> before,
+                                                                     ExecutionContext ctx,
+                                                                     Map<UUID, Stack<Recipe>> recipeThatDeletedSourceFile) {
+        if (ctx instanceof WatchableExecutionContext) {
+            ((WatchableExecutionContext) ctx).resetHasNewMessages();
+        }
+
+        //noinspection unchecked
+        return (List<S>) new SourceFileMajorVisit(this, ctx, recipeThatDeletedSourceFile)
+                .visit(recipeStack, (List<SourceFile>) before);
+    }
+
     <T> CompletableFuture<T> schedule(Callable<T> fn);
 }
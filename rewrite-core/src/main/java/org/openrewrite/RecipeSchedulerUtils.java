@@ -0,0 +1,389 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite;
+
+import org.openrewrite.instrumentation.Instrumentation;
+import org.openrewrite.instrumentation.RecipeMeter;
+import org.openrewrite.internal.ListUtils;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.marker.RecipesThatMadeChanges;
+import org.openrewrite.scheduling.ApplicabilityCache;
+import org.openrewrite.scheduling.RecipeRunStats;
+import org.openrewrite.scheduling.VisitDeadline;
+import org.openrewrite.scheduling.WatchableExecutionContext;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.openrewrite.Recipe.PANIC;
+import static org.openrewrite.Tree.randomId;
+
+/**
+ * The building blocks of a recipe run that are shared by the different visit orders
+ * a {@link RecipeScheduler} supports.
+ */
+final class RecipeSchedulerUtils {
+    private static final Map<Class<?>, Boolean> OVERRIDES_VISIT = new ConcurrentHashMap<>();
+
+    private RecipeSchedulerUtils() {
+    }
+
+    /**
+     * @return <code>false</code> if the recipe can skip a source file on this cycle because it
+     * {@link Recipe#onlyRevisitsChangedSourceFiles() only revisits changed source files} and the source file is
+     * the same instance it last visited.
+     */
+    static boolean isVisitRequired(Recipe recipe, SourceFile sourceFile, ExecutionContext ctx) {
+        WatchableExecutionContext watch = watch(ctx);
+        if (watch == null || watch.isVisitRequired(recipe, sourceFile)) {
+            return true;
+        }
+        RecipeRunStats stats = stats(recipe, ctx);
+        if (stats != null) {
+            stats.recordSkipped();
+        }
+        return false;
+    }
+
+    private static void visited(Recipe recipe, SourceFile sourceFile, ExecutionContext ctx) {
+        WatchableExecutionContext watch = watch(ctx);
+        if (watch != null) {
+            watch.visited(recipe, sourceFile);
+        }
+    }
+
+    /**
+     * @return The statistics of the recipe, if statistics are being collected for this run.
+     */
+    @Nullable
+    static RecipeRunStats stats(Recipe recipe, ExecutionContext ctx) {
+        RecipeRunStats stats = RecipeRunStats.current(ctx);
+        return stats == null ? null : stats.find(recipe);
+    }
+
+    /**
+     * @return The context that holds the state of the whole recipe run, if the visit is part of one.
+     */
+    @Nullable
+    static WatchableExecutionContext watch(ExecutionContext ctx) {
+        if (ctx instanceof SourceFileMajorVisit.CurrentRecipe) {
+            return watch(((SourceFileMajorVisit.CurrentRecipe) ctx).getDelegate());
+        }
+        return ctx instanceof WatchableExecutionContext ? (WatchableExecutionContext) ctx : null;
+    }
+
+    /**
+     * Run the visitor of the recipe at the top of the recipe stack against a single source file.
+     *
+     * @return The visited source file, or <code>null</code> if the recipe deleted it.
+     */
+    @Nullable
+    static <S extends SourceFile> S visitSourceFile(Stack<Recipe> recipeStack,
+                                                    S s,
+                                                    ExecutionContext ctx,
+                                                    long startTime,
+                                                    int inputs,
+                                                    AtomicBoolean thrownErrorOnTimeout,
+                                                    Map<UUID, Stack<Recipe>> recipeThatDeletedSourceFile) {
+        Recipe recipe = recipeStack.peek();
+        RecipeMeter meter = Instrumentation.get().recipe(recipe);
+        long sample = meter.start();
+        RecipeRunStats stats = stats(recipe, ctx);
+
+        if (!isSingleSourceApplicable(recipe, s, ctx)) {
+            meter.success(sample, RecipeMeter.Outcome.SKIPPED);
+            if (stats != null) {
+                stats.recordSkipped();
+            }
+            visited(recipe, s, ctx);
+            return s;
+        }
+
+        Duration runTimeout = ctx.getRunTimeout(inputs);
+        Duration duration = Duration.ofNanos(System.nanoTime() - startTime);
+        if (duration.compareTo(runTimeout) > 0) {
+            if (thrownErrorOnTimeout.compareAndSet(false, true)) {
+                RecipeTimeoutException t = new RecipeTimeoutException(recipe);
+                ctx.getOnError().accept(t);
+                ctx.getOnTimeout().accept(t, ctx);
+            }
+            meter.success(sample, RecipeMeter.Outcome.TIMEOUT);
+            if (stats != null) {
+                stats.recordErrored();
+            }
+            return s;
+        }
+
+        if (ctx.getMessage(PANIC) != null) {
+            return s;
+        }
+
+        TreeVisitor<?, ExecutionContext> visitor = recipe.getVisitor();
+        if (!visitor.isAcceptable(s, ctx)) {
+            visited(recipe, s, ctx);
+            return s;
+        }
+
+        VisitDeadline previousDeadline = VisitDeadline.arm(new VisitDeadline(recipe, deadline(startTime, runTimeout)));
+        long visitStart = System.nanoTime();
+        try {
+            @SuppressWarnings("unchecked") S afterFile = (S) visitor.visit(s, ctx);
+            if (stats != null) {
+                stats.recordVisit(System.nanoTime() - visitStart, visitor.getVisitCount());
+            }
+            if (afterFile != null && afterFile != s) {
+                afterFile = addRecipeThatMadeChanges(afterFile, recipeStack);
+                meter.success(sample, RecipeMeter.Outcome.CHANGED);
+                if (stats != null) {
+                    stats.recordChanged();
+                }
+            } else if (afterFile == null) {
+                recipeThatDeletedSourceFile.put(s.getId(), recipeStack);
+                meter.success(sample, RecipeMeter.Outcome.DELETED);
+                if (stats != null) {
+                    stats.recordDeleted();
+                }
+            } else {
+                meter.success(sample, RecipeMeter.Outcome.UNCHANGED);
+            }
+            visited(recipe, s, ctx);
+            return afterFile;
+        } catch (RecipeTimeoutException t) {
+            // the visitor was abandoned part way through the source file
+            if (thrownErrorOnTimeout.compareAndSet(false, true)) {
+                ctx.getOnError().accept(t);
+                ctx.getOnTimeout().accept(t, ctx);
+            }
+            meter.success(sample, RecipeMeter.Outcome.TIMEOUT);
+            if (stats != null) {
+                stats.recordVisit(System.nanoTime() - visitStart, visitor.getVisitCount());
+                stats.recordErrored();
+            }
+            return s;
+        } catch (Throwable t) {
+            meter.error(sample, t);
+            if (stats != null) {
+                stats.recordVisit(System.nanoTime() - visitStart, visitor.getVisitCount());
+                stats.recordErrored();
+            }
+            ctx.getOnError().accept(t);
+            return s;
+        } finally {
+            VisitDeadline.restore(previousDeadline);
+        }
+    }
+
+    private static long deadline(long startTime, Duration runTimeout) {
+        try {
+            return startTime + runTimeout.toNanos();
+        } catch (ArithmeticException e) {
+            // a timeout too long to represent in nanoseconds is as good as no timeout
+            return startTime + Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Give the recipe at the top of the recipe stack the opportunity to generate or delete source files
+     * with {@link Recipe#visit(List, ExecutionContext)}, attributing any change to that recipe.
+     */
+    static List<SourceFile> visitSourceFiles(Stack<Recipe> recipeStack,
+                                             List<SourceFile> before,
+                                             ExecutionContext ctx,
+                                             Map<UUID, Stack<Recipe>> recipeThatDeletedSourceFile) {
+        List<SourceFile> after = recipeStack.peek().visit(before, ctx);
+
+        if (after != before) {
+            Map<UUID, SourceFile> originalMap = new HashMap<>(before.size());
+            for (SourceFile file : before) {
+                originalMap.put(file.getId(), file);
+            }
+            after = ListUtils.map(after, s -> {
+                SourceFile original = originalMap.get(s.getId());
+                if (original == null) {
+                    // a new source file generated
+                    recipeThatDeletedSourceFile.put(s.getId(), recipeStack);
+                } else if (s != original) {
+                    return addRecipeThatMadeChanges(s, recipeStack);
+                }
+                return s;
+            });
+
+            for (SourceFile maybeDeleted : before) {
+                if (!after.contains(maybeDeleted)) {
+                    // a source file deleted
+                    recipeThatDeletedSourceFile.put(maybeDeleted.getId(), recipeStack);
+                }
+            }
+        }
+
+        return after;
+    }
+
+    /**
+     * @return <code>true</code> if any source file passes the recipe's {@link Recipe#getApplicableTest()}
+     * or one of its {@link Recipe#getApplicableTests()}, or if the recipe has no applicable test at all.
+     * Source files are tested concurrently on the scheduler, but the outcome is the same as testing them in order:
+     * source files after the first one that passes are not tested, and an exception thrown testing a source file
+     * before it is rethrown. Every test has finished by the time this returns. Visitors hold state for the visit
+     * in progress, so each source file is tested with its own applicable test visitors.
+     */
+    static boolean isApplicable(RecipeScheduler scheduler,
+                                Recipe recipe,
+                                List<? extends SourceFile> sourceFiles,
+                                ExecutionContext ctx) {
+        if (recipe.getApplicableTest() == null) {
+            return true;
+        }
+
+        WatchableExecutionContext watch = watch(ctx);
+        ApplicabilityCache cache = watch == null ? null : watch.getApplicableTestCache();
+        RecipeRunStats stats = stats(recipe, ctx);
+
+        AtomicInteger firstApplicable = new AtomicInteger(Integer.MAX_VALUE);
+        Boolean[] applicable = new Boolean[sourceFiles.size()];
+        Throwable[] errors = new Throwable[sourceFiles.size()];
+        CompletableFuture<?>[] futures = new CompletableFuture[sourceFiles.size()];
+        int i = 0;
+        for (SourceFile s : sourceFiles) {
+            int index = i;
+            futures[i++] = scheduler.schedule(() -> {
+                if (index > firstApplicable.get()) {
+                    return null;
+                }
+                long testStart = System.nanoTime();
+                try {
+                    boolean sourceFileApplicable = cache == null ?
+                            isApplicable(recipe, s, ctx) :
+                            cache.isApplicable(recipe, s, sf -> isApplicable(recipe, sf, ctx));
+                    applicable[index] = sourceFileApplicable;
+                    if (sourceFileApplicable) {
+                        firstApplicable.accumulateAndGet(index, Math::min);
+                    }
+                } catch (Throwable t) {
+                    errors[index] = t;
+                } finally {
+                    if (stats != null) {
+                        stats.recordApplicabilityTest(System.nanoTime() - testStart);
+                    }
+                }
+                return null;
+            });
+        }
+
+        CompletableFuture.allOf(futures).join();
+
+        for (int j = 0; j < errors.length; j++) {
+            if (errors[j] != null) {
+                if (errors[j] instanceof RuntimeException) {
+                    throw (RuntimeException) errors[j];
+                } else if (errors[j] instanceof Error) {
+                    throw (Error) errors[j];
+                }
+                throw new RuntimeException(errors[j]);
+            } else if (Boolean.TRUE.equals(applicable[j])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isApplicable(Recipe recipe, SourceFile s, ExecutionContext ctx) {
+        TreeVisitor<?, ExecutionContext> applicableTest = recipe.getApplicableTest();
+        if (applicableTest != null && applicableTest.visit(s, ctx) != s) {
+            return true;
+        }
+
+        for (TreeVisitor<?, ExecutionContext> test : recipe.getApplicableTests()) {
+            if (test.visit(s, ctx) != s) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * @return <code>false</code> if the recipe's {@link Recipe#getSingleSourceApplicableTest()} or one of its
+     * {@link Recipe#getSingleSourceApplicableTests()} rules out running the recipe's visitor on the source file.
+     */
+    static boolean isSingleSourceApplicable(Recipe recipe, SourceFile s, ExecutionContext ctx) {
+        if (recipe.getSingleSourceApplicableTest() == null && recipe.getSingleSourceApplicableTests().isEmpty()) {
+            return true;
+        }
+
+        WatchableExecutionContext watch = watch(ctx);
+        RecipeRunStats stats = stats(recipe, ctx);
+        long testStart = System.nanoTime();
+        try {
+            return watch == null ?
+                    isSingleSourceApplicableUncached(recipe, s, ctx) :
+                    watch.getSingleSourceApplicableTestCache().isApplicable(recipe, s,
+                            sf -> isSingleSourceApplicableUncached(recipe, sf, ctx));
+        } finally {
+            if (stats != null) {
+                stats.recordApplicabilityTest(System.nanoTime() - testStart);
+            }
+        }
+    }
+
+    private static boolean isSingleSourceApplicableUncached(Recipe recipe, SourceFile s, ExecutionContext ctx) {
+        TreeVisitor<?, ExecutionContext> singleSourceApplicableTest = recipe.getSingleSourceApplicableTest();
+        if (singleSourceApplicableTest != null && singleSourceApplicableTest.visit(s, ctx) == s) {
+            return false;
+        }
+
+        for (TreeVisitor<?, ExecutionContext> test : recipe.getSingleSourceApplicableTests()) {
+            if (test.visit(s, ctx) == s) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @return <code>true</code> if the recipe overrides {@link Recipe#visit(List, ExecutionContext)}, meaning it needs
+     * to see every source file at once.
+     */
+    static boolean overridesVisit(Recipe recipe) {
+        return OVERRIDES_VISIT.computeIfAbsent(recipe.getClass(), recipeClass -> {
+            for (Class<?> c = recipeClass; c != null && c != Recipe.class; c = c.getSuperclass()) {
+                try {
+                    c.getDeclaredMethod("visit", List.class, ExecutionContext.class);
+                    return true;
+                } catch (NoSuchMethodException ignored) {
+                    // keep looking up the hierarchy
+                }
+            }
+            return false;
+        });
+    }
+
+    static <S extends SourceFile> S addRecipeThatMadeChanges(S sourceFile, Stack<Recipe> recipeStack) {
+        List<Stack<Recipe>> recipeStackList = new ArrayList<>(1);
+        recipeStackList.add(recipeStack);
+        return sourceFile.withMarkers(sourceFile.getMarkers().computeByType(
+                new RecipesThatMadeChanges(randomId(), recipeStackList),
+                (r1, r2) -> {
+                    r1.getRecipes().addAll(r2.getRecipes());
+                    return r1;
+                }));
+    }
+}
@@ -36,6 +36,14 @@ public class RecipeSerializer {
     private final ObjectMapper mapper;
 
     public RecipeSerializer() {
+        this.mapper = newObjectMapper();
+    }
+
+    /**
+     * @return A mapper that reads and writes Smile with the configuration recipes and source files are serialized
+     * with.
+     */
+    static ObjectMapper newObjectMapper() {
         SmileFactory f = new SmileFactory();
         f.configure(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES, true);
 
@@ -49,7 +57,7 @@ public class RecipeSerializer {
                 .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
                 .setSerializationInclusion(JsonInclude.Include.NON_NULL);
 
-        this.mapper = m.setVisibility(m.getSerializationConfig().getDefaultVisibilityChecker()
+        return m.setVisibility(m.getSerializationConfig().getDefaultVisibilityChecker()
                 .withCreatorVisibility(JsonAutoDetect.Visibility.PUBLIC_ONLY)
                 .withGetterVisibility(JsonAutoDetect.Visibility.NONE)
                 .withIsGetterVisibility(JsonAutoDetect.Visibility.NONE)
@@ -16,13 +16,14 @@
 package org.openrewrite;
 
 import lombok.Getter;
-import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.diff.DiffAlgorithm;
 import org.eclipse.jgit.diff.DiffFormatter;
-import org.eclipse.jgit.internal.storage.dfs.DfsRepositoryDescription;
-import org.eclipse.jgit.internal.storage.dfs.InMemoryRepository;
+import org.eclipse.jgit.diff.EditList;
+import org.eclipse.jgit.diff.RawText;
+import org.eclipse.jgit.diff.RawTextComparator;
 import org.eclipse.jgit.lib.Constants;
-import org.eclipse.jgit.lib.FileMode;
 import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.util.QuotedString;
 import org.openrewrite.internal.lang.Nullable;
 
 import java.io.ByteArrayOutputStream;
@@ -34,7 +35,6 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 public class Result {
@@ -112,6 +112,20 @@ public class Result {
         return d;
     }
 
+    /**
+     * Diffs are computed in parallel, since no state is shared between the results being diffed.
+     *
+     * @param results    The results to combine into one patch.
+     * @param relativeTo Optional relative path that is used to relativize file paths of reported differences.
+     * @return A single git-style patch containing the diff of each result in the order they are given.
+     */
+    @Incubating(since = "7.23.0")
+    public static String diff(List<Result> results, @Nullable Path relativeTo) {
+        return results.parallelStream()
+                .map(result -> result.diff(relativeTo))
+                .collect(Collectors.joining());
+    }
+
     private String computeDiff(@Nullable Path relativeTo) {
         Path sourcePath;
         if (after != null) {
@@ -127,17 +141,16 @@ public class Result {
             originalSourcePath = before.getSourcePath();
         }
 
-        try (InMemoryDiffEntry diffEntry = new InMemoryDiffEntry(
+        InMemoryDiffEntry diffEntry = new InMemoryDiffEntry(
                 originalSourcePath,
                 sourcePath,
                 relativeTo,
                 before == null ? "" : before.printAll(),
                 after == null ? "" : after.printAll(),
                 recipes.stream().map(Stack::peek).collect(Collectors.toSet())
-        )) {
-            this.relativeTo = relativeTo;
-            return diffEntry.getDiff();
-        }
+        );
+        this.relativeTo = relativeTo;
+        return diffEntry.getDiff();
     }
 
     @Override
@@ -145,69 +158,107 @@ public class Result {
         return diff();
     }
 
-    static class InMemoryDiffEntry extends DiffEntry implements AutoCloseable {
-        private final InMemoryRepository repo;
+    /**
+     * Formats a git-style patch for a modification or rename of a regular file the way JGit's {@link DiffFormatter}
+     * formats a {@link org.eclipse.jgit.diff.DiffEntry}, but from the two sources in memory rather than from blobs
+     * in a repository.
+     */
+    static class InMemoryDiffEntry {
+        private static final DiffAlgorithm HISTOGRAM = DiffAlgorithm.getAlgorithm(DiffAlgorithm.SupportedAlgorithm.HISTOGRAM);
+
+        private final String oldPath;
+        private final String newPath;
+        private final boolean rename;
+        private final String oldSource;
+        private final String newSource;
         private final Set<Recipe> recipesThatMadeChanges;
 
         InMemoryDiffEntry(Path originalFilePath, Path filePath, @Nullable Path relativeTo, String oldSource,
                           String newSource, Set<Recipe> recipesThatMadeChanges) {
-            this.changeType = originalFilePath.equals(filePath) ? ChangeType.MODIFY : ChangeType.RENAME;
+            this.rename = !originalFilePath.equals(filePath);
             this.recipesThatMadeChanges = recipesThatMadeChanges;
 
             this.oldPath = (relativeTo == null ? originalFilePath : relativeTo.relativize(originalFilePath)).toString().replace("\\", "/");
             this.newPath = (relativeTo == null ? filePath : relativeTo.relativize(filePath)).toString().replace("\\", "/");
 
-            try {
-                this.repo = new InMemoryRepository.Builder()
-                        .setRepositoryDescription(new DfsRepositoryDescription())
-                        .build();
-
-                ObjectInserter inserter = repo.getObjectDatabase().newInserter();
-                oldId = inserter.insert(Constants.OBJ_BLOB, oldSource.getBytes(StandardCharsets.UTF_8)).abbreviate(40);
-                newId = inserter.insert(Constants.OBJ_BLOB, newSource.getBytes(StandardCharsets.UTF_8)).abbreviate(40);
-                inserter.flush();
-
-                oldMode = FileMode.REGULAR_FILE;
-                newMode = FileMode.REGULAR_FILE;
-            } catch (IOException e) {
-                throw new UncheckedIOException(e);
-            }
+            this.oldSource = oldSource;
+            this.newSource = newSource;
         }
 
         String getDiff() {
-            if (oldId.equals(newId) && oldPath.equals(newPath)) {
+            boolean modified = !oldSource.equals(newSource);
+            if (!modified && !rename) {
                 return "";
             }
 
-            ByteArrayOutputStream patch = new ByteArrayOutputStream();
-            try (DiffFormatter formatter = new DiffFormatter(patch)) {
-                formatter.setRepository(repo);
-                formatter.format(this);
+            StringBuilder patch = new StringBuilder(64 + oldSource.length() / 4 + newSource.length() / 4);
+            patch.append("diff --git ").append(quotePath("a/" + oldPath)).append(' ')
+                    .append(quotePath("b/" + newPath)).append('\n');
+
+            if (rename) {
+                patch.append("similarity index 0%\n")
+                        .append("rename from ").append(quotePath(oldPath)).append('\n')
+                        .append("rename to ").append(quotePath(newPath)).append('\n');
+            }
+
+            if (!modified) {
+                return patch.toString();
+            }
+
+            byte[] oldContent = oldSource.getBytes(StandardCharsets.UTF_8);
+            byte[] newContent = newSource.getBytes(StandardCharsets.UTF_8);
+
+            patch.append("index ").append(abbreviatedBlobId(oldContent)).append("..")
+                    .append(abbreviatedBlobId(newContent)).append(" 100644\n");
+            patch.append("--- ").append(quotePath("a/" + oldPath)).append('\n');
+            patch.append("+++ ").append(quotePath("b/" + newPath)).append('\n');
+
+            if (RawText.isBinary(oldContent) || RawText.isBinary(newContent)) {
+                return patch.append("Binary files differ\n").toString();
+            }
+
+            RawText a = new RawText(oldContent);
+            RawText b = new RawText(newContent);
+            EditList edits = HISTOGRAM.diff(RawTextComparator.DEFAULT, a, b);
+
+            ByteArrayOutputStream hunks = new ByteArrayOutputStream(oldContent.length / 4 + newContent.length / 4);
+            try (DiffFormatter formatter = new DiffFormatter(hunks)) {
+                formatter.format(edits, a, b);
             } catch (IOException e) {
                 throw new UncheckedIOException(e);
             }
 
-            String diff = patch.toString();
-
-            AtomicBoolean addedComment = new AtomicBoolean(false);
-            // NOTE: String.lines() would remove empty lines which we don't want
-            return Arrays.stream(diff.split("\n"))
-                    .map(l -> {
-                        if (!addedComment.get() && l.startsWith("@@") && l.endsWith("@@")) {
-                            addedComment.set(true);
-                            return l + recipesThatMadeChanges.stream()
-                                    .map(Recipe::getName)
-                                    .sorted()
-                                    .collect(Collectors.joining(", ", " ", ""));
-                        }
-                        return l;
-                    })
-                    .collect(Collectors.joining("\n")) + "\n";
+            String formatted = new String(hunks.toByteArray(), StandardCharsets.UTF_8);
+            int firstHunkHeaderEnd = formatted.indexOf('\n');
+            if (firstHunkHeaderEnd < 0) {
+                return patch.append(formatted).toString();
+            }
+            patch.append(formatted, 0, firstHunkHeaderEnd);
+            appendRecipesThatMadeChanges(patch);
+            return patch.append(formatted, firstHunkHeaderEnd, formatted.length()).toString();
+        }
+
+        private void appendRecipesThatMadeChanges(StringBuilder patch) {
+            if (recipesThatMadeChanges.isEmpty()) {
+                return;
+            }
+            List<String> names = new ArrayList<>(recipesThatMadeChanges.size());
+            for (Recipe recipe : recipesThatMadeChanges) {
+                names.add(recipe.getName());
+            }
+            Collections.sort(names);
+            patch.append(' ').append(String.join(", ", names));
+        }
+
+        /**
+         * @return The id git would give the content as a blob, abbreviated to 7 characters.
+         */
+        private static String abbreviatedBlobId(byte[] content) {
+            return new ObjectInserter.Formatter().idFor(Constants.OBJ_BLOB, content).abbreviate(7).name();
         }
 
-        @Override
-        public void close() {
-            this.repo.close();
+        private static String quotePath(String path) {
+            return QuotedString.GIT_PATH.quote(path);
         }
     }
 }
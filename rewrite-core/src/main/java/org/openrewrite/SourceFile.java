@@ -20,6 +20,8 @@ import org.openrewrite.marker.Markers;
 import org.openrewrite.style.NamedStyles;
 import org.openrewrite.style.Style;
 
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
 import java.nio.file.Path;
 
 public interface SourceFile extends Tree {
@@ -47,6 +49,37 @@ public interface SourceFile extends Tree {
         return printAll(0);
     }
 
+    /**
+     * Print the source file to a sink rather than to a string, so large source files don't have to be held in memory
+     * in their printed form.
+     *
+     * @param out Where the source file is printed to. A {@link java.io.Writer} is flushed, but not closed.
+     * @param p   The context passed to the printer.
+     * @throws java.io.UncheckedIOException if the sink can't be written to.
+     */
+    @Incubating(since = "7.23.0")
+    default <P> void printTo(Appendable out, P p) {
+        StreamingPrintOutputCapture<P> outputCapture = new StreamingPrintOutputCapture<>(p, out);
+        this.<P>printer(new Cursor(null, this)).visit(this, outputCapture, new Cursor(null, this));
+        outputCapture.flush();
+    }
+
+    @Incubating(since = "7.23.0")
+    default void printTo(Appendable out) {
+        printTo(out, 0);
+    }
+
+    /**
+     * Print the source file to a channel, such as a {@link java.nio.channels.FileChannel}, encoding it in the charset.
+     * The channel is not closed.
+     */
+    @Incubating(since = "7.23.0")
+    default void printTo(WritableByteChannel channel, Charset charset) {
+        StreamingPrintOutputCapture<Integer> outputCapture = StreamingPrintOutputCapture.forChannel(0, channel, charset);
+        this.<Integer>printer(new Cursor(null, this)).visit(this, outputCapture, new Cursor(null, this));
+        outputCapture.flush();
+    }
+
     default <P> String printAllTrimmed(P p) {
         return printTrimmed(p, new Cursor(null, this));
     }
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite;
+
+import org.openrewrite.internal.lang.Nullable;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.openrewrite.Recipe.PANIC;
+
+/**
+ * Visits a recipe tree one source file at a time rather than one recipe at a time. Consecutive recipes in the
+ * tree are grouped into a single task per source file, and the whole batch of source files is only synchronized
+ * where a recipe needs to see every source file at once: before a recipe's {@link Recipe#getApplicableTest()}
+ * and around a recipe that overrides {@link Recipe#visit(List, ExecutionContext)}.
+ */
+final class SourceFileMajorVisit {
+    private static final long NOT_STARTED = Long.MIN_VALUE;
+
+    private final RecipeScheduler scheduler;
+    private final ExecutionContext ctx;
+    private final Map<UUID, Stack<Recipe>> recipeThatDeletedSourceFile;
+
+    /**
+     * Recipes whose visitors have yet to run, in the order they are encountered walking the recipe tree.
+     */
+    private final List<Stack<Recipe>> pending = new ArrayList<>();
+
+    SourceFileMajorVisit(RecipeScheduler scheduler, ExecutionContext ctx,
+                         Map<UUID, Stack<Recipe>> recipeThatDeletedSourceFile) {
+        this.scheduler = scheduler;
+        this.ctx = ctx;
+        this.recipeThatDeletedSourceFile = recipeThatDeletedSourceFile;
+    }
+
+    List<SourceFile> visit(Stack<Recipe> recipeStack, List<SourceFile> before) {
+        return flush(visitRecipe(recipeStack, before));
+    }
+
+    private List<SourceFile> visitRecipe(Stack<Recipe> recipeStack, List<SourceFile> before) {
+        Recipe recipe = recipeStack.peek();
+        CurrentRecipe recipeCtx = new CurrentRecipe(ctx, recipe);
+
+        List<SourceFile> after = before;
+        if (recipe.getApplicableTest() != null) {
+            after = flush(after);
+            if (!RecipeSchedulerUtils.isApplicable(scheduler, recipe, after, recipeCtx)) {
+                return after;
+            }
+        }
+
+        if (recipe.validate(recipeCtx).isValid()) {
+            pending.add(recipeStack);
+        }
+
+        if (RecipeSchedulerUtils.overridesVisit(recipe)) {
+            after = RecipeSchedulerUtils.visitSourceFiles(recipeStack, flush(after), recipeCtx, recipeThatDeletedSourceFile);
+        }
+
+        for (Recipe r : recipe.getRecipeList()) {
+            if (ctx.getMessage(PANIC) != null) {
+                return after;
+            }
+
+            Stack<Recipe> nextStack = new Stack<>();
+            nextStack.addAll(recipeStack);
+            nextStack.push(r);
+
+            after = visitRecipe(nextStack, after);
+        }
+
+        return after;
+    }
+
+    /**
+     * Run every pending recipe visitor against each source file as one scheduled task per source file.
+     */
+    private List<SourceFile> flush(List<SourceFile> before) {
+        if (pending.isEmpty()) {
+            return before;
+        }
+
+        List<Stack<Recipe>> recipeStacks = new ArrayList<>(pending);
+        pending.clear();
+
+        AtomicLongArray startTimes = new AtomicLongArray(recipeStacks.size());
+        for (int i = 0; i < startTimes.length(); i++) {
+            startTimes.set(i, NOT_STARTED);
+        }
+        AtomicBoolean[] thrownErrorOnTimeout = new AtomicBoolean[recipeStacks.size()];
+        for (int i = 0; i < thrownErrorOnTimeout.length; i++) {
+            thrownErrorOnTimeout[i] = new AtomicBoolean(false);
+        }
+
+        return scheduler.mapAsync(before, s -> {
+            CurrentRecipe fileCtx = new CurrentRecipe(ctx, null);
+            SourceFile after = s;
+            for (int i = 0; i < recipeStacks.size() && after != null; i++) {
+                Stack<Recipe> recipeStack = recipeStacks.get(i);
+                if (!RecipeSchedulerUtils.isVisitRequired(recipeStack.peek(), after, fileCtx)) {
+                    continue;
+                }
+                fileCtx.putCurrentRecipe(recipeStack.peek());
+                after = RecipeSchedulerUtils.visitSourceFile(recipeStack, after, fileCtx, startTime(startTimes, i),
+                        before.size(), thrownErrorOnTimeout[i], recipeThatDeletedSourceFile);
+            }
+            return after;
+        });
+    }
+
+    /**
+     * Each recipe's run timeout is measured from its first visit of any source file, as it would be if the recipe
+     * visited every source file before the next recipe started, rather than from the start of the whole batch.
+     */
+    private static long startTime(AtomicLongArray startTimes, int i) {
+        long now = System.nanoTime();
+        return startTimes.compareAndSet(i, NOT_STARTED, now) ? now : startTimes.get(i);
+    }
+
+    /**
+     * Many recipes run concurrently against different source files, so the current recipe is held
+     * per task rather than written to the shared execution context.
+     */
+    static class CurrentRecipe extends DelegatingExecutionContext {
+        private final ExecutionContext delegate;
+
+        @Nullable
+        private Recipe recipe;
+
+        CurrentRecipe(ExecutionContext delegate, @Nullable Recipe recipe) {
+            super(delegate);
+            this.delegate = delegate;
+            this.recipe = recipe;
+        }
+
+        ExecutionContext getDelegate() {
+            return delegate;
+        }
+
+        @Override
+        public void putMessage(String key, Object value) {
+            if (CURRENT_RECIPE.equals(key)) {
+                recipe = (Recipe) value;
+            } else {
+                super.putMessage(key, value);
+            }
+        }
+
+        @Nullable
+        @Override
+        public <T> T getMessage(String key) {
+            //noinspection unchecked
+            return CURRENT_RECIPE.equals(key) ? (T) recipe : super.getMessage(key);
+        }
+    }
+}
@@ -0,0 +1,343 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite;
+
+import com.fasterxml.jackson.annotation.ObjectIdGenerator;
+import com.fasterxml.jackson.annotation.ObjectIdResolver;
+import com.fasterxml.jackson.annotation.SimpleObjectIdResolver;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.*;
+import com.fasterxml.jackson.databind.cfg.CacheProvider;
+import com.fasterxml.jackson.databind.cfg.HandlerInstantiator;
+import com.fasterxml.jackson.databind.cfg.MapperConfig;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.jsontype.TypeIdResolver;
+import com.fasterxml.jackson.databind.jsontype.TypeResolverBuilder;
+import com.fasterxml.jackson.databind.ser.DefaultSerializerProvider;
+import com.fasterxml.jackson.databind.ser.SerializerFactory;
+import com.fasterxml.jackson.databind.ser.impl.WritableObjectId;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.marker.Marker;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Persists parsed source files in a compact binary (Smile) format, so that they can be parsed once and loaded again
+ * for any number of later recipe runs.
+ * <p>
+ * Each source file is written and read as its own value. Anything with a Jackson identity that belongs to the
+ * whole store rather than to one source file, like the type attribution of Java source files or the whitespace of
+ * languages that share it by identity, is written in full only by the first source file that reaches it. Later
+ * source files refer back to it, and it is shared by every source file that refers to it when the store is read.
+ * Trees and markers are identified within their own source file, so neither writing nor streaming a store holds on
+ * to source files that have already been written or read; only the shared table of types does. Repeated strings,
+ * like common whitespace, are written once and then referred back to, and types that intern their instances when
+ * they are deserialized (like Java whitespace) are interned again.
+ */
+@Incubating(since = "7.23.0")
+public class SourceFileStore {
+    private final ObjectMapper mapper;
+
+    public SourceFileStore() {
+        this.mapper = RecipeSerializer.newObjectMapper()
+                .setSerializerProvider(new SharedObjectIdSerializerProvider());
+        mapper.setHandlerInstantiator(new SharedObjectIdResolvers());
+    }
+
+    public void write(Iterable<? extends SourceFile> sourceFiles, OutputStream out) {
+        // every writeValue call serializes with a fresh serializer provider, so only the object ids
+        // of the shared table outlive a source file
+        ObjectWriter writer = mapper.writerFor(SourceFile.class)
+                .withAttribute(SharedObjectIds.class, new SharedObjectIds());
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+            for (SourceFile sourceFile : sourceFiles) {
+                writer.writeValue(generator, sourceFile);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void write(Iterable<? extends SourceFile> sourceFiles, Path store) {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(store))) {
+            write(sourceFiles, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public List<SourceFile> read(InputStream in) {
+        List<SourceFile> sourceFiles = new ArrayList<>();
+        try (Stream<SourceFile> stream = stream(in)) {
+            stream.forEach(sourceFiles::add);
+        }
+        return sourceFiles;
+    }
+
+    public List<SourceFile> read(Path store) {
+        try (InputStream in = Files.newInputStream(store)) {
+            return read(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param in A store written by {@link #write(Iterable, OutputStream)}, which is closed when the stream is.
+     * @return The source files of the store, each deserialized only when the stream reaches it.
+     */
+    public Stream<SourceFile> stream(InputStream in) {
+        JsonParser parser;
+        try {
+            parser = mapper.getFactory().createParser(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        // every readValue call deserializes with a fresh context, so only the objects
+        // of the shared table outlive a source file
+        ObjectReader reader = mapper.readerFor(SourceFile.class)
+                .withAttribute(SharedObjectIds.class, new SharedObjectIds());
+        Iterator<SourceFile> sourceFiles = new Iterator<SourceFile>() {
+            @Nullable
+            private SourceFile next;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null) {
+                    try {
+                        if (parser.nextToken() != null) {
+                            next = reader.readValue(parser);
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public SourceFile next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                SourceFile sourceFile = next;
+                next = null;
+                return sourceFile;
+            }
+        };
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(sourceFiles,
+                        Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    try {
+                        parser.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /**
+     * @param store A store written by {@link #write(Iterable, Path)}.
+     * @return The source files of the store, each deserialized only when the stream reaches it. The stream must be
+     * closed to close the store.
+     */
+    public Stream<SourceFile> stream(Path store) {
+        try {
+            return stream(new BufferedInputStream(Files.newInputStream(store)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return <code>true</code> if the object is identified only within the source file it belongs to. Everything
+     * else with a Jackson identity is shared by every source file of the store.
+     */
+    private static boolean isScopedToSourceFile(Object o) {
+        return o instanceof Tree || o instanceof Marker;
+    }
+
+    /**
+     * The object ids shared by every source file of one store as it is written or read.
+     */
+    private static class SharedObjectIds {
+        /**
+         * Object ids are generated from the same sequences for the whole store, so that the ids of objects scoped
+         * to different source files never collide with the ids of shared objects.
+         */
+        private final List<ObjectIdGenerator<?>> generators = new ArrayList<>();
+        private final Map<Object, WritableObjectId> written = new IdentityHashMap<>();
+        private final Map<ObjectIdGenerator.IdKey, Object> read = new HashMap<>();
+
+        ObjectIdGenerator<?> generator(ObjectIdGenerator<?> generatorType, SerializerProvider provider) {
+            for (ObjectIdGenerator<?> generator : generators) {
+                if (generator.canUseFor(generatorType)) {
+                    return generator;
+                }
+            }
+            ObjectIdGenerator<?> generator = generatorType.newForSerialization(provider);
+            generators.add(generator);
+            return generator;
+        }
+    }
+
+    private static class SharedObjectIdSerializerProvider extends DefaultSerializerProvider {
+        SharedObjectIdSerializerProvider() {
+        }
+
+        SharedObjectIdSerializerProvider(SharedObjectIdSerializerProvider src) {
+            super(src);
+        }
+
+        SharedObjectIdSerializerProvider(SharedObjectIdSerializerProvider src, CacheProvider cacheProvider) {
+            super(src, cacheProvider);
+        }
+
+        SharedObjectIdSerializerProvider(SerializerProvider src, SerializationConfig config, SerializerFactory f) {
+            super(src, config, f);
+        }
+
+        @Override
+        public DefaultSerializerProvider copy() {
+            return new SharedObjectIdSerializerProvider(this);
+        }
+
+        @Override
+        public DefaultSerializerProvider withCaches(CacheProvider cacheProvider) {
+            return new SharedObjectIdSerializerProvider(this, cacheProvider);
+        }
+
+        @Override
+        public DefaultSerializerProvider createInstance(SerializationConfig config, SerializerFactory jsf) {
+            return new SharedObjectIdSerializerProvider(this, config, jsf);
+        }
+
+        @Override
+        public WritableObjectId findObjectId(Object forPojo, ObjectIdGenerator<?> generatorType) {
+            SharedObjectIds shared = (SharedObjectIds) getAttribute(SharedObjectIds.class);
+            if (shared == null) {
+                return super.findObjectId(forPojo, generatorType);
+            }
+
+            Map<Object, WritableObjectId> seen;
+            if (isScopedToSourceFile(forPojo)) {
+                if (_seenObjectIds == null) {
+                    _seenObjectIds = _createObjectIdMap();
+                }
+                seen = _seenObjectIds;
+            } else {
+                seen = shared.written;
+            }
+
+            WritableObjectId objectId = seen.get(forPojo);
+            if (objectId == null) {
+                objectId = new WritableObjectId(shared.generator(generatorType, this));
+                seen.put(forPojo, objectId);
+            }
+            return objectId;
+        }
+    }
+
+    /**
+     * Resolves object ids within the source file being read, and then against the objects shared by every source
+     * file read before it.
+     */
+    private static class SharedObjectIdResolver extends SimpleObjectIdResolver {
+        @Nullable
+        private final Map<ObjectIdGenerator.IdKey, Object> shared;
+
+        SharedObjectIdResolver(@Nullable Map<ObjectIdGenerator.IdKey, Object> shared) {
+            this.shared = shared;
+        }
+
+        @Override
+        public void bindItem(ObjectIdGenerator.IdKey id, Object pojo) {
+            if (shared == null || isScopedToSourceFile(pojo)) {
+                super.bindItem(id, pojo);
+            } else {
+                Object existing = shared.putIfAbsent(id, pojo);
+                if (existing != null && existing != pojo) {
+                    throw new IllegalStateException("Already had POJO for id (" + id.key.getClass().getName() +
+                                                    ") [" + id + "]");
+                }
+            }
+        }
+
+        @Override
+        public Object resolveId(ObjectIdGenerator.IdKey id) {
+            Object pojo = super.resolveId(id);
+            return pojo == null && shared != null ? shared.get(id) : pojo;
+        }
+
+        @Override
+        public ObjectIdResolver newForDeserialization(Object context) {
+            SharedObjectIds shared = (SharedObjectIds) ((DeserializationContext) context)
+                    .getAttribute(SharedObjectIds.class);
+            return new SharedObjectIdResolver(shared == null ? null : shared.read);
+        }
+    }
+
+    private static class SharedObjectIdResolvers extends HandlerInstantiator {
+        @Override
+        public ObjectIdResolver resolverIdGeneratorInstance(MapperConfig<?> config, Annotated annotated,
+                                                           Class<?> implClass) {
+            return implClass == SimpleObjectIdResolver.class ? new SharedObjectIdResolver(null) : null;
+        }
+
+        @Override
+        @Nullable
+        public JsonDeserializer<?> deserializerInstance(DeserializationConfig config, Annotated annotated,
+                                                        Class<?> deserClass) {
+            return null;
+        }
+
+        @Override
+        @Nullable
+        public KeyDeserializer keyDeserializerInstance(DeserializationConfig config, Annotated annotated,
+                                                       Class<?> keyDeserClass) {
+            return null;
+        }
+
+        @Override
+        @Nullable
+        public JsonSerializer<?> serializerInstance(SerializationConfig config, Annotated annotated,
+                                                    Class<?> serClass) {
+            return null;
+        }
+
+        @Override
+        @Nullable
+        public TypeResolverBuilder<?> typeResolverBuilderInstance(MapperConfig<?> config, Annotated annotated,
+                                                                  Class<?> builderClass) {
+            return null;
+        }
+
+        @Override
+        @Nullable
+        public TypeIdResolver typeIdResolverInstance(MapperConfig<?> config, Annotated annotated,
+                                                     Class<?> resolverClass) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite;
+
+import org.openrewrite.internal.lang.Nullable;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+
+/**
+ * Streams printed output to an {@link Appendable}, such as a {@link Writer}, through a fixed size buffer rather than
+ * collecting the whole source file in memory. Call {@link #flush()} once printing is complete.
+ * <p>
+ * Output can't be read back, so {@link #getOut()} is unsupported. Text that a printer writes to {@link #out}
+ * directly rather than through {@link #append(String)} is still streamed in the order it was written, but is moved
+ * out of {@link #out} as soon as anything else is appended, so it can't be read back there either.
+ */
+@Incubating(since = "7.23.0")
+public class StreamingPrintOutputCapture<P> extends PrintOutputCapture<P> implements Flushable {
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final Appendable sink;
+    private final char[] buffer;
+    private int count;
+
+    public StreamingPrintOutputCapture(P p, Appendable sink) {
+        this(p, sink, DEFAULT_BUFFER_SIZE);
+    }
+
+    public StreamingPrintOutputCapture(P p, Appendable sink, int bufferSize) {
+        super(p);
+        this.sink = sink;
+        this.buffer = new char[bufferSize];
+    }
+
+    /**
+     * @return A capture that encodes output in the charset and writes it to the channel.
+     */
+    public static <P> StreamingPrintOutputCapture<P> forChannel(P p, WritableByteChannel channel, Charset charset) {
+        // the writer buffers encoded bytes itself, so characters only need to be collected in small batches
+        return new StreamingPrintOutputCapture<>(p, Channels.newWriter(channel, charset.newEncoder(), DEFAULT_BUFFER_SIZE),
+                DEFAULT_BUFFER_SIZE / 8);
+    }
+
+    @Override
+    public String getOut() {
+        throw new UnsupportedOperationException("Streamed output can't be read back");
+    }
+
+    @Override
+    public PrintOutputCapture<P> append(@Nullable String text) {
+        if (text == null) {
+            return this;
+        }
+        takeOut();
+        buffer(text);
+        return this;
+    }
+
+    @Override
+    public PrintOutputCapture<P> append(char c) {
+        takeOut();
+        if (count == buffer.length) {
+            drain();
+        }
+        buffer[count++] = c;
+        return this;
+    }
+
+    /**
+     * Write any buffered output to the sink and flush the sink, if it is {@link Flushable}.
+     */
+    @Override
+    public void flush() {
+        takeOut();
+        drain();
+        if (sink instanceof Flushable) {
+            try {
+                ((Flushable) sink).flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Move anything written to {@link #out} directly since the last append to the buffer, so that it is streamed
+     * in order with everything else.
+     */
+    private void takeOut() {
+        if (out.length() > 0) {
+            String text = out.toString();
+            out.setLength(0);
+            buffer(text);
+        }
+    }
+
+    private void buffer(String text) {
+        int length = text.length();
+        if (length > buffer.length - count) {
+            drain();
+            if (length > buffer.length) {
+                write(text);
+                return;
+            }
+        }
+        text.getChars(0, length, buffer, count);
+        count += length;
+    }
+
+    private void drain() {
+        if (count == 0) {
+            return;
+        }
+        try {
+            if (sink instanceof Writer) {
+                ((Writer) sink).write(buffer, 0, count);
+            } else if (sink instanceof StringBuilder) {
+                ((StringBuilder) sink).append(buffer, 0, count);
+            } else {
+                sink.append(CharBuffer.wrap(buffer, 0, count));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        count = 0;
+    }
+
+    private void write(String text) {
+        try {
+            sink.append(text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -19,7 +19,6 @@ import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
-import org.openrewrite.internal.MetricsHelper;
 import org.openrewrite.internal.StringUtils;
 import org.openrewrite.internal.lang.Nullable;
 
@@ -34,9 +33,11 @@ public interface Tree {
         return getClass().getName();
     }
 
+    /**
+     * @return A new id from the installed {@link IdGenerator}.
+     */
     static UUID randomId() {
-        //noinspection ConstantConditions
-        return MetricsHelper.UUID_TIMER.record(UUID::randomUUID);
+        return IdGenerator.get().nextId();
     }
 
     /**
@@ -82,13 +83,13 @@ public interface Tree {
     default <P> String print(P p, Cursor cursor) {
         PrintOutputCapture<P> outputCapture = new PrintOutputCapture<>(p);
         this.<P>printer(cursor).visit(this, outputCapture, cursor);
-        return outputCapture.out.toString();
+        return outputCapture.getOut();
     }
 
     default <P> String print(P p, TreeVisitor<?, PrintOutputCapture<P>> printer) {
         PrintOutputCapture<P> outputCapture = new PrintOutputCapture<>(p);
         printer.visit(this, outputCapture);
-        return outputCapture.out.toString();
+        return outputCapture.getOut();
     }
 
     default String print(Cursor cursor) {
@@ -18,17 +18,18 @@ package org.openrewrite;
 import de.danielbechler.diff.ObjectDifferBuilder;
 import de.danielbechler.diff.differ.DifferDispatcher;
 import de.danielbechler.diff.node.DiffNode;
-import io.micrometer.core.instrument.DistributionSummary;
-import io.micrometer.core.instrument.Metrics;
-import io.micrometer.core.instrument.Timer;
+import org.openrewrite.instrumentation.Instrumentation;
+import org.openrewrite.instrumentation.VisitorMeter;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.marker.Marker;
 import org.openrewrite.marker.Markers;
+import org.openrewrite.scheduling.VisitDeadline;
 import org.slf4j.LoggerFactory;
 import org.slf4j.event.Level;
 
 import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
@@ -53,8 +54,19 @@ public abstract class TreeVisitor<T extends Tree, P> {
 
     private static final Cursor ROOT = new Cursor(null, "root");
 
+    @Nullable
     private Cursor cursor = ROOT;
 
+    /**
+     * Values pushed on top of {@link #cursor} that nothing has asked for a {@link Cursor} of yet. Most nodes are
+     * visited without their visit methods ever calling {@link #getCursor()}, so cursors are only created for them
+     * when one does.
+     */
+    @Nullable
+    private Object[] pendingCursorValues;
+
+    private int pendingCursorDepth;
+
     public static <T extends Tree, P> TreeVisitor<T, P> noop() {
         return new TreeVisitor<T, P>() {
             @Override
@@ -73,20 +85,84 @@ public abstract class TreeVisitor<T extends Tree, P> {
 
     private List<TreeVisitor<T, P>> afterVisit;
 
+    /**
+     * How many nodes are visited between checks of the {@link VisitDeadline}. Must be a power of two.
+     */
+    private static final int DEADLINE_CHECK_INTERVAL = 1024;
+
     private int visitCount;
-    private final DistributionSummary visitCountSummary = DistributionSummary.builder("rewrite.visitor.visit.method.count")
-            .description("Visit methods called per source file visited.")
-            .tag("visitor.class", getClass().getName())
-            .register(Metrics.globalRegistry);
+
+    @Nullable
+    private VisitDeadline deadline;
+
+    /**
+     * @return How many times {@link #visit(Tree, Object)} was called in the course of the last top-level visit.
+     */
+    int getVisitCount() {
+        return visitCount;
+    }
 
     public boolean isAcceptable(SourceFile sourceFile, P p) {
         return true;
     }
 
     protected void setCursor(@Nullable Cursor cursor) {
+        clearPendingCursorValues();
         this.cursor = cursor;
     }
 
+    /**
+     * Equivalent to <code>setCursor(new Cursor(getCursor(), value))</code>, except that the new cursor is not created
+     * until {@link #getCursor()} is called.
+     *
+     * @param value The value to push onto the cursor stack.
+     */
+    @Incubating(since = "7.23.0")
+    protected final void pushCursor(Object value) {
+        if (pendingCursorValues == null) {
+            pendingCursorValues = new Object[16];
+        } else if (pendingCursorDepth == pendingCursorValues.length) {
+            pendingCursorValues = Arrays.copyOf(pendingCursorValues, pendingCursorDepth * 2);
+        }
+        pendingCursorValues[pendingCursorDepth++] = value;
+    }
+
+    /**
+     * Equivalent to <code>setCursor(getCursor().getParent())</code>, undoing a {@link #pushCursor(Object)}.
+     */
+    @Incubating(since = "7.23.0")
+    protected final void popCursor() {
+        if (pendingCursorDepth > 0) {
+            //noinspection ConstantConditions
+            pendingCursorValues[--pendingCursorDepth] = null;
+        } else {
+            //noinspection ConstantConditions
+            cursor = cursor.getParent();
+        }
+    }
+
+    @Nullable
+    private Cursor materializeCursor() {
+        if (pendingCursorDepth > 0) {
+            Cursor c = cursor;
+            for (int i = 0; i < pendingCursorDepth; i++) {
+                //noinspection ConstantConditions
+                c = new Cursor(c, pendingCursorValues[i]);
+            }
+            clearPendingCursorValues();
+            cursor = c;
+        }
+        return cursor;
+    }
+
+    private void clearPendingCursorValues() {
+        if (pendingCursorDepth > 0) {
+            //noinspection ConstantConditions
+            Arrays.fill(pendingCursorValues, 0, pendingCursorDepth, null);
+            pendingCursorDepth = 0;
+        }
+    }
+
     /**
      * @return Describes the language type that this visitor applies to, e.g. java, xml, properties.
      */
@@ -130,6 +206,7 @@ public abstract class TreeVisitor<T extends Tree, P> {
     }
 
     public final Cursor getCursor() {
+        Cursor cursor = materializeCursor();
         if (cursor == null) {
             throw new IllegalStateException("Cursoring is not enabled for this visitor. " +
                     "Call setCursoringOn() in the visitor's constructor to enable.");
@@ -149,7 +226,7 @@ public abstract class TreeVisitor<T extends Tree, P> {
 
     @Nullable
     public T visit(@Nullable Tree tree, P p, Cursor parent) {
-        this.cursor = parent;
+        setCursor(parent);
         return visit(tree, p);
     }
 
@@ -180,72 +257,95 @@ public abstract class TreeVisitor<T extends Tree, P> {
             return defaultValue(null, p);
         }
 
-        Timer.Sample sample = null;
+        VisitorMeter meter = null;
+        long sample = 0;
         boolean topLevel = false;
+        Cursor topLevelCursor = null;
         if (afterVisit == null) {
             topLevel = true;
+            topLevelCursor = materializeCursor();
             visitCount = 0;
-            sample = Timer.start();
+            deadline = VisitDeadline.current();
+            meter = Instrumentation.get().visitor(getClass());
+            sample = meter.start();
             if (p instanceof ExecutionContext) {
-                cursor.putMessage("org.openrewrite.ExecutionContext", p);
+                //noinspection ConstantConditions
+                topLevelCursor.putMessage("org.openrewrite.ExecutionContext", p);
             }
             afterVisit = new ArrayList<>();
         }
 
-        visitCount++;
-
-        setCursor(new Cursor(cursor, tree));
-
         T t = null;
-        // Do you visitor take tree and do you tree take visitor?
-        boolean isAcceptable = tree.isAcceptable(this, p) && (!(tree instanceof SourceFile) || isAcceptable((SourceFile) tree, p));
-        if (isAcceptable) {
-            //noinspection unchecked
-            t = preVisit((T) tree, p);
-            if (t != null) {
-                t = t.accept(this, p);
-            }
-            if (t != null) {
-                t = postVisit(t, p);
+        boolean isAcceptable = false;
+        boolean visited = false;
+        boolean completed = false;
+        try {
+            visitCount++;
+            if (deadline != null && (visitCount & (DEADLINE_CHECK_INTERVAL - 1)) == 0) {
+                deadline.check();
             }
-            if (t != tree && t != null && p instanceof ExecutionContext) {
-                ExecutionContext ctx = (ExecutionContext) p;
-                for (TreeObserver.Subscription observer : ctx.getObservers()) {
-                    if (observer.isSubscribed(tree)) {
-                        observer.getObserver().treeChanged(getCursor(), t);
-                        AtomicReference<T> t2 = new AtomicReference<>(t);
-                        DiffNode diff = ObjectDifferBuilder.buildDefault().compare(t, tree);
-                        diff.visit((node, visit) -> {
-                            if (!node.hasChildren() && node.getPropertyName() != null) {
-                                //noinspection unchecked
-                                t2.set((T) observer.getObserver().propertyChanged(node.getPropertyName(),
-                                        getCursor(), t2.get(), node.canonicalGet(tree), node.canonicalGet(t2.get())));
-                            }
-                        });
-                        t = t2.get();
+
+            pushCursor(tree);
+
+            // Do you visitor take tree and do you tree take visitor?
+            isAcceptable = tree.isAcceptable(this, p) && (!(tree instanceof SourceFile) || isAcceptable((SourceFile) tree, p));
+            if (isAcceptable) {
+                //noinspection unchecked
+                t = preVisit((T) tree, p);
+                if (t != null) {
+                    t = t.accept(this, p);
+                }
+                if (t != null) {
+                    t = postVisit(t, p);
+                }
+                if (t != tree && t != null && p instanceof ExecutionContext) {
+                    ExecutionContext ctx = (ExecutionContext) p;
+                    for (TreeObserver.Subscription observer : ctx.getObservers()) {
+                        if (observer.isSubscribed(tree)) {
+                            observer.getObserver().treeChanged(getCursor(), t);
+                            AtomicReference<T> t2 = new AtomicReference<>(t);
+                            DiffNode diff = ObjectDifferBuilder.buildDefault().compare(t, tree);
+                            diff.visit((node, visit) -> {
+                                if (!node.hasChildren() && node.getPropertyName() != null) {
+                                    //noinspection unchecked
+                                    t2.set((T) observer.getObserver().propertyChanged(node.getPropertyName(),
+                                            getCursor(), t2.get(), node.canonicalGet(tree), node.canonicalGet(t2.get())));
+                                }
+                            });
+                            t = t2.get();
+                        }
                     }
                 }
             }
-        }
 
-        setCursor(cursor.getParent());
+            popCursor();
 
-        if (topLevel) {
-            sample.stop(Timer.builder("rewrite.visitor.visit")
-                    .tag("visitor.class", getClass().getName())
-                    .register(Metrics.globalRegistry));
-            visitCountSummary.record(visitCount);
+            if (topLevel) {
+                meter.visited(sample, visitCount);
+                visited = true;
 
-            if (t != null) {
-                for (TreeVisitor<T, P> v : afterVisit) {
-                    t = v.visit(t, p);
+                if (t != null) {
+                    for (TreeVisitor<T, P> v : afterVisit) {
+                        t = v.visit(t, p);
+                    }
                 }
-            }
 
-            sample.stop(Timer.builder("rewrite.visitor.visit.cumulative")
-                    .tag("visitor.class", getClass().getName())
-                    .register(Metrics.globalRegistry));
-            afterVisit = null;
+                meter.afterVisited(sample);
+            }
+            completed = true;
+        } finally {
+            if (topLevel) {
+                if (!visited) {
+                    meter.visited(sample, visitCount);
+                }
+                if (!completed) {
+                    // the visit was abandoned part way through, e.g. because its deadline passed here or in a
+                    // visitor it ran, so leave this visitor in a state where it can be used again
+                    setCursor(topLevelCursor);
+                }
+                afterVisit = null;
+                deadline = null;
+            }
         }
 
         //noinspection unchecked
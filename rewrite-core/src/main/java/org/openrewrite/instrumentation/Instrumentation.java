@@ -0,0 +1,80 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.instrumentation;
+
+import org.openrewrite.Incubating;
+import org.openrewrite.Recipe;
+import org.openrewrite.internal.Interner;
+
+/**
+ * Measures the work done by visitors and recipes. Implementations hand out meter handles that are resolved
+ * once and reused on every visit, so that instrumenting a visit costs no more than reading a clock.
+ * <p>
+ * The default is {@link #NOOP}, which measures nothing. Install {@link MicrometerInstrumentation} with
+ * {@link #set(Instrumentation)} to record the <code>rewrite.visitor.visit</code> and <code>rewrite.recipe.visit</code> timers.
+ */
+@Incubating(since = "7.23.0")
+public interface Instrumentation {
+    Instrumentation NOOP = new Instrumentation() {
+        @Override
+        public VisitorMeter visitor(Class<?> visitorClass) {
+            return VisitorMeter.NOOP;
+        }
+
+        @Override
+        public RecipeMeter recipe(Recipe recipe) {
+            return RecipeMeter.NOOP;
+        }
+    };
+
+    /**
+     * @param visitorClass The class of a {@link org.openrewrite.TreeVisitor}.
+     * @return A meter for top-level visits of visitors of this class. Implementations should return the same meter
+     * for the same class.
+     */
+    VisitorMeter visitor(Class<?> visitorClass);
+
+    /**
+     * @param recipe The recipe whose visitor is run on a source file.
+     * @return A meter for each source file the recipe visits.
+     */
+    RecipeMeter recipe(Recipe recipe);
+
+    /**
+     * Start measuring an interner. This is called when the interner is created, and again for every existing
+     * interner when this instrumentation is {@link #set(Instrumentation) installed}, so it may be called more than
+     * once for the same interner.
+     *
+     * @param interner An interner of flyweights, like whitespace.
+     */
+    default void interner(Interner<?, ?> interner) {
+    }
+
+    static Instrumentation get() {
+        return InstrumentationHolder.instrumentation;
+    }
+
+    /**
+     * @param instrumentation The instrumentation used by visitors and recipe runs from now on.
+     * @return The instrumentation that was previously installed.
+     */
+    static Instrumentation set(Instrumentation instrumentation) {
+        Instrumentation previous = InstrumentationHolder.instrumentation;
+        InstrumentationHolder.instrumentation = instrumentation;
+        Interner.forEach(instrumentation::interner);
+        return previous;
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.instrumentation;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.openrewrite.Incubating;
+import org.openrewrite.Recipe;
+import org.openrewrite.internal.Interner;
+import org.openrewrite.internal.MetricsHelper;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records visitor and recipe visits to a Micrometer {@link MeterRegistry}. Meters are registered the first time
+ * a visitor class or recipe is seen and the handles are reused from then on. The hit rate and size of interners
+ * are recorded as <code>rewrite.interner.requests</code> and <code>rewrite.interner.size</code>.
+ * <p>
+ * With a sample rate below 1.0, only that fraction of visits is measured, chosen at random.
+ */
+@Incubating(since = "7.23.0")
+public class MicrometerInstrumentation implements Instrumentation {
+    private final MeterRegistry registry;
+    private final Clock clock;
+    private final double sampleRate;
+
+    private final Map<Class<?>, VisitorMeter> visitorMeters = new ConcurrentHashMap<>();
+    private final Map<String, RecipeMeter> recipeMeters = new ConcurrentHashMap<>();
+
+    public MicrometerInstrumentation(MeterRegistry registry) {
+        this(registry, 1.0);
+    }
+
+    /**
+     * @param registry   The registry meters are registered with.
+     * @param sampleRate The fraction of visits that are measured, between 0.0 and 1.0.
+     */
+    public MicrometerInstrumentation(MeterRegistry registry, double sampleRate) {
+        if (sampleRate < 0.0 || sampleRate > 1.0) {
+            throw new IllegalArgumentException("The sample rate must be between 0.0 and 1.0, but was " + sampleRate);
+        }
+        this.registry = registry;
+        this.clock = registry.config().clock();
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public VisitorMeter visitor(Class<?> visitorClass) {
+        return visitorMeters.computeIfAbsent(visitorClass, MicrometerVisitorMeter::new);
+    }
+
+    @Override
+    public RecipeMeter recipe(Recipe recipe) {
+        return recipeMeters.computeIfAbsent(recipe.getDisplayName(), MicrometerRecipeMeter::new);
+    }
+
+    @Override
+    public void interner(Interner<?, ?> interner) {
+        // registering is idempotent, so measuring the same interner again registers nothing new
+        FunctionCounter.builder("rewrite.interner.requests", interner, Interner::getHitCount)
+                .description("Requests for an interned value")
+                .tag("name", interner.getName())
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("rewrite.interner.requests", interner, Interner::getMissCount)
+                .description("Requests for an interned value")
+                .tag("name", interner.getName())
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder("rewrite.interner.size", interner, Interner::size)
+                .description("The number of interned values, including those not yet reclaimed")
+                .tag("name", interner.getName())
+                .register(registry);
+    }
+
+    private long start() {
+        if (sampleRate < 1.0 && (sampleRate == 0.0 || ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return VisitorMeter.NOT_SAMPLED;
+        }
+        return clock.monotonicTime();
+    }
+
+    private void record(Timer timer, long start) {
+        timer.record(clock.monotonicTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private class MicrometerVisitorMeter implements VisitorMeter {
+        private final Timer visit;
+        private final Timer cumulative;
+        private final DistributionSummary visitMethodCount;
+
+        MicrometerVisitorMeter(Class<?> visitorClass) {
+            String visitorClassName = visitorClass.getName();
+            this.visit = Timer.builder("rewrite.visitor.visit")
+                    .tag("visitor.class", visitorClassName)
+                    .register(registry);
+            this.cumulative = Timer.builder("rewrite.visitor.visit.cumulative")
+                    .tag("visitor.class", visitorClassName)
+                    .register(registry);
+            this.visitMethodCount = DistributionSummary.builder("rewrite.visitor.visit.method.count")
+                    .description("Visit methods called per source file visited.")
+                    .tag("visitor.class", visitorClassName)
+                    .register(registry);
+        }
+
+        @Override
+        public long start() {
+            return MicrometerInstrumentation.this.start();
+        }
+
+        @Override
+        public void visited(long start, int visitMethodCount) {
+            if (start != NOT_SAMPLED) {
+                record(visit, start);
+                this.visitMethodCount.record(visitMethodCount);
+            }
+        }
+
+        @Override
+        public void afterVisited(long start) {
+            if (start != NOT_SAMPLED) {
+                record(cumulative, start);
+            }
+        }
+    }
+
+    private class MicrometerRecipeMeter implements RecipeMeter {
+        private final String recipeName;
+        private final Timer[] successes = new Timer[Outcome.values().length];
+
+        MicrometerRecipeMeter(String recipeName) {
+            this.recipeName = recipeName;
+        }
+
+        @Override
+        public long start() {
+            return MicrometerInstrumentation.this.start();
+        }
+
+        @Override
+        public void success(long start, Outcome outcome) {
+            if (start != VisitorMeter.NOT_SAMPLED) {
+                Timer timer = successes[outcome.ordinal()];
+                if (timer == null) {
+                    // registering is idempotent, so a race here only costs a redundant lookup
+                    timer = MetricsHelper.successTags(timer(), outcome.getReason()).register(registry);
+                    successes[outcome.ordinal()] = timer;
+                }
+                record(timer, start);
+            }
+        }
+
+        @Override
+        public void error(long start, Throwable t) {
+            if (start != VisitorMeter.NOT_SAMPLED) {
+                record(MetricsHelper.errorTags(timer(), t).register(registry), start);
+            }
+        }
+
+        private Timer.Builder timer() {
+            return Timer.builder("rewrite.recipe.visit").tag("recipe", recipeName);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.instrumentation;
+
+import org.openrewrite.Incubating;
+
+/**
+ * Measures the visit of each source file by one recipe.
+ */
+@Incubating(since = "7.23.0")
+public interface RecipeMeter {
+    RecipeMeter NOOP = new RecipeMeter() {
+        @Override
+        public long start() {
+            return VisitorMeter.NOT_SAMPLED;
+        }
+
+        @Override
+        public void success(long start, Outcome outcome) {
+        }
+
+        @Override
+        public void error(long start, Throwable t) {
+        }
+    };
+
+    /**
+     * @return An opaque start time to pass back to the other methods of this meter, or
+     * {@link VisitorMeter#NOT_SAMPLED} when this visit should not be measured.
+     */
+    long start();
+
+    void success(long start, Outcome outcome);
+
+    void error(long start, Throwable t);
+
+    enum Outcome {
+        SKIPPED,
+        TIMEOUT,
+        CHANGED,
+        DELETED,
+        UNCHANGED;
+
+        private final String reason = name().toLowerCase();
+
+        /**
+         * @return The value of the <code>reason</code> tag of the <code>rewrite.recipe.visit</code> timer.
+         */
+        public String getReason() {
+            return reason;
+        }
+    }
+}
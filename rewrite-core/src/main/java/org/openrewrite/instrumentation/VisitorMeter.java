@@ -0,0 +1,67 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.instrumentation;
+
+import org.openrewrite.Incubating;
+
+/**
+ * Measures top-level visits of one class of {@link org.openrewrite.TreeVisitor}.
+ */
+@Incubating(since = "7.23.0")
+public interface VisitorMeter {
+    /**
+     * Returned by {@link #start()} when a visit is not sampled.
+     */
+    long NOT_SAMPLED = Long.MIN_VALUE;
+
+    VisitorMeter NOOP = new VisitorMeter() {
+        @Override
+        public long start() {
+            return NOT_SAMPLED;
+        }
+
+        @Override
+        public void visited(long start, int visitMethodCount) {
+        }
+
+        @Override
+        public void afterVisited(long start) {
+        }
+    };
+
+    /**
+     * @return An opaque start time to pass back to the other methods of this meter, or {@link #NOT_SAMPLED} when
+     * this visit should not be measured.
+     */
+    long start();
+
+    /**
+     * Called once the tree has been visited, before any visitors added with
+     * {@link org.openrewrite.TreeVisitor#doAfterVisit(org.openrewrite.TreeVisitor)} run.
+     *
+     * @param start            The value returned by {@link #start()}.
+     * @param visitMethodCount How many times <code>visit</code> was called in the course of the top-level visit.
+     */
+    void visited(long start, int visitMethodCount);
+
+    /**
+     * Called once the visitors added with {@link org.openrewrite.TreeVisitor#doAfterVisit(org.openrewrite.TreeVisitor)}
+     * have run as well.
+     *
+     * @param start The value returned by {@link #start()}.
+     */
+    void afterVisited(long start);
+}
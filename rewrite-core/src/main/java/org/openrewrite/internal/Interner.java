@@ -0,0 +1,175 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.internal;
+
+import org.openrewrite.Incubating;
+import org.openrewrite.instrumentation.Instrumentation;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A thread-safe canonicalizing map for flyweights such as whitespace. Values are only weakly reachable from the
+ * interner, so a flyweight is retained only as long as some tree uses it. The map is split into stripes, each
+ * guarded by its own lock, so that concurrent parsers rarely contend with one another.
+ * <p>
+ * Once a stripe holds its share of {@code maximumSize} live values, new values are still created and returned
+ * but are no longer interned.
+ * <p>
+ * Interners report their hit rate and size through the installed {@link Instrumentation} rather than registering
+ * meters themselves, since most interners are created by static initializers before any instrumentation is chosen.
+ *
+ * @param <K> The type of key the values are interned by.
+ * @param <V> The type of interned values.
+ */
+@Incubating(since = "7.23.0")
+public class Interner<K, V> {
+    private static final int STRIPES = 32;
+
+    /**
+     * Every interner that is still reachable, so that instrumentation installed after an interner was created can
+     * still measure it.
+     */
+    private static final Set<Interner<?, ?>> INTERNERS = Collections.newSetFromMap(new WeakHashMap<>());
+
+    private final String name;
+    private final Stripe<K, V>[] stripes;
+    private final int maximumStripeSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param name        A name to tell this interner's metrics apart by.
+     * @param maximumSize The maximum number of values to intern.
+     */
+    public Interner(String name, int maximumSize) {
+        this.name = name;
+        //noinspection unchecked
+        this.stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe<>();
+        }
+        this.maximumStripeSize = Math.max(1, maximumSize / STRIPES);
+
+        synchronized (INTERNERS) {
+            INTERNERS.add(this);
+        }
+        Instrumentation.get().interner(this);
+    }
+
+    /**
+     * @param action Called with every interner that is still reachable.
+     */
+    public static void forEach(Consumer<Interner<?, ?>> action) {
+        List<Interner<?, ?>> interners;
+        synchronized (INTERNERS) {
+            interners = new ArrayList<>(INTERNERS);
+        }
+        interners.forEach(action);
+    }
+
+    /**
+     * @param key    The key to intern a value by.
+     * @param create Creates a value for the key when there is no live value interned for it.
+     * @return The interned value for this key.
+     */
+    public V intern(K key, Function<? super K, ? extends V> create) {
+        int h = key.hashCode();
+        Stripe<K, V> stripe = stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+        synchronized (stripe) {
+            stripe.expungeStaleValues();
+            ValueReference<K, V> ref = stripe.values.get(key);
+            if (ref != null) {
+                V value = ref.get();
+                if (value != null) {
+                    hits.increment();
+                    return value;
+                }
+            }
+
+            misses.increment();
+            V value = create.apply(key);
+            if (stripe.values.size() < maximumStripeSize) {
+                stripe.values.put(key, new ValueReference<>(key, value, stripe.queue));
+            }
+            return value;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return The fraction of requests served by an already interned value, or 0 when there have been no requests.
+     */
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    /**
+     * @return The number of interned values, which may include values that are no longer reachable but have
+     * not been cleaned up yet.
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe<K, V> stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.values.size();
+            }
+        }
+        return size;
+    }
+
+    private static class Stripe<K, V> {
+        private final Map<K, ValueReference<K, V>> values = new HashMap<>();
+        private final ReferenceQueue<V> queue = new ReferenceQueue<>();
+
+        private void expungeStaleValues() {
+            Reference<? extends V> ref;
+            while ((ref = queue.poll()) != null) {
+                //noinspection unchecked
+                ValueReference<K, V> stale = (ValueReference<K, V>) ref;
+                values.remove(stale.key, stale);
+            }
+        }
+    }
+
+    private static class ValueReference<K, V> extends WeakReference<V> {
+        private final K key;
+
+        private ValueReference(K key, V value, ReferenceQueue<V> queue) {
+            super(value, queue);
+            this.key = key;
+        }
+    }
+}
@@ -19,6 +19,7 @@ import org.graalvm.polyglot.Value;
 import org.openrewrite.internal.lang.Nullable;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.function.BiFunction;
@@ -49,26 +50,23 @@ public final class ListUtils {
             return singletonList(insert);
         }
 
-        List<T> ordered = new ArrayList<>(ls);
-        ordered.add(insert);
-        ordered.sort(naturalOrdering);
-
+        // the element that a stable sort of the list would place immediately before the inserted element
         T comesAfter = null;
-        for (T t : ordered) {
-            if (t == insert) {
-                break;
+        for (T t : ls) {
+            if (naturalOrdering.compare(t, insert) <= 0 &&
+                    (comesAfter == null || naturalOrdering.compare(t, comesAfter) >= 0)) {
+                comesAfter = t;
             }
-            comesAfter = t;
         }
 
-        List<T> newLs = new ArrayList<>(ls);
+        List<T> newLs = new ArrayList<>(ls.size() + 1);
         if (comesAfter == null) {
-            newLs.add(0, insert);
-        } else {
-            for (int i = 0; i < newLs.size(); i++) {
-                if (newLs.get(i) == comesAfter) {
-                    newLs.add(i + 1, insert);
-                }
+            newLs.add(insert);
+        }
+        for (T t : ls) {
+            newLs.add(t);
+            if (t == comesAfter) {
+                newLs.add(insert);
             }
         }
 
@@ -125,85 +123,119 @@ public final class ListUtils {
         if (ls == null || ls.isEmpty()) {
             return ls;
         }
-        List<T> newLs = ls;
-        for (int i = 0; i < ls.size(); i++) {
+        List<T> newLs = null;
+        int size = ls.size();
+        for (int i = 0; i < size; i++) {
             T tree = ls.get(i);
             T newTree = map.apply(i, tree);
-            if (newTree != tree) {
-                if (newLs == ls) {
-                    newLs = new ArrayList<>(ls);
+            if (newLs == null) {
+                if (newTree == tree) {
+                    continue;
                 }
-                newLs.set(i, newTree);
+                newLs = copyNonNull(ls, i, size);
+            }
+            if (newTree != null) {
+                newLs.add(newTree);
             }
         }
-
-        if (newLs != ls) {
-            //noinspection StatementWithEmptyBody
-            while (newLs.remove(null)) ;
-        }
-
-        return newLs;
+        return newLs == null ? ls : newLs;
     }
 
     public static <T> List<T> map(@Nullable List<T> ls, UnaryOperator<T> map) {
-        return map(ls, (i, t) -> map.apply(t));
+        if (ls == null || ls.isEmpty()) {
+            return ls;
+        }
+        List<T> newLs = null;
+        int size = ls.size();
+        for (int i = 0; i < size; i++) {
+            T tree = ls.get(i);
+            T newTree = map.apply(tree);
+            if (newLs == null) {
+                if (newTree == tree) {
+                    continue;
+                }
+                newLs = copyNonNull(ls, i, size);
+            }
+            if (newTree != null) {
+                newLs.add(newTree);
+            }
+        }
+        return newLs == null ? ls : newLs;
     }
 
     public static <T> List<T> flatMap(@Nullable List<T> ls, BiFunction<Integer, T, Object> flatMap) {
         if (ls == null || ls.isEmpty()) {
             return ls;
         }
-        List<T> newLs = ls;
-        int j = 0;
-        for (int i = 0; i < ls.size(); i++, j++) {
+        List<T> newLs = null;
+        int size = ls.size();
+        for (int i = 0; i < size; i++) {
             T tree = ls.get(i);
             Object newTreeOrTrees = flatMap.apply(i, tree);
-            if (newTreeOrTrees != tree) {
-                if (newLs == ls) {
-                    newLs = new ArrayList<>(ls);
+            if (newLs == null) {
+                if (newTreeOrTrees == tree) {
+                    continue;
                 }
+                newLs = copyNonNull(ls, i, newTreeOrTrees instanceof Collection ?
+                        size + ((Collection<?>) newTreeOrTrees).size() : size);
+            }
+            addFlattened(newLs, tree, newTreeOrTrees);
+        }
+        return newLs == null ? ls : newLs;
+    }
 
-                if (newTreeOrTrees instanceof Iterable) {
-                    boolean addedTree = false;
-                    //noinspection unchecked
-                    for (T newTree : (Iterable<T>) newTreeOrTrees) {
-                        if (j >= newLs.size()) {
-                            newLs.add(newTree);
-                        } else if (!addedTree) {
-                            newLs.set(j, newTree);
-                        } else {
-                            newLs.add(j, newTree);
-                        }
-                        addedTree = true;
-                        j++;
-                    }
-                    if (addedTree) {
-                        j--;
-                    } else {
-                        newLs.set(j, null);
-                    }
-                } else {
-                    if (j >= newLs.size()) {
-                        //noinspection unchecked
-                        newLs.add((T) newTreeOrTrees);
-                    } else {
-                        //noinspection unchecked
-                        newLs.set(j, (T) newTreeOrTrees);
-                    }
+    public static <T> List<T> flatMap(@Nullable List<T> ls, Function<T, Object> flatMap) {
+        if (ls == null || ls.isEmpty()) {
+            return ls;
+        }
+        List<T> newLs = null;
+        int size = ls.size();
+        for (int i = 0; i < size; i++) {
+            T tree = ls.get(i);
+            Object newTreeOrTrees = flatMap.apply(tree);
+            if (newLs == null) {
+                if (newTreeOrTrees == tree) {
+                    continue;
                 }
+                newLs = copyNonNull(ls, i, newTreeOrTrees instanceof Collection ?
+                        size + ((Collection<?>) newTreeOrTrees).size() : size);
             }
+            addFlattened(newLs, tree, newTreeOrTrees);
         }
+        return newLs == null ? ls : newLs;
+    }
 
-        if (newLs != ls) {
-            //noinspection StatementWithEmptyBody
-            while (newLs.remove(null)) ;
+    /**
+     * The first time a mapping function changes an element, the elements before it are copied into a new list
+     * sized for the whole result. Elements are then appended one at a time, dropping nulls as they are encountered
+     * rather than removing them from the list afterwards.
+     */
+    private static <T> List<T> copyNonNull(List<T> ls, int end, int capacity) {
+        List<T> newLs = new ArrayList<>(capacity);
+        for (int i = 0; i < end; i++) {
+            T t = ls.get(i);
+            if (t != null) {
+                newLs.add(t);
+            }
         }
-
         return newLs;
     }
 
-    public static <T> List<T> flatMap(@Nullable List<T> ls, Function<T, Object> flatMap) {
-        return flatMap(ls, (i, t) -> flatMap.apply(t));
+    private static <T> void addFlattened(List<T> newLs, @Nullable T tree, @Nullable Object newTreeOrTrees) {
+        if (newTreeOrTrees == null) {
+            return;
+        }
+        if (newTreeOrTrees != tree && newTreeOrTrees instanceof Iterable) {
+            //noinspection unchecked
+            for (T newTree : (Iterable<T>) newTreeOrTrees) {
+                if (newTree != null) {
+                    newLs.add(newTree);
+                }
+            }
+        } else {
+            //noinspection unchecked
+            newLs.add((T) newTreeOrTrees);
+        }
     }
 
     public static <T> List<T> concat(@Nullable List<T> ls, @Nullable T t) {
@@ -212,7 +244,10 @@ public final class ListUtils {
         } else if (t == null) {
             return ls;
         }
-        List<T> newLs = ls == null ? new ArrayList<>(1) : new ArrayList<>(ls);
+        List<T> newLs = new ArrayList<>(ls == null ? 1 : ls.size() + 1);
+        if (ls != null) {
+            newLs.addAll(ls);
+        }
         newLs.add(t);
         return newLs;
     }
@@ -240,7 +275,8 @@ public final class ListUtils {
             return t;
         }
 
-        List<T> newLs = new ArrayList<>(ls);
+        List<T> newLs = new ArrayList<>(ls.size() + t.size());
+        newLs.addAll(ls);
         newLs.addAll(t);
 
         return newLs;
@@ -255,9 +291,47 @@ public final class ListUtils {
             return t;
         }
 
-        List<T> newLs = new ArrayList<>(ls);
-        newLs.addAll(index, t);
+        List<T> newLs = new ArrayList<>(ls.size() + t.size());
+        newLs.addAll(ls.subList(0, index));
+        newLs.addAll(t);
+        newLs.addAll(ls.subList(index, ls.size()));
+
+        return newLs;
+    }
+
+    /**
+     * Replace the elements between {@code fromIndex}, inclusive, and {@code toIndex}, exclusive, with
+     * the elements of {@code replacement}.
+     *
+     * @param ls          The original list.
+     * @param fromIndex   The index of the first element to replace.
+     * @param toIndex     The index after the last element to replace.
+     * @param replacement The elements to put in place of the range, which may be more or fewer than the range.
+     * @param <T>         The type of elements in the list.
+     * @return The original list when the replacement consists of the very same elements as the range,
+     * otherwise a new list.
+     */
+    public static <T> List<T> replaceRange(List<T> ls, int fromIndex, int toIndex, @Nullable List<T> replacement) {
+        int replacementSize = replacement == null ? 0 : replacement.size();
+        if (replacementSize == toIndex - fromIndex) {
+            boolean changed = false;
+            for (int i = 0; i < replacementSize; i++) {
+                if (ls.get(fromIndex + i) != replacement.get(i)) {
+                    changed = true;
+                    break;
+                }
+            }
+            if (!changed) {
+                return ls;
+            }
+        }
 
+        List<T> newLs = new ArrayList<>(ls.size() - (toIndex - fromIndex) + replacementSize);
+        newLs.addAll(ls.subList(0, fromIndex));
+        if (replacement != null) {
+            newLs.addAll(replacement);
+        }
+        newLs.addAll(ls.subList(toIndex, ls.size()));
         return newLs;
     }
 
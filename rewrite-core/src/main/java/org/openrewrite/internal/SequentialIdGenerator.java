@@ -0,0 +1,61 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.internal;
+
+import org.openrewrite.IdGenerator;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+
+/**
+ * Generates ids from a counter per thread, so that threads never contend with each other to generate an id.
+ * <p>
+ * Each thread draws 60 random bits from a {@link SecureRandom} once, and uses them as the most significant bits of every
+ * id it generates. The least significant bits are a counter that starts at a random value. The ids have the version
+ * and variant bits of a {@link UUID#randomUUID() type 4 UUID}, so they are indistinguishable in shape from random ids,
+ * though they are predictable.
+ */
+public class SequentialIdGenerator implements IdGenerator {
+    private static final SecureRandom SEED = new SecureRandom();
+
+    private static final long VERSION_MASK = 0xF000L;
+    private static final long VERSION_4 = 0x4000L;
+    private static final long VARIANT_MASK = 0xC000000000000000L;
+    private static final long VARIANT_IETF = 0x8000000000000000L;
+
+    private final ThreadLocal<Sequence> sequence = ThreadLocal.withInitial(Sequence::new);
+
+    @Override
+    public UUID nextId() {
+        return sequence.get().next();
+    }
+
+    private static class Sequence {
+        private final long mostSigBits;
+        private long counter;
+
+        Sequence() {
+            this.mostSigBits = (SEED.nextLong() & ~VERSION_MASK) | VERSION_4;
+            this.counter = SEED.nextLong();
+        }
+
+        UUID next() {
+            // 62 bits of counter wrap around only after 2^62 ids on one thread
+            long leastSigBits = (counter++ & ~VARIANT_MASK) | VARIANT_IETF;
+            return new UUID(mostSigBits, leastSigBits);
+        }
+    }
+}
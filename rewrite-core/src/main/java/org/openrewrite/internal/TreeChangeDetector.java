@@ -0,0 +1,237 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.internal;
+
+import org.openrewrite.SourceFile;
+import org.openrewrite.Tree;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.marker.Marker;
+import org.openrewrite.marker.Markers;
+import org.openrewrite.marker.RecipesThatMadeChanges;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decides whether a source file was changed by a recipe run by walking the original and the modified tree side by
+ * side. Since trees are immutable and visitors return the same instance for anything they didn't replace, only the
+ * nodes a visitor actually replaced, along with their ancestors, are compared. Printing both source files is only
+ * necessary when a replaced node differs in a way that can't be judged without knowing how it prints.
+ */
+public final class TreeChangeDetector {
+    /**
+     * The maximum number of replaced objects compared before giving up and printing both source files instead.
+     */
+    private static final int MAX_COMPARISONS = 10_000;
+
+    private static final Map<Class<?>, List<Field>> FIELDS = new ConcurrentHashMap<>();
+
+    private enum Change {
+        NONE,
+        AMBIGUOUS,
+        CHANGED
+    }
+
+    private final Deque<Object[]> pending = new ArrayDeque<>();
+
+    /**
+     * Pairs already compared, by identity, so that cyclic object graphs like types referring to their members are
+     * compared only once.
+     */
+    private final Set<Pair> compared = new HashSet<>();
+
+    private int comparisons;
+    private boolean ambiguous;
+
+    private TreeChangeDetector() {
+    }
+
+    /**
+     * @param before The source file before the recipe run.
+     * @param after  The same source file after the recipe run.
+     * @return <code>true</code> if the source file was moved, prints differently, or has different markers other than
+     * the {@link RecipesThatMadeChanges} bookkeeping marker.
+     */
+    public static boolean isChanged(SourceFile before, SourceFile after) {
+        if (before == after) {
+            return false;
+        }
+
+        if (!before.getSourcePath().equals(after.getSourcePath())) {
+            return true;
+        }
+
+        TreeChangeDetector detector = new TreeChangeDetector();
+        if (detector.compareAll(before, after) == Change.CHANGED) {
+            return true;
+        }
+
+        return detector.ambiguous && !before.printAll().equals(after.printAll());
+    }
+
+    /**
+     * Compares with an explicit work stack rather than by recursion, since the object graphs hanging off of a tree,
+     * like types, can be arbitrarily deep.
+     */
+    private Change compareAll(Object before, Object after) {
+        pending.push(new Object[]{before, after});
+        while (!pending.isEmpty()) {
+            Object[] next = pending.pop();
+            if (compare(next[0], next[1]) == Change.CHANGED) {
+                return Change.CHANGED;
+            }
+        }
+        return ambiguous ? Change.AMBIGUOUS : Change.NONE;
+    }
+
+    /**
+     * Compares two objects without descending into them, pushing their children onto the work stack instead.
+     */
+    private Change compare(@Nullable Object before, @Nullable Object after) {
+        if (before == after) {
+            return Change.NONE;
+        }
+
+        if (before == null || after == null) {
+            return ambiguous();
+        }
+
+        if (++comparisons > MAX_COMPARISONS) {
+            pending.clear();
+            return ambiguous();
+        }
+
+        if (!compared.add(new Pair(before, after))) {
+            return Change.NONE;
+        }
+
+        if (before instanceof Markers && after instanceof Markers) {
+            return compareMarkers((Markers) before, (Markers) after);
+        }
+
+        if (before instanceof List && after instanceof List) {
+            List<?> beforeList = (List<?>) before;
+            List<?> afterList = (List<?>) after;
+            if (beforeList.size() != afterList.size()) {
+                return ambiguous();
+            }
+            for (int i = beforeList.size() - 1; i >= 0; i--) {
+                pending.push(new Object[]{beforeList.get(i), afterList.get(i)});
+            }
+            return Change.NONE;
+        }
+
+        if (before.getClass() != after.getClass()) {
+            return ambiguous();
+        }
+
+        if (before instanceof UUID) {
+            // ids never print
+            return Change.NONE;
+        }
+
+        if (before instanceof Tree || isDescendable(before.getClass())) {
+            return compareFields(before, after);
+        }
+
+        return before.equals(after) ? Change.NONE : ambiguous();
+    }
+
+    private Change compareFields(Object before, Object after) {
+        try {
+            List<Field> fields = fields(before.getClass());
+            for (int i = fields.size() - 1; i >= 0; i--) {
+                Field field = fields.get(i);
+                pending.push(new Object[]{field.get(before), field.get(after)});
+            }
+        } catch (IllegalAccessException | RuntimeException e) {
+            return ambiguous();
+        }
+        return Change.NONE;
+    }
+
+    private Change compareMarkers(Markers before, Markers after) {
+        List<Marker> beforeMarkers = withoutRecipesThatMadeChanges(before);
+        List<Marker> afterMarkers = withoutRecipesThatMadeChanges(after);
+        return beforeMarkers.equals(afterMarkers) ? Change.NONE : Change.CHANGED;
+    }
+
+    private Change ambiguous() {
+        ambiguous = true;
+        return Change.AMBIGUOUS;
+    }
+
+    private static List<Marker> withoutRecipesThatMadeChanges(Markers markers) {
+        List<Marker> filtered = new ArrayList<>(markers.getMarkers().size());
+        for (Marker marker : markers.getMarkers()) {
+            if (!(marker instanceof RecipesThatMadeChanges)) {
+                filtered.add(marker);
+            }
+        }
+        return filtered;
+    }
+
+    /**
+     * Values from the JDK, like strings, paths and boxed primitives, are compared by equality. Anything else,
+     * like the padding and container types trees use to hold their children, is compared field by field.
+     */
+    private static boolean isDescendable(Class<?> clazz) {
+        return !clazz.isPrimitive() && !clazz.isArray() && !clazz.isEnum() &&
+                !clazz.getName().startsWith("java.") && !clazz.getName().startsWith("javax.");
+    }
+
+    private static List<Field> fields(Class<?> clazz) {
+        return FIELDS.computeIfAbsent(clazz, c -> {
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> k = c; k != null && k != Object.class; k = k.getSuperclass()) {
+                for (Field field : k.getDeclaredFields()) {
+                    // transient fields hold caches, like the padding views of Java trees
+                    if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isTransient(field.getModifiers())) {
+                        field.setAccessible(true);
+                        fields.add(field);
+                    }
+                }
+            }
+            return fields;
+        });
+    }
+
+    private static final class Pair {
+        private final Object before;
+        private final Object after;
+
+        private Pair(Object before, Object after) {
+            this.before = before;
+            this.after = after;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Pair)) {
+                return false;
+            }
+            Pair pair = (Pair) o;
+            return before == pair.before && after == pair.after;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(before) + System.identityHashCode(after);
+        }
+    }
+}
@@ -23,11 +23,9 @@ import org.openrewrite.internal.ListUtils;
 import org.openrewrite.internal.lang.Nullable;
 
 import java.util.*;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BinaryOperator;
 
 import static java.util.Collections.emptyList;
-import static java.util.stream.Collectors.toList;
 import static org.openrewrite.Tree.randomId;
 
 @Value
@@ -69,10 +67,11 @@ public class Markers implements Tree {
      * @return A new {@link Markers} with an added marker.
      */
     public Markers add(Marker marker) {
-        if (markers.stream().anyMatch(marker::equals)) {
+        if (indexOfEqual(marker) >= 0) {
             return this;
         } else {
-            List<Marker> updatedmarker = new ArrayList<>(markers);
+            List<Marker> updatedmarker = new ArrayList<>(markers.size() + 1);
+            updatedmarker.addAll(markers);
             updatedmarker.add(marker);
             return new Markers(id, updatedmarker);
         }
@@ -87,21 +86,41 @@ public class Markers implements Tree {
      * @return A new {@link Markers} with an added or updated marker.
      */
     public <M extends Marker> Markers computeByType(M identity, BinaryOperator<M> remappingFunction) {
-        AtomicBoolean updated = new AtomicBoolean(false);
-        List<Marker> markers = ListUtils.map(this.markers, m -> {
-            if (m.getClass().equals(identity.getClass())) {
-                updated.set(true);
+        int i = indexOfType(identity.getClass(), 0);
+        if (i < 0) {
+            return withMarkers(ListUtils.concat(markers, identity));
+        }
 
-                //noinspection unchecked
-                return remappingFunction.apply((M) m, identity);
+        List<Marker> updated = markers;
+        do {
+            Marker m = updated.get(i);
+            //noinspection unchecked
+            Marker remapped = remappingFunction.apply((M) m, identity);
+            if (remapped != m) {
+                if (updated == markers) {
+                    updated = new ArrayList<>(markers);
+                }
+                updated.set(i, remapped);
             }
-            return m;
-        });
-        return withMarkers(!updated.get() ? ListUtils.concat(markers, identity) : markers);
+            i = indexOfType(identity.getClass(), i + 1);
+        } while (i >= 0);
+
+        return withMarkers(removeNulls(updated));
     }
 
     public Markers removeByType(Class<? extends Marker> type) {
-        return withMarkers(ListUtils.map(this.markers, m -> type.equals(m.getClass()) ? null : m));
+        int i = indexOfType(type, 0);
+        if (i < 0) {
+            return this;
+        }
+
+        List<Marker> updated = new ArrayList<>(markers.size() - 1);
+        for (Marker m : markers) {
+            if (!type.equals(m.getClass())) {
+                updated.add(m);
+            }
+        }
+        return withMarkers(updated);
     }
 
     public <M extends Marker> Markers setByType(M m) {
@@ -117,21 +136,27 @@ public class Markers implements Tree {
      * @return A new {@link Markers} with an added or updated marker.
      */
     public <M extends Marker> Markers compute(M identity, BinaryOperator<M> remappingFunction) {
-        AtomicBoolean foundEqualMarker = new AtomicBoolean(false);
-        List<Marker> updatedMarkers = ListUtils.map(markers, m -> {
+        int i = indexOfEqual(identity);
+        if (i < 0) {
+            return withMarkers(ListUtils.concat(markers, identity));
+        }
+
+        List<Marker> updated = markers;
+        for (; i < updated.size(); i++) {
+            Marker m = updated.get(i);
             if (m.equals(identity)) {
-                foundEqualMarker.set(true);
                 //noinspection unchecked
-                return remappingFunction.apply((M) m, identity);
+                Marker remapped = remappingFunction.apply((M) m, identity);
+                if (remapped != m) {
+                    if (updated == markers) {
+                        updated = new ArrayList<>(markers);
+                    }
+                    updated.set(i, remapped);
+                }
             }
-            return m;
-        });
-
-        if (!foundEqualMarker.get()) {
-            updatedMarkers = ListUtils.concat(updatedMarkers, identity);
         }
 
-        return withMarkers(updatedMarkers);
+        return withMarkers(removeNulls(updated));
     }
 
     /**
@@ -147,17 +172,57 @@ public class Markers implements Tree {
     }
 
     public <M extends Marker> List<M> findAll(Class<M> markerType) {
-        return markers.stream()
-                .filter(markerType::isInstance)
-                .map(markerType::cast)
-                .collect(toList());
+        List<M> found = null;
+        //noinspection ForLoopReplaceableByForEach
+        for (int i = 0; i < markers.size(); i++) {
+            Marker m = markers.get(i);
+            if (markerType.isInstance(m)) {
+                if (found == null) {
+                    found = new ArrayList<>(2);
+                }
+                found.add(markerType.cast(m));
+            }
+        }
+        return found == null ? emptyList() : found;
     }
 
     public <M extends Marker> Optional<M> findFirst(Class<M> markerType) {
-        return markers.stream()
-                .filter(markerType::isInstance)
-                .map(markerType::cast)
-                .findFirst();
+        //noinspection ForLoopReplaceableByForEach
+        for (int i = 0; i < markers.size(); i++) {
+            Marker m = markers.get(i);
+            if (markerType.isInstance(m)) {
+                return Optional.of(markerType.cast(m));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * A remapping function may remove a marker by returning <code>null</code>.
+     */
+    private List<Marker> removeNulls(List<Marker> updated) {
+        if (updated != markers && updated.contains(null)) {
+            updated.removeIf(Objects::isNull);
+        }
+        return updated;
+    }
+
+    private int indexOfType(Class<?> type, int from) {
+        for (int i = from; i < markers.size(); i++) {
+            if (markers.get(i).getClass() == type) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int indexOfEqual(Marker marker) {
+        for (int i = 0; i < markers.size(); i++) {
+            if (marker.equals(markers.get(i))) {
+                return i;
+            }
+        }
+        return -1;
     }
 
     public Markers searchResult() {
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.scheduling;
+
+import lombok.RequiredArgsConstructor;
+import org.openrewrite.Incubating;
+import org.openrewrite.Recipe;
+import org.openrewrite.SourceFile;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Remembers the outcome of a recipe's applicability test on each source file for the duration of a recipe run,
+ * so that a source file that is unchanged since the last time the test ran on it isn't tested again on a later cycle.
+ */
+@Incubating(since = "7.23.0")
+public class ApplicabilityCache {
+    /**
+     * Recipes are equal by name, so recipes that only differ by their options would share verdicts
+     * if they weren't held by identity.
+     */
+    private final Map<Recipe, Map<UUID, Verdict>> verdicts = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    public boolean isApplicable(Recipe recipe, SourceFile sourceFile, Predicate<SourceFile> applicableTest) {
+        Map<UUID, Verdict> verdictsBySourceFile = verdicts.computeIfAbsent(recipe, r -> new ConcurrentHashMap<>());
+        Verdict verdict = verdictsBySourceFile.get(sourceFile.getId());
+        if (verdict == null || verdict.sourceFile != sourceFile) {
+            verdict = new Verdict(sourceFile, applicableTest.test(sourceFile));
+            verdictsBySourceFile.put(sourceFile.getId(), verdict);
+        }
+        return verdict.applicable;
+    }
+
+    @RequiredArgsConstructor
+    private static class Verdict {
+        /**
+         * The verdict only holds for this exact instance of the source file.
+         */
+        private final SourceFile sourceFile;
+
+        private final boolean applicable;
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.scheduling;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Incubating;
+import org.openrewrite.Recipe;
+import org.openrewrite.internal.lang.Nullable;
+
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Where a single recipe run spent its time, broken down by each recipe in the recipe tree. Unlike the Micrometer
+ * meters recorded by {@link org.openrewrite.instrumentation.Instrumentation}, these statistics cover exactly one run.
+ * <p>
+ * Call {@link #collect(Recipe, ExecutionContext)} before running the recipe with the same execution context, then read
+ * the statistics or {@link #toJson() serialize them} once the run completes. Counts add up over every cycle of the run,
+ * so a source file that is visited on two cycles counts twice.
+ */
+@Incubating(since = "7.23.0")
+@JsonPropertyOrder({"recipe", "filesVisited", "filesSkipped", "filesChanged", "filesDeleted", "filesErrored",
+        "cumulativeVisitNanos", "maxVisitNanos", "applicabilityTestNanos", "visitMethodCount", "children"})
+public class RecipeRunStats {
+    private static final String RECIPE_RUN_STATS = "org.openrewrite.recipeRunStats";
+
+    private final String recipe;
+    private final List<RecipeRunStats> children = new ArrayList<>();
+
+    /**
+     * Shared by every node of the tree. Recipes are equal by name, so they are held by identity to tell apart
+     * recipes that only differ by their options. Built once up front and only read while the recipe runs.
+     */
+    private final Map<Recipe, RecipeRunStats> byRecipe;
+
+    private final LongAdder filesVisited = new LongAdder();
+    private final LongAdder filesSkipped = new LongAdder();
+    private final LongAdder filesChanged = new LongAdder();
+    private final LongAdder filesDeleted = new LongAdder();
+    private final LongAdder filesErrored = new LongAdder();
+    private final LongAdder cumulativeVisitNanos = new LongAdder();
+    private final AtomicLong maxVisitNanos = new AtomicLong();
+    private final LongAdder applicabilityTestNanos = new LongAdder();
+    private final LongAdder visitMethodCount = new LongAdder();
+
+    private RecipeRunStats(Recipe recipe, Map<Recipe, RecipeRunStats> byRecipe) {
+        this.recipe = recipe.getName();
+        this.byRecipe = byRecipe;
+        byRecipe.putIfAbsent(recipe, this);
+        for (Recipe child : recipe.getRecipeList()) {
+            children.add(new RecipeRunStats(child, byRecipe));
+        }
+    }
+
+    /**
+     * Start collecting statistics for the next run of a recipe with this execution context.
+     *
+     * @param recipe The recipe that will be run.
+     * @param ctx    The execution context that the recipe will be run with.
+     * @return The statistics, which are filled in as the recipe runs.
+     */
+    public static RecipeRunStats collect(Recipe recipe, ExecutionContext ctx) {
+        RecipeRunStats stats = new RecipeRunStats(recipe, new IdentityHashMap<>());
+        ctx.putMessage(RECIPE_RUN_STATS, stats);
+        return stats;
+    }
+
+    /**
+     * @return The statistics being collected for runs with this execution context, if any.
+     */
+    @Nullable
+    public static RecipeRunStats current(ExecutionContext ctx) {
+        return ctx.getMessage(RECIPE_RUN_STATS);
+    }
+
+    /**
+     * @return The statistics of a recipe anywhere in the recipe tree, or <code>null</code> if the recipe wasn't part
+     * of the recipe tree when statistics collection started.
+     */
+    @Nullable
+    public RecipeRunStats find(Recipe recipe) {
+        return byRecipe.get(recipe);
+    }
+
+    public void recordSkipped() {
+        filesSkipped.increment();
+    }
+
+    /**
+     * @param visitNanos       How long the recipe's visitor took on the source file.
+     * @param visitMethodCount How many times the visitor's <code>visit</code> method was called.
+     */
+    public void recordVisit(long visitNanos, int visitMethodCount) {
+        filesVisited.increment();
+        cumulativeVisitNanos.add(visitNanos);
+        maxVisitNanos.accumulateAndGet(visitNanos, Math::max);
+        this.visitMethodCount.add(visitMethodCount);
+    }
+
+    public void recordChanged() {
+        filesChanged.increment();
+    }
+
+    public void recordDeleted() {
+        filesDeleted.increment();
+    }
+
+    /**
+     * Record a source file on which the recipe's visitor failed or ran out of time.
+     */
+    public void recordErrored() {
+        filesErrored.increment();
+    }
+
+    public void recordApplicabilityTest(long nanos) {
+        applicabilityTestNanos.add(nanos);
+    }
+
+    /**
+     * @return The name of the recipe.
+     */
+    public String getRecipe() {
+        return recipe;
+    }
+
+    public List<RecipeRunStats> getChildren() {
+        return Collections.unmodifiableList(children);
+    }
+
+    public long getFilesVisited() {
+        return filesVisited.sum();
+    }
+
+    public long getFilesSkipped() {
+        return filesSkipped.sum();
+    }
+
+    public long getFilesChanged() {
+        return filesChanged.sum();
+    }
+
+    public long getFilesDeleted() {
+        return filesDeleted.sum();
+    }
+
+    public long getFilesErrored() {
+        return filesErrored.sum();
+    }
+
+    public long getCumulativeVisitNanos() {
+        return cumulativeVisitNanos.sum();
+    }
+
+    public long getMaxVisitNanos() {
+        return maxVisitNanos.get();
+    }
+
+    public long getApplicabilityTestNanos() {
+        return applicabilityTestNanos.sum();
+    }
+
+    public long getVisitMethodCount() {
+        return visitMethodCount.sum();
+    }
+
+    public String toJson() {
+        try {
+            return new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(this);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
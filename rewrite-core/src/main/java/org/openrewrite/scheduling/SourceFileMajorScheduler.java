@@ -0,0 +1,62 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.scheduling;
+
+import lombok.RequiredArgsConstructor;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Incubating;
+import org.openrewrite.Recipe;
+import org.openrewrite.RecipeScheduler;
+import org.openrewrite.SourceFile;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Stack;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Runs the whole recipe tree against each source file as one scheduled task, rather than
+ * waiting for every source file to complete one recipe before starting the next.
+ *
+ * @see RecipeScheduler#scheduleVisitBySourceFile(Stack, List, ExecutionContext, Map)
+ */
+@Incubating(since = "7.23.0")
+@RequiredArgsConstructor
+public class SourceFileMajorScheduler implements RecipeScheduler {
+
+    private static final SourceFileMajorScheduler COMMON = new SourceFileMajorScheduler(ForkJoinScheduler.common());
+
+    private final RecipeScheduler delegate;
+
+    public static SourceFileMajorScheduler common() {
+        return COMMON;
+    }
+
+    @Override
+    public <S extends SourceFile> List<S> scheduleVisit(Stack<Recipe> recipeStack,
+                                                        List<S> before,
+                                                        ExecutionContext ctx,
+                                                        Map<UUID, Stack<Recipe>> recipeThatDeletedSourceFile) {
+        return scheduleVisitBySourceFile(recipeStack, before, ctx, recipeThatDeletedSourceFile);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> schedule(Callable<T> fn) {
+        return delegate.schedule(fn);
+    }
+}
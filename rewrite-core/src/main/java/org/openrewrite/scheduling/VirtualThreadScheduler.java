@@ -0,0 +1,176 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.scheduling;
+
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Incubating;
+import org.openrewrite.Recipe;
+import org.openrewrite.RecipeScheduler;
+import org.openrewrite.SourceFile;
+import org.openrewrite.internal.lang.Nullable;
+
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.ToIntFunction;
+
+/**
+ * Schedules every task on its own virtual thread when running on JDK 21 or later, so that visitors which block
+ * on I/O, like those downloading Maven metadata, don't hold on to one of a small, fixed number of platform threads.
+ * On older JDKs, tasks run on a fixed pool of platform threads instead.
+ * <p>
+ * Since threads are no longer the limit on how much work runs at once, concurrency is bounded by permits instead:
+ * a global limit on the number of tasks running at once, and an optional lower limit per recipe, so that a recipe
+ * that spends its time blocked can't take every permit away from CPU-bound recipes. Per-recipe limits apply to
+ * the recipe whose visitor is being run against the whole batch of source files, so they aren't applied by
+ * {@link RecipeScheduler#scheduleVisitBySourceFile(Stack, List, ExecutionContext, Map)}, where a single task
+ * runs many recipes. Per-recipe permits last only as long as the visit of the recipe tree they were taken for, so
+ * runs that share this scheduler never share per-recipe permits.
+ */
+@Incubating(since = "7.23.0")
+public class VirtualThreadScheduler implements RecipeScheduler {
+    @Nullable
+    private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR;
+
+    static {
+        Method method;
+        try {
+            method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            method = null;
+        }
+        NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = method;
+    }
+
+    private final ExecutorService executorService;
+    private final Semaphore permits;
+    private final ToIntFunction<Recipe> recipeConcurrency;
+
+    /**
+     * The outermost {@link #scheduleVisit(Stack, List, ExecutionContext, Map)} in progress on this thread. Tasks are
+     * scheduled by the thread visiting the recipe, so concurrent runs sharing this scheduler each see their own.
+     */
+    private final ThreadLocal<Visit> visit = new ThreadLocal<>();
+
+    public VirtualThreadScheduler(int maxConcurrency) {
+        this(maxConcurrency, recipe -> maxConcurrency);
+    }
+
+    /**
+     * @param maxConcurrency    The maximum number of tasks running at once across all recipes.
+     * @param recipeConcurrency The maximum number of tasks running at once for a particular recipe.
+     */
+    public VirtualThreadScheduler(int maxConcurrency, ToIntFunction<Recipe> recipeConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("The maximum concurrency must be at least 1, but was " + maxConcurrency);
+        }
+        this.executorService = newExecutorService(maxConcurrency);
+        this.permits = new Semaphore(maxConcurrency);
+        this.recipeConcurrency = recipeConcurrency;
+    }
+
+    public static boolean isVirtualThreadAvailable() {
+        return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    @Override
+    public <S extends SourceFile> List<S> scheduleVisit(Stack<Recipe> recipeStack,
+                                                        List<S> before,
+                                                        ExecutionContext ctx,
+                                                        Map<UUID, Stack<Recipe>> recipeThatDeletedSourceFile) {
+        Visit v = visit.get();
+        boolean outermost = v == null;
+        if (outermost) {
+            v = new Visit();
+            visit.set(v);
+        }
+
+        Recipe parent = v.recipe;
+        v.recipe = recipeStack.peek();
+        try {
+            return RecipeScheduler.super.scheduleVisit(recipeStack, before, ctx, recipeThatDeletedSourceFile);
+        } finally {
+            v.recipe = parent;
+            if (outermost) {
+                visit.remove();
+            }
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<T> schedule(Callable<T> fn) {
+        Visit v = visit.get();
+        Semaphore forRecipe = v == null || v.recipe == null ? null : v.recipePermits.computeIfAbsent(v.recipe,
+                r -> new Semaphore(Math.max(1, recipeConcurrency.applyAsInt(r))));
+
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                if (forRecipe != null) {
+                    forRecipe.acquire();
+                }
+                try {
+                    permits.acquire();
+                    try {
+                        return fn.call();
+                    } finally {
+                        permits.release();
+                    }
+                } finally {
+                    if (forRecipe != null) {
+                        forRecipe.release();
+                    }
+                }
+            } catch (Exception e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new CompletionException(e);
+            }
+        }, executorService);
+    }
+
+    public void shutdown() {
+        executorService.shutdown();
+    }
+
+    private static class Visit {
+        /**
+         * Keyed by identity, since recipes that are equal by value may still be different instances in a
+         * recipe tree, each limited on its own.
+         */
+        final Map<Recipe, Semaphore> recipePermits = new IdentityHashMap<>();
+
+        @Nullable
+        Recipe recipe;
+    }
+
+    private static ExecutorService newExecutorService(int maxConcurrency) {
+        if (NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null) {
+            try {
+                return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+            } catch (ReflectiveOperationException ignored) {
+                // fall back to platform threads
+            }
+        }
+
+        // platform threads are expensive to hold blocked on permits, so don't start more than can run at once
+        return Executors.newFixedThreadPool(maxConcurrency, r -> {
+            Thread thread = new Thread(r, "rewrite-recipe-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.scheduling;
+
+import org.openrewrite.Incubating;
+import org.openrewrite.Recipe;
+import org.openrewrite.RecipeTimeoutException;
+import org.openrewrite.internal.lang.Nullable;
+
+/**
+ * A deadline for the visit of a source file that {@link org.openrewrite.TreeVisitor} checks periodically, so that a
+ * recipe run that is past its {@link org.openrewrite.ExecutionContext#getRunTimeout(int) run timeout} abandons the
+ * source file it is in the middle of rather than running to completion.
+ * <p>
+ * The deadline is armed per thread by the scheduler around each source file it visits.
+ */
+@Incubating(since = "7.23.0")
+public final class VisitDeadline {
+    private static final ThreadLocal<VisitDeadline> CURRENT = new ThreadLocal<>();
+
+    private final Recipe recipe;
+    private final long deadlineNanos;
+
+    public VisitDeadline(Recipe recipe, long deadlineNanos) {
+        this.recipe = recipe;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * @param deadline The deadline of visits on this thread until it is restored.
+     * @return The deadline that was previously armed on this thread, which should be restored when the visit completes.
+     */
+    @Nullable
+    public static VisitDeadline arm(VisitDeadline deadline) {
+        VisitDeadline previous = CURRENT.get();
+        CURRENT.set(deadline);
+        return previous;
+    }
+
+    public static void restore(@Nullable VisitDeadline previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    @Nullable
+    public static VisitDeadline current() {
+        return CURRENT.get();
+    }
+
+    public boolean isExpired() {
+        return System.nanoTime() - deadlineNanos > 0;
+    }
+
+    /**
+     * @throws RecipeTimeoutException if the deadline has passed.
+     */
+    public void check() {
+        if (isExpired()) {
+            throw new RecipeTimeoutException(recipe);
+        }
+    }
+}
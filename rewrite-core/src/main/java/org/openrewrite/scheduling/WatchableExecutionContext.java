@@ -17,9 +17,17 @@ package org.openrewrite.scheduling;
 
 import lombok.RequiredArgsConstructor;
 import org.openrewrite.ExecutionContext;
+import org.openrewrite.Incubating;
+import org.openrewrite.Recipe;
+import org.openrewrite.SourceFile;
 import org.openrewrite.internal.lang.Nullable;
 
 import java.time.Duration;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
@@ -30,6 +38,16 @@ public class WatchableExecutionContext implements ExecutionContext {
 
     private boolean hasNewMessages = false;
 
+    /**
+     * The source file instance that each recipe which {@link Recipe#onlyRevisitsChangedSourceFiles() only revisits
+     * changed source files} last visited, by source file id. Recipes are held by identity.
+     */
+    private final Map<Recipe, Map<UUID, SourceFile>> lastVisited = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private final ApplicabilityCache applicableTestCache = new ApplicabilityCache();
+
+    private final ApplicabilityCache singleSourceApplicableTestCache = new ApplicabilityCache();
+
     public boolean hasNewMessages() {
         return hasNewMessages;
     }
@@ -38,6 +56,47 @@ public class WatchableExecutionContext implements ExecutionContext {
         this.hasNewMessages = false;
     }
 
+    /**
+     * @return <code>false</code> when the recipe {@link Recipe#onlyRevisitsChangedSourceFiles() only revisits changed
+     * source files} and the source file is the very instance the recipe last visited, so that no recipe has changed it
+     * since, on this cycle or the previous one.
+     */
+    @Incubating(since = "7.23.0")
+    public boolean isVisitRequired(Recipe recipe, SourceFile sourceFile) {
+        if (!recipe.onlyRevisitsChangedSourceFiles()) {
+            return true;
+        }
+        Map<UUID, SourceFile> visited = lastVisited.get(recipe);
+        return visited == null || visited.get(sourceFile.getId()) != sourceFile;
+    }
+
+    /**
+     * Remember the source file a recipe has visited, so that the recipe can skip it on a later cycle if it is
+     * still the same instance.
+     */
+    @Incubating(since = "7.23.0")
+    public void visited(Recipe recipe, SourceFile sourceFile) {
+        if (recipe.onlyRevisitsChangedSourceFiles()) {
+            lastVisited.computeIfAbsent(recipe, r -> new ConcurrentHashMap<>()).put(sourceFile.getId(), sourceFile);
+        }
+    }
+
+    /**
+     * @return Verdicts of {@link Recipe#getApplicableTest()} for the duration of the run.
+     */
+    @Incubating(since = "7.23.0")
+    public ApplicabilityCache getApplicableTestCache() {
+        return applicableTestCache;
+    }
+
+    /**
+     * @return Verdicts of {@link Recipe#getSingleSourceApplicableTest()} for the duration of the run.
+     */
+    @Incubating(since = "7.23.0")
+    public ApplicabilityCache getSingleSourceApplicableTestCache() {
+        return singleSourceApplicableTestCache;
+    }
+
     @Override
     public void putMessage(String key, Object value) {
         hasNewMessages = true;
@@ -17,7 +17,6 @@ package org.openrewrite.text;
 
 import org.openrewrite.ExecutionContext;
 import org.openrewrite.Parser;
-import org.openrewrite.internal.StringUtils;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.marker.Markers;
 
@@ -38,7 +37,7 @@ public class PlainTextParser implements Parser<PlainText> {
                             source.getPath() :
                             relativeTo.relativize(source.getPath()).normalize(),
                     Markers.EMPTY,
-                    StringUtils.readFully(source.getSource())));
+                    source.getContent().getText()));
         }
         return plainTexts;
     }
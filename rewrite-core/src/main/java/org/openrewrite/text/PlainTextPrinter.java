@@ -23,7 +23,7 @@ public class PlainTextPrinter<P> extends PlainTextVisitor<PrintOutputCapture<P>>
     @Override
     public PlainText visitText(PlainText text, PrintOutputCapture<P> p) {
         visitMarkers(text.getMarkers(), p);
-        p.out.append(text.getText());
+        p.append(text.getText());
         return text;
     }
 
@@ -31,7 +31,7 @@ public class PlainTextPrinter<P> extends PlainTextVisitor<PrintOutputCapture<P>>
     public <M extends Marker> M visitMarker(Marker marker, PrintOutputCapture<P> p) {
         if(marker instanceof SearchResult) {
             String description = ((SearchResult) marker).getDescription();
-            p.out.append("~~")
+            p.append("~~")
                     .append(description == null ? "" : "(" + description + ")~~")
                     .append(">");
         }
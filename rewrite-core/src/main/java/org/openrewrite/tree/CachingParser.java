@@ -0,0 +1,469 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.tree;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openrewrite.*;
+import org.openrewrite.internal.lang.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static java.util.Collections.emptySet;
+
+/**
+ * Wraps a parser so that source files whose content has not changed since the last time they were parsed are loaded
+ * from an on-disk {@link SourceFileStore} rather than parsed again.
+ * <p>
+ * Cached source files are kept apart by a fingerprint, which should identify the parser type, its configuration and
+ * its classpath (see {@link #classpathFingerprint(Collection)}), so that a change to any of them starts a fresh cache.
+ * Within a fingerprint, a source file is identified by its relative path and the hash of its content.
+ * <p>
+ * For languages whose source files are type attributed against each other, like Java, {@link Dependencies} say
+ * which names each source file declares and references. A changed, added or deleted source file then also
+ * invalidates every source file that references (directly or transitively) a name it declared. Source files that
+ * are parsed again are parsed along with the source files they referenced last time, so that the parser can
+ * attribute them. When that is not enough, because a parsed source file now has references that could not be
+ * resolved where it previously had none, every source file is parsed again.
+ * <p>
+ * Each cached source file is stored in a file of its own that is never modified once written, and the manifest,
+ * which names the stored file of every source file along with its content hash and dependencies, is replaced
+ * atomically once every file it names has been written. The manifest is therefore always paired with exactly the
+ * stored files it was written with, even when a run is interrupted, and a run only writes the source files it parsed.
+ *
+ * @param <S> The type of source file the parser produces.
+ */
+@Incubating(since = "7.23.0")
+public class CachingParser<S extends SourceFile> implements Parser<S> {
+    private static final String SOURCES = "sources";
+    private static final String MANIFEST = "manifest.json";
+
+    private final Parser<S> delegate;
+    private final Path cacheDir;
+    private final Dependencies<? super S> dependencies;
+    private final SourceFileStore store = new SourceFileStore();
+    private final ObjectMapper mapper;
+
+    /**
+     * @param delegate    The parser to parse source files with when they are not cached.
+     * @param cacheRoot   The directory caches are kept in, which may be shared between parsers with different
+     *                    fingerprints.
+     * @param fingerprint Identifies the parser type, configuration and classpath.
+     */
+    public CachingParser(Parser<S> delegate, Path cacheRoot, String fingerprint) {
+        this(delegate, cacheRoot, fingerprint, Dependencies.NONE);
+    }
+
+    public CachingParser(Parser<S> delegate, Path cacheRoot, String fingerprint, Dependencies<? super S> dependencies) {
+        this.delegate = delegate;
+        this.cacheDir = cacheRoot.resolve(sha256(ByteBuffer.wrap(
+                (delegate.getClass().getName() + "\n" + fingerprint).getBytes(StandardCharsets.UTF_8))));
+        this.dependencies = dependencies;
+
+        ObjectMapper m = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.mapper = m.setVisibility(m.getSerializationConfig().getDefaultVisibilityChecker()
+                .withGetterVisibility(JsonAutoDetect.Visibility.NONE)
+                .withIsGetterVisibility(JsonAutoDetect.Visibility.NONE)
+                .withFieldVisibility(JsonAutoDetect.Visibility.ANY));
+    }
+
+    /**
+     * Says which names a source file declares and references, so that changing one source file can invalidate the
+     * cached source files that were attributed against it.
+     */
+    public interface Dependencies<S extends SourceFile> {
+        Dependencies<SourceFile> NONE = new Dependencies<SourceFile>() {
+            @Override
+            public Set<String> getDeclared(SourceFile sourceFile) {
+                return emptySet();
+            }
+
+            @Override
+            public Set<String> getReferenced(SourceFile sourceFile) {
+                return emptySet();
+            }
+        };
+
+        Set<String> getDeclared(S sourceFile);
+
+        /**
+         * @return The names the source file references, or <code>null</code> when it has references that could not
+         * be resolved, and so may depend on any other source file.
+         */
+        @Nullable
+        Set<String> getReferenced(S sourceFile);
+    }
+
+    /**
+     * @param classpath The classpath of a parser.
+     * @return A fingerprint that changes whenever an entry is added to or removed from the classpath, or is modified.
+     */
+    public static String classpathFingerprint(Collection<Path> classpath) {
+        StringBuilder entries = new StringBuilder();
+        for (Path entry : classpath) {
+            entries.append(entry.toAbsolutePath());
+            try {
+                entries.append(' ').append(Files.size(entry))
+                        .append(' ').append(Files.getLastModifiedTime(entry).toMillis());
+            } catch (IOException ignored) {
+                // a missing entry is fingerprinted by its path alone
+            }
+            entries.append('\n');
+        }
+        return sha256(ByteBuffer.wrap(entries.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Override
+    public List<S> parseInputs(Iterable<Input> sources, @Nullable Path relativeTo, ExecutionContext ctx) {
+        ParsingEventListener parsingListener = ParsingExecutionContextView.view(ctx).getParsingListener();
+        List<Input> inputs = acceptedInputs(sources);
+        Map<String, Entry> manifest = readManifest(ctx);
+
+        Map<String, String> hashes = new HashMap<>();
+        for (Input input : inputs) {
+            if (!input.isSynthetic()) {
+                hashes.put(input.getRelativePath(relativeTo).toString(), sha256(input.getContent().getBytes()));
+            }
+        }
+
+        Set<String> invalid = invalidate(manifest, hashes);
+        Map<String, S> cached = readCached(manifest, hashes, invalid, ctx);
+
+        Set<String> reparse = new HashSet<>();
+        for (Map.Entry<String, String> hash : hashes.entrySet()) {
+            if (!cached.containsKey(hash.getKey())) {
+                reparse.add(hash.getKey());
+            }
+        }
+        addReferencedSourceFiles(reparse, manifest, hashes.keySet());
+
+        List<Input> toParse = new ArrayList<>();
+        for (Input input : inputs) {
+            if (input.isSynthetic() || reparse.contains(input.getRelativePath(relativeTo).toString())) {
+                toParse.add(input);
+            }
+        }
+
+        Map<String, S> parsed = new LinkedHashMap<>();
+        if (!toParse.isEmpty()) {
+            List<S> sourceFiles = delegate.parseInputs(toParse, relativeTo, ctx);
+            if (toParse.size() < inputs.size() && lostAttribution(sourceFiles, manifest)) {
+                cached.clear();
+                sourceFiles = delegate.reset().parseInputs(inputs, relativeTo, ctx);
+            }
+            for (S sourceFile : sourceFiles) {
+                parsed.put(sourceFile.getSourcePath().toString(), sourceFile);
+            }
+        }
+        Set<String> parsedPaths = new HashSet<>(parsed.keySet());
+
+        List<S> sourceFiles = new ArrayList<>(inputs.size());
+        for (Input input : inputs) {
+            String path = input.getRelativePath(relativeTo).toString();
+            S sourceFile = parsed.remove(path);
+            if (sourceFile == null) {
+                sourceFile = cached.get(path);
+                if (sourceFile != null) {
+                    parsingListener.parsed(input, sourceFile);
+                }
+            }
+            if (sourceFile != null) {
+                sourceFiles.add(sourceFile);
+            }
+        }
+        // whatever the parser produced under a path other than its input's
+        sourceFiles.addAll(parsed.values());
+
+        if (!toParse.isEmpty() || !manifest.keySet().equals(hashes.keySet())) {
+            write(sourceFiles, parsedPaths, hashes, manifest, ctx);
+        }
+
+        return sourceFiles;
+    }
+
+    /**
+     * @return The paths of the source files that have to be parsed again.
+     */
+    private Set<String> invalidate(Map<String, Entry> manifest, Map<String, String> hashes) {
+        Set<String> invalid = new HashSet<>();
+        Deque<String> changedNames = new ArrayDeque<>();
+        for (Map.Entry<String, String> hash : hashes.entrySet()) {
+            Entry entry = manifest.get(hash.getKey());
+            if (entry == null || !entry.hash.equals(hash.getValue())) {
+                invalid.add(hash.getKey());
+                if (entry != null) {
+                    changedNames.addAll(entry.declared);
+                }
+            }
+        }
+        boolean anyDeleted = false;
+        for (Map.Entry<String, Entry> entry : manifest.entrySet()) {
+            if (!hashes.containsKey(entry.getKey())) {
+                anyDeleted = true;
+                changedNames.addAll(entry.getValue().declared);
+            }
+        }
+        if (invalid.isEmpty() && !anyDeleted) {
+            return invalid;
+        }
+
+        Map<String, List<String>> referencedBy = new HashMap<>();
+        for (String path : hashes.keySet()) {
+            if (invalid.contains(path)) {
+                continue;
+            }
+            Entry entry = manifest.get(path);
+            if (entry.referenced == null) {
+                // it may have been attributed against any of the changed source files
+                invalid.add(path);
+                changedNames.addAll(entry.declared);
+            } else {
+                for (String name : entry.referenced) {
+                    referencedBy.computeIfAbsent(name, n -> new ArrayList<>()).add(path);
+                }
+            }
+        }
+
+        Set<String> seenNames = new HashSet<>();
+        while (!changedNames.isEmpty()) {
+            String name = changedNames.pop();
+            if (seenNames.add(name)) {
+                for (String path : referencedBy.getOrDefault(name, Collections.emptyList())) {
+                    if (invalid.add(path)) {
+                        changedNames.addAll(manifest.get(path).declared);
+                    }
+                }
+            }
+        }
+        return invalid;
+    }
+
+    /**
+     * Add the source files that the source files being parsed referenced the last time they were parsed, so that
+     * the parser can attribute them.
+     */
+    private void addReferencedSourceFiles(Set<String> reparse, Map<String, Entry> manifest, Set<String> present) {
+        if (reparse.isEmpty()) {
+            return;
+        }
+
+        Map<String, List<String>> declaredBy = new HashMap<>();
+        for (String path : present) {
+            Entry entry = manifest.get(path);
+            if (entry != null) {
+                for (String name : entry.declared) {
+                    declaredBy.computeIfAbsent(name, n -> new ArrayList<>()).add(path);
+                }
+            }
+        }
+        if (declaredBy.isEmpty()) {
+            return;
+        }
+
+        Deque<String> paths = new ArrayDeque<>(reparse);
+        while (!paths.isEmpty()) {
+            Entry entry = manifest.get(paths.pop());
+            if (entry == null || entry.referenced == null) {
+                continue;
+            }
+            for (String name : entry.referenced) {
+                for (String path : declaredBy.getOrDefault(name, Collections.emptyList())) {
+                    if (reparse.add(path)) {
+                        paths.push(path);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return <code>true</code> when a source file has references that could not be resolved where it had none the
+     * last time it was parsed, which is a sign that it now references source files that were not parsed with it.
+     */
+    private boolean lostAttribution(List<S> sourceFiles, Map<String, Entry> manifest) {
+        if (dependencies == Dependencies.NONE) {
+            return false;
+        }
+        for (S sourceFile : sourceFiles) {
+            if (dependencies.getReferenced(sourceFile) == null) {
+                Entry entry = manifest.get(sourceFile.getSourcePath().toString());
+                if (entry == null || entry.referenced != null) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private Map<String, S> readCached(Map<String, Entry> manifest, Map<String, String> hashes, Set<String> invalid,
+                                      ExecutionContext ctx) {
+        Map<String, S> cached = new HashMap<>();
+        for (String path : hashes.keySet()) {
+            Entry entry = manifest.get(path);
+            if (invalid.contains(path) || entry == null || entry.file == null) {
+                continue;
+            }
+            try {
+                List<SourceFile> sourceFiles = store.read(cacheDir.resolve(SOURCES).resolve(entry.file));
+                //noinspection unchecked
+                cached.put(path, (S) sourceFiles.get(0));
+            } catch (RuntimeException e) {
+                // a source file that can't be read is as good as one that was never cached
+                ctx.getOnError().accept(e);
+            }
+        }
+        return cached;
+    }
+
+    private Map<String, Entry> readManifest(ExecutionContext ctx) {
+        Path manifestPath = cacheDir.resolve(MANIFEST);
+        if (Files.exists(manifestPath)) {
+            try {
+                return mapper.readValue(manifestPath.toFile(), new TypeReference<Map<String, Entry>>() {
+                });
+            } catch (IOException e) {
+                ctx.getOnError().accept(e);
+            }
+        }
+        return new HashMap<>();
+    }
+
+    /**
+     * @param parsed The paths of the source files that were parsed rather than loaded from the cache.
+     */
+    private void write(List<S> sourceFiles, Set<String> parsed, Map<String, String> hashes,
+                       Map<String, Entry> previousManifest, ExecutionContext ctx) {
+        try {
+            Path sourcesDir = Files.createDirectories(cacheDir.resolve(SOURCES));
+            Map<String, Entry> manifest = new HashMap<>();
+            for (S sourceFile : sourceFiles) {
+                String path = sourceFile.getSourcePath().toString();
+                String hash = hashes.get(path);
+                if (hash == null) {
+                    continue;
+                }
+
+                Entry previous = previousManifest.get(path);
+                String file;
+                if (!parsed.contains(path) && previous != null && previous.file != null) {
+                    file = previous.file;
+                } else {
+                    // never overwrite a stored file, which the current manifest may still name
+                    file = UUID.randomUUID() + ".smile";
+                    Path temp = Files.createTempFile(sourcesDir, file, ".tmp");
+                    store.write(Collections.singletonList(sourceFile), temp);
+                    Files.move(temp, sourcesDir.resolve(file), StandardCopyOption.ATOMIC_MOVE);
+                }
+                manifest.put(path, new Entry(hash, file, dependencies.getDeclared(sourceFile),
+                        dependencies.getReferenced(sourceFile)));
+            }
+
+            Path manifestTemp = Files.createTempFile(cacheDir, MANIFEST, ".tmp");
+            mapper.writeValue(manifestTemp.toFile(), manifest);
+            Files.move(manifestTemp, cacheDir.resolve(MANIFEST), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+
+            // including those left behind by interrupted runs
+            Set<String> named = new HashSet<>();
+            for (Entry entry : manifest.values()) {
+                named.add(entry.file);
+            }
+            try (Stream<Path> stored = Files.list(sourcesDir)) {
+                for (Path file : (Iterable<Path>) stored::iterator) {
+                    if (!named.contains(file.getFileName().toString())) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            ctx.getOnError().accept(e);
+        }
+    }
+
+    private static String sha256(ByteBuffer bytes) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            sha256.update(bytes);
+            StringBuilder hex = new StringBuilder();
+            for (byte b : sha256.digest()) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class Entry {
+        String hash;
+
+        /**
+         * The name of the file in the sources directory that the source file is stored in.
+         */
+        @Nullable
+        String file;
+
+        Set<String> declared;
+
+        @Nullable
+        Set<String> referenced;
+
+        @SuppressWarnings("unused")
+        Entry() {
+            // for Jackson
+        }
+
+        Entry(String hash, String file, Set<String> declared, @Nullable Set<String> referenced) {
+            this.hash = hash;
+            this.file = file;
+            this.declared = declared;
+            this.referenced = referenced;
+        }
+    }
+
+    @Override
+    public boolean accept(Path path) {
+        return delegate.accept(path);
+    }
+
+    @Override
+    public boolean accept(Input input) {
+        return delegate.accept(input);
+    }
+
+    @Override
+    public Parser<S> reset() {
+        delegate.reset();
+        return this;
+    }
+
+    @Override
+    public Path sourcePathFromSourceText(Path prefix, String sourceCode) {
+        return delegate.sourcePathFromSourceText(prefix, sourceCode);
+    }
+}
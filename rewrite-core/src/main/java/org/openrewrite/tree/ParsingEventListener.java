@@ -18,6 +18,11 @@ package org.openrewrite.tree;
 import org.openrewrite.Parser;
 import org.openrewrite.SourceFile;
 
+/**
+ * Notified of each source file as it is parsed. A parser calls its listener one source file at a time, from the
+ * thread that called the parser, even when it parses source files in parallel, so a listener only needs to be
+ * thread-safe when it is shared by parsers running at once, like those of a {@link ParsingPipeline}.
+ */
 public interface ParsingEventListener {
     ParsingEventListener NOOP = (input, sourceFile) -> {};
 
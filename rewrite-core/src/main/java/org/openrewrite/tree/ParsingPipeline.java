@@ -0,0 +1,143 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.tree;
+
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Incubating;
+import org.openrewrite.Parser;
+import org.openrewrite.SourceFile;
+import org.openrewrite.internal.lang.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/**
+ * Parses a whole repository with several parsers at once. Each input is routed to the first parser that
+ * {@link Parser#accept(Parser.Input) accepts} it, and the inputs of each parser are parsed as a group on the
+ * executor, concurrently with the groups of the other parsers.
+ * <p>
+ * A parser only ever parses one group at a time, on one thread, so parsers that are not thread-safe (like the
+ * Java parser, which holds a compiler context) can take part. As each parser reports files to the
+ * {@link ParsingEventListener} of the execution context as soon as they are parsed, that listener will be called
+ * from several threads at once. If a parser fails a whole group, every group is still waited for before the
+ * failure is rethrown.
+ */
+@Incubating(since = "7.23.0")
+public class ParsingPipeline {
+    private final List<Parser<?>> parsers;
+    private final Executor executor;
+
+    public ParsingPipeline(List<? extends Parser<?>> parsers) {
+        this(parsers, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param parsers  The parsers to route inputs to, in order of precedence.
+     * @param executor The executor each parser's group of inputs is parsed on.
+     */
+    public ParsingPipeline(List<? extends Parser<?>> parsers, Executor executor) {
+        this.parsers = new ArrayList<>(parsers);
+        this.executor = executor;
+    }
+
+    /**
+     * Parse every regular file under a directory that one of the parsers accepts.
+     *
+     * @param root The directory to parse, which source paths are made relative to.
+     * @param ctx  The execution context
+     * @return The source files of each parser, in the order the parsers were given.
+     */
+    public List<SourceFile> parse(Path root, ExecutionContext ctx) {
+        List<Parser.Input> inputs = new ArrayList<>();
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.filter(Files::isRegularFile).forEach(path -> {
+                for (Parser<?> parser : parsers) {
+                    if (parser.accept(path)) {
+                        inputs.add(Parser.Input.fromFile(path));
+                        break;
+                    }
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return parseInputs(inputs, root, ctx);
+    }
+
+    /**
+     * @param sources    The inputs to parse. Inputs that none of the parsers accept are skipped.
+     * @param relativeTo A common relative path for all {@link Parser.Input#getPath()}.
+     * @param ctx        The execution context
+     * @return The source files of each parser, in the order the parsers were given.
+     */
+    public List<SourceFile> parseInputs(Iterable<Parser.Input> sources, @Nullable Path relativeTo, ExecutionContext ctx) {
+        List<List<Parser.Input>> groups = new ArrayList<>(parsers.size());
+        for (int i = 0; i < parsers.size(); i++) {
+            groups.add(new ArrayList<>());
+        }
+        for (Parser.Input source : sources) {
+            for (int i = 0; i < parsers.size(); i++) {
+                if (parsers.get(i).accept(source)) {
+                    groups.get(i).add(source);
+                    break;
+                }
+            }
+        }
+
+        List<CompletableFuture<List<? extends SourceFile>>> parsed = new ArrayList<>(parsers.size());
+        for (int i = 0; i < parsers.size(); i++) {
+            Parser<?> parser = parsers.get(i);
+            List<Parser.Input> group = groups.get(i);
+            parsed.add(group.isEmpty() ?
+                    CompletableFuture.completedFuture(Collections.emptyList()) :
+                    CompletableFuture.supplyAsync(() -> parser.parseInputs(group, relativeTo, ctx), executor));
+        }
+
+        List<SourceFile> sourceFiles = new ArrayList<>();
+        Throwable failed = null;
+        for (CompletableFuture<List<? extends SourceFile>> group : parsed) {
+            try {
+                sourceFiles.addAll(group.join());
+            } catch (CompletionException e) {
+                // parsers report failures to parse individual files themselves, so this is a failure of a whole group
+                if (failed == null) {
+                    failed = e.getCause();
+                } else {
+                    failed.addSuppressed(e.getCause());
+                }
+            }
+        }
+
+        if (failed instanceof RuntimeException) {
+            throw (RuntimeException) failed;
+        } else if (failed instanceof Error) {
+            throw (Error) failed;
+        } else if (failed != null) {
+            throw new IllegalStateException(failed);
+        }
+        return sourceFiles;
+    }
+}
@@ -65,4 +65,32 @@ class CursorTest {
         val cursor = Cursor(Cursor(Cursor(null, 1), t), 2)
         assertThat(cursor.getPathAsStream { it is PlainText }.toList()).containsExactly(t)
     }
+
+    @Test
+    fun pushedCursorsAreCreatedOnDemand() {
+        val t = PlainText(randomId(), Paths.get("test.txt"), Markers.EMPTY, "test")
+        val visitor = object : TreeVisitor<Tree, Int>() {
+            fun pushAndPop() {
+                pushCursor("a")
+                cursor.putMessage("key", 1)
+                pushCursor(t)
+                pushCursor("b")
+                assertThat(cursor.pathAsStream.toList()).containsExactly("b", t, "a", "root")
+
+                popCursor()
+                assertThat(cursor.getValue<Any>()).isSameAs(t)
+                popCursor()
+                assertThat(cursor.getMessage<Int>("key")).isEqualTo(1)
+                popCursor()
+                assertThat(cursor.getValue<Any>()).isEqualTo("root")
+            }
+        }
+        visitor.pushAndPop()
+    }
+
+    @Test
+    fun pathToString() {
+        val t = PlainText(randomId(), Paths.get("test.txt"), Markers.EMPTY, "test")
+        assertThat(Cursor(Cursor(null, "root"), t).toString()).isEqualTo("Cursor{PlainText->root}")
+    }
 }
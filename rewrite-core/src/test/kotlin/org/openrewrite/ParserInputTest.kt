@@ -0,0 +1,71 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import org.openrewrite.internal.StringUtils
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.Paths
+
+class ParserInputTest {
+
+    @Test
+    fun contentIsReadOnce(@TempDir dir: Path) {
+        val file = dir.resolve("test.txt")
+        Files.write(file, "hello".toByteArray())
+
+        val input = Parser.Input.fromFile(file)
+        val content = input.content
+        Files.delete(file)
+
+        assertThat(input.content).isSameAs(content)
+        assertThat(content.text).isEqualTo("hello")
+        assertThat(StringUtils.readFully(input.source)).isEqualTo("hello")
+    }
+
+    @Test
+    fun largeFilesAreMapped(@TempDir dir: Path) {
+        val file = dir.resolve("large.txt")
+        val text = "0123456789abcdef".repeat(128 * 1024)
+        Files.write(file, text.toByteArray())
+
+        val content = Parser.Input.fromFile(file).content
+
+        assertThat(content.bytes.isDirect).isTrue
+        assertThat(content.text).isEqualTo(text)
+    }
+
+    @Test
+    fun detectsUtf16ByteOrderMark() {
+        val bytes = "\uFEFFhello".toByteArray(StandardCharsets.UTF_16LE)
+        val content = Parser.Input(Paths.get("test.txt")) { bytes.inputStream() }.content
+
+        assertThat(content.charset).isEqualTo(StandardCharsets.UTF_16LE)
+        assertThat(content.text).isEqualTo("\uFEFFhello")
+    }
+
+    @Test
+    fun defaultsToUtf8() {
+        val content = Parser.Input.fromString("héllo").content
+
+        assertThat(content.charset).isEqualTo(StandardCharsets.UTF_8)
+        assertThat(content.text).isEqualTo("héllo")
+    }
+}
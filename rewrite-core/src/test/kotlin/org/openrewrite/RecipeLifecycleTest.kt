@@ -16,9 +16,12 @@
 package org.openrewrite
 
 import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatThrownBy
 import org.junit.jupiter.api.Test
 import org.openrewrite.Tree.randomId
 import org.openrewrite.marker.Markers
+import org.openrewrite.scheduling.DirectScheduler
+import org.openrewrite.scheduling.ForkJoinScheduler
 import org.openrewrite.text.PlainText
 import org.openrewrite.text.PlainTextVisitor
 import java.nio.file.Path
@@ -126,6 +129,244 @@ class RecipeLifecycleTest {
         }).containsExactly("test.DeletingRecipe")
     }
 
+    @Test
+    fun runInWindows() {
+        val recipe = object : Recipe() {
+            override fun getDisplayName() = "Append"
+            override fun getVisitor(): PlainTextVisitor<ExecutionContext> {
+                return object : PlainTextVisitor<ExecutionContext>() {
+                    override fun visitText(text: PlainText, p: ExecutionContext): PlainText =
+                        if (text.text.endsWith("!")) text else text.withText(text.text + "!")
+                }
+            }
+        }
+
+        val sources = (1..5).map { PlainText(randomId(), Paths.get("$it.txt"), Markers.EMPTY, "$it") }
+        val results = mutableListOf<Result>()
+        recipe.run(sources.iterator(), InMemoryExecutionContext { throw it }, DirectScheduler.common(), 2, 3, 1) {
+            results.add(it)
+        }
+
+        assertThat(results.map { it.after!!.printAll() }).containsExactly("1!", "2!", "3!", "4!", "5!")
+    }
+
+    @Test
+    fun onlyRevisitSourceFilesChangedOnPreviousCycle() {
+        val visited = AtomicInteger(0)
+        val recipe = object : Recipe() {
+            override fun getDisplayName() = "Exclaim a.txt"
+            override fun causesAnotherCycle() = true
+            override fun onlyRevisitsChangedSourceFiles() = true
+            override fun getVisitor(): PlainTextVisitor<ExecutionContext> {
+                return object : PlainTextVisitor<ExecutionContext>() {
+                    override fun visitText(text: PlainText, p: ExecutionContext): PlainText {
+                        visited.incrementAndGet()
+                        return if (text.sourcePath.toString() != "a.txt" || text.text.endsWith("!")) text
+                        else text.withText(text.text + "!")
+                    }
+                }
+            }
+        }
+
+        val results = recipe.run(listOf(
+            PlainText(randomId(), Paths.get("a.txt"), Markers.EMPTY, "a"),
+            PlainText(randomId(), Paths.get("b.txt"), Markers.EMPTY, "b")
+        ))
+
+        assertThat(results.map { it.after!!.printAll() }).containsExactly("a!")
+        assertThat(visited.get()).isEqualTo(3)
+    }
+
+    @Test
+    fun revisitSourceFilesChangedByAnEarlierRecipeOnTheSameCycle() {
+        val appendOnSecondVisit = object : Recipe() {
+            private val visits = AtomicInteger(0)
+            override fun getDisplayName() = "Append a on the second visit"
+            override fun getVisitor(): PlainTextVisitor<ExecutionContext> {
+                return object : PlainTextVisitor<ExecutionContext>() {
+                    override fun visitText(text: PlainText, p: ExecutionContext): PlainText =
+                        if (visits.incrementAndGet() == 2) text.withText(text.text + "a") else text
+                }
+            }
+        }
+        val exclaim = object : Recipe() {
+            override fun getDisplayName() = "Exclaim"
+            override fun onlyRevisitsChangedSourceFiles() = true
+            override fun getVisitor(): PlainTextVisitor<ExecutionContext> {
+                return object : PlainTextVisitor<ExecutionContext>() {
+                    override fun visitText(text: PlainText, p: ExecutionContext): PlainText =
+                        if (text.text.endsWith("!")) text else text.withText(text.text + "!")
+                }
+            }
+        }
+        val recipe = object : Recipe() {
+            override fun getDisplayName() = "Append and exclaim"
+        }.doNext(appendOnSecondVisit).doNext(exclaim)
+
+        val results = recipe.run(listOf(PlainText(randomId(), Paths.get("x.txt"), Markers.EMPTY, "x")),
+            InMemoryExecutionContext { throw it }, ForkJoinScheduler.common(), 2, 2)
+
+        assertThat(results.map { it.after!!.printAll() }).containsExactly("x!a!")
+    }
+
+    @Test
+    fun revisitEverySourceFileByDefault() {
+        val visited = AtomicInteger(0)
+        val recipe = object : Recipe() {
+            override fun getDisplayName() = "Exclaim a.txt"
+            override fun causesAnotherCycle() = true
+            override fun getVisitor(): PlainTextVisitor<ExecutionContext> {
+                return object : PlainTextVisitor<ExecutionContext>() {
+                    override fun visitText(text: PlainText, p: ExecutionContext): PlainText {
+                        visited.incrementAndGet()
+                        return if (text.sourcePath.toString() != "a.txt" || text.text.endsWith("!")) text
+                        else text.withText(text.text + "!")
+                    }
+                }
+            }
+        }
+
+        val results = recipe.run(listOf(
+            PlainText(randomId(), Paths.get("a.txt"), Markers.EMPTY, "a"),
+            PlainText(randomId(), Paths.get("b.txt"), Markers.EMPTY, "b")
+        ))
+
+        assertThat(results.map { it.after!!.printAll() }).containsExactly("a!")
+        assertThat(visited.get()).isEqualTo(4)
+    }
+
+    @Test
+    fun reuseApplicableTestVerdictsForUnchangedSourceFiles() {
+        val tested = AtomicInteger(0)
+        val recipe = object : Recipe() {
+            override fun getDisplayName() = "Exclaim a.txt when b.txt exists"
+            override fun causesAnotherCycle() = true
+            override fun getApplicableTest(): TreeVisitor<*, ExecutionContext> {
+                return object : PlainTextVisitor<ExecutionContext>() {
+                    override fun visitText(text: PlainText, p: ExecutionContext): PlainText {
+                        tested.incrementAndGet()
+                        return if (text.sourcePath.toString() == "b.txt") text.withText("found") else text
+                    }
+                }
+            }
+
+            override fun getVisitor(): PlainTextVisitor<ExecutionContext> {
+                return object : PlainTextVisitor<ExecutionContext>() {
+                    override fun visitText(text: PlainText, p: ExecutionContext): PlainText =
+                        if (text.sourcePath.toString() != "a.txt" || text.text.endsWith("!")) text
+                        else text.withText(text.text + "!")
+                }
+            }
+        }
+
+        val results = recipe.run(listOf(
+            PlainText(randomId(), Paths.get("a.txt"), Markers.EMPTY, "a"),
+            PlainText(randomId(), Paths.get("b.txt"), Markers.EMPTY, "b")
+        ), InMemoryExecutionContext { throw it }, DirectScheduler.common(), 3, 1)
+
+        assertThat(results.map { it.after!!.printAll() }).containsExactly("a!")
+        assertThat(tested.get()).isEqualTo(3)
+    }
+
+    @Test
+    fun applicableTestExceptionsPropagate() {
+        val recipe = object : Recipe() {
+            override fun getDisplayName() = "Failing applicable test"
+            override fun getApplicableTest(): TreeVisitor<*, ExecutionContext> {
+                return object : PlainTextVisitor<ExecutionContext>() {
+                    override fun visitText(text: PlainText, p: ExecutionContext): PlainText =
+                        if (text.sourcePath.toString() == "a.txt") throw IllegalStateException("boom") else text
+                }
+            }
+        }
+
+        assertThatThrownBy {
+            recipe.run(listOf(
+                PlainText(randomId(), Paths.get("a.txt"), Markers.EMPTY, "a"),
+                PlainText(randomId(), Paths.get("b.txt"), Markers.EMPTY, "b")
+            ), InMemoryExecutionContext())
+        }.isInstanceOf(IllegalStateException::class.java).hasMessage("boom")
+    }
+
+    @Test
+    fun applicableTestsFinishBeforeTheRecipeRuns() {
+        val testing = AtomicInteger(0)
+        val testingWhenVisited = mutableListOf<Int>()
+        val recipe = object : Recipe() {
+            override fun getDisplayName() = "Exclaim when any source file is applicable"
+            override fun getApplicableTest(): TreeVisitor<*, ExecutionContext> {
+                return object : PlainTextVisitor<ExecutionContext>() {
+                    override fun visitText(text: PlainText, p: ExecutionContext): PlainText {
+                        testing.incrementAndGet()
+                        try {
+                            if (text.sourcePath.toString() == "0.txt") {
+                                return text.withText("found")
+                            }
+                            Thread.sleep(50)
+                            return text
+                        } finally {
+                            testing.decrementAndGet()
+                        }
+                    }
+                }
+            }
+
+            override fun getVisitor(): PlainTextVisitor<ExecutionContext> {
+                return object : PlainTextVisitor<ExecutionContext>() {
+                    override fun visitText(text: PlainText, p: ExecutionContext): PlainText {
+                        synchronized(testingWhenVisited) {
+                            testingWhenVisited.add(testing.get())
+                        }
+                        return text
+                    }
+                }
+            }
+        }
+
+        recipe.run((0 until 16).map { PlainText(randomId(), Paths.get("$it.txt"), Markers.EMPTY, "$it") },
+            InMemoryExecutionContext { throw it }, 1)
+
+        assertThat(testingWhenVisited).hasSize(16).containsOnly(0)
+    }
+
+    @Test
+    fun eachSourceFileIsTestedWithItsOwnApplicableTestVisitor() {
+        val crossedSourceFiles = AtomicInteger(0)
+        val visited = AtomicInteger(0)
+        val recipe = object : Recipe() {
+            override fun getDisplayName() = "Count visits when the last source file is applicable"
+            override fun getApplicableTest(): TreeVisitor<*, ExecutionContext> {
+                return object : PlainTextVisitor<ExecutionContext>() {
+                    var testing: PlainText? = null
+
+                    override fun visitText(text: PlainText, p: ExecutionContext): PlainText {
+                        testing = text
+                        Thread.sleep(1)
+                        if (testing !== text) {
+                            crossedSourceFiles.incrementAndGet()
+                        }
+                        return if (testing!!.sourcePath.toString() == "63.txt") text.withText("found") else text
+                    }
+                }
+            }
+
+            override fun getVisitor(): PlainTextVisitor<ExecutionContext> {
+                return object : PlainTextVisitor<ExecutionContext>() {
+                    override fun visitText(text: PlainText, p: ExecutionContext): PlainText {
+                        visited.incrementAndGet()
+                        return text
+                    }
+                }
+            }
+        }
+
+        recipe.run((0 until 64).map { PlainText(randomId(), Paths.get("$it.txt"), Markers.EMPTY, "$it") },
+            InMemoryExecutionContext { throw it }, 1)
+
+        assertThat(crossedSourceFiles.get()).isEqualTo(0)
+        assertThat(visited.get()).isEqualTo(64)
+    }
+
     @Suppress("USELESS_IS_CHECK")
     class FooVisitor<P> : TreeVisitor<FooSource, P>() {
 
@@ -16,8 +16,20 @@
 package org.openrewrite
 
 import org.assertj.core.api.Assertions.assertThat
+import org.eclipse.jgit.diff.DiffEntry
+import org.eclipse.jgit.diff.DiffFormatter
+import org.eclipse.jgit.internal.storage.dfs.DfsRepositoryDescription
+import org.eclipse.jgit.internal.storage.dfs.InMemoryRepository
+import org.eclipse.jgit.lib.Constants
+import org.eclipse.jgit.lib.FileMode
 import org.junit.jupiter.api.Test
+import org.openrewrite.Tree.randomId
+import org.openrewrite.marker.Markers
+import org.openrewrite.text.PlainText
+import java.io.ByteArrayOutputStream
+import java.nio.file.Path
 import java.nio.file.Paths
+import java.util.*
 
 class ResultTest {
     private val filePath = Paths.get("com/netflix/MyJavaClass.java")
@@ -153,4 +165,131 @@ class ResultTest {
         """.trimMargin()
         ).isEqualTo(diff)
     }
+
+    @Test
+    fun combinedDiffOfManyResults() {
+        val results = (1..3).map { i ->
+            val before = PlainText(randomId(), Paths.get("$i.txt"), Markers.EMPTY, "before\n")
+            Result(before, before.withText("after $i\n"), emptyList())
+        }
+
+        val combined = Result.diff(results, null)
+
+        assertThat(combined).isEqualTo(results.joinToString("") { it.diff() })
+        assertThat(combined).startsWith("diff --git a/1.txt b/1.txt\n")
+        assertThat(combined).endsWith("+after 3\n")
+    }
+
+    private val recipes = setOf(object : Recipe() {
+        override fun getName(): String = "logger.Fix"
+        override fun getDisplayName(): String = name
+    })
+
+    private val lines = (1..30).joinToString("") { "line $it\n" }
+
+    @Test
+    fun insertsMatchJGit() {
+        assertMatchesJGit(lines, lines.replace("line 10\n", "line 10\ninserted\n"))
+        assertMatchesJGit(lines, "inserted\n$lines")
+        assertMatchesJGit(lines, "${lines}inserted\n")
+        assertMatchesJGit("", lines)
+    }
+
+    @Test
+    fun deletesMatchJGit() {
+        assertMatchesJGit(lines, lines.replace("line 10\nline 11\n", ""))
+        assertMatchesJGit(lines, lines.replace("line 1\n", ""))
+        assertMatchesJGit(lines, lines.replace("line 30\n", ""))
+        assertMatchesJGit(lines, "")
+    }
+
+    @Test
+    fun movedBlocksMatchJGit() {
+        val block = "line 3\nline 4\nline 5\n"
+        assertMatchesJGit(lines, lines.replace(block, "").replace("line 20\n", "line 20\n$block"))
+        assertMatchesJGit(lines, block + lines.replace(block, ""))
+    }
+
+    @Test
+    fun missingTrailingNewlinesMatchJGit() {
+        assertMatchesJGit(lines, lines.dropLast(1))
+        assertMatchesJGit(lines.dropLast(1), lines)
+        assertMatchesJGit(lines.dropLast(1), lines.dropLast(1).replace("line 30", "last line"))
+        assertMatchesJGit(lines.dropLast(1), lines.dropLast(1).replace("line 2\n", "second line\n"))
+    }
+
+    @Test
+    fun renamesMatchJGit() {
+        assertMatchesJGit(lines, lines, Paths.get("before.txt"), Paths.get("after.txt"))
+        assertMatchesJGit(lines, lines.replace("line 10", "changed"), Paths.get("before.txt"), Paths.get("after.txt"))
+    }
+
+    @Test
+    fun randomEditsMatchJGit() {
+        val random = Random(42)
+        repeat(500) {
+            val before = (0 until random.nextInt(40)).map { "${'a' + random.nextInt(6)}" }
+            val after = before.toMutableList()
+            repeat(random.nextInt(6)) {
+                val i = random.nextInt(after.size + 1)
+                when {
+                    after.isEmpty() || random.nextInt(4) == 0 -> after.add(i, "${'a' + random.nextInt(8)}")
+                    random.nextBoolean() -> after.removeAt(i.coerceAtMost(after.size - 1))
+                    else -> after[i.coerceAtMost(after.size - 1)] = "${'a' + random.nextInt(8)}"
+                }
+            }
+            assertMatchesJGit(
+                before.joinToString("\n") + if (before.isNotEmpty() && random.nextBoolean()) "\n" else "",
+                after.joinToString("\n") + if (after.isNotEmpty() && random.nextBoolean()) "\n" else ""
+            )
+        }
+    }
+
+    private fun assertMatchesJGit(before: String, after: String, beforePath: Path = filePath, afterPath: Path = filePath) {
+        val diff = Result.InMemoryDiffEntry(beforePath, afterPath, null, before, after, recipes).diff
+        assertThat(diff).isEqualTo(jgitDiff(beforePath, afterPath, before, after))
+    }
+
+    /**
+     * Formats the patch with JGit's <code>DiffFormatter</code>, adding the names of the recipes that made changes
+     * to the first hunk header.
+     */
+    private fun jgitDiff(beforePath: Path, afterPath: Path, before: String, after: String): String {
+        if (before == after && beforePath == afterPath) {
+            return ""
+        }
+
+        val repo = InMemoryRepository.Builder().setRepositoryDescription(DfsRepositoryDescription()).build()
+        repo.use {
+            val inserter = repo.objectDatabase.newInserter()
+            val entry = object : DiffEntry() {
+                init {
+                    changeType = if (beforePath == afterPath) DiffEntry.ChangeType.MODIFY else DiffEntry.ChangeType.RENAME
+                    oldPath = beforePath.toString().replace("\\", "/")
+                    newPath = afterPath.toString().replace("\\", "/")
+                    oldId = inserter.insert(Constants.OBJ_BLOB, before.toByteArray()).abbreviate(40)
+                    newId = inserter.insert(Constants.OBJ_BLOB, after.toByteArray()).abbreviate(40)
+                    oldMode = FileMode.REGULAR_FILE
+                    newMode = FileMode.REGULAR_FILE
+                }
+            }
+            inserter.flush()
+
+            val patch = ByteArrayOutputStream()
+            DiffFormatter(patch).use { formatter ->
+                formatter.setRepository(repo)
+                formatter.format(entry)
+            }
+
+            var addedRecipes = false
+            return patch.toString().split("\n").dropLastWhile { it.isEmpty() }.joinToString("\n") { line ->
+                if (!addedRecipes && line.startsWith("@@") && line.endsWith("@@")) {
+                    addedRecipes = true
+                    line + recipes.map { it.name }.sorted().joinToString(", ", " ")
+                } else {
+                    line
+                }
+            } + "\n"
+        }
+    }
 }
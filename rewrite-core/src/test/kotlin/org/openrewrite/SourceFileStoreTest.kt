@@ -0,0 +1,133 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import org.openrewrite.Tree.randomId
+import org.openrewrite.marker.Markers
+import org.openrewrite.marker.SearchResult
+import org.openrewrite.style.NamedStyles
+import org.openrewrite.style.Style
+import org.openrewrite.text.PlainText
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.lang.ref.WeakReference
+import java.nio.file.Path
+import java.nio.file.Paths
+import kotlin.streams.toList
+
+class SourceFileStoreTest {
+    private val store = SourceFileStore()
+
+    @Test
+    fun roundTrip(@TempDir dir: Path) {
+        val markers = Markers.build(listOf(SearchResult(randomId(), "found")))
+        val sourceFiles = listOf(
+            PlainText(randomId(), Paths.get("a.txt"), markers, "a"),
+            PlainText(randomId(), Paths.get("b.txt"), markers, "b")
+        )
+
+        val file = dir.resolve("lst.smile")
+        store.write(sourceFiles, file)
+        val read = store.read(file)
+
+        assertThat(read.map { it.printAll() }).containsExactly("a", "b")
+        assertThat(read.map { it.sourcePath }).containsExactly(Paths.get("a.txt"), Paths.get("b.txt"))
+        assertThat(read[0].markers)
+            .`as`("Object identities are not resolved across source files")
+            .isNotSameAs(read[1].markers)
+            .isEqualTo(read[1].markers)
+        assertThat(read[0].markers.findFirst(SearchResult::class.java).get().description).isEqualTo("found")
+    }
+
+    data class TabSize(val size: Int) : Style
+
+    @Test
+    fun objectsOutsideOfTreesAndMarkersAreSharedAcrossSourceFiles() {
+        val style = TabSize(4)
+        val sourceFiles = (1..3).map {
+            PlainText(randomId(), Paths.get("$it.txt"),
+                Markers.build(listOf(NamedStyles(randomId(), "test", "Test", null, emptySet(), listOf(style)))), "$it")
+        }
+
+        val out = ByteArrayOutputStream()
+        store.write(sourceFiles, out)
+
+        store.stream(ByteArrayInputStream(out.toByteArray())).use { stream ->
+            val styles = stream.toList().map { it.markers.findFirst(NamedStyles::class.java).get().styles.single() }
+            assertThat(styles[0]).isEqualTo(style)
+            assertThat(styles).allMatch { it === styles[0] }
+        }
+    }
+
+    @Test
+    fun streamLazily(@TempDir dir: Path) {
+        val file = dir.resolve("lst.smile")
+        store.write((1..3).map { PlainText(randomId(), Paths.get("$it.txt"), Markers.EMPTY, "$it") }, file)
+
+        store.stream(file).use { sourceFiles ->
+            assertThat(sourceFiles.limit(2).toList().map { it.printAll() }).containsExactly("1", "2")
+        }
+    }
+
+    @Test
+    fun earlierSourceFilesAreNotRetainedWhileWriting() {
+        var first: WeakReference<SourceFile>? = null
+        val sourceFiles = sequence {
+            for (i in 1..10) {
+                val sourceFile = PlainText(randomId(), Paths.get("$i.txt"), Markers.EMPTY, "$i")
+                if (i == 1) {
+                    first = WeakReference(sourceFile)
+                }
+                yield(sourceFile)
+            }
+            assertThat(collected(first!!))
+                .`as`("The writer no longer refers to source files it has already written")
+                .isTrue
+        }.asIterable()
+
+        store.write(sourceFiles, ByteArrayOutputStream())
+    }
+
+    @Test
+    fun earlierSourceFilesAreNotRetainedWhileStreaming() {
+        val out = ByteArrayOutputStream()
+        store.write((1..10).map { PlainText(randomId(), Paths.get("$it.txt"), Markers.EMPTY, "$it") }, out)
+
+        store.stream(ByteArrayInputStream(out.toByteArray())).use { stream ->
+            val sourceFiles = stream.iterator()
+            val first = WeakReference(sourceFiles.next())
+            assertThat(sourceFiles.next().printAll()).isEqualTo("2")
+            assertThat(collected(first))
+                .`as`("The open stream no longer refers to source files it has already read")
+                .isTrue
+            assertThat(sourceFiles.asSequence().count()).isEqualTo(8)
+        }
+    }
+
+    private fun collected(ref: WeakReference<*>): Boolean {
+        for (i in 1..50) {
+            if (ref.get() == null) {
+                return true
+            }
+            System.gc()
+            Thread.sleep(10)
+        }
+        return ref.get() == null
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.openrewrite.Tree.randomId
+import org.openrewrite.marker.Markers
+import org.openrewrite.text.PlainText
+import java.io.ByteArrayOutputStream
+import java.io.StringWriter
+import java.nio.channels.Channels
+import java.nio.charset.StandardCharsets
+import java.nio.file.Paths
+
+class StreamingPrintOutputCaptureTest {
+
+    private val text = PlainText(randomId(), Paths.get("test.txt"), Markers.EMPTY, "héllo ".repeat(5_000))
+        .withMarkers<PlainText>(Markers.EMPTY.searchResult("found"))
+
+    @Test
+    fun printToWriter() {
+        val writer = StringWriter()
+        text.printTo(writer)
+        assertThat(writer.toString()).isEqualTo(text.printAll())
+    }
+
+    @Test
+    fun printToChannel() {
+        val bytes = ByteArrayOutputStream()
+        text.printTo(Channels.newChannel(bytes), StandardCharsets.UTF_8)
+        assertThat(String(bytes.toByteArray(), StandardCharsets.UTF_8)).isEqualTo(text.printAll())
+    }
+
+    @Test
+    fun textLargerThanBuffer() {
+        val out = StringBuilder()
+        val capture = StreamingPrintOutputCapture(0, out, 4)
+        capture.append("ab").append("cdefgh").append('i')
+        capture.flush()
+        assertThat(out.toString()).isEqualTo("abcdefghi")
+    }
+
+    @Test
+    fun textWrittenToOutDirectlyIsStreamedInOrder() {
+        val out = StringBuilder()
+        val capture = StreamingPrintOutputCapture(0, out, 4)
+        capture.append("ab")
+        capture.out.append("cdefgh")
+        capture.append('i')
+        capture.out.append("j")
+        capture.flush()
+        assertThat(out.toString()).isEqualTo("abcdefghij")
+        assertThat(capture.out).isEmpty()
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.instrumentation
+
+import io.micrometer.core.instrument.Metrics
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.Test
+import org.openrewrite.ExecutionContext
+import org.openrewrite.InMemoryExecutionContext
+import org.openrewrite.Recipe
+import org.openrewrite.Tree.randomId
+import org.openrewrite.internal.Interner
+import org.openrewrite.marker.Markers
+import org.openrewrite.text.PlainText
+import org.openrewrite.text.PlainTextVisitor
+import java.nio.file.Paths
+
+class MicrometerInstrumentationTest {
+
+    private val recipe = object : Recipe() {
+        override fun getDisplayName() = "Exclaim"
+        override fun getVisitor(): PlainTextVisitor<ExecutionContext> {
+            return object : PlainTextVisitor<ExecutionContext>() {
+                override fun visitText(text: PlainText, p: ExecutionContext): PlainText {
+                    return if (text.text.endsWith("!")) text else text.withText(text.text + "!")
+                }
+            }
+        }
+    }
+
+    private val sourceFiles = (1..3).map { PlainText(randomId(), Paths.get("$it.txt"), Markers.EMPTY, "$it") }
+
+    @AfterEach
+    fun reset() {
+        Instrumentation.set(Instrumentation.NOOP)
+    }
+
+    @Test
+    fun recordVisitorAndRecipeVisits() {
+        val registry = SimpleMeterRegistry()
+        Instrumentation.set(MicrometerInstrumentation(registry))
+
+        recipe.run(sourceFiles, InMemoryExecutionContext { throw it })
+
+        assertThat(registry.find("rewrite.recipe.visit").tag("reason", "changed").timer()!!.count())
+            .isEqualTo(3)
+        assertThat(registry.find("rewrite.visitor.visit").timers().sumOf { it.count() })
+            .isGreaterThanOrEqualTo(3)
+        assertThat(registry.find("rewrite.visitor.visit.method.count").summaries()).isNotEmpty
+    }
+
+    @Test
+    fun recordNothingWhenNotSampled() {
+        val registry = SimpleMeterRegistry()
+        Instrumentation.set(MicrometerInstrumentation(registry, 0.0))
+
+        recipe.run(sourceFiles, InMemoryExecutionContext { throw it })
+
+        assertThat(registry.find("rewrite.recipe.visit").timers().sumOf { it.count() }).isEqualTo(0)
+        assertThat(registry.find("rewrite.visitor.visit").timers().sumOf { it.count() }).isEqualTo(0)
+    }
+
+    @Test
+    fun recordInternersCreatedBeforeAndAfterInstallation() {
+        val before = Interner<String, Any>("test.before", 64)
+        val registry = SimpleMeterRegistry()
+        Instrumentation.set(MicrometerInstrumentation(registry))
+        val after = Interner<String, Any>("test.after", 64)
+
+        for (interner in listOf(before, after)) {
+            interner.intern("a") { Any() }
+            interner.intern("a") { Any() }
+        }
+
+        for (name in listOf("test.before", "test.after")) {
+            assertThat(registry.find("rewrite.interner.requests").tags("name", name, "result", "hit")
+                .functionCounter()!!.count()).isEqualTo(1.0)
+            assertThat(registry.find("rewrite.interner.requests").tags("name", name, "result", "miss")
+                .functionCounter()!!.count()).isEqualTo(1.0)
+            assertThat(registry.find("rewrite.interner.size").tag("name", name).gauge()!!.value()).isEqualTo(1.0)
+        }
+    }
+
+    @Test
+    fun internersAreNotMeasuredByDefault() {
+        val registry = SimpleMeterRegistry()
+        Metrics.addRegistry(registry)
+        try {
+            Interner<String, Any>("test.default", 64).intern("a") { Any() }
+
+            assertThat(registry.find("rewrite.interner.requests").tag("name", "test.default").meters()).isEmpty()
+        } finally {
+            Metrics.removeRegistry(registry)
+        }
+    }
+}
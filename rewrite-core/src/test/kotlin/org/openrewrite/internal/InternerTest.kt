@@ -0,0 +1,65 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.internal
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+
+class InternerTest {
+
+    @Test
+    fun internsEqualKeys() {
+        val interner = Interner<String, StringBuilder>("test", 100)
+        val a = interner.intern(" ") { StringBuilder(it) }
+        val b = interner.intern(String(charArrayOf(' '))) { StringBuilder(it) }
+
+        assertThat(b).isSameAs(a)
+        assertThat(interner.hitCount).isEqualTo(1)
+        assertThat(interner.missCount).isEqualTo(1)
+        assertThat(interner.hitRate).isEqualTo(0.5)
+    }
+
+    @Test
+    fun boundedSize() {
+        val interner = Interner<Int, Any>("test", 64)
+        val values = (0 until 1000).map { i -> interner.intern(i) { Any() } }
+
+        assertThat(interner.size()).isLessThanOrEqualTo(64)
+        assertThat(values).hasSize(1000)
+    }
+
+    @Test
+    fun internsAcrossThreads() {
+        val interner = Interner<String, Any>("test", 1 shl 16)
+        val executor = Executors.newFixedThreadPool(8)
+        try {
+            val interned = executor.invokeAll((0 until 8).map {
+                Callable { (0 until 1000).map { i -> interner.intern(" ".repeat(i % 50)) { Any() } } }
+            }).map { it.get() }
+
+            for (values in interned) {
+                for (i in values.indices) {
+                    assertThat(values[i]).isSameAs(interned[0][i])
+                }
+            }
+            assertThat(interner.missCount).isEqualTo(50)
+        } finally {
+            executor.shutdown()
+        }
+    }
+}
@@ -73,4 +73,32 @@ class ListUtilsTest {
         }).containsExactly(10, 11)
     }
 
+    @Test
+    fun mapPreservesIdentityWhenUnchanged() {
+        val l = listOf(1, 2, 3)
+        assertThat(ListUtils.map(l) { it }).isSameAs(l)
+        assertThat(ListUtils.flatMap(l) { it }).isSameAs(l)
+    }
+
+    @Test
+    fun mapRemovesNulls() {
+        val l = listOf(1, 2, 3)
+        assertThat(ListUtils.map(l) { if (it == 2) null else it }).containsExactly(1, 3)
+    }
+
+    @Test
+    fun replaceRange() {
+        val l = listOf("a", "b", "c", "d")
+        assertThat(ListUtils.replaceRange(l, 1, 3, l.subList(1, 3))).isSameAs(l)
+        assertThat(ListUtils.replaceRange(l, 1, 3, listOf("x"))).containsExactly("a", "x", "d")
+        assertThat(ListUtils.replaceRange(l, 4, 4, listOf("e", "f"))).containsExactly("a", "b", "c", "d", "e", "f")
+        assertThat(ListUtils.replaceRange(l, 0, 2, null)).containsExactly("c", "d")
+    }
+
+    @Test
+    fun insertInOrder() {
+        val l = listOf("c", "a", "d")
+        assertThat(ListUtils.insertInOrder(l, "b", naturalOrder())).containsExactly("c", "a", "b", "d")
+        assertThat(ListUtils.insertInOrder(l, "0", naturalOrder())).containsExactly("0", "c", "a", "d")
+    }
 }
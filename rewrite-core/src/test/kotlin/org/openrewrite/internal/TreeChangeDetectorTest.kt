@@ -0,0 +1,59 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.internal
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.openrewrite.Recipe
+import org.openrewrite.Tree.randomId
+import org.openrewrite.marker.Markers
+import org.openrewrite.marker.RecipesThatMadeChanges
+import org.openrewrite.text.PlainText
+import java.nio.file.Paths
+import java.util.*
+
+class TreeChangeDetectorTest {
+    private val before = PlainText(randomId(), Paths.get("test.txt"), Markers.EMPTY, "hello")
+
+    @Test
+    fun recipesThatMadeChangesIsNotAChange() {
+        val after = before.withMarkers<PlainText>(
+            before.markers.add(RecipesThatMadeChanges(randomId(), listOf(Stack<Recipe>())))
+        )
+        assertThat(TreeChangeDetector.isChanged(before, after)).isFalse
+    }
+
+    @Test
+    fun searchResultIsAChange() {
+        val after = before.withMarkers<PlainText>(before.markers.searchResult())
+        assertThat(TreeChangeDetector.isChanged(before, after)).isTrue
+    }
+
+    @Test
+    fun textChange() {
+        assertThat(TreeChangeDetector.isChanged(before, before.withText("goodbye"))).isTrue
+    }
+
+    @Test
+    fun equalTextIsNotAChange() {
+        assertThat(TreeChangeDetector.isChanged(before, before.withText(String("hello".toCharArray())))).isFalse
+    }
+
+    @Test
+    fun movedSourceFile() {
+        assertThat(TreeChangeDetector.isChanged(before, before.withSourcePath(Paths.get("moved.txt")))).isTrue
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.marker
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.openrewrite.Tree.randomId
+
+class MarkersTest {
+
+    @Test
+    fun computeByTypeReturnsSameMarkersWhenUnchanged() {
+        val markers = Markers.build(listOf(SearchResult(randomId(), null)))
+        assertThat(markers.computeByType(SearchResult(randomId(), "other")) { s1, _ -> s1 }).isSameAs(markers)
+    }
+
+    @Test
+    fun computeByTypeReplacesOrAdds() {
+        val markers = Markers.EMPTY.searchResult("first")
+        assertThat(markers.findFirst(SearchResult::class.java).get().description).isEqualTo("first")
+
+        val replaced = markers.setByType(SearchResult(randomId(), "second"))
+        assertThat(replaced.findAll(SearchResult::class.java).map { it.description }).containsExactly("second")
+    }
+
+    @Test
+    fun removeByTypeReturnsSameMarkersWhenAbsent() {
+        val markers = Markers.EMPTY.searchResult()
+        assertThat(markers.removeByType(RecipesThatMadeChanges::class.java)).isSameAs(markers)
+        assertThat(markers.removeByType(SearchResult::class.java).markers).isEmpty()
+    }
+
+    @Test
+    fun findAllOnMissIsEmpty() {
+        assertThat(Markers.EMPTY.searchResult().findAll(RecipesThatMadeChanges::class.java)).isEmpty()
+        assertThat(Markers.EMPTY.findFirst(SearchResult::class.java)).isEmpty
+    }
+}
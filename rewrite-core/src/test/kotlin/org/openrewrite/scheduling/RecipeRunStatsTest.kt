@@ -0,0 +1,66 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.scheduling
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.openrewrite.ExecutionContext
+import org.openrewrite.InMemoryExecutionContext
+import org.openrewrite.Recipe
+import org.openrewrite.Tree.randomId
+import org.openrewrite.marker.Markers
+import org.openrewrite.text.PlainText
+import org.openrewrite.text.PlainTextVisitor
+import java.nio.file.Paths
+
+class RecipeRunStatsTest {
+
+    @Test
+    fun collectStatsPerRecipe() {
+        val exclaim = object : Recipe() {
+            override fun getName() = "test.Exclaim"
+            override fun getDisplayName() = "Exclaim"
+            override fun getVisitor(): PlainTextVisitor<ExecutionContext> {
+                return object : PlainTextVisitor<ExecutionContext>() {
+                    override fun visitText(text: PlainText, p: ExecutionContext): PlainText {
+                        return if (text.text.endsWith("!")) text else text.withText(text.text + "!")
+                    }
+                }
+            }
+        }
+        val parent = object : Recipe() {
+            init {
+                doNext(exclaim)
+            }
+
+            override fun getName() = "test.Parent"
+            override fun getDisplayName() = "Parent"
+        }
+
+        val ctx = InMemoryExecutionContext { throw it }
+        val stats = RecipeRunStats.collect(parent, ctx)
+        parent.run((1..3).map { PlainText(randomId(), Paths.get("$it.txt"), Markers.EMPTY, "$it") }, ctx)
+
+        assertThat(stats.recipe).isEqualTo("test.Parent")
+        val exclaimStats = stats.find(exclaim)!!
+        assertThat(stats.children).containsExactly(exclaimStats)
+        assertThat(exclaimStats.filesChanged).isEqualTo(3)
+        assertThat(exclaimStats.filesVisited).isGreaterThanOrEqualTo(3)
+        assertThat(exclaimStats.filesErrored).isEqualTo(0)
+        assertThat(exclaimStats.visitMethodCount).isGreaterThanOrEqualTo(3)
+        assertThat(stats.toJson()).contains("\"recipe\" : \"test.Exclaim\"")
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.scheduling
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.openrewrite.*
+import org.openrewrite.Tree.randomId
+import org.openrewrite.marker.Markers
+import org.openrewrite.text.PlainText
+import org.openrewrite.text.PlainTextVisitor
+import java.nio.file.Paths
+import java.time.Duration
+
+class SourceFileMajorSchedulerTest {
+
+    private fun append(suffix: String) = object : Recipe() {
+        override fun getDisplayName() = "Append $suffix"
+        override fun getName() = displayName
+        override fun getVisitor(): PlainTextVisitor<ExecutionContext> {
+            return object : PlainTextVisitor<ExecutionContext>() {
+                override fun visitText(text: PlainText, p: ExecutionContext): PlainText =
+                    if (text.text.contains(suffix)) text else text.withText(text.text + suffix)
+            }
+        }
+    }
+
+    private fun text(path: String, text: String) = PlainText(randomId(), Paths.get(path), Markers.EMPTY, text)
+
+    @Test
+    fun runsRecipeTreeInOrderPerSourceFile() {
+        val recipe = object : Recipe() {
+            override fun getDisplayName() = "root"
+        }.doNext(append("1")).doNext(append("2"))
+
+        val results = recipe.run(
+            listOf(text("a.txt", "a"), text("b.txt", "b")),
+            InMemoryExecutionContext { throw it },
+            SourceFileMajorScheduler.common(),
+            3,
+            1
+        )
+
+        assertThat(results.map { it.after!!.printAll() }).containsExactlyInAnyOrder("a12", "b12")
+        assertThat(results.first().recipesThatMadeChanges.map { it.name })
+            .containsExactlyInAnyOrder("Append 1", "Append 2")
+    }
+
+    @Test
+    fun recipeThatSeesAllSourceFilesIsABarrier() {
+        val recipe = object : Recipe() {
+            override fun getDisplayName() = "root"
+        }.doNext(append("1")).doNext(object : Recipe() {
+            override fun getDisplayName() = "Count appended"
+            override fun getName() = displayName
+            override fun visit(before: List<SourceFile>, ctx: ExecutionContext): List<SourceFile> =
+                before + text("count.txt", before.count { it.printAll().endsWith("1") }.toString())
+        }).doNext(append("2"))
+
+        val results = recipe.run(
+            listOf(text("a.txt", "a"), text("b.txt", "b")),
+            InMemoryExecutionContext { throw it },
+            SourceFileMajorScheduler.common(),
+            1,
+            1
+        )
+
+        assertThat(results.map { it.after!!.printAll() }).containsExactlyInAnyOrder("a12", "b12", "22")
+    }
+
+    @Test
+    fun eachRecipeHasItsOwnRunTimeout() {
+        val slow = object : Recipe() {
+            override fun getDisplayName() = "Slowly append 1"
+            override fun getName() = displayName
+            override fun getVisitor(): PlainTextVisitor<ExecutionContext> {
+                return object : PlainTextVisitor<ExecutionContext>() {
+                    override fun visitText(text: PlainText, p: ExecutionContext): PlainText {
+                        Thread.sleep(400)
+                        return text.withText(text.text + "1")
+                    }
+                }
+            }
+        }
+        val recipe = object : Recipe() {
+            override fun getDisplayName() = "root"
+        }.doNext(slow).doNext(append("2"))
+
+        val timeouts = mutableListOf<Throwable>()
+        val results = recipe.run(
+            listOf(text("a.txt", "a")),
+            InMemoryExecutionContext({ throw it }, { Duration.ofMillis(300) }, { t, _ -> timeouts.add(t) }),
+            SourceFileMajorScheduler.common(),
+            1,
+            1
+        )
+
+        assertThat(timeouts).isEmpty()
+        assertThat(results.map { it.after!!.printAll() }).containsExactly("a12")
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.scheduling
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.openrewrite.ExecutionContext
+import org.openrewrite.InMemoryExecutionContext
+import org.openrewrite.Recipe
+import org.openrewrite.Tree.randomId
+import org.openrewrite.marker.Markers
+import org.openrewrite.text.PlainText
+import org.openrewrite.text.PlainTextVisitor
+import java.nio.file.Paths
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.atomic.AtomicInteger
+
+class VirtualThreadSchedulerTest {
+
+    @Test
+    fun limitConcurrencyPerRecipe() {
+        val running = AtomicInteger(0)
+        val maxRunning = AtomicInteger(0)
+        val recipe = object : Recipe() {
+            override fun getDisplayName() = "Blocking"
+            override fun getVisitor(): PlainTextVisitor<ExecutionContext> {
+                return object : PlainTextVisitor<ExecutionContext>() {
+                    override fun visitText(text: PlainText, p: ExecutionContext): PlainText {
+                        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max)
+                        Thread.sleep(10)
+                        running.decrementAndGet()
+                        return text.withText(text.text + "!")
+                    }
+                }
+            }
+        }
+
+        val scheduler = VirtualThreadScheduler(8) { 2 }
+        try {
+            val results = recipe.run(
+                (1..10).map { PlainText(randomId(), Paths.get("$it.txt"), Markers.EMPTY, "$it") },
+                InMemoryExecutionContext { throw it },
+                scheduler,
+                1,
+                1
+            )
+            assertThat(results).hasSize(10)
+            assertThat(maxRunning.get()).isLessThanOrEqualTo(2)
+        } finally {
+            scheduler.shutdown()
+        }
+    }
+
+    @Test
+    fun concurrentRunsUseTheirOwnRecipePermits() {
+        fun blocking(name: String, running: AtomicInteger, maxRunning: AtomicInteger) = object : Recipe() {
+            override fun getDisplayName() = name
+            override fun getVisitor(): PlainTextVisitor<ExecutionContext> {
+                return object : PlainTextVisitor<ExecutionContext>() {
+                    override fun visitText(text: PlainText, p: ExecutionContext): PlainText {
+                        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max)
+                        Thread.sleep(10)
+                        running.decrementAndGet()
+                        return text.withText(text.text + "!")
+                    }
+                }
+            }
+        }
+
+        val serialMaxRunning = AtomicInteger(0)
+        val serial = blocking("Serial", AtomicInteger(0), serialMaxRunning)
+        val wide = blocking("Wide", AtomicInteger(0), AtomicInteger(0))
+
+        val scheduler = VirtualThreadScheduler(8) { if (it === serial) 1 else 4 }
+        try {
+            val runs = listOf(serial, wide).map { recipe ->
+                CompletableFuture.supplyAsync {
+                    recipe.run(
+                        (1..20).map { PlainText(randomId(), Paths.get("$it.txt"), Markers.EMPTY, "$it") },
+                        InMemoryExecutionContext { throw it },
+                        scheduler,
+                        1,
+                        1
+                    )
+                }
+            }
+            assertThat(runs.map { it.join().size }).containsExactly(20, 20)
+            assertThat(serialMaxRunning.get())
+                .`as`("The serial recipe never runs under the other run's permits")
+                .isEqualTo(1)
+        } finally {
+            scheduler.shutdown()
+        }
+    }
+}
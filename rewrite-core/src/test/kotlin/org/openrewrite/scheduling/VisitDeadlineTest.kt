@@ -0,0 +1,98 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.scheduling
+
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatThrownBy
+import org.junit.jupiter.api.Test
+import org.openrewrite.*
+import org.openrewrite.Tree.randomId
+import org.openrewrite.marker.Markers
+import org.openrewrite.text.PlainText
+import org.openrewrite.text.PlainTextVisitor
+import java.nio.file.Paths
+import java.time.Duration
+
+class VisitDeadlineTest {
+
+    private val text = PlainText(randomId(), Paths.get("test.txt"), Markers.EMPTY, "hello")
+
+    /**
+     * Keeps visiting another tree until the deadline abandons the visit, and only then changes the text.
+     */
+    private class EndlessVisitor : PlainTextVisitor<ExecutionContext>() {
+        private val leaf = PlainText(randomId(), Paths.get("leaf.txt"), Markers.EMPTY, "leaf")
+        var started = false
+
+        override fun visitText(text: PlainText, p: ExecutionContext): PlainText {
+            if (text !== leaf) {
+                started = true
+                for (i in 0 until Int.MAX_VALUE) {
+                    visit(leaf, p)
+                }
+                return text.withText("changed")
+            }
+            return text
+        }
+    }
+
+    @Test
+    fun timedOutSourceFileIsAbandonedAndReturnedUnchanged() {
+        val timeouts = mutableListOf<Throwable>()
+        val ctx = InMemoryExecutionContext({}, { Duration.ofMillis(500) }, { t, _ -> timeouts.add(t) })
+
+        val visitor = EndlessVisitor()
+        val results = object : Recipe() {
+            override fun getDisplayName() = "Endless"
+            override fun getVisitor() = visitor
+        }.run(listOf(text), ctx)
+
+        assertThat(visitor.started).isTrue
+        assertThat(results).isEmpty()
+        assertThat(timeouts).hasSize(1).allMatch { it is RecipeTimeoutException }
+    }
+
+    @Test
+    fun visitorIsReusableAfterANestedVisitorTimesOut() {
+        val afterVisited = mutableListOf<PlainText>()
+        var nested = true
+        val outer = object : PlainTextVisitor<ExecutionContext>() {
+            override fun visitText(text: PlainText, p: ExecutionContext): PlainText {
+                doAfterVisit(object : PlainTextVisitor<ExecutionContext>() {
+                    override fun visitText(text: PlainText, p: ExecutionContext): PlainText {
+                        afterVisited.add(text)
+                        return text
+                    }
+                })
+                return if (nested) EndlessVisitor().visitNonNull(text, p) else text
+            }
+        }
+
+        val previous = VisitDeadline.arm(VisitDeadline(Recipe.noop(), System.nanoTime() + Duration.ofMillis(10).toNanos()))
+        try {
+            assertThatThrownBy { outer.visit(text, InMemoryExecutionContext()) }
+                .isInstanceOf(RecipeTimeoutException::class.java)
+        } finally {
+            VisitDeadline.restore(previous)
+        }
+        assertThat(afterVisited).isEmpty()
+
+        nested = false
+        assertThat(outer.visit(text, InMemoryExecutionContext())).isSameAs(text)
+        assertThat(afterVisited).containsExactly(text)
+        assertThat(outer.cursor.getValue<Any>()).isEqualTo("root")
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.tree
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import org.openrewrite.ExecutionContext
+import org.openrewrite.InMemoryExecutionContext
+import org.openrewrite.Parser
+import org.openrewrite.text.PlainText
+import org.openrewrite.text.PlainTextParser
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.StandardCopyOption
+import kotlin.streams.toList
+
+class CachingParserTest {
+
+    private val parsed = mutableListOf<String>()
+
+    private val countingParser = object : PlainTextParser() {
+        override fun parseInputs(sources: Iterable<Parser.Input>, relativeTo: Path?, ctx: ExecutionContext): List<PlainText> {
+            val plainTexts = super.parseInputs(sources, relativeTo, ctx)
+            parsed.addAll(plainTexts.map { it.sourcePath.toString() })
+            return plainTexts
+        }
+    }
+
+    /**
+     * Lines of the form "declare X" and "use X".
+     */
+    private val dependencies = object : CachingParser.Dependencies<PlainText> {
+        override fun getDeclared(sourceFile: PlainText) = names(sourceFile, "declare ")
+        override fun getReferenced(sourceFile: PlainText) = names(sourceFile, "use ")
+
+        private fun names(sourceFile: PlainText, prefix: String) =
+            sourceFile.text.lines().filter { it.startsWith(prefix) }.map { it.substring(prefix.length) }.toSet()
+    }
+
+    private fun parse(repo: Path, cache: Path, deps: CachingParser.Dependencies<in PlainText> = CachingParser.Dependencies.NONE): List<String> {
+        parsed.clear()
+        val files = Files.list(repo).use { paths -> paths.sorted().toList() }
+        return CachingParser(countingParser, cache, "test", deps)
+            .parse(files, repo, InMemoryExecutionContext { throw it })
+            .map { it.printAll() }
+    }
+
+    @Test
+    fun unchangedFilesAreNotParsedAgain(@TempDir repo: Path, @TempDir cache: Path) {
+        Files.write(repo.resolve("a.txt"), "a".toByteArray())
+        Files.write(repo.resolve("b.txt"), "b".toByteArray())
+
+        assertThat(parse(repo, cache)).containsExactly("a", "b")
+        assertThat(parsed).containsExactlyInAnyOrder("a.txt", "b.txt")
+
+        Files.write(repo.resolve("b.txt"), "b2".toByteArray())
+        assertThat(parse(repo, cache)).containsExactly("a", "b2")
+        assertThat(parsed).containsExactly("b.txt")
+
+        assertThat(parse(repo, cache)).containsExactly("a", "b2")
+        assertThat(parsed).isEmpty()
+    }
+
+    @Test
+    fun changedDeclarationsInvalidateDependents(@TempDir repo: Path, @TempDir cache: Path) {
+        Files.write(repo.resolve("a.txt"), "declare A".toByteArray())
+        Files.write(repo.resolve("b.txt"), "declare B\nuse A".toByteArray())
+        Files.write(repo.resolve("c.txt"), "use B".toByteArray())
+        Files.write(repo.resolve("d.txt"), "unrelated".toByteArray())
+        parse(repo, cache, dependencies)
+
+        Files.write(repo.resolve("a.txt"), "declare A\n// changed".toByteArray())
+        parse(repo, cache, dependencies)
+
+        assertThat(parsed).containsExactlyInAnyOrder("a.txt", "b.txt", "c.txt")
+    }
+
+    @Test
+    fun interruptedRunLeavesManifestPairedWithItsSourceFiles(
+        @TempDir repo: Path,
+        @TempDir cache: Path,
+        @TempDir snapshot: Path
+    ) {
+        val a = repo.resolve("a.txt")
+        Files.write(a, "v1".toByteArray())
+        parse(repo, cache)
+        copy(cache, snapshot)
+
+        Files.write(a, "v2".toByteArray())
+        parse(repo, cache)
+
+        // as if the second run were interrupted before its manifest replaced the first run's
+        copy(snapshot, cache)
+
+        Files.write(a, "v1".toByteArray())
+        assertThat(parse(repo, cache)).containsExactly("v1")
+        assertThat(parsed).isEmpty()
+    }
+
+    private fun copy(from: Path, to: Path) {
+        Files.walk(from).use { paths ->
+            paths.forEach { path ->
+                val target = to.resolve(from.relativize(path).toString())
+                if (Files.isDirectory(path)) {
+                    Files.createDirectories(target)
+                } else {
+                    Files.copy(path, target, StandardCopyOption.REPLACE_EXISTING)
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.tree
+
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.catchThrowable
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import org.openrewrite.ExecutionContext
+import org.openrewrite.InMemoryExecutionContext
+import org.openrewrite.Parser
+import org.openrewrite.text.PlainText
+import org.openrewrite.text.PlainTextParser
+import java.nio.file.Path
+import java.nio.file.Paths
+import java.util.concurrent.ConcurrentHashMap
+
+class ParsingPipelineTest {
+
+    private val markdownThreads = ConcurrentHashMap.newKeySet<Thread>()
+
+    private val markdownParser = object : PlainTextParser() {
+        override fun parseInputs(sources: Iterable<Parser.Input>, relativeTo: Path?, ctx: ExecutionContext): List<PlainText> {
+            markdownThreads.add(Thread.currentThread())
+            return super.parseInputs(sources, relativeTo, ctx)
+        }
+
+        override fun accept(path: Path) = path.toString().endsWith(".md")
+    }
+
+    @Test
+    fun routesEachFileToTheFirstParserThatAcceptsIt(@TempDir root: Path) {
+        root.resolve("docs").toFile().mkdirs()
+        root.resolve("docs/README.md").toFile().writeText("# readme")
+        root.resolve("docs/CHANGES.md").toFile().writeText("# changes")
+        root.resolve("LICENSE").toFile().writeText("license")
+
+        val sourceFiles = ParsingPipeline(listOf(markdownParser, PlainTextParser())).parse(root, InMemoryExecutionContext())
+
+        assertThat(sourceFiles.map { it.sourcePath.toString().replace('\\', '/') })
+            .containsExactlyInAnyOrder("docs/README.md", "docs/CHANGES.md", "LICENSE")
+        assertThat(sourceFiles.last().sourcePath).isEqualTo(Paths.get("LICENSE"))
+        assertThat(markdownThreads).hasSize(1)
+    }
+
+    @Test
+    fun skipsInputsNoParserAccepts() {
+        val inputs = listOf(
+            Parser.Input(Paths.get("a.md")) { "a".byteInputStream() },
+            Parser.Input(Paths.get("b.txt")) { "b".byteInputStream() }
+        )
+
+        val sourceFiles = ParsingPipeline(listOf(markdownParser)).parseInputs(inputs, null, InMemoryExecutionContext())
+
+        assertThat(sourceFiles.map { (it as PlainText).text }).containsExactly("a")
+    }
+
+    @Test
+    fun failedGroupsAreRethrownOnceEveryGroupIsDone() {
+        val finished = ConcurrentHashMap.newKeySet<String>()
+        fun failing(extension: String) = object : PlainTextParser() {
+            override fun parseInputs(sources: Iterable<Parser.Input>, relativeTo: Path?, ctx: ExecutionContext): List<PlainText> {
+                Thread.sleep(if (extension == "md") 0 else 100)
+                finished.add(extension)
+                throw IllegalStateException(extension)
+            }
+
+            override fun accept(path: Path) = path.toString().endsWith(".$extension")
+        }
+        val inputs = listOf(
+            Parser.Input(Paths.get("a.md")) { "a".byteInputStream() },
+            Parser.Input(Paths.get("b.txt")) { "b".byteInputStream() }
+        )
+
+        val thrown = catchThrowable {
+            ParsingPipeline(listOf(failing("md"), failing("txt"))).parseInputs(inputs, null, InMemoryExecutionContext())
+        }
+
+        assertThat(thrown).isInstanceOf(IllegalStateException::class.java).hasMessage("md")
+        assertThat(thrown.suppressed.map { it.message }).containsExactly("txt")
+        assertThat(finished).containsExactlyInAnyOrder("md", "txt")
+    }
+}
@@ -21,14 +21,13 @@ import lombok.RequiredArgsConstructor;
 import org.codehaus.groovy.ast.ClassNode;
 import org.codehaus.groovy.ast.ModuleNode;
 import org.codehaus.groovy.control.*;
-import org.codehaus.groovy.control.io.InputStreamReaderSource;
+import org.codehaus.groovy.control.io.StringReaderSource;
 import org.codehaus.groovy.transform.stc.StaticTypeCheckingVisitor;
 import org.intellij.lang.annotations.Language;
 import org.openrewrite.ExecutionContext;
 import org.openrewrite.InMemoryExecutionContext;
 import org.openrewrite.Parser;
 import org.openrewrite.groovy.tree.G;
-import org.openrewrite.internal.StringUtils;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.java.JavaParser;
 import org.openrewrite.java.internal.JavaTypeCache;
@@ -101,7 +100,7 @@ public class GroovyParser implements Parser<G.CompilationUnit> {
             try {
                 GroovyParserVisitor mappingVisitor = new GroovyParserVisitor(
                         compiled.getInput().getPath(),
-                        StringUtils.readFully(compiled.getInput().getSource()),
+                        compiled.getInput().getContent().getText(),
                         typeCache,
                         ctx
                 );
@@ -129,7 +128,7 @@ public class GroovyParser implements Parser<G.CompilationUnit> {
             ErrorCollector errorCollector = new ErrorCollector(configuration);
             SourceUnit unit = new SourceUnit(
                     "doesntmatter",
-                    new InputStreamReaderSource(input.getSource(), configuration),
+                    new StringReaderSource(input.getContent().getText(), configuration),
                     configuration,
                     null,
                     errorCollector
@@ -67,9 +67,9 @@ public class GroovyPrinter<P> extends GroovyVisitor<PrintOutputCapture<P>> {
     public J visitGString(G.GString gString, PrintOutputCapture<P> p) {
         visitSpace(gString.getPrefix(), GSpace.Location.GSTRING, p);
         visitMarkers(gString.getMarkers(), p);
-        p.out.append('"');
+        p.append('"');
         visit(gString.getStrings(), p);
-        p.out.append('"');
+        p.append('"');
         return gString;
     }
 
@@ -77,13 +77,13 @@ public class GroovyPrinter<P> extends GroovyVisitor<PrintOutputCapture<P>> {
     public J visitGStringValue(G.GString.Value value, PrintOutputCapture<P> p) {
         visitMarkers(value.getMarkers(), p);
         if(value.isEnclosedInBraces()) {
-            p.out.append("${");
+            p.append("${");
         } else {
-            p.out.append("$");
+            p.append("$");
         }
         visit(value.getTree(), p);
         if(value.isEnclosedInBraces()) {
-            p.out.append('}');
+            p.append('}');
         }
         return value;
     }
@@ -102,7 +102,7 @@ public class GroovyPrinter<P> extends GroovyVisitor<PrintOutputCapture<P>> {
         visitSpace(mapEntry.getPrefix(), GSpace.Location.MAP_ENTRY, p);
         visitMarkers(mapEntry.getMarkers(), p);
         visitRightPadded(mapEntry.getPadding().getKey(), GRightPadded.Location.MAP_ENTRY_KEY, p);
-        p.out.append(':');
+        p.append(':');
         visit(mapEntry.getValue(), p);
         return mapEntry;
     }
@@ -146,9 +146,9 @@ public class GroovyPrinter<P> extends GroovyVisitor<PrintOutputCapture<P>> {
             return;
         }
         visitSpace(container.getBefore(), location.getBeforeLocation(), p);
-        p.out.append(before);
+        p.append(before);
         visitRightPadded(container.getPadding().getElements(), location.getElementLocation(), suffixBetween, p);
-        p.out.append(after == null ? "" : after);
+        p.append(after == null ? "" : after);
     }
 
     protected void visitRightPadded(List<? extends JRightPadded<? extends J>> nodes, GRightPadded.Location location, String suffixBetween, PrintOutputCapture<P> p) {
@@ -157,7 +157,7 @@ public class GroovyPrinter<P> extends GroovyVisitor<PrintOutputCapture<P>> {
             visit(node.getElement(), p);
             visitSpace(node.getAfter(), location.getAfterLocation(), p);
             if (i < nodes.size() - 1) {
-                p.out.append(suffixBetween);
+                p.append(suffixBetween);
             }
         }
     }
@@ -182,7 +182,7 @@ public class GroovyPrinter<P> extends GroovyVisitor<PrintOutputCapture<P>> {
             visitMarkers(t.getMarkers(), p);
             visit(t.getExpression(), p);
             visitSpace(t.getClazz().getPadding().getTree().getAfter(), Space.Location.CONTROL_PARENTHESES_PREFIX, p);
-            p.out.append("as");
+            p.append("as");
             visit(t.getClazz().getTree(), p);
             return t;
         }
@@ -191,12 +191,12 @@ public class GroovyPrinter<P> extends GroovyVisitor<PrintOutputCapture<P>> {
         public J visitLambda(J.Lambda lambda, PrintOutputCapture<P> p) {
             visitSpace(lambda.getPrefix(), Space.Location.LAMBDA_PREFIX, p);
             visitMarkers(lambda.getMarkers(), p);
-            p.out.append('{');
+            p.append('{');
             visitMarkers(lambda.getParameters().getMarkers(), p);
             visitRightPadded(lambda.getParameters().getPadding().getParams(), JRightPadded.Location.LAMBDA_PARAM, ",", p);
             if (!lambda.getParameters().getParameters().isEmpty()) {
                 visitSpace(lambda.getArrow(), Space.Location.LAMBDA_ARROW_PREFIX, p);
-                p.out.append("->");
+                p.append("->");
             }
             if (lambda.getBody() instanceof J.Block) {
                 J.Block block = (J.Block) lambda.getBody();
@@ -205,7 +205,7 @@ public class GroovyPrinter<P> extends GroovyVisitor<PrintOutputCapture<P>> {
             } else {
                 visit(lambda.getBody(), p);
             }
-            p.out.append('}');
+            p.append('}');
             return lambda;
         }
 
@@ -217,10 +217,10 @@ public class GroovyPrinter<P> extends GroovyVisitor<PrintOutputCapture<P>> {
 
             Markers nameMarkers = fieldAccess.getName().getMarkers();
             if (nameMarkers.findFirst(NullSafe.class).isPresent()) {
-                p.out.append('?');
+                p.append('?');
             }
             if (nameMarkers.findFirst(StarDot.class).isPresent()) {
-                p.out.append('*');
+                p.append('*');
             }
 
             visitLeftPadded(".", fieldAccess.getPadding().getName(), JLeftPadded.Location.FIELD_ACCESS_NAME, p);
@@ -231,14 +231,14 @@ public class GroovyPrinter<P> extends GroovyVisitor<PrintOutputCapture<P>> {
         public J visitForEachLoop(J.ForEachLoop forEachLoop, PrintOutputCapture<P> p) {
             visitSpace(forEachLoop.getPrefix(), Space.Location.FOR_EACH_LOOP_PREFIX, p);
             visitMarkers(forEachLoop.getMarkers(), p);
-            p.out.append("for");
+            p.append("for");
             J.ForEachLoop.Control ctrl = forEachLoop.getControl();
             visitSpace(ctrl.getPrefix(), Space.Location.FOR_EACH_CONTROL_PREFIX, p);
-            p.out.append('(');
+            p.append('(');
             String suffix = forEachLoop.getMarkers().findFirst(InStyleForEachLoop.class).isPresent() ? "in" : ":";
             visitRightPadded(ctrl.getPadding().getVariable(), JRightPadded.Location.FOREACH_VARIABLE, suffix, p);
             visitRightPadded(ctrl.getPadding().getIterable(), JRightPadded.Location.FOREACH_ITERABLE, "", p);
-            p.out.append(')');
+            p.append(')');
             visitStatement(forEachLoop.getPadding().getBody(), JRightPadded.Location.FOR_BODY, p);
             return forEachLoop;
         }
@@ -267,18 +267,18 @@ public class GroovyPrinter<P> extends GroovyVisitor<PrintOutputCapture<P>> {
                         .findFirst(OmitParentheses.class).isPresent();
 
                 if (i == 0 && !omitParens) {
-                    p.out.append('(');
+                    p.append('(');
                 } else if (i > 0 && omitParens && !args.get(0).getElement().getMarkers()
                         .findFirst(OmitParentheses.class).isPresent()) {
-                    p.out.append(')');
+                    p.append(')');
                 } else if (i > 0) {
-                    p.out.append(',');
+                    p.append(',');
                 }
 
                 visitRightPadded(arg, JRightPadded.Location.METHOD_INVOCATION_ARGUMENT, p);
 
                 if (i == args.size() - 1 && !omitParens) {
-                    p.out.append(')');
+                    p.append(')');
                 }
             }
 
@@ -311,7 +311,7 @@ public class GroovyPrinter<P> extends GroovyVisitor<PrintOutputCapture<P>> {
             visit(ternary.getCondition(), p);
             if (ternary.getMarkers().findFirst(Elvis.class).isPresent()) {
                 visitSpace(ternary.getPadding().getTruePart().getBefore(), Space.Location.TERNARY_TRUE, p);
-                p.out.append("?:");
+                p.append("?:");
                 visit(ternary.getFalsePart(), p);
             } else {
                 visitLeftPadded("?", ternary.getPadding().getTruePart(), JLeftPadded.Location.TERNARY_TRUE, p);
@@ -323,7 +323,7 @@ public class GroovyPrinter<P> extends GroovyVisitor<PrintOutputCapture<P>> {
         @Override
         public <M extends Marker> M visitMarker(Marker marker, PrintOutputCapture<P> p) {
             if (marker instanceof Semicolon) {
-                p.out.append(';');
+                p.append(';');
             }
             return super.visitMarker(marker, p);
         }
@@ -44,43 +44,45 @@ class GroovyTypeMapping implements JavaTypeMapping<ASTNode> {
     }
 
     public JavaType type(@Nullable ASTNode type) {
-        if (type == null) {
-            return JavaType.Class.Unknown.getInstance();
-        }
+        return typeCache.map(() -> {
+            if (type == null) {
+                return JavaType.Class.Unknown.getInstance();
+            }
 
-        String signature = signatureBuilder.signature(type);
-        JavaType existing = typeCache.get(signature);
-        if (existing != null) {
-            return existing;
-        }
+            String signature = signatureBuilder.signature(type);
+            JavaType existing = typeCache.get(signature);
+            if (existing != null) {
+                return existing;
+            }
 
-        try {
-            if (type instanceof ClassNode) {
-                ClassNode clazz = (ClassNode) type;
-                if (clazz.isArray()) {
-                    return arrayType(clazz, signature);
-                } else if (ClassHelper.isPrimitiveType(clazz)) {
+            try {
+                if (type instanceof ClassNode) {
+                    ClassNode clazz = (ClassNode) type;
+                    if (clazz.isArray()) {
+                        return arrayType(clazz, signature);
+                    } else if (ClassHelper.isPrimitiveType(clazz)) {
+                        //noinspection ConstantConditions
+                        return JavaType.Primitive.fromKeyword(clazz.getName());
+                    } else if (clazz.isUsingGenerics()) {
+                        return parameterizedType(clazz, signature);
+                    }
+                    return classType((ClassNode) type, signature);
+                } else if (type instanceof GenericsType) {
+                    return genericType((GenericsType) type, signature);
+                } else if (type instanceof MethodNode) {
+                    //noinspection ConstantConditions
+                    return methodType((MethodNode) type);
+                } else if (type instanceof FieldNode) {
                     //noinspection ConstantConditions
-                    return JavaType.Primitive.fromKeyword(clazz.getName());
-                } else if (clazz.isUsingGenerics()) {
-                    return parameterizedType(clazz, signature);
+                    return variableType((FieldNode) type);
                 }
-                return classType((ClassNode) type, signature);
-            } else if (type instanceof GenericsType) {
-                return genericType((GenericsType) type, signature);
-            } else if (type instanceof MethodNode) {
-                //noinspection ConstantConditions
-                return methodType((MethodNode) type);
-            } else if (type instanceof FieldNode) {
-                //noinspection ConstantConditions
-                return variableType((FieldNode) type);
+            } catch (NoClassDefFoundError e) {
+                // e.getMessage() returns fully qualified name of type that couldn't be found on the classpath
+                return JavaType.ShallowClass.build(e.getMessage());
             }
-        } catch (NoClassDefFoundError e) {
-            // e.getMessage() returns fully qualified name of type that couldn't be found on the classpath
-            return JavaType.ShallowClass.build(e.getMessage());
-        }
 
-        throw new UnsupportedOperationException("Unknown type " + type.getClass().getName());
+            throw new UnsupportedOperationException("Unknown type " + type.getClass().getName());
+        });
     }
 
     private JavaType.Class classType(ClassNode node, String signature) {
@@ -204,88 +206,92 @@ class GroovyTypeMapping implements JavaTypeMapping<ASTNode> {
 
     @Nullable
     public JavaType.Method methodType(@Nullable MethodNode node) {
-        if (node == null) {
-            return null;
-        }
+        return typeCache.map(() -> {
+            if (node == null) {
+                return null;
+            }
 
-        String signature = signatureBuilder.methodSignature(node);
-        JavaType.Method existing = typeCache.get(signature);
-        if (existing != null) {
-            return existing;
-        }
+            String signature = signatureBuilder.methodSignature(node);
+            JavaType.Method existing = typeCache.get(signature);
+            if (existing != null) {
+                return existing;
+            }
 
-        List<String> paramNames = null;
-        if (node.getParameters().length > 0) {
-            paramNames = new ArrayList<>(node.getParameters().length);
-            for (org.codehaus.groovy.ast.Parameter parameter : node.getParameters()) {
-                paramNames.add(parameter.getName());
+            List<String> paramNames = null;
+            if (node.getParameters().length > 0) {
+                paramNames = new ArrayList<>(node.getParameters().length);
+                for (org.codehaus.groovy.ast.Parameter parameter : node.getParameters()) {
+                    paramNames.add(parameter.getName());
+                }
             }
-        }
 
-        JavaType.Method method = new JavaType.Method(
-                null,
-                node.getModifiers(),
-                null,
-                node instanceof ConstructorNode ? "<constructor>" : node.getName(),
-                null,
-                paramNames,
-                null, null, null
-        );
-        typeCache.put(signature, method);
-
-        List<JavaType> parameterTypes = null;
-        if (node.getParameters().length > 0) {
-            parameterTypes = new ArrayList<>(node.getParameters().length);
-            for (org.codehaus.groovy.ast.Parameter parameter : node.getParameters()) {
-                parameterTypes.add(type(parameter.getOriginType()));
+            JavaType.Method method = new JavaType.Method(
+                    null,
+                    node.getModifiers(),
+                    null,
+                    node instanceof ConstructorNode ? "<constructor>" : node.getName(),
+                    null,
+                    paramNames,
+                    null, null, null
+            );
+            typeCache.put(signature, method);
+
+            List<JavaType> parameterTypes = null;
+            if (node.getParameters().length > 0) {
+                parameterTypes = new ArrayList<>(node.getParameters().length);
+                for (org.codehaus.groovy.ast.Parameter parameter : node.getParameters()) {
+                    parameterTypes.add(type(parameter.getOriginType()));
+                }
             }
-        }
 
-        List<JavaType.FullyQualified> thrownExceptions = null;
-        for (ClassNode e : node.getExceptions()) {
-            thrownExceptions = new ArrayList<>(node.getExceptions().length);
-            JavaType.FullyQualified qualified = (JavaType.FullyQualified) type(e);
-            thrownExceptions.add(qualified);
-        }
+            List<JavaType.FullyQualified> thrownExceptions = null;
+            for (ClassNode e : node.getExceptions()) {
+                thrownExceptions = new ArrayList<>(node.getExceptions().length);
+                JavaType.FullyQualified qualified = (JavaType.FullyQualified) type(e);
+                thrownExceptions.add(qualified);
+            }
 
-        List<JavaType.FullyQualified> annotations = getAnnotations(node);
+            List<JavaType.FullyQualified> annotations = getAnnotations(node);
 
-        method.unsafeSet(
-                (JavaType.FullyQualified) type(node.getDeclaringClass()),
-                type(node.getReturnType()),
-                parameterTypes,
-                thrownExceptions,
-                annotations
-        );
+            method.unsafeSet(
+                    (JavaType.FullyQualified) type(node.getDeclaringClass()),
+                    type(node.getReturnType()),
+                    parameterTypes,
+                    thrownExceptions,
+                    annotations
+            );
 
-        return method;
+            return method;
+        });
     }
 
     @Nullable
     public JavaType.Variable variableType(@Nullable FieldNode node) {
-        if (node == null) {
-            return null;
-        }
+        return typeCache.map(() -> {
+            if (node == null) {
+                return null;
+            }
 
-        String signature = signatureBuilder.variableSignature(node);
-        JavaType.Variable existing = typeCache.get(signature);
-        if (existing != null) {
-            return existing;
-        }
+            String signature = signatureBuilder.variableSignature(node);
+            JavaType.Variable existing = typeCache.get(signature);
+            if (existing != null) {
+                return existing;
+            }
 
-        JavaType.Variable variable = new JavaType.Variable(
-                null,
-                node.getModifiers(),
-                node.getName(),
-                null, null, null);
+            JavaType.Variable variable = new JavaType.Variable(
+                    null,
+                    node.getModifiers(),
+                    node.getName(),
+                    null, null, null);
 
-        typeCache.put(signature, variable);
+            typeCache.put(signature, variable);
 
-        List<JavaType.FullyQualified> annotations = getAnnotations(node);
+            List<JavaType.FullyQualified> annotations = getAnnotations(node);
 
-        variable.unsafeSet(type(node.getOwner()), type(node.getType()), annotations);
+            variable.unsafeSet(type(node.getOwner()), type(node.getType()), annotations);
 
-        return variable;
+            return variable;
+        });
     }
 
     /**
@@ -293,27 +299,29 @@ class GroovyTypeMapping implements JavaTypeMapping<ASTNode> {
      */
     @Nullable
     public JavaType.Variable variableType(String name, @Nullable ASTNode type) {
-        if (type == null) {
-            return null;
-        }
+        return typeCache.map(() -> {
+            if (type == null) {
+                return null;
+            }
 
-        String signature = signatureBuilder.variableSignature(name);
-        JavaType.Variable existing = typeCache.get(signature);
-        if (existing != null) {
-            return existing;
-        }
+            String signature = signatureBuilder.variableSignature(name);
+            JavaType.Variable existing = typeCache.get(signature);
+            if (existing != null) {
+                return existing;
+            }
 
-        JavaType.Variable variable = new JavaType.Variable(
-                null,
-                0,
-                name,
-                null, null, null);
+            JavaType.Variable variable = new JavaType.Variable(
+                    null,
+                    0,
+                    name,
+                    null, null, null);
 
-        typeCache.put(signature, variable);
+            typeCache.put(signature, variable);
 
-        variable.unsafeSet(JavaType.Unknown.getInstance(), type(type), null);
+            variable.unsafeSet(JavaType.Unknown.getInstance(), type(type), null);
 
-        return variable;
+            return variable;
+        });
     }
 
     @Nullable
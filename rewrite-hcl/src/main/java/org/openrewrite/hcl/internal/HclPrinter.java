@@ -28,22 +28,22 @@ public class HclPrinter<P> extends HclVisitor<PrintOutputCapture<P>> {
 
     @Override
     public Space visitSpace(Space space, Space.Location loc, PrintOutputCapture<P> p) {
-        p.out.append(space.getWhitespace());
+        p.append(space.getWhitespace());
 
         for (Comment comment : space.getComments()) {
             visitMarkers(comment.getMarkers(), p);
             switch (comment.getStyle()) {
                 case LINE_SLASH:
-                    p.out.append("//").append(comment.getText());
+                    p.append("//").append(comment.getText());
                     break;
                 case LINE_HASH:
-                    p.out.append("#").append(comment.getText());
+                    p.append("#").append(comment.getText());
                     break;
                 case INLINE:
-                    p.out.append("/*").append(comment.getText()).append("*/");
+                    p.append("/*").append(comment.getText()).append("*/");
                     break;
             }
-            p.out.append(comment.getSuffix());
+            p.append(comment.getSuffix());
         }
         return space;
     }
@@ -52,7 +52,7 @@ public class HclPrinter<P> extends HclVisitor<PrintOutputCapture<P>> {
         if (leftPadded != null) {
             visitSpace(leftPadded.getBefore(), location.getBeforeLocation(), p);
             if (prefix != null) {
-                p.out.append(prefix);
+                p.append(prefix);
             }
             visit(leftPadded.getElement(), p);
         }
@@ -64,7 +64,7 @@ public class HclPrinter<P> extends HclVisitor<PrintOutputCapture<P>> {
             visit(node.getElement(), p);
             visitSpace(node.getAfter(), location.getAfterLocation(), p);
             if (i < nodes.size() - 1) {
-                p.out.append(suffixBetween);
+                p.append(suffixBetween);
             }
         }
     }
@@ -74,9 +74,9 @@ public class HclPrinter<P> extends HclVisitor<PrintOutputCapture<P>> {
             return;
         }
         visitSpace(container.getBefore(), location.getBeforeLocation(), p);
-        p.out.append(before);
+        p.append(before);
         visitRightPadded(container.getPadding().getElements(), location.getElementLocation(), suffixBetween, p);
-        p.out.append(after == null ? "" : after);
+        p.append(after == null ? "" : after);
     }
 
     @Override
@@ -85,7 +85,7 @@ public class HclPrinter<P> extends HclVisitor<PrintOutputCapture<P>> {
         visitMarkers(attribute.getMarkers(), p);
         visit(attribute.getName(), p);
         visitSpace(attribute.getPadding().getType().getBefore(), Space.Location.ATTRIBUTE_ASSIGNMENT, p);
-        p.out.append(attribute.getType().equals(Hcl.Attribute.Type.Assignment) ? "=" : ":");
+        p.append(attribute.getType().equals(Hcl.Attribute.Type.Assignment) ? "=" : ":");
         visit(attribute.getValue(), p);
         return attribute;
     }
@@ -107,43 +107,43 @@ public class HclPrinter<P> extends HclVisitor<PrintOutputCapture<P>> {
         visitSpace(binary.getPadding().getOperator().getBefore(), Space.Location.BINARY_OPERATOR, p);
         switch(binary.getOperator()) {
             case Addition:
-                p.out.append('+');
+                p.append('+');
                 break;
             case Subtraction:
-                p.out.append('-');
+                p.append('-');
                 break;
             case Multiplication:
-                p.out.append('*');
+                p.append('*');
                 break;
             case Division:
-                p.out.append('/');
+                p.append('/');
                 break;
             case Modulo:
-                p.out.append('%');
+                p.append('%');
                 break;
             case LessThan:
-                p.out.append('<');
+                p.append('<');
                 break;
             case GreaterThan:
-                p.out.append('>');
+                p.append('>');
                 break;
             case LessThanOrEqual:
-                p.out.append("<=");
+                p.append("<=");
                 break;
             case GreaterThanOrEqual:
-                p.out.append(">=");
+                p.append(">=");
                 break;
             case Equal:
-                p.out.append("==");
+                p.append("==");
                 break;
             case NotEqual:
-                p.out.append("!=");
+                p.append("!=");
                 break;
             case Or:
-                p.out.append("||");
+                p.append("||");
                 break;
             case And:
-                p.out.append("&&");
+                p.append("&&");
                 break;
         }
         visit(binary.getRight(), p);
@@ -157,10 +157,10 @@ public class HclPrinter<P> extends HclVisitor<PrintOutputCapture<P>> {
         visit(block.getType(), p);
         visit(block.getLabels(), p);
         visitSpace(block.getOpen(), Space.Location.BLOCK_OPEN, p);
-        p.out.append('{');
+        p.append('{');
         visit(block.getBody(), p);
         visitSpace(block.getClose(), Space.Location.BLOCK_CLOSE, p);
-        p.out.append('}');
+        p.append('}');
         return block;
     }
 
@@ -196,19 +196,19 @@ public class HclPrinter<P> extends HclVisitor<PrintOutputCapture<P>> {
     public Hcl visitForObject(Hcl.ForObject forObject, PrintOutputCapture<P> p) {
         visitSpace(forObject.getPrefix(), Space.Location.FOR_OBJECT, p);
         visitMarkers(forObject.getMarkers(), p);
-        p.out.append("{");
+        p.append("{");
         visit(forObject.getIntro(), p);
         visitLeftPadded(":", forObject.getPadding().getUpdateName(), HclLeftPadded.Location.FOR_UPDATE, p);
         visitLeftPadded("=>", forObject.getPadding().getUpdateValue(), HclLeftPadded.Location.FOR_UPDATE_VALUE, p);
         if(forObject.getEllipsis() != null) {
             visitSpace(forObject.getEllipsis().getPrefix(), Space.Location.FOR_UPDATE_VALUE_ELLIPSIS, p);
-            p.out.append("...");
+            p.append("...");
         }
         if (forObject.getPadding().getCondition() != null) {
             visitLeftPadded("if", forObject.getPadding().getCondition(), HclLeftPadded.Location.FOR_CONDITION, p);
         }
         visitSpace(forObject.getEnd(), Space.Location.FOR_OBJECT_SUFFIX, p);
-        p.out.append("}");
+        p.append("}");
         return forObject;
     }
 
@@ -216,14 +216,14 @@ public class HclPrinter<P> extends HclVisitor<PrintOutputCapture<P>> {
     public Hcl visitForTuple(Hcl.ForTuple forTuple, PrintOutputCapture<P> p) {
         visitSpace(forTuple.getPrefix(), Space.Location.FOR_TUPLE, p);
         visitMarkers(forTuple.getMarkers(), p);
-        p.out.append("[");
+        p.append("[");
         visit(forTuple.getIntro(), p);
         visitLeftPadded(":", forTuple.getPadding().getUpdate(), HclLeftPadded.Location.FOR_UPDATE, p);
         if (forTuple.getPadding().getCondition() != null) {
             visitLeftPadded("if", forTuple.getPadding().getCondition(), HclLeftPadded.Location.FOR_CONDITION, p);
         }
         visitSpace(forTuple.getEnd(), Space.Location.FOR_TUPLE_SUFFIX, p);
-        p.out.append("]");
+        p.append("]");
         return forTuple;
     }
 
@@ -241,11 +241,11 @@ public class HclPrinter<P> extends HclVisitor<PrintOutputCapture<P>> {
     public Hcl visitHeredocTemplate(Hcl.HeredocTemplate heredocTemplate, PrintOutputCapture<P> p) {
         visitSpace(heredocTemplate.getPrefix(), Space.Location.HEREDOC, p);
         visitMarkers(heredocTemplate.getMarkers(), p);
-        p.out.append(heredocTemplate.getArrow());
+        p.append(heredocTemplate.getArrow());
         visit(heredocTemplate.getDelimiter(), p);
         visit(heredocTemplate.getExpressions(), p);
         visitSpace(heredocTemplate.getEnd(), Space.Location.HEREDOC_END, p);
-        p.out.append(heredocTemplate.getDelimiter().getName());
+        p.append(heredocTemplate.getDelimiter().getName());
         return heredocTemplate;
     }
 
@@ -253,7 +253,7 @@ public class HclPrinter<P> extends HclVisitor<PrintOutputCapture<P>> {
     public Hcl visitIdentifier(Hcl.Identifier identifier, PrintOutputCapture<P> p) {
         visitSpace(identifier.getPrefix(), Space.Location.IDENTIFIER, p);
         visitMarkers(identifier.getMarkers(), p);
-        p.out.append(identifier.getName());
+        p.append(identifier.getName());
         return identifier;
     }
 
@@ -270,10 +270,10 @@ public class HclPrinter<P> extends HclVisitor<PrintOutputCapture<P>> {
     public Hcl visitIndexPosition(Hcl.Index.Position indexPosition, PrintOutputCapture<P> p) {
         visitSpace(indexPosition.getPrefix(), Space.Location.INDEX_POSITION, p);
         visitMarkers(indexPosition.getMarkers(), p);
-        p.out.append("[");
+        p.append("[");
         visitMarkers(indexPosition.getMarkers(), p);
         visitRightPadded(indexPosition.getPadding().getPosition(), HclRightPadded.Location.INDEX_POSITION, p);
-        p.out.append("]");
+        p.append("]");
         return indexPosition;
     }
 
@@ -281,7 +281,7 @@ public class HclPrinter<P> extends HclVisitor<PrintOutputCapture<P>> {
     public Hcl visitLiteral(Hcl.Literal literal, PrintOutputCapture<P> p) {
         visitSpace(literal.getPrefix(), Space.Location.LITERAL, p);
         visitMarkers(literal.getMarkers(), p);
-        p.out.append(literal.getValueSource());
+        p.append(literal.getValueSource());
         return literal;
     }
 
@@ -298,9 +298,9 @@ public class HclPrinter<P> extends HclVisitor<PrintOutputCapture<P>> {
     public Hcl visitParentheses(Hcl.Parentheses parentheses, PrintOutputCapture<P> p) {
         visitSpace(parentheses.getPrefix(), Space.Location.PARENTHETICAL_EXPRESSION, p);
         visitMarkers(parentheses.getMarkers(), p);
-        p.out.append('(');
+        p.append('(');
         visitRightPadded(parentheses.getPadding().getExpression(), HclRightPadded.Location.PARENTHESES, p);
-        p.out.append(')');
+        p.append(')');
         return parentheses;
     }
 
@@ -308,9 +308,9 @@ public class HclPrinter<P> extends HclVisitor<PrintOutputCapture<P>> {
     public Hcl visitQuotedTemplate(Hcl.QuotedTemplate template, PrintOutputCapture<P> p) {
         visitSpace(template.getPrefix(), Space.Location.QUOTED_TEMPLATE, p);
         visitMarkers(template.getMarkers(), p);
-        p.out.append('"');
+        p.append('"');
         visit(template.getExpressions(), p);
-        p.out.append('"');
+        p.append('"');
         return template;
     }
 
@@ -318,9 +318,9 @@ public class HclPrinter<P> extends HclVisitor<PrintOutputCapture<P>> {
     public Hcl visitTemplateInterpolation(Hcl.TemplateInterpolation template, PrintOutputCapture<P> p) {
         visitSpace(template.getPrefix(), Space.Location.TEMPLATE_INTERPOLATION, p);
         visitMarkers(template.getMarkers(), p);
-        p.out.append("${");
+        p.append("${");
         visit(template.getExpression(), p);
-        p.out.append('}');
+        p.append('}');
         return template;
     }
 
@@ -338,15 +338,15 @@ public class HclPrinter<P> extends HclVisitor<PrintOutputCapture<P>> {
         visitSpace(splatOperator.getPrefix(), Space.Location.SPLAT_OPERATOR, p);
         visitMarkers(splatOperator.getMarkers(), p);
         if (splatOperator.getType().equals(Hcl.Splat.Operator.Type.Full)) {
-            p.out.append('[');
+            p.append('[');
         } else {
-            p.out.append('.');
+            p.append('.');
         }
         visitSpace(splatOperator.getSplat().getElement().getPrefix(), Space.Location.SPLAT_OPERATOR_PREFIX, p);
-        p.out.append('*');
+        p.append('*');
         if (splatOperator.getType().equals(Hcl.Splat.Operator.Type.Full)) {
             visitSpace(splatOperator.getSplat().getAfter(), Space.Location.SPLAT_OPERATOR_SUFFIX, p);
-            p.out.append(']');
+            p.append(']');
         }
         return splatOperator;
     }
@@ -366,10 +366,10 @@ public class HclPrinter<P> extends HclVisitor<PrintOutputCapture<P>> {
         visitMarkers(unary.getMarkers(), p);
         switch(unary.getOperator()) {
             case Negative:
-                p.out.append('-');
+                p.append('-');
                 break;
             case Not:
-                p.out.append('!');
+                p.append('!');
                 break;
         }
         visit(unary.getExpression(), p);
@@ -388,7 +388,7 @@ public class HclPrinter<P> extends HclVisitor<PrintOutputCapture<P>> {
     public <M extends Marker> M visitMarker(Marker marker, PrintOutputCapture<P> p) {
         if(marker instanceof SearchResult) {
             String description = ((SearchResult) marker).getDescription();
-            p.out.append("/*~~")
+            p.append("/*~~")
                     .append(description == null ? "" : "(" + description + ")~~")
                     .append(">*/");
         }
@@ -547,7 +547,7 @@ public class Java11JavadocVisitor extends DocTreeScanner<Tree, List<Javadoc>> {
         TypedTree qualifier;
 
         if (ref.qualifierExpression != null) {
-            attr.attribType(ref.qualifierExpression, symbol);
+            typeMapping.withSymbolLock(() -> attr.attribType(ref.qualifierExpression, symbol));
             qualifier = (TypedTree) javaVisitor.scan(ref.qualifierExpression, Space.EMPTY);
             qualifierType = qualifier.getType();
             if (ref.memberName != null) {
@@ -647,7 +647,7 @@ public class Java11JavadocVisitor extends DocTreeScanner<Tree, List<Javadoc>> {
                     if (ref.paramTypes != null) {
                         for (JCTree param : ref.paramTypes) {
                             for (JavaType testParamType : method.getParameterTypes()) {
-                                Type paramType = attr.attribType(param, symbol);
+                                Type paramType = typeMapping.withSymbolLock(() -> attr.attribType(param, symbol));
                                 if (testParamType instanceof JavaType.GenericTypeVariable) {
                                     for (JavaType bound : ((JavaType.GenericTypeVariable) testParamType).getBounds()) {
                                         if (paramTypeMatches(bound, paramType)) {
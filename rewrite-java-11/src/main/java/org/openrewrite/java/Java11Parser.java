@@ -20,6 +20,7 @@ import com.sun.tools.javac.file.JavacFileManager;
 import com.sun.tools.javac.main.JavaCompiler;
 import com.sun.tools.javac.tree.JCTree;
 import com.sun.tools.javac.util.Context;
+import com.sun.tools.javac.util.JCDiagnostic;
 import com.sun.tools.javac.util.Log;
 import com.sun.tools.javac.util.Options;
 import io.micrometer.core.instrument.Metrics;
@@ -28,14 +29,15 @@ import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.Opcodes;
 import org.openrewrite.ExecutionContext;
+import org.openrewrite.Incubating;
 import org.openrewrite.InMemoryExecutionContext;
 import org.openrewrite.Tree;
 import org.openrewrite.internal.ListUtils;
 import org.openrewrite.internal.MetricsHelper;
-import org.openrewrite.internal.StringUtils;
 import org.openrewrite.internal.lang.NonNullApi;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.java.internal.JavaTypeCache;
+import org.openrewrite.java.internal.JavaTypeIndex;
 import org.openrewrite.java.marker.JavaSourceSet;
 import org.openrewrite.java.tree.J;
 import org.openrewrite.java.tree.JavaType;
@@ -53,7 +55,12 @@ import java.net.URI;
 import java.nio.charset.Charset;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -83,17 +90,37 @@ public class Java11Parser implements JavaParser {
     private final ResettableLog compilerLog;
     private final Collection<NamedStyles> styles;
 
+    private final boolean logCompilationWarningsAndErrors;
+    private final Collection<byte[]> classBytesClasspath;
+    private final Charset charset;
+
+    /**
+     * The number of javac contexts that source files are attributed and mapped in concurrently.
+     */
+    private final int parallelism;
+
+    /**
+     * Parsers with their own javac context, created on demand to attribute and map partitions of the source files
+     * concurrently with this parser.
+     */
+    private final List<Java11Parser> workers = new ArrayList<>();
+
     private Java11Parser(boolean logCompilationWarningsAndErrors,
                          @Nullable Collection<Path> classpath,
                          Collection<byte[]> classBytesClasspath,
                          @Nullable Collection<Input> dependsOn,
                          Charset charset,
                          Collection<NamedStyles> styles,
-                         JavaTypeCache typeCache) {
+                         JavaTypeCache typeCache,
+                         int parallelism) {
         this.classpath = classpath;
         this.dependsOn = dependsOn;
         this.styles = styles;
         this.typeCache = typeCache;
+        this.logCompilationWarningsAndErrors = logCompilationWarningsAndErrors;
+        this.classBytesClasspath = classBytesClasspath;
+        this.charset = charset;
+        this.parallelism = parallelism;
 
         this.context = new Context();
         this.compilerLog = new ResettableLog(context);
@@ -155,46 +182,13 @@ public class Java11Parser implements JavaParser {
 
     @Override
     public List<J.CompilationUnit> parseInputs(Iterable<Input> sourceFiles, @Nullable Path relativeTo, ExecutionContext ctx) {
-        ParsingEventListener parsingListener = ParsingExecutionContextView.view(ctx).getParsingListener();
-        LinkedHashMap<Input, JCTree.JCCompilationUnit> cus = parseInputsToCompilerAst(sourceFiles, ctx);
-
-        List<J.CompilationUnit> mappedCus = cus.entrySet().stream()
-                .map(cuByPath -> {
-                    Timer.Sample sample = Timer.start();
-                    Input input = cuByPath.getKey();
-                    try {
-                        Java11ParserVisitor parser = new Java11ParserVisitor(
-                                input.getRelativePath(relativeTo),
-                                StringUtils.readFully(input.getSource()),
-                                styles,
-                                typeCache,
-                                ctx,
-                                context
-                        );
-
-                        J.CompilationUnit cu = (J.CompilationUnit) parser.scan(cuByPath.getValue(), Space.EMPTY);
-                        sample.stop(MetricsHelper.successTags(
-                                        Timer.builder("rewrite.parse")
-                                                .description("The time spent mapping the OpenJDK AST to Rewrite's AST")
-                                                .tag("file.type", "Java")
-                                                .tag("step", "(3) Map to Rewrite AST"))
-                                .register(Metrics.globalRegistry));
-                        parsingListener.parsed(input, cu);
-                        return cu;
-                    } catch (Throwable t) {
-                        sample.stop(MetricsHelper.errorTags(
-                                        Timer.builder("rewrite.parse")
-                                                .description("The time spent mapping the OpenJDK AST to Rewrite's AST")
-                                                .tag("file.type", "Java")
-                                                .tag("step", "(3) Map to Rewrite AST"), t)
-                                .register(Metrics.globalRegistry));
-
-                        ctx.getOnError().accept(t);
-                        return null;
-                    }
-                })
-                .filter(Objects::nonNull)
-                .collect(toList());
+        List<J.CompilationUnit> mappedCus;
+        List<Input> inputs = acceptedInputs(sourceFiles);
+        if (parallelism > 1 && inputs.size() > 1) {
+            mappedCus = parseInParallel(inputs, relativeTo, ctx);
+        } else {
+            mappedCus = report(inputs, mapToLst(parseInputsToCompilerAst(inputs, ctx), relativeTo, ctx), ctx);
+        }
 
         JavaSourceSet sourceSet = getSourceSet(ctx);
         if (!ctx.getMessage(SKIP_SOURCE_SET_TYPE_GENERATION, false)) {
@@ -213,7 +207,206 @@ public class Java11Parser implements JavaParser {
         return ListUtils.map(mappedCus, cu -> cu.withMarkers(cu.getMarkers().add(sourceSetProvenance)));
     }
 
+    /**
+     * Map each attributed compilation unit to a Rewrite AST. The javac trees are no longer modified once attribution
+     * is done, so compilation units are mapped in parallel.
+     *
+     * @return For each compilation unit, either its Rewrite AST or the error that kept it from being mapped, to be
+     * passed to {@link #report(List, Map, ExecutionContext)}.
+     */
+    private Map<Input, Object> mapToLst(Map<Input, JCTree.JCCompilationUnit> cus,
+                                        @Nullable Path relativeTo, ExecutionContext ctx) {
+        Map<Input, Object> mapped = new ConcurrentHashMap<>();
+        cus.entrySet().parallelStream().forEach(cuByPath -> {
+            Timer.Sample sample = Timer.start();
+            Input input = cuByPath.getKey();
+            try {
+                Java11ParserVisitor parser = new Java11ParserVisitor(
+                        input.getRelativePath(relativeTo),
+                        input.getContent().getText(),
+                        styles,
+                        typeCache,
+                        ctx,
+                        context
+                );
+
+                J.CompilationUnit cu = (J.CompilationUnit) parser.scan(cuByPath.getValue(), Space.EMPTY);
+                sample.stop(MetricsHelper.successTags(
+                                Timer.builder("rewrite.parse")
+                                        .description("The time spent mapping the OpenJDK AST to Rewrite's AST")
+                                        .tag("file.type", "Java")
+                                        .tag("step", "(3) Map to Rewrite AST"))
+                        .register(Metrics.globalRegistry));
+                mapped.put(input, cu);
+            } catch (Throwable t) {
+                sample.stop(MetricsHelper.errorTags(
+                                Timer.builder("rewrite.parse")
+                                        .description("The time spent mapping the OpenJDK AST to Rewrite's AST")
+                                        .tag("file.type", "Java")
+                                        .tag("step", "(3) Map to Rewrite AST"), t)
+                        .register(Metrics.globalRegistry));
+                mapped.put(input, t);
+            }
+        });
+        return mapped;
+    }
+
+    /**
+     * Hand each mapped compilation unit to the parsing listener and each error to the error handler, in the order of
+     * the inputs and on the thread that called the parser, so that neither needs to be thread-safe.
+     *
+     * @return The mapped compilation units, in the order of the inputs.
+     */
+    private List<J.CompilationUnit> report(List<Input> inputs, Map<Input, Object> mapped, ExecutionContext ctx) {
+        ParsingEventListener parsingListener = ParsingExecutionContextView.view(ctx).getParsingListener();
+        List<J.CompilationUnit> cus = new ArrayList<>(mapped.size());
+        for (Input input : inputs) {
+            Object cuOrError = mapped.get(input);
+            if (cuOrError instanceof J.CompilationUnit) {
+                J.CompilationUnit cu = (J.CompilationUnit) cuOrError;
+                parsingListener.parsed(input, cu);
+                cus.add(cu);
+            } else if (cuOrError != null) {
+                ctx.getOnError().accept((Throwable) cuOrError);
+            }
+        }
+        return cus;
+    }
+
+    /**
+     * Every javac context parses and enters all the source files so that references between them resolve, but
+     * attributes and maps only its own partition of them. Attribution and mapping dominate the time spent, so
+     * these proceed in parallel while the source files are still attributed as if they were compiled together.
+     * <p>
+     * Each source file's compiler diagnostics and errors are reported only by the context whose partition it is in,
+     * and failures to enter symbols only by the first context, so that they are reported once, as they would be by a
+     * single context. A partition that fails outright fails the parse once every context is done, as it would in a
+     * single context, rather than silently omitting its source files.
+     */
+    private List<J.CompilationUnit> parseInParallel(List<Input> inputs, @Nullable Path relativeTo, ExecutionContext ctx) {
+        List<Set<Input>> partitions = partition(inputs, parallelism);
+        while (workers.size() < partitions.size() - 1) {
+            workers.add(new Java11Parser(logCompilationWarningsAndErrors, classpath, classBytesClasspath,
+                    dependsOn, charset, styles, typeCache, 1));
+        }
+
+        List<Throwable> firstPartitionErrors = new ArrayList<>();
+        List<List<Throwable>> errors = new ArrayList<>(partitions.size());
+        errors.add(firstPartitionErrors);
+        List<CompletableFuture<Map<Input, Object>>> partitionCus = new ArrayList<>(partitions.size());
+        for (int i = 1; i < partitions.size(); i++) {
+            Java11Parser worker = workers.get(i - 1);
+            Set<Input> partition = partitions.get(i);
+            List<Throwable> partitionErrors = new ArrayList<>();
+            errors.add(partitionErrors);
+            if (classpath != null) {
+                worker.setClasspath(classpath);
+            }
+            partitionCus.add(CompletableFuture.supplyAsync(() -> worker.parsePartition(inputs, partition, false,
+                    partitionErrors, relativeTo, ctx), ForkJoinPool.commonPool()));
+        }
+
+        Map<Input, Object> cus = new HashMap<>();
+        Throwable failed = null;
+        try {
+            cus.putAll(parsePartition(inputs, partitions.get(0), true, firstPartitionErrors, relativeTo, ctx));
+        } catch (Throwable t) {
+            failed = t;
+        }
+
+        // every worker must be done with its context before the parser is used again, even if one has failed
+        for (CompletableFuture<Map<Input, Object>> partition : partitionCus) {
+            try {
+                cus.putAll(partition.join());
+            } catch (CompletionException e) {
+                if (failed == null) {
+                    failed = e.getCause();
+                } else {
+                    failed.addSuppressed(e.getCause());
+                }
+            }
+        }
+
+        for (List<Throwable> partitionErrors : errors) {
+            for (Throwable error : partitionErrors) {
+                ctx.getOnError().accept(error);
+            }
+        }
+
+        if (failed instanceof RuntimeException) {
+            throw (RuntimeException) failed;
+        } else if (failed instanceof Error) {
+            throw (Error) failed;
+        } else if (failed != null) {
+            throw new IllegalStateException(failed);
+        }
+        return report(inputs, cus, ctx);
+    }
+
+    /**
+     * @param enterErrors Whether to report failures to enter symbols, which every context encounters alike.
+     * @param errors      Collects errors to report, so that they are reported from the thread that called the parser.
+     */
+    private Map<Input, Object> parsePartition(List<Input> inputs, Set<Input> partition, boolean enterErrors,
+                                              List<Throwable> errors, @Nullable Path relativeTo, ExecutionContext ctx) {
+        compilerLog.reportOnly(partition);
+        try {
+            LinkedHashMap<Input, JCTree.JCCompilationUnit> cus = parseInputsToCompilerAst(inputs, errors::add,
+                    partition, enterErrors);
+            cus.keySet().retainAll(partition);
+            return mapToLst(cus, relativeTo, ctx);
+        } finally {
+            compilerLog.reportOnly(null);
+        }
+    }
+
+    /**
+     * Divide source files into partitions of roughly equal size, keeping the source files of each directory
+     * (and so usually of each package) together.
+     */
+    static List<Set<Input>> partition(List<Input> inputs, int parallelism) {
+        Map<Path, List<Input>> byDirectory = new LinkedHashMap<>();
+        Map<Path, Long> directorySizes = new HashMap<>();
+        for (Input input : inputs) {
+            Path dir = input.getPath().getParent();
+            byDirectory.computeIfAbsent(dir, d -> new ArrayList<>()).add(input);
+            directorySizes.merge(dir, (long) input.getContent().getBytes().remaining(), Long::sum);
+        }
+
+        List<Path> largestFirst = new ArrayList<>(byDirectory.keySet());
+        largestFirst.sort(Comparator.comparing((Path dir) -> directorySizes.get(dir)).reversed());
+
+        int n = Math.min(parallelism, largestFirst.size());
+        List<Set<Input>> partitions = new ArrayList<>(n);
+        long[] partitionSizes = new long[n];
+        for (int i = 0; i < n; i++) {
+            partitions.add(new HashSet<>());
+        }
+        for (Path dir : largestFirst) {
+            int smallest = 0;
+            for (int i = 1; i < n; i++) {
+                if (partitionSizes[i] < partitionSizes[smallest]) {
+                    smallest = i;
+                }
+            }
+            partitions.get(smallest).addAll(byDirectory.get(dir));
+            partitionSizes[smallest] += directorySizes.get(dir);
+        }
+        return partitions;
+    }
+
     LinkedHashMap<Input, JCTree.JCCompilationUnit> parseInputsToCompilerAst(Iterable<Input> sourceFiles, ExecutionContext ctx) {
+        return parseInputsToCompilerAst(sourceFiles, ctx.getOnError(), null, true);
+    }
+
+    /**
+     * @param attribute   The source files to type attribute, or null to attribute all of them.
+     * @param enterErrors Whether to report failures to enter symbols.
+     */
+    private LinkedHashMap<Input, JCTree.JCCompilationUnit> parseInputsToCompilerAst(Iterable<Input> sourceFiles,
+                                                                                   Consumer<Throwable> onError,
+                                                                                   @Nullable Set<Input> attribute,
+                                                                                   boolean enterErrors) {
         if (classpath != null) { // override classpath
             if (context.get(JavaFileManager.class) != pfm) {
                 throw new IllegalStateException("JavaFileManager has been forked unexpectedly");
@@ -257,12 +450,34 @@ public class Java11Parser implements JavaParser {
             while (annotate.annotationsBlocked()) {
                 annotate.unblockAnnotations(); // also flushes once unblocked
             }
+        } catch (Throwable t) {
+            if (enterErrors) {
+                onError.accept(new JavaParsingException("Failed symbol entering or attribution", t));
+            }
+            return cus;
+        }
 
-            compiler.attribute(compiler.todo);
+        try {
+            if (attribute == null) {
+                compiler.attribute(compiler.todo);
+            } else {
+                Set<JCTree.JCCompilationUnit> toAttribute = Collections.newSetFromMap(new IdentityHashMap<>());
+                for (Input input : attribute) {
+                    toAttribute.add(cus.get(input));
+                }
+                Queue<Env<AttrContext>> partitionTodo = new ArrayDeque<>();
+                while (!compiler.todo.isEmpty()) {
+                    Env<AttrContext> env = compiler.todo.remove();
+                    if (toAttribute.contains(env.toplevel)) {
+                        partitionTodo.add(env);
+                    }
+                }
+                compiler.attribute(partitionTodo);
+            }
         } catch (Throwable t) {
             // when symbol entering fails on problems like missing types, attribution can often times proceed
             // unhindered, but it sometimes cannot (so attribution is always a BEST EFFORT in the presence of errors)
-            ctx.getOnError().accept(new JavaParsingException("Failed symbol entering or attribution", t));
+            onError.accept(new JavaParsingException("Failed symbol entering or attribution", t));
         }
         return cus;
     }
@@ -272,6 +487,9 @@ public class Java11Parser implements JavaParser {
         typeCache.clear();
         compilerLog.reset();
         pfm.flush();
+        for (Java11Parser worker : workers) {
+            worker.reset();
+        }
         Check.instance(context).newRound();
         Annotate.instance(context).newRound();
         Enter.instance(context).newRound();
@@ -297,7 +515,7 @@ public class Java11Parser implements JavaParser {
                 sourceSetProvenance = new JavaSourceSet(Tree.randomId(), sourceSet, emptyList());
             } else {
                 sourceSetProvenance = JavaSourceSet.build(sourceSet, classpath == null ? emptyList() : classpath,
-                        typeCache, false);
+                        typeCache, ctx.getMessage(TYPE_INDEX, JavaTypeIndex.getDefault()), false);
             }
         }
         return sourceSetProvenance;
@@ -334,6 +552,12 @@ public class Java11Parser implements JavaParser {
     }
 
     private static class ResettableLog extends Log {
+        /**
+         * The source files to write diagnostics for, or null to write diagnostics for every source file.
+         */
+        @Nullable
+        private Set<Input> reportOnly;
+
         protected ResettableLog(Context context) {
             super(context);
         }
@@ -341,6 +565,19 @@ public class Java11Parser implements JavaParser {
         public void reset() {
             sourceMap.clear();
         }
+
+        public void reportOnly(@Nullable Set<Input> sourceFiles) {
+            this.reportOnly = sourceFiles;
+        }
+
+        @Override
+        protected void writeDiagnostic(JCDiagnostic diag) {
+            if (reportOnly != null && diag.getSource() instanceof Java11ParserInputFileObject &&
+                    !reportOnly.contains(((Java11ParserInputFileObject) diag.getSource()).getInput())) {
+                return;
+            }
+            super.writeDiagnostic(diag);
+        }
     }
 
     private static class TimedTodo extends Todo {
@@ -372,9 +609,22 @@ public class Java11Parser implements JavaParser {
     }
 
     public static class Builder extends JavaParser.Builder<Java11Parser, Builder> {
+        private int parallelism = 1;
+
+        /**
+         * @param parallelism The number of javac contexts to attribute and map source files in concurrently. Each
+         *                    additional context parses and enters all source files again, and holds its own
+         *                    symbol table, in exchange for attributing only a share of them.
+         */
+        @Incubating(since = "7.23.0")
+        public Builder parallelism(int parallelism) {
+            this.parallelism = Math.max(1, parallelism);
+            return this;
+        }
+
         @Override
         public Java11Parser build() {
-            return new Java11Parser(logCompilationWarningsAndErrors, classpath, classBytesClasspath, dependsOn, charset, styles, javaTypeCache);
+            return new Java11Parser(logCompilationWarningsAndErrors, classpath, classBytesClasspath, dependsOn, charset, styles, javaTypeCache, parallelism);
         }
     }
 
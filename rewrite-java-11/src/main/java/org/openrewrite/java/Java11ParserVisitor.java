@@ -33,6 +33,7 @@ import org.openrewrite.ExecutionContext;
 import org.openrewrite.internal.ListUtils;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.java.internal.JavaTypeCache;
+import org.openrewrite.java.internal.LineOffsets;
 import org.openrewrite.java.tree.*;
 import org.openrewrite.marker.Markers;
 import org.openrewrite.style.NamedStyles;
@@ -87,6 +88,8 @@ public class Java11ParserVisitor extends TreePathScanner<J, Space> {
 
     private static final Pattern whitespacePrefixPattern = Pattern.compile("^\\s*");
     private static final Pattern whitespaceSuffixPattern = Pattern.compile("\\s*[^\\s]+(\\s*)");
+    private static final Pattern dimensionPattern = Pattern.compile("(\\s*)\\[(\\s*)]");
+    private static final Pattern varargsPattern = Pattern.compile("(\\s*)\\.{3}");
 
     public Java11ParserVisitor(Path sourcePath,
                                String source,
@@ -99,7 +102,7 @@ public class Java11ParserVisitor extends TreePathScanner<J, Space> {
         this.styles = styles;
         this.ctx = ctx;
         this.context = context;
-        this.typeMapping = new Java11TypeMapping(typeCache);
+        this.typeMapping = new Java11TypeMapping(typeCache, context);
     }
 
     @Override
@@ -980,8 +983,8 @@ public class Java11ParserVisitor extends TreePathScanner<J, Space> {
                     convert(dim, t -> sourceBefore("]"))));
         }
 
-        Matcher matcher = Pattern.compile("\\G(\\s*)\\[(\\s*)]").matcher(source);
-        while (matcher.find(cursor)) {
+        Matcher matcher = dimensionPattern.matcher(source);
+        while (matcher.region(cursor, source.length()).lookingAt()) {
             cursor(matcher.end());
             dimensions.add(new J.ArrayDimension(
                     randomId(),
@@ -1364,9 +1367,9 @@ public class Java11ParserVisitor extends TreePathScanner<J, Space> {
         }
 
         Supplier<List<JLeftPadded<Space>>> dimensions = () -> {
-            Matcher matcher = Pattern.compile("\\G(\\s*)\\[(\\s*)]").matcher(source);
+            Matcher matcher = dimensionPattern.matcher(source);
             List<JLeftPadded<Space>> dims = new ArrayList<>();
-            while (matcher.find(cursor)) {
+            while (matcher.region(cursor, source.length()).lookingAt()) {
                 cursor(matcher.end());
                 dims.add(padLeft(format(matcher.group(1)), format(matcher.group(2))));
             }
@@ -1378,10 +1381,10 @@ public class Java11ParserVisitor extends TreePathScanner<J, Space> {
         Space varargs = null;
         if (typeExpr == null || typeExpr.getMarkers().findFirst(JavaVarKeyword.class).isEmpty()) {
             String vartypeString = typeExpr == null ? "" : source.substring(vartype.getStartPosition(), endPos(vartype));
-            Matcher varargMatcher = Pattern.compile("(\\s*)\\.{3}").matcher(vartypeString);
+            Matcher varargMatcher = varargsPattern.matcher(vartypeString);
             if (varargMatcher.find()) {
-                Matcher matcher = Pattern.compile("\\G(\\s*)\\.{3}").matcher(source);
-                if (matcher.find(cursor)) {
+                Matcher matcher = varargsPattern.matcher(source);
+                if (matcher.region(cursor, source.length()).lookingAt()) {
                     cursor(matcher.end());
                 }
                 varargs = format(varargMatcher.group(1));
@@ -1457,7 +1460,10 @@ public class Java11ParserVisitor extends TreePathScanner<J, Space> {
         try {
             String prefix = source.substring(cursor, max(((JCTree) t).getStartPosition(), cursor));
             cursor += prefix.length();
-            @SuppressWarnings("unchecked") J2 j = (J2) scan(t, formatWithCommentTree(prefix, (JCTree) t, docCommentTable.getCommentTree((JCTree) t)));
+            // doc comments are parsed lazily, with a parser that shares javac's name table, when first requested
+            DCTree.DCDocComment commentTree = docCommentTable.hasComment((JCTree) t) ?
+                    typeMapping.withSymbolLock(() -> docCommentTable.getCommentTree((JCTree) t)) : null;
+            @SuppressWarnings("unchecked") J2 j = (J2) scan(t, formatWithCommentTree(prefix, (JCTree) t, commentTree));
             return j;
         } catch (Throwable ex) {
             // this SHOULD never happen, but is here simply as a diagnostic measure in the event of unexpected exceptions
@@ -1494,7 +1500,10 @@ public class Java11ParserVisitor extends TreePathScanner<J, Space> {
     }
 
     private long lineNumber(Tree tree) {
-        return source.substring(0, ((JCTree) tree).getStartPosition()).chars().filter(c -> c == '\n').count() + 1;
+        if (lineOffsets == null) {
+            lineOffsets = new LineOffsets(source);
+        }
+        return lineOffsets.lineNumber(((JCTree) tree).getStartPosition());
     }
 
     @Nullable
@@ -1664,19 +1673,17 @@ public class Java11ParserVisitor extends TreePathScanner<J, Space> {
                 }
             } else {
                 if (source.length() - untilDelim.length() > delimIndex + 1) {
-                    switch (source.substring(delimIndex, delimIndex + 2)) {
-                        case "//":
-                            inSingleLineComment = true;
-                            delimIndex++;
-                            break;
-                        case "/*":
-                            inMultiLineComment = true;
-                            delimIndex++;
-                            break;
-                        case "*/":
-                            inMultiLineComment = false;
-                            delimIndex = delimIndex + 2;
-                            break;
+                    char c1 = source.charAt(delimIndex);
+                    char c2 = source.charAt(delimIndex + 1);
+                    if (c1 == '/' && c2 == '/') {
+                        inSingleLineComment = true;
+                        delimIndex++;
+                    } else if (c1 == '/' && c2 == '*') {
+                        inMultiLineComment = true;
+                        delimIndex++;
+                    } else if (c1 == '*' && c2 == '/') {
+                        inMultiLineComment = false;
+                        delimIndex = delimIndex + 2;
                     }
                 }
 
@@ -1694,6 +1701,12 @@ public class Java11ParserVisitor extends TreePathScanner<J, Space> {
         return delimIndex > source.length() - untilDelim.length() ? -1 : delimIndex;
     }
 
+    /**
+     * Computed when a line number is first needed.
+     */
+    @Nullable
+    private LineOffsets lineOffsets;
+
     private final Function<Tree, Space> semiDelim = ignored -> sourceBefore(";");
     private final Function<Tree, Space> commaDelim = ignored -> sourceBefore(",");
     private final Function<Tree, Space> noDelim = ignored -> EMPTY;
@@ -1708,24 +1721,25 @@ public class Java11ParserVisitor extends TreePathScanner<J, Space> {
                 inSingleLineComment = false;
             } else {
                 if (source.length() > delimIndex + 1) {
-                    switch (source.substring(delimIndex, delimIndex + 2)) {
-                        case "//":
-                            inSingleLineComment = true;
-                            delimIndex++;
-                            continue;
-                        case "/*":
-                            inMultiLineComment = true;
-                            delimIndex++;
-                            continue;
-                        case "*/":
-                            inMultiLineComment = false;
-                            delimIndex++;
-                            continue;
+                    char c1 = source.charAt(delimIndex);
+                    char c2 = source.charAt(delimIndex + 1);
+                    if (c1 == '/' && c2 == '/') {
+                        inSingleLineComment = true;
+                        delimIndex++;
+                        continue;
+                    } else if (c1 == '/' && c2 == '*') {
+                        inMultiLineComment = true;
+                        delimIndex++;
+                        continue;
+                    } else if (c1 == '*' && c2 == '/') {
+                        inMultiLineComment = false;
+                        delimIndex++;
+                        continue;
                     }
                 }
 
                 if (!inMultiLineComment && !inSingleLineComment) {
-                    if (!Character.isWhitespace(source.substring(delimIndex, delimIndex + 1).charAt(0))) {
+                    if (!Character.isWhitespace(source.charAt(delimIndex))) {
                         break; // found it!
                     }
                 }
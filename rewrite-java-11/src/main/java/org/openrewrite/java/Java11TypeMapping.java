@@ -30,6 +30,7 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 import static java.util.Collections.singletonList;
 import static org.openrewrite.java.tree.JavaType.GenericTypeVariable.Variance.*;
@@ -44,35 +45,73 @@ class Java11TypeMapping implements JavaTypeMapping<Tree> {
 
     private final JavaTypeCache typeCache;
 
-    public JavaType type(@Nullable com.sun.tools.javac.code.Type type) {
-        if (type == null || type instanceof Type.ErrorType || type instanceof Type.PackageType || type instanceof Type.UnknownType ||
-                type instanceof NullType) {
-            return JavaType.Class.Unknown.getInstance();
+    /**
+     * Guards the symbols of one javac context, which javac completes lazily and without synchronization of its own.
+     * Compilation units of the same context are mapped in parallel, so computing a signature or filling in a type,
+     * either of which may complete symbols, holds this lock, as does anything else that may complete symbols during
+     * mapping, like attributing a Javadoc reference. Looking up a type that is already cached does not. Contexts never share symbols, so each has its own lock and
+     * contexts map types concurrently. Types are published to the shared type cache only once they are filled in,
+     * which needs no lock of its own.
+     */
+    private final Object symbolLock;
+
+    <T> T withSymbolLock(Supplier<T> completion) {
+        synchronized (symbolLock) {
+            return completion.get();
         }
+    }
 
-        String signature = signatureBuilder.signature(type);
-        JavaType existing = typeCache.get(signature);
-        if (existing != null) {
-            return existing;
+    private <T> T map(Supplier<T> mapping) {
+        synchronized (symbolLock) {
+            return typeCache.map(mapping);
         }
+    }
 
-        if (type instanceof Type.ClassType) {
-            return classType((Type.ClassType) type, signature);
-        } else if (type instanceof Type.TypeVar) {
-            return generic((Type.TypeVar) type, signature);
+    /**
+     * Looks a type up by its signature without holding the lock while doing so, so a compilation unit whose types
+     * are already cached never waits on another one of the same context that is filling in new types.
+     */
+    @Nullable
+    private <T> T cached(Supplier<String> signature) {
+        return typeCache.get(withSymbolLock(signature));
+    }
+
+    public JavaType type(@Nullable com.sun.tools.javac.code.Type type) {
+        if (type == null || type instanceof Type.ErrorType || type instanceof Type.PackageType || type instanceof Type.UnknownType ||
+                type instanceof NullType) {
+            return JavaType.Class.Unknown.getInstance();
         } else if (type instanceof Type.JCPrimitiveType) {
             return primitive(type.getTag());
         } else if (type instanceof Type.JCVoidType) {
             return JavaType.Primitive.Void;
-        } else if (type instanceof Type.ArrayType) {
-            return array(type, signature);
-        } else if (type instanceof Type.WildcardType) {
-            return generic((Type.WildcardType) type, signature);
-        } else if (type instanceof Type.JCNoType) {
-            return JavaType.Class.Unknown.getInstance();
         }
 
-        throw new UnsupportedOperationException("Unknown type " + type.getClass().getName());
+        JavaType cached = cached(() -> signatureBuilder.signature(type));
+        if (cached != null) {
+            return cached;
+        }
+
+        return map(() -> {
+            String signature = signatureBuilder.signature(type);
+            JavaType existing = typeCache.get(signature);
+            if (existing != null) {
+                return existing;
+            }
+
+            if (type instanceof Type.ClassType) {
+                return classType((Type.ClassType) type, signature);
+            } else if (type instanceof Type.TypeVar) {
+                return generic((Type.TypeVar) type, signature);
+            } else if (type instanceof Type.ArrayType) {
+                return array(type, signature);
+            } else if (type instanceof Type.WildcardType) {
+                return generic((Type.WildcardType) type, signature);
+            } else if (type instanceof Type.JCNoType) {
+                return JavaType.Class.Unknown.getInstance();
+            }
+
+            throw new UnsupportedOperationException("Unknown type " + type.getClass().getName());
+        });
     }
 
     private JavaType array(Type type, String signature) {
@@ -319,7 +358,16 @@ class Java11TypeMapping implements JavaTypeMapping<Tree> {
 
     @Nullable
     public JavaType.Variable variableType(@Nullable Symbol symbol) {
-        return variableType(symbol, null);
+        if (!(symbol instanceof Symbol.VarSymbol)) {
+            return null;
+        }
+
+        JavaType.Variable cached = cached(() -> signatureBuilder.variableSignature(symbol));
+        if (cached != null) {
+            return cached;
+        }
+
+        return map(() -> variableType(symbol, null));
     }
 
     @Nullable
@@ -383,101 +431,13 @@ class Java11TypeMapping implements JavaTypeMapping<Tree> {
             return methodInvocationType(fa.qtype, methodSymbol);
         }
 
-        String signature = signatureBuilder.methodSignature(selectType, methodSymbol);
-        JavaType.Method existing = typeCache.get(signature);
-        if (existing != null) {
-            return existing;
-        }
-
-        List<String> paramNames = null;
-        if (!methodSymbol.params().isEmpty()) {
-            paramNames = new ArrayList<>(methodSymbol.params().size());
-            for (Symbol.VarSymbol p : methodSymbol.params()) {
-                String s = p.name.toString();
-                paramNames.add(s);
-            }
-        }
-
-        JavaType.Method method = new JavaType.Method(
-                null,
-                methodSymbol.flags_field,
-                null,
-                methodSymbol.isConstructor() ? "<constructor>" : methodSymbol.getSimpleName().toString(),
-                null,
-                paramNames,
-                null, null, null
-        );
-        typeCache.put(signature, method);
-
-        JavaType returnType = null;
-        List<JavaType> parameterTypes = null;
-        List<JavaType.FullyQualified> exceptionTypes = null;
-
-        if (selectType instanceof Type.MethodType) {
-            Type.MethodType methodType = (Type.MethodType) selectType;
-
-            if (!methodType.argtypes.isEmpty()) {
-                parameterTypes = new ArrayList<>(methodType.argtypes.size());
-                for (com.sun.tools.javac.code.Type argtype : methodType.argtypes) {
-                    if (argtype != null) {
-                        JavaType javaType = type(argtype);
-                        parameterTypes.add(javaType);
-                    }
-                }
-            }
-
-            returnType = type(methodType.restype);
-
-            if (!methodType.thrown.isEmpty()) {
-                exceptionTypes = new ArrayList<>(methodType.thrown.size());
-                for (Type exceptionType : methodType.thrown) {
-                    JavaType.FullyQualified javaType = TypeUtils.asFullyQualified(type(exceptionType));
-                    if (javaType == null) {
-                        // if the type cannot be resolved to a class (it might not be on the classpath, or it might have
-                        // been mapped to cyclic)
-                        if (exceptionType instanceof Type.ClassType) {
-                            Symbol.ClassSymbol sym = (Symbol.ClassSymbol) exceptionType.tsym;
-                            javaType = new JavaType.Class(null, Flag.Public.getBitMask(), sym.flatName().toString(), JavaType.Class.Kind.Class,
-                                    null, null, null, null, null, null);
-                        }
-                    }
-                    if (javaType != null) {
-                        // if the exception type is not resolved, it is not added to the list of exceptions
-                        exceptionTypes.add(javaType);
-                    }
-                }
-            }
-        } else if (selectType instanceof Type.UnknownType) {
-            returnType = JavaType.Unknown.getInstance();
+        JavaType.Method cached = cached(() -> signatureBuilder.methodSignature(selectType, methodSymbol));
+        if (cached != null) {
+            return cached;
         }
 
-        JavaType.FullyQualified resolvedDeclaringType = TypeUtils.asFullyQualified(type(methodSymbol.owner.type));
-        if (resolvedDeclaringType == null) {
-            return null;
-        }
-
-        assert returnType != null;
-
-        method.unsafeSet(resolvedDeclaringType,
-                methodSymbol.isConstructor() ? resolvedDeclaringType : returnType,
-                parameterTypes, exceptionTypes, listAnnotations(methodSymbol));
-        return method;
-    }
-
-    /**
-     * Method type of a method declaration. Parameters and return type represent generic signatures when applicable.
-     *
-     * @param symbol        The method symbol.
-     * @param declaringType The method's declaring type.
-     * @return Method type attribution.
-     */
-    @Nullable
-    public JavaType.Method methodDeclarationType(@Nullable Symbol symbol, @Nullable JavaType.FullyQualified declaringType) {
-        // if the symbol is not a method symbol, there is a parser error in play
-        Symbol.MethodSymbol methodSymbol = symbol instanceof Symbol.MethodSymbol ? (Symbol.MethodSymbol) symbol : null;
-
-        if (methodSymbol != null) {
-            String signature = signatureBuilder.methodSignature(methodSymbol);
+        return map(() -> {
+            String signature = signatureBuilder.methodSignature(selectType, methodSymbol);
             JavaType.Method existing = typeCache.get(signature);
             if (existing != null) {
                 return existing;
@@ -503,19 +463,25 @@ class Java11TypeMapping implements JavaTypeMapping<Tree> {
             );
             typeCache.put(signature, method);
 
-            Type signatureType = methodSymbol.type instanceof Type.ForAll ?
-                    ((Type.ForAll) methodSymbol.type).qtype :
-                    methodSymbol.type;
-
+            JavaType returnType = null;
+            List<JavaType> parameterTypes = null;
             List<JavaType.FullyQualified> exceptionTypes = null;
 
-            Type selectType = methodSymbol.type;
-            if (selectType instanceof Type.ForAll) {
-                selectType = ((Type.ForAll) selectType).qtype;
-            }
-
             if (selectType instanceof Type.MethodType) {
                 Type.MethodType methodType = (Type.MethodType) selectType;
+
+                if (!methodType.argtypes.isEmpty()) {
+                    parameterTypes = new ArrayList<>(methodType.argtypes.size());
+                    for (com.sun.tools.javac.code.Type argtype : methodType.argtypes) {
+                        if (argtype != null) {
+                            JavaType javaType = type(argtype);
+                            parameterTypes.add(javaType);
+                        }
+                    }
+                }
+
+                returnType = type(methodType.restype);
+
                 if (!methodType.thrown.isEmpty()) {
                     exceptionTypes = new ArrayList<>(methodType.thrown.size());
                     for (Type exceptionType : methodType.thrown) {
@@ -535,50 +501,148 @@ class Java11TypeMapping implements JavaTypeMapping<Tree> {
                         }
                     }
                 }
+            } else if (selectType instanceof Type.UnknownType) {
+                returnType = JavaType.Unknown.getInstance();
             }
 
-            JavaType.FullyQualified resolvedDeclaringType = declaringType;
-            if (declaringType == null) {
-                if (methodSymbol.owner instanceof Symbol.ClassSymbol || methodSymbol.owner instanceof Symbol.TypeVariableSymbol) {
-                    resolvedDeclaringType = TypeUtils.asFullyQualified(type(methodSymbol.owner.type));
-                }
-            }
-
+            JavaType.FullyQualified resolvedDeclaringType = TypeUtils.asFullyQualified(type(methodSymbol.owner.type));
             if (resolvedDeclaringType == null) {
                 return null;
             }
 
-            JavaType returnType;
-            List<JavaType> parameterTypes = null;
+            assert returnType != null;
 
-            if (signatureType instanceof Type.ForAll) {
-                signatureType = ((Type.ForAll) signatureType).qtype;
+            method.unsafeSet(resolvedDeclaringType,
+                    methodSymbol.isConstructor() ? resolvedDeclaringType : returnType,
+                    parameterTypes, exceptionTypes, listAnnotations(methodSymbol));
+            return method;
+        });
+    }
+
+    /**
+     * Method type of a method declaration. Parameters and return type represent generic signatures when applicable.
+     *
+     * @param symbol        The method symbol.
+     * @param declaringType The method's declaring type.
+     * @return Method type attribution.
+     */
+    @Nullable
+    public JavaType.Method methodDeclarationType(@Nullable Symbol symbol, @Nullable JavaType.FullyQualified declaringType) {
+        if (symbol instanceof Symbol.MethodSymbol) {
+            JavaType.Method cached = cached(() -> signatureBuilder.methodSignature((Symbol.MethodSymbol) symbol));
+            if (cached != null) {
+                return cached;
             }
-            if (signatureType instanceof Type.MethodType) {
-                Type.MethodType mt = (Type.MethodType) signatureType;
+        }
 
-                if (!mt.argtypes.isEmpty()) {
-                    parameterTypes = new ArrayList<>(mt.argtypes.size());
-                    for (com.sun.tools.javac.code.Type argtype : mt.argtypes) {
-                        if (argtype != null) {
-                            JavaType javaType = type(argtype);
-                            parameterTypes.add(javaType);
+        return map(() -> {
+            // if the symbol is not a method symbol, there is a parser error in play
+            Symbol.MethodSymbol methodSymbol = symbol instanceof Symbol.MethodSymbol ? (Symbol.MethodSymbol) symbol : null;
+
+            if (methodSymbol != null) {
+                String signature = signatureBuilder.methodSignature(methodSymbol);
+                JavaType.Method existing = typeCache.get(signature);
+                if (existing != null) {
+                    return existing;
+                }
+
+                List<String> paramNames = null;
+                if (!methodSymbol.params().isEmpty()) {
+                    paramNames = new ArrayList<>(methodSymbol.params().size());
+                    for (Symbol.VarSymbol p : methodSymbol.params()) {
+                        String s = p.name.toString();
+                        paramNames.add(s);
+                    }
+                }
+
+                JavaType.Method method = new JavaType.Method(
+                        null,
+                        methodSymbol.flags_field,
+                        null,
+                        methodSymbol.isConstructor() ? "<constructor>" : methodSymbol.getSimpleName().toString(),
+                        null,
+                        paramNames,
+                        null, null, null
+                );
+                typeCache.put(signature, method);
+
+                Type signatureType = methodSymbol.type instanceof Type.ForAll ?
+                        ((Type.ForAll) methodSymbol.type).qtype :
+                        methodSymbol.type;
+
+                List<JavaType.FullyQualified> exceptionTypes = null;
+
+                Type selectType = methodSymbol.type;
+                if (selectType instanceof Type.ForAll) {
+                    selectType = ((Type.ForAll) selectType).qtype;
+                }
+
+                if (selectType instanceof Type.MethodType) {
+                    Type.MethodType methodType = (Type.MethodType) selectType;
+                    if (!methodType.thrown.isEmpty()) {
+                        exceptionTypes = new ArrayList<>(methodType.thrown.size());
+                        for (Type exceptionType : methodType.thrown) {
+                            JavaType.FullyQualified javaType = TypeUtils.asFullyQualified(type(exceptionType));
+                            if (javaType == null) {
+                                // if the type cannot be resolved to a class (it might not be on the classpath, or it might have
+                                // been mapped to cyclic)
+                                if (exceptionType instanceof Type.ClassType) {
+                                    Symbol.ClassSymbol sym = (Symbol.ClassSymbol) exceptionType.tsym;
+                                    javaType = new JavaType.Class(null, Flag.Public.getBitMask(), sym.flatName().toString(), JavaType.Class.Kind.Class,
+                                            null, null, null, null, null, null);
+                                }
+                            }
+                            if (javaType != null) {
+                                // if the exception type is not resolved, it is not added to the list of exceptions
+                                exceptionTypes.add(javaType);
+                            }
                         }
                     }
                 }
 
-                returnType = type(mt.restype);
-            } else {
-                throw new UnsupportedOperationException("Unexpected method signature type" + signatureType.getClass().getName());
-            }
+                JavaType.FullyQualified resolvedDeclaringType = declaringType;
+                if (declaringType == null) {
+                    if (methodSymbol.owner instanceof Symbol.ClassSymbol || methodSymbol.owner instanceof Symbol.TypeVariableSymbol) {
+                        resolvedDeclaringType = TypeUtils.asFullyQualified(type(methodSymbol.owner.type));
+                    }
+                }
 
-            method.unsafeSet(resolvedDeclaringType,
-                    methodSymbol.isConstructor() ? resolvedDeclaringType : returnType,
-                    parameterTypes, exceptionTypes, listAnnotations(methodSymbol));
-            return method;
-        }
+                if (resolvedDeclaringType == null) {
+                    return null;
+                }
+
+                JavaType returnType;
+                List<JavaType> parameterTypes = null;
 
-        return null;
+                if (signatureType instanceof Type.ForAll) {
+                    signatureType = ((Type.ForAll) signatureType).qtype;
+                }
+                if (signatureType instanceof Type.MethodType) {
+                    Type.MethodType mt = (Type.MethodType) signatureType;
+
+                    if (!mt.argtypes.isEmpty()) {
+                        parameterTypes = new ArrayList<>(mt.argtypes.size());
+                        for (com.sun.tools.javac.code.Type argtype : mt.argtypes) {
+                            if (argtype != null) {
+                                JavaType javaType = type(argtype);
+                                parameterTypes.add(javaType);
+                            }
+                        }
+                    }
+
+                    returnType = type(mt.restype);
+                } else {
+                    throw new UnsupportedOperationException("Unexpected method signature type" + signatureType.getClass().getName());
+                }
+
+                method.unsafeSet(resolvedDeclaringType,
+                        methodSymbol.isConstructor() ? resolvedDeclaringType : returnType,
+                        parameterTypes, exceptionTypes, listAnnotations(methodSymbol));
+                return method;
+            }
+
+            return null;
+        });
     }
 
     private void completeClassSymbol(Symbol.ClassSymbol classSymbol) {
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.openrewrite.InMemoryExecutionContext
+import org.openrewrite.Parser
+import org.openrewrite.java.internal.JavaTypeCache
+import org.openrewrite.java.tree.J
+import org.openrewrite.java.tree.JavaType
+import org.openrewrite.java.tree.TypeUtils
+import org.openrewrite.tree.ParsingExecutionContextView
+import java.nio.file.Paths
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.function.Supplier
+
+class Java11ParallelParsingTest {
+
+    private val sources = (0 until 8).map { i ->
+        """
+            package p$i;
+            public class A$i {
+                public ${if (i > 0) "p${i - 1}.A${i - 1}" else "String"} next() { return null; }
+            }
+        """.trimIndent()
+    }
+
+    @Test
+    fun attributesReferencesAcrossPartitions() {
+        val cus = Java11Parser.builder().parallelism(4).build()
+            .parse(InMemoryExecutionContext { throw it }, *sources.toTypedArray())
+
+        assertThat(cus.map { it.printAll() }).containsExactlyElementsOf(sources)
+        for (i in 1 until 8) {
+            val returnType = (cus[i].classes[0].body.statements[0] as J.MethodDeclaration).methodType!!.returnType
+            assertThat(TypeUtils.asFullyQualified(returnType)!!.fullyQualifiedName).isEqualTo("p${i - 1}.A${i - 1}")
+            assertThat(returnType).isNotInstanceOf(JavaType.Unknown::class.java)
+        }
+    }
+
+    @Test
+    fun mapsCompilationUnitsInParallel() {
+        val javadocSources = (0 until 32).map { i ->
+            """
+                package q$i;
+                import java.util.List;
+                /**
+                 * Refers to {@link List#size()} and {@link q${(i + 1) % 32}.B${(i + 1) % 32}}.
+                 */
+                public class B$i {
+                    List<String> l;
+                    int n = l.size();
+                }
+            """.trimIndent()
+        }
+
+        val cus = Java11Parser.builder().build()
+            .parse(InMemoryExecutionContext { throw it }, *javadocSources.toTypedArray())
+
+        assertThat(cus.map { it.printAll() }).containsExactlyElementsOf(javadocSources)
+        assertThat(cus.map { it.classes[0].type!!.fullyQualifiedName })
+            .containsExactlyElementsOf((0 until 32).map { "q$it.B$it" })
+    }
+
+    @Test
+    fun reportsErrorsOnceWithoutDroppingOtherSourceFiles() {
+        val broken = sources.mapIndexed { i, source ->
+            if (i % 3 == 0) source.replace("return null;", "return null") else source
+        }
+
+        fun parse(parallelism: Int): Pair<List<J.CompilationUnit>, List<Throwable>> {
+            val errors = mutableListOf<Throwable>()
+            val cus = Java11Parser.builder().parallelism(parallelism).build()
+                .parse(InMemoryExecutionContext { errors.add(it) }, *broken.toTypedArray())
+            return cus to errors
+        }
+
+        val (serialCus, serialErrors) = parse(1)
+        val (parallelCus, parallelErrors) = parse(4)
+
+        assertThat(parallelCus.map { it.sourcePath }).containsExactlyElementsOf(serialCus.map { it.sourcePath })
+        assertThat(parallelCus.map { it.sourcePath })
+            .`as`("Source files without errors are never dropped")
+            .containsAll((0 until 8).filter { it % 3 != 0 }.map { Paths.get("p$it/A$it.java") })
+        assertThat(parallelErrors.map { it.javaClass to it.message })
+            .containsExactlyInAnyOrderElementsOf(serialErrors.map { it.javaClass to it.message })
+    }
+
+    @Test
+    fun contextsMapTypesConcurrently() {
+        val typeCache = ConcurrencyRecordingTypeCache()
+        val cus = Java11Parser.builder().parallelism(2).typeCache(typeCache).build()
+            .parse(InMemoryExecutionContext { throw it }, *sources.toTypedArray())
+
+        assertThat(cus).hasSize(sources.size)
+        assertThat(typeCache.maxConcurrentMappings.get())
+            .`as`("Types are mapped in each javac context at the same time")
+            .isGreaterThan(1)
+    }
+
+    @Test
+    fun reportsOnCallingThread() {
+        val threads = mutableSetOf<Thread>()
+        val ctx = InMemoryExecutionContext { throw it }
+        ParsingExecutionContextView.view(ctx).setParsingListener { _, _ -> threads.add(Thread.currentThread()) }
+
+        val cus = Java11Parser.builder().parallelism(4).build().parse(ctx, *sources.toTypedArray())
+
+        assertThat(cus).hasSize(sources.size)
+        assertThat(threads).containsExactly(Thread.currentThread())
+    }
+
+    /**
+     * Holds the first mapping on each thread until a mapping on another thread has started too, or until it is
+     * clear that none will while this one is in progress.
+     */
+    private class ConcurrencyRecordingTypeCache : JavaTypeCache() {
+        val maxConcurrentMappings = AtomicInteger()
+        private val mappings = AtomicInteger()
+        private val depth = ThreadLocal.withInitial { 0 }
+        private val waited: MutableSet<Thread> = ConcurrentHashMap.newKeySet()
+        private val rendezvous = CountDownLatch(2)
+
+        override fun <T> map(mapping: Supplier<T>): T {
+            val outermost = depth.get() == 0
+            depth.set(depth.get() + 1)
+            try {
+                if (!outermost) {
+                    return super.map(mapping)
+                }
+                maxConcurrentMappings.accumulateAndGet(mappings.incrementAndGet(), Math::max)
+                try {
+                    if (waited.add(Thread.currentThread())) {
+                        rendezvous.countDown()
+                        rendezvous.await(5, TimeUnit.SECONDS)
+                    }
+                    return super.map(mapping)
+                } finally {
+                    mappings.decrementAndGet()
+                }
+            } finally {
+                depth.set(depth.get() - 1)
+            }
+        }
+    }
+
+    @Test
+    fun partitionsKeepDirectoriesTogether() {
+        val parser = Java11Parser.builder().build()
+        val inputs = sources.flatMap { source ->
+            listOf(source, source.replace("class A", "class B")).map { s ->
+                Parser.Input(parser.sourcePathFromSourceText(Paths.get(""), s)) { s.byteInputStream() }
+            }
+        }
+
+        val partitions = Java11Parser.partition(inputs, 3)
+        assertThat(partitions).hasSize(3)
+        assertThat(partitions.flatten()).containsExactlyInAnyOrderElementsOf(inputs)
+        for (input in inputs) {
+            assertThat(partitions.single { it.contains(input) }.filter { it.path.parent == input.path.parent }).hasSize(2)
+        }
+    }
+}
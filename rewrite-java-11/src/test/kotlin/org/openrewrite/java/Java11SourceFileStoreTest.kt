@@ -0,0 +1,67 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.openrewrite.InMemoryExecutionContext
+import org.openrewrite.SourceFile
+import org.openrewrite.SourceFileStore
+import org.openrewrite.java.tree.J
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+
+class Java11SourceFileStoreTest {
+    private val store = SourceFileStore()
+
+    private val sources = (0 until 10).map { i ->
+        """
+            import java.util.*;
+            class A$i extends ArrayList<String> {
+                Map<String, List<Integer>> m$i(Set<String> s) { return new HashMap<>(); }
+            }
+        """.trimIndent()
+    }
+
+    @Test
+    fun typesAreSharedBySourceFilesOfTheStore() {
+        val cus = JavaParser.fromJavaVersion().build().parse(InMemoryExecutionContext { throw it }, *sources.toTypedArray())
+
+        val read = store.read(ByteArrayInputStream(write(cus)))
+            .map { it as J.CompilationUnit }
+
+        assertThat(read.map { it.printAll() }).isEqualTo(cus.map { it.printAll() })
+        val arrayLists = read.map { it.classes[0].type!!.supertype }
+        assertThat(arrayLists[0]!!.fullyQualifiedName).isEqualTo("java.util.ArrayList")
+        assertThat(arrayLists).allMatch { it === arrayLists[0] }
+    }
+
+    @Test
+    fun typesAreWrittenOnce() {
+        val cus = JavaParser.fromJavaVersion().build().parse(InMemoryExecutionContext { throw it }, *sources.toTypedArray())
+
+        val together = write(cus).size
+        val separately = cus.sumOf { write(listOf(it)).size }
+
+        assertThat(together).isLessThan(separately / 2)
+    }
+
+    private fun write(sourceFiles: List<SourceFile>): ByteArray {
+        val out = ByteArrayOutputStream()
+        store.write(sourceFiles, out)
+        return out.toByteArray()
+    }
+}
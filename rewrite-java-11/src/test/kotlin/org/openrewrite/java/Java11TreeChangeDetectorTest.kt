@@ -0,0 +1,79 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.openrewrite.ExecutionContext
+import org.openrewrite.InMemoryExecutionContext
+import org.openrewrite.internal.TreeChangeDetector
+import org.openrewrite.java.tree.J
+import org.openrewrite.java.tree.JavaType
+
+class Java11TreeChangeDetectorTest {
+
+    /**
+     * Every method refers to the class, whose type in turn refers to every method, so the types form one large
+     * cyclic graph.
+     */
+    private val source = """
+        public class A {
+            public A m0() { return this; }
+            ${(1 until 2000).joinToString("\n    ") { "public A m$it() { return m${it - 1}(); }" }}
+        }
+    """.trimIndent()
+
+    @Test
+    fun typesReplacedOnALargeClassAreNotAChange() {
+        val before = parse()
+        val after = replaceTypes(before, parse())
+
+        assertThat(after).isNotSameAs(before)
+        assertThat(TreeChangeDetector.isChanged(before, after)).isFalse
+    }
+
+    @Test
+    fun typesReplacedAlongWithTextAreAChange() {
+        val before = parse()
+        val after = replaceTypes(before, parse()).let { cu ->
+            cu.withClasses(listOf(cu.classes[0].withName(cu.classes[0].name.withSimpleName("B"))))
+        }
+
+        assertThat(TreeChangeDetector.isChanged(before, after)).isTrue
+    }
+
+    /**
+     * Each parser has its own type cache, so each parse produces an equal but distinct type graph.
+     */
+    private fun parse(): J.CompilationUnit =
+        JavaParser.fromJavaVersion().build().parse(InMemoryExecutionContext { throw it }, source)[0]
+
+    private fun replaceTypes(cu: J.CompilationUnit, typesFrom: J.CompilationUnit): J.CompilationUnit {
+        val classType = typesFrom.classes[0].type!!
+        val methodTypes = classType.methods.associateBy { it.name }
+        return object : JavaIsoVisitor<ExecutionContext>() {
+            override fun visitIdentifier(identifier: J.Identifier, p: ExecutionContext): J.Identifier {
+                val i = super.visitIdentifier(identifier, p)
+                return if (i.type is JavaType.FullyQualified) i.withType(classType) else i
+            }
+
+            override fun visitMethodInvocation(method: J.MethodInvocation, p: ExecutionContext): J.MethodInvocation {
+                val m = super.visitMethodInvocation(method, p)
+                return m.withMethodType(methodTypes[m.simpleName])
+            }
+        }.visitNonNull(cu, InMemoryExecutionContext()) as J.CompilationUnit
+    }
+}
@@ -18,7 +18,6 @@ package org.openrewrite.java;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import org.openrewrite.Parser;
-import org.openrewrite.internal.StringUtils;
 import org.openrewrite.internal.lang.Nullable;
 
 import javax.lang.model.element.Modifier;
@@ -76,12 +75,12 @@ public class Java8ParserInputFileObject implements JavaFileObject {
 
     @Override
     public Reader openReader(boolean ignoreEncodingErrors) {
-        return new InputStreamReader(input.getSource());
+        return new StringReader(input.getContent().getText());
     }
 
     @Override
     public CharSequence getCharContent(boolean ignoreEncodingErrors) {
-        return StringUtils.readFully(input.getSource());
+        return input.getContent().getText();
     }
 
     @Override
@@ -507,7 +507,7 @@ public class ReloadableJava8JavadocVisitor extends DocTreeScanner<Tree, List<Jav
         TypedTree qualifier;
 
         if (ref.qualifierExpression != null) {
-            attr.attribType(ref.qualifierExpression, symbol);
+            typeMapping.withSymbolLock(() -> attr.attribType(ref.qualifierExpression, symbol));
             qualifier = (TypedTree) javaVisitor.scan(ref.qualifierExpression, Space.EMPTY);
             qualifierType = qualifier.getType();
             if (ref.memberName != null) {
@@ -609,7 +609,7 @@ public class ReloadableJava8JavadocVisitor extends DocTreeScanner<Tree, List<Jav
                 if (ref.paramTypes != null) {
                     for (JCTree param : ref.paramTypes) {
                         for (JavaType testParamType : method.getParameterTypes()) {
-                            Type paramType = attr.attribType(param, symbol);
+                            Type paramType = typeMapping.withSymbolLock(() -> attr.attribType(param, symbol));
                             if (testParamType instanceof JavaType.GenericTypeVariable) {
                                 for (JavaType bound : ((JavaType.GenericTypeVariable) testParamType).getBounds()) {
                                     if (paramTypeMatches(bound, paramType)) {
@@ -35,6 +35,7 @@ import org.openrewrite.internal.MetricsHelper;
 import org.openrewrite.internal.StringUtils;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.java.internal.JavaTypeCache;
+import org.openrewrite.java.internal.JavaTypeIndex;
 import org.openrewrite.java.marker.JavaSourceSet;
 import org.openrewrite.java.tree.J;
 import org.openrewrite.java.tree.JavaType;
@@ -52,6 +53,7 @@ import java.util.*;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -189,41 +191,49 @@ class ReloadableJava8Parser implements JavaParser {
             ctx.getOnError().accept(new JavaParsingException("Failed symbol entering or attribution", t));
         }
 
-        List<J.CompilationUnit> mappedCus = cus.entrySet().stream()
-                .map(cuByPath -> {
-                    Timer.Sample sample = Timer.start();
-                    Input input = cuByPath.getKey();
-                    try {
-                        ReloadableJava8ParserVisitor parser = new ReloadableJava8ParserVisitor(
-                                input.getRelativePath(relativeTo),
-                                StringUtils.readFully(input.getSource()),
-                                styles,
-                                typeCache,
-                                ctx,
-                                context);
-                        J.CompilationUnit cu = (J.CompilationUnit) parser.scan(cuByPath.getValue(), Space.EMPTY);
-                        sample.stop(MetricsHelper.successTags(
-                                        Timer.builder("rewrite.parse")
-                                                .description("The time spent mapping the OpenJDK AST to Rewrite's AST")
-                                                .tag("file.type", "Java")
-                                                .tag("step", "(3) Map to Rewrite AST"))
-                                .register(Metrics.globalRegistry));
-                        parsingListener.parsed(input, cu);
-                        return cu;
-                    } catch (Throwable t) {
-                        sample.stop(MetricsHelper.errorTags(
-                                        Timer.builder("rewrite.parse")
-                                                .description("The time spent mapping the OpenJDK AST to Rewrite's AST")
-                                                .tag("file.type", "Java")
-                                                .tag("step", "(3) Map to Rewrite AST"), t)
-                                .register(Metrics.globalRegistry));
-
-                        ctx.getOnError().accept(t);
-                        return null;
-                    }
-                })
-                .filter(Objects::nonNull)
-                .collect(toList());
+        // the javac trees are no longer modified once attribution is done, so compilation units are mapped in parallel
+        List<Map.Entry<Input, JCTree.JCCompilationUnit>> cuByPaths = new ArrayList<>(cus.entrySet());
+        Object[] cusOrErrors = new Object[cuByPaths.size()];
+        IntStream.range(0, cuByPaths.size()).parallel().forEach(i -> {
+            Timer.Sample sample = Timer.start();
+            Input input = cuByPaths.get(i).getKey();
+            try {
+                ReloadableJava8ParserVisitor parser = new ReloadableJava8ParserVisitor(
+                        input.getRelativePath(relativeTo),
+                        input.getContent().getText(),
+                        styles,
+                        typeCache,
+                        ctx,
+                        context);
+                cusOrErrors[i] = parser.scan(cuByPaths.get(i).getValue(), Space.EMPTY);
+                sample.stop(MetricsHelper.successTags(
+                                Timer.builder("rewrite.parse")
+                                        .description("The time spent mapping the OpenJDK AST to Rewrite's AST")
+                                        .tag("file.type", "Java")
+                                        .tag("step", "(3) Map to Rewrite AST"))
+                        .register(Metrics.globalRegistry));
+            } catch (Throwable t) {
+                sample.stop(MetricsHelper.errorTags(
+                                Timer.builder("rewrite.parse")
+                                        .description("The time spent mapping the OpenJDK AST to Rewrite's AST")
+                                        .tag("file.type", "Java")
+                                        .tag("step", "(3) Map to Rewrite AST"), t)
+                        .register(Metrics.globalRegistry));
+                cusOrErrors[i] = t;
+            }
+        });
+
+        // the parsing listener and error handler are called in order on this thread, so neither needs to be thread-safe
+        List<J.CompilationUnit> mappedCus = new ArrayList<>(cuByPaths.size());
+        for (int i = 0; i < cusOrErrors.length; i++) {
+            if (cusOrErrors[i] instanceof J.CompilationUnit) {
+                J.CompilationUnit cu = (J.CompilationUnit) cusOrErrors[i];
+                parsingListener.parsed(cuByPaths.get(i).getKey(), cu);
+                mappedCus.add(cu);
+            } else {
+                ctx.getOnError().accept((Throwable) cusOrErrors[i]);
+            }
+        }
 
         JavaSourceSet sourceSet = getSourceSet(ctx);
         if (!ctx.getMessage(SKIP_SOURCE_SET_TYPE_GENERATION, false)) {
@@ -269,7 +279,7 @@ class ReloadableJava8Parser implements JavaParser {
                 sourceSetProvenance = new JavaSourceSet(Tree.randomId(), sourceSet, emptyList());
             } else {
                 sourceSetProvenance = JavaSourceSet.build(sourceSet, classpath == null ? emptyList() : classpath,
-                        typeCache, false);
+                        typeCache, ctx.getMessage(TYPE_INDEX, JavaTypeIndex.getDefault()), false);
             }
         }
         return sourceSetProvenance;
@@ -29,6 +29,7 @@ import org.openrewrite.ExecutionContext;
 import org.openrewrite.internal.ListUtils;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.java.internal.JavaTypeCache;
+import org.openrewrite.java.internal.LineOffsets;
 import org.openrewrite.java.tree.*;
 import org.openrewrite.marker.Markers;
 import org.openrewrite.style.NamedStyles;
@@ -82,6 +83,8 @@ public class ReloadableJava8ParserVisitor extends TreePathScanner<J, Space> {
 
     private static final Pattern whitespacePrefixPattern = Pattern.compile("^\\s*");
     private static final Pattern whitespaceSuffixPattern = Pattern.compile("\\s*[^\\s]+(\\s*)");
+    private static final Pattern dimensionPattern = Pattern.compile("(\\s*)\\[(\\s*)]");
+    private static final Pattern varargsPattern = Pattern.compile("(\\s*)\\.{3}");
 
     public ReloadableJava8ParserVisitor(Path sourcePath, String source,
                                         Collection<NamedStyles> styles,
@@ -93,7 +96,7 @@ public class ReloadableJava8ParserVisitor extends TreePathScanner<J, Space> {
         this.styles = styles;
         this.ctx = ctx;
         this.context = context;
-        this.typeMapping = new ReloadableJava8TypeMapping(typeCache);
+        this.typeMapping = new ReloadableJava8TypeMapping(typeCache, context);
     }
 
     @Override
@@ -974,8 +977,8 @@ public class ReloadableJava8ParserVisitor extends TreePathScanner<J, Space> {
                     convert(dim, t -> sourceBefore("]"))));
         }
 
-        Matcher matcher = Pattern.compile("\\G(\\s*)\\[(\\s*)]").matcher(source);
-        while (matcher.find(cursor)) {
+        Matcher matcher = dimensionPattern.matcher(source);
+        while (matcher.region(cursor, source.length()).lookingAt()) {
             cursor(matcher.end());
             dimensions.add(new J.ArrayDimension(
                     randomId(),
@@ -1344,9 +1347,9 @@ public class ReloadableJava8ParserVisitor extends TreePathScanner<J, Space> {
         }
 
         Supplier<List<JLeftPadded<Space>>> dimensions = () -> {
-            Matcher matcher = Pattern.compile("\\G(\\s*)\\[(\\s*)]").matcher(source);
+            Matcher matcher = dimensionPattern.matcher(source);
             List<JLeftPadded<Space>> dims = new ArrayList<>();
-            while (matcher.find(cursor)) {
+            while (matcher.region(cursor, source.length()).lookingAt()) {
                 cursor(matcher.end());
                 dims.add(padLeft(format(matcher.group(1)), format(matcher.group(2))));
             }
@@ -1356,11 +1359,11 @@ public class ReloadableJava8ParserVisitor extends TreePathScanner<J, Space> {
         List<JLeftPadded<Space>> beforeDimensions = dimensions.get();
 
         String vartypeString = typeExpr == null ? "" : source.substring(vartype.getStartPosition(), endPos(vartype));
-        Matcher varargMatcher = Pattern.compile("(\\s*)\\.{3}").matcher(vartypeString);
+        Matcher varargMatcher = varargsPattern.matcher(vartypeString);
         Space varargs = null;
         if (varargMatcher.find()) {
-            Matcher matcher = Pattern.compile("\\G(\\s*)\\.{3}").matcher(source);
-            if (matcher.find(cursor)) {
+            Matcher matcher = varargsPattern.matcher(source);
+            if (matcher.region(cursor, source.length()).lookingAt()) {
                 cursor(matcher.end());
             }
             varargs = format(varargMatcher.group(1));
@@ -1435,7 +1438,10 @@ public class ReloadableJava8ParserVisitor extends TreePathScanner<J, Space> {
         try {
             String prefix = source.substring(cursor, max(((JCTree) t).getStartPosition(), cursor));
             cursor += prefix.length();
-            @SuppressWarnings("unchecked") J2 j = (J2) scan(t, formatWithCommentTree(prefix, (JCTree) t, docCommentTable.getCommentTree((JCTree) t)));
+            // doc comments are parsed lazily, with a parser that shares javac's name table, when first requested
+            DCTree.DCDocComment commentTree = docCommentTable.hasComment((JCTree) t) ?
+                    typeMapping.withSymbolLock(() -> docCommentTable.getCommentTree((JCTree) t)) : null;
+            @SuppressWarnings("unchecked") J2 j = (J2) scan(t, formatWithCommentTree(prefix, (JCTree) t, commentTree));
             return j;
         } catch (Throwable ex) {
             // this SHOULD never happen, but is here simply as a diagnostic measure in the event of unexpected exceptions
@@ -1472,7 +1478,10 @@ public class ReloadableJava8ParserVisitor extends TreePathScanner<J, Space> {
     }
 
     private long lineNumber(Tree tree) {
-        return source.substring(0, ((JCTree) tree).getStartPosition()).chars().filter(c -> c == '\n').count() + 1;
+        if (lineOffsets == null) {
+            lineOffsets = new LineOffsets(source);
+        }
+        return lineOffsets.lineNumber(((JCTree) tree).getStartPosition());
     }
 
     @Nullable
@@ -1642,19 +1651,17 @@ public class ReloadableJava8ParserVisitor extends TreePathScanner<J, Space> {
                 }
             } else {
                 if (source.length() - untilDelim.length() > delimIndex + 1) {
-                    switch (source.substring(delimIndex, delimIndex + 2)) {
-                        case "//":
-                            inSingleLineComment = true;
-                            delimIndex++;
-                            break;
-                        case "/*":
-                            inMultiLineComment = true;
-                            delimIndex++;
-                            break;
-                        case "*/":
-                            inMultiLineComment = false;
-                            delimIndex = delimIndex + 2;
-                            break;
+                    char c1 = source.charAt(delimIndex);
+                    char c2 = source.charAt(delimIndex + 1);
+                    if (c1 == '/' && c2 == '/') {
+                        inSingleLineComment = true;
+                        delimIndex++;
+                    } else if (c1 == '/' && c2 == '*') {
+                        inMultiLineComment = true;
+                        delimIndex++;
+                    } else if (c1 == '*' && c2 == '/') {
+                        inMultiLineComment = false;
+                        delimIndex = delimIndex + 2;
                     }
                 }
 
@@ -1672,6 +1679,12 @@ public class ReloadableJava8ParserVisitor extends TreePathScanner<J, Space> {
         return delimIndex > source.length() - untilDelim.length() ? -1 : delimIndex;
     }
 
+    /**
+     * Computed when a line number is first needed.
+     */
+    @Nullable
+    private LineOffsets lineOffsets;
+
     private final Function<Tree, Space> semiDelim = ignored -> sourceBefore(";");
     private final Function<Tree, Space> commaDelim = ignored -> sourceBefore(",");
     private final Function<Tree, Space> noDelim = ignored -> EMPTY;
@@ -1686,24 +1699,25 @@ public class ReloadableJava8ParserVisitor extends TreePathScanner<J, Space> {
                 inSingleLineComment = false;
             } else {
                 if (source.length() > delimIndex + 1) {
-                    switch (source.substring(delimIndex, delimIndex + 2)) {
-                        case "//":
-                            inSingleLineComment = true;
-                            delimIndex++;
-                            continue;
-                        case "/*":
-                            inMultiLineComment = true;
-                            delimIndex++;
-                            continue;
-                        case "*/":
-                            inMultiLineComment = false;
-                            delimIndex++;
-                            continue;
+                    char c1 = source.charAt(delimIndex);
+                    char c2 = source.charAt(delimIndex + 1);
+                    if (c1 == '/' && c2 == '/') {
+                        inSingleLineComment = true;
+                        delimIndex++;
+                        continue;
+                    } else if (c1 == '/' && c2 == '*') {
+                        inMultiLineComment = true;
+                        delimIndex++;
+                        continue;
+                    } else if (c1 == '*' && c2 == '/') {
+                        inMultiLineComment = false;
+                        delimIndex++;
+                        continue;
                     }
                 }
 
                 if (!inMultiLineComment && !inSingleLineComment) {
-                    if (!Character.isWhitespace(source.substring(delimIndex, delimIndex + 1).charAt(0))) {
+                    if (!Character.isWhitespace(source.charAt(delimIndex))) {
                         break; // found it!
                     }
                 }
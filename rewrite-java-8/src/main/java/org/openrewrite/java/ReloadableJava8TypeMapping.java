@@ -30,6 +30,7 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 import static java.util.Collections.singletonList;
 import static org.openrewrite.java.tree.JavaType.GenericTypeVariable.Variance.*;
@@ -44,37 +45,61 @@ class ReloadableJava8TypeMapping implements JavaTypeMapping<Tree> {
 
     private final JavaTypeCache typeCache;
 
-    public JavaType type(@Nullable com.sun.tools.javac.code.Type type) {
-        if (type == null || type instanceof Type.ErrorType || type instanceof Type.PackageType || type instanceof Type.UnknownType ||
-                type instanceof NullType) {
-            return JavaType.Class.Unknown.getInstance();
-        }
+    /**
+     * Guards the symbols of one javac context, which javac completes lazily and without synchronization of its own.
+     * Compilation units of the same context are mapped in parallel, so mapping a type, which may complete symbols
+     * to compute its signature or fill it in, holds this lock, as does anything else that may complete symbols during
+     * mapping, like attributing a Javadoc reference. Contexts never share symbols, so each has its own lock and
+     * contexts map types concurrently. Types are published to the shared type cache only once they are filled in,
+     * which needs no lock of its own.
+     */
+    private final Object symbolLock;
 
-        String signature = signatureBuilder.signature(type);
-        JavaType existing = typeCache.get(signature);
-        if (existing != null) {
-            return existing;
+    <T> T withSymbolLock(Supplier<T> completion) {
+        synchronized (symbolLock) {
+            return completion.get();
         }
+    }
 
-        if (type instanceof Type.ClassType) {
-            return classType((Type.ClassType) type, signature);
-        } else if (type instanceof Type.TypeVar) {
-            return generic((Type.TypeVar) type, signature);
-        } else if (type instanceof Type.JCPrimitiveType) {
-            return primitive(type.getTag());
-        } else if (type instanceof Type.JCVoidType) {
-            return JavaType.Primitive.Void;
-        } else if (type instanceof Type.ArrayType) {
-            return array(type, signature);
-        } else if (type instanceof Type.WildcardType) {
-            return generic((Type.WildcardType) type, signature);
-        } else if (type instanceof Type.AnnotatedType) {
-            return type(type.unannotatedType());
-        } else if (type instanceof Type.JCNoType) {
-            return JavaType.Class.Unknown.getInstance();
+    private <T> T map(Supplier<T> mapping) {
+        synchronized (symbolLock) {
+            return typeCache.map(mapping);
         }
+    }
+
+    public JavaType type(@Nullable com.sun.tools.javac.code.Type type) {
+        return map(() -> {
+            if (type == null || type instanceof Type.ErrorType || type instanceof Type.PackageType || type instanceof Type.UnknownType ||
+                    type instanceof NullType) {
+                return JavaType.Class.Unknown.getInstance();
+            }
+
+            String signature = signatureBuilder.signature(type);
+            JavaType existing = typeCache.get(signature);
+            if (existing != null) {
+                return existing;
+            }
+
+            if (type instanceof Type.ClassType) {
+                return classType((Type.ClassType) type, signature);
+            } else if (type instanceof Type.TypeVar) {
+                return generic((Type.TypeVar) type, signature);
+            } else if (type instanceof Type.JCPrimitiveType) {
+                return primitive(type.getTag());
+            } else if (type instanceof Type.JCVoidType) {
+                return JavaType.Primitive.Void;
+            } else if (type instanceof Type.ArrayType) {
+                return array(type, signature);
+            } else if (type instanceof Type.WildcardType) {
+                return generic((Type.WildcardType) type, signature);
+            } else if (type instanceof Type.AnnotatedType) {
+                return type(type.unannotatedType());
+            } else if (type instanceof Type.JCNoType) {
+                return JavaType.Class.Unknown.getInstance();
+            }
 
-        throw new UnsupportedOperationException("Unknown type " + type.getClass().getName());
+            throw new UnsupportedOperationException("Unknown type " + type.getClass().getName());
+        });
     }
 
     private JavaType array(Type type, String signature) {
@@ -263,20 +288,22 @@ class ReloadableJava8TypeMapping implements JavaTypeMapping<Tree> {
 
     @SuppressWarnings("ConstantConditions")
     public JavaType type(@Nullable Tree tree) {
-        if (tree == null) {
-            return null;
-        }
+        return map(() -> {
+            if (tree == null) {
+                return null;
+            }
 
-        Symbol symbol = null;
-        if (tree instanceof JCTree.JCIdent) {
-            symbol = ((JCTree.JCIdent) tree).sym;
-        } else if (tree instanceof JCTree.JCMethodDecl) {
-            symbol = ((JCTree.JCMethodDecl) tree).sym;
-        } else if (tree instanceof JCTree.JCVariableDecl) {
-            return variableType(((JCTree.JCVariableDecl) tree).sym);
-        }
+            Symbol symbol = null;
+            if (tree instanceof JCTree.JCIdent) {
+                symbol = ((JCTree.JCIdent) tree).sym;
+            } else if (tree instanceof JCTree.JCMethodDecl) {
+                symbol = ((JCTree.JCMethodDecl) tree).sym;
+            } else if (tree instanceof JCTree.JCVariableDecl) {
+                return variableType(((JCTree.JCVariableDecl) tree).sym);
+            }
 
-        return type(((JCTree) tree).type, symbol);
+            return type(((JCTree) tree).type, symbol);
+        });
     }
 
     @Nullable
@@ -320,7 +347,7 @@ class ReloadableJava8TypeMapping implements JavaTypeMapping<Tree> {
 
     @Nullable
     public JavaType.Variable variableType(@Nullable Symbol symbol) {
-        return variableType(symbol, null);
+        return map(() -> variableType(symbol, null));
     }
 
     @Nullable
@@ -373,113 +400,19 @@ class ReloadableJava8TypeMapping implements JavaTypeMapping<Tree> {
      */
     @Nullable
     public JavaType.Method methodInvocationType(@Nullable com.sun.tools.javac.code.Type selectType, @Nullable Symbol symbol) {
-        if (selectType == null || selectType instanceof Type.ErrorType || symbol == null || symbol.kind == Kinds.ERR) {
-            return null;
-        }
-
-        Symbol.MethodSymbol methodSymbol = (Symbol.MethodSymbol) symbol;
-
-        if (selectType instanceof Type.ForAll) {
-            Type.ForAll fa = (Type.ForAll) selectType;
-            return methodInvocationType(fa.qtype, methodSymbol);
-        }
-
-        String signature = signatureBuilder.methodSignature(selectType, methodSymbol);
-        JavaType.Method existing = typeCache.get(signature);
-        if (existing != null) {
-            return existing;
-        }
-
-        List<String> paramNames = null;
-        if (!methodSymbol.params().isEmpty()) {
-            paramNames = new ArrayList<>(methodSymbol.params().size());
-            for (Symbol.VarSymbol p : methodSymbol.params()) {
-                String s = p.name.toString();
-                paramNames.add(s);
+        return map(() -> {
+            if (selectType == null || selectType instanceof Type.ErrorType || symbol == null || symbol.kind == Kinds.ERR) {
+                return null;
             }
-        }
 
-        JavaType.Method method = new JavaType.Method(
-                null,
-                methodSymbol.flags_field,
-                null,
-                methodSymbol.isConstructor() ? "<constructor>" : methodSymbol.getSimpleName().toString(),
-                null,
-                paramNames,
-                null, null, null
-        );
-        typeCache.put(signature, method);
-
-        JavaType returnType = null;
-        List<JavaType> parameterTypes = null;
-        List<JavaType.FullyQualified> exceptionTypes = null;
-
-        if (selectType instanceof Type.MethodType) {
-            Type.MethodType methodType = (Type.MethodType) selectType;
-
-            if (!methodType.argtypes.isEmpty()) {
-                parameterTypes = new ArrayList<>(methodType.argtypes.size());
-                for (com.sun.tools.javac.code.Type argtype : methodType.argtypes) {
-                    if (argtype != null) {
-                        JavaType javaType = type(argtype);
-                        parameterTypes.add(javaType);
-                    }
-                }
-            }
+            Symbol.MethodSymbol methodSymbol = (Symbol.MethodSymbol) symbol;
 
-            returnType = type(methodType.restype);
-
-            if (!methodType.thrown.isEmpty()) {
-                exceptionTypes = new ArrayList<>(methodType.thrown.size());
-                for (Type exceptionType : methodType.thrown) {
-                    JavaType.FullyQualified javaType = TypeUtils.asFullyQualified(type(exceptionType));
-                    if (javaType == null) {
-                        // if the type cannot be resolved to a class (it might not be on the classpath, or it might have
-                        // been mapped to cyclic)
-                        if (exceptionType instanceof Type.ClassType) {
-                            Symbol.ClassSymbol sym = (Symbol.ClassSymbol) exceptionType.tsym;
-                            javaType = new JavaType.Class(null, Flag.Public.getBitMask(), sym.flatName().toString(), JavaType.Class.Kind.Class,
-                                    null, null, null, null, null, null);
-                        }
-                    }
-                    if (javaType != null) {
-                        // if the exception type is not resolved, it is not added to the list of exceptions
-                        exceptionTypes.add(javaType);
-                    }
-                }
+            if (selectType instanceof Type.ForAll) {
+                Type.ForAll fa = (Type.ForAll) selectType;
+                return methodInvocationType(fa.qtype, methodSymbol);
             }
-        } else if (selectType instanceof Type.UnknownType) {
-            returnType = JavaType.Unknown.getInstance();
-        }
 
-        JavaType.FullyQualified resolvedDeclaringType = TypeUtils.asFullyQualified(type(methodSymbol.owner.type));
-        if (resolvedDeclaringType == null) {
-            return null;
-        }
-
-        assert returnType != null;
-
-        method.unsafeSet(resolvedDeclaringType,
-                methodSymbol.isConstructor() ? resolvedDeclaringType : returnType,
-                parameterTypes, exceptionTypes, listAnnotations(methodSymbol));
-        return method;
-    }
-
-    /**
-     * Method type of a method declaration. Parameters and return type represent generic signatures when applicable.
-     *
-     * @param symbol        The method symbol.
-     * @param declaringType The method's declaring type.
-     * @return Method type attribution.
-     */
-    @Nullable
-    public JavaType.Method methodDeclarationType(@Nullable Symbol symbol, @Nullable JavaType.FullyQualified declaringType) {
-        // if the symbol is not a method symbol, there is a parser error in play
-        Symbol.MethodSymbol methodSymbol = symbol instanceof Symbol.MethodSymbol ? (Symbol.MethodSymbol) symbol : null;
-
-        if (methodSymbol != null) {
-
-            String signature = signatureBuilder.methodSignature(methodSymbol);
+            String signature = signatureBuilder.methodSignature(selectType, methodSymbol);
             JavaType.Method existing = typeCache.get(signature);
             if (existing != null) {
                 return existing;
@@ -505,19 +438,25 @@ class ReloadableJava8TypeMapping implements JavaTypeMapping<Tree> {
             );
             typeCache.put(signature, method);
 
-            Type signatureType = methodSymbol.type instanceof Type.ForAll ?
-                    ((Type.ForAll) methodSymbol.type).qtype :
-                    methodSymbol.type;
-
+            JavaType returnType = null;
+            List<JavaType> parameterTypes = null;
             List<JavaType.FullyQualified> exceptionTypes = null;
 
-            Type selectType = methodSymbol.type;
-            if (selectType instanceof Type.ForAll) {
-                selectType = ((Type.ForAll) selectType).qtype;
-            }
-
             if (selectType instanceof Type.MethodType) {
                 Type.MethodType methodType = (Type.MethodType) selectType;
+
+                if (!methodType.argtypes.isEmpty()) {
+                    parameterTypes = new ArrayList<>(methodType.argtypes.size());
+                    for (com.sun.tools.javac.code.Type argtype : methodType.argtypes) {
+                        if (argtype != null) {
+                            JavaType javaType = type(argtype);
+                            parameterTypes.add(javaType);
+                        }
+                    }
+                }
+
+                returnType = type(methodType.restype);
+
                 if (!methodType.thrown.isEmpty()) {
                     exceptionTypes = new ArrayList<>(methodType.thrown.size());
                     for (Type exceptionType : methodType.thrown) {
@@ -537,50 +476,142 @@ class ReloadableJava8TypeMapping implements JavaTypeMapping<Tree> {
                         }
                     }
                 }
+            } else if (selectType instanceof Type.UnknownType) {
+                returnType = JavaType.Unknown.getInstance();
             }
 
-            JavaType.FullyQualified resolvedDeclaringType = declaringType;
-            if (declaringType == null) {
-                if (methodSymbol.owner instanceof Symbol.ClassSymbol || methodSymbol.owner instanceof Symbol.TypeVariableSymbol) {
-                    resolvedDeclaringType = TypeUtils.asFullyQualified(type(methodSymbol.owner.type));
-                }
-            }
-
+            JavaType.FullyQualified resolvedDeclaringType = TypeUtils.asFullyQualified(type(methodSymbol.owner.type));
             if (resolvedDeclaringType == null) {
                 return null;
             }
 
-            JavaType returnType;
-            List<JavaType> parameterTypes = null;
+            assert returnType != null;
 
-            if (signatureType instanceof Type.ForAll) {
-                signatureType = ((Type.ForAll) signatureType).qtype;
-            }
-            if (signatureType instanceof Type.MethodType) {
-                Type.MethodType mt = (Type.MethodType) signatureType;
+            method.unsafeSet(resolvedDeclaringType,
+                    methodSymbol.isConstructor() ? resolvedDeclaringType : returnType,
+                    parameterTypes, exceptionTypes, listAnnotations(methodSymbol));
+            return method;
+        });
+    }
 
-                if (!mt.argtypes.isEmpty()) {
-                    parameterTypes = new ArrayList<>(mt.argtypes.size());
-                    for (com.sun.tools.javac.code.Type argtype : mt.argtypes) {
-                        if (argtype != null) {
-                            JavaType javaType = type(argtype);
-                            parameterTypes.add(javaType);
+    /**
+     * Method type of a method declaration. Parameters and return type represent generic signatures when applicable.
+     *
+     * @param symbol        The method symbol.
+     * @param declaringType The method's declaring type.
+     * @return Method type attribution.
+     */
+    @Nullable
+    public JavaType.Method methodDeclarationType(@Nullable Symbol symbol, @Nullable JavaType.FullyQualified declaringType) {
+        return map(() -> {
+            // if the symbol is not a method symbol, there is a parser error in play
+            Symbol.MethodSymbol methodSymbol = symbol instanceof Symbol.MethodSymbol ? (Symbol.MethodSymbol) symbol : null;
+
+            if (methodSymbol != null) {
+
+                String signature = signatureBuilder.methodSignature(methodSymbol);
+                JavaType.Method existing = typeCache.get(signature);
+                if (existing != null) {
+                    return existing;
+                }
+
+                List<String> paramNames = null;
+                if (!methodSymbol.params().isEmpty()) {
+                    paramNames = new ArrayList<>(methodSymbol.params().size());
+                    for (Symbol.VarSymbol p : methodSymbol.params()) {
+                        String s = p.name.toString();
+                        paramNames.add(s);
+                    }
+                }
+
+                JavaType.Method method = new JavaType.Method(
+                        null,
+                        methodSymbol.flags_field,
+                        null,
+                        methodSymbol.isConstructor() ? "<constructor>" : methodSymbol.getSimpleName().toString(),
+                        null,
+                        paramNames,
+                        null, null, null
+                );
+                typeCache.put(signature, method);
+
+                Type signatureType = methodSymbol.type instanceof Type.ForAll ?
+                        ((Type.ForAll) methodSymbol.type).qtype :
+                        methodSymbol.type;
+
+                List<JavaType.FullyQualified> exceptionTypes = null;
+
+                Type selectType = methodSymbol.type;
+                if (selectType instanceof Type.ForAll) {
+                    selectType = ((Type.ForAll) selectType).qtype;
+                }
+
+                if (selectType instanceof Type.MethodType) {
+                    Type.MethodType methodType = (Type.MethodType) selectType;
+                    if (!methodType.thrown.isEmpty()) {
+                        exceptionTypes = new ArrayList<>(methodType.thrown.size());
+                        for (Type exceptionType : methodType.thrown) {
+                            JavaType.FullyQualified javaType = TypeUtils.asFullyQualified(type(exceptionType));
+                            if (javaType == null) {
+                                // if the type cannot be resolved to a class (it might not be on the classpath, or it might have
+                                // been mapped to cyclic)
+                                if (exceptionType instanceof Type.ClassType) {
+                                    Symbol.ClassSymbol sym = (Symbol.ClassSymbol) exceptionType.tsym;
+                                    javaType = new JavaType.Class(null, Flag.Public.getBitMask(), sym.flatName().toString(), JavaType.Class.Kind.Class,
+                                            null, null, null, null, null, null);
+                                }
+                            }
+                            if (javaType != null) {
+                                // if the exception type is not resolved, it is not added to the list of exceptions
+                                exceptionTypes.add(javaType);
+                            }
                         }
                     }
                 }
 
-                returnType = type(mt.restype);
-            } else {
-                throw new UnsupportedOperationException("Unexpected method signature type" + signatureType.getClass().getName());
-            }
+                JavaType.FullyQualified resolvedDeclaringType = declaringType;
+                if (declaringType == null) {
+                    if (methodSymbol.owner instanceof Symbol.ClassSymbol || methodSymbol.owner instanceof Symbol.TypeVariableSymbol) {
+                        resolvedDeclaringType = TypeUtils.asFullyQualified(type(methodSymbol.owner.type));
+                    }
+                }
 
-            method.unsafeSet(resolvedDeclaringType,
-                    methodSymbol.isConstructor() ? resolvedDeclaringType : returnType,
-                    parameterTypes, exceptionTypes, listAnnotations(methodSymbol));
-            return method;
-        }
+                if (resolvedDeclaringType == null) {
+                    return null;
+                }
+
+                JavaType returnType;
+                List<JavaType> parameterTypes = null;
+
+                if (signatureType instanceof Type.ForAll) {
+                    signatureType = ((Type.ForAll) signatureType).qtype;
+                }
+                if (signatureType instanceof Type.MethodType) {
+                    Type.MethodType mt = (Type.MethodType) signatureType;
+
+                    if (!mt.argtypes.isEmpty()) {
+                        parameterTypes = new ArrayList<>(mt.argtypes.size());
+                        for (com.sun.tools.javac.code.Type argtype : mt.argtypes) {
+                            if (argtype != null) {
+                                JavaType javaType = type(argtype);
+                                parameterTypes.add(javaType);
+                            }
+                        }
+                    }
+
+                    returnType = type(mt.restype);
+                } else {
+                    throw new UnsupportedOperationException("Unexpected method signature type" + signatureType.getClass().getName());
+                }
+
+                method.unsafeSet(resolvedDeclaringType,
+                        methodSymbol.isConstructor() ? resolvedDeclaringType : returnType,
+                        parameterTypes, exceptionTypes, listAnnotations(methodSymbol));
+                return method;
+            }
 
-        return null;
+            return null;
+        });
     }
 
     private void completeClassSymbol(Symbol.ClassSymbol classSymbol) {
@@ -22,6 +22,7 @@ import org.openrewrite.InMemoryExecutionContext;
 import org.openrewrite.Parser;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.java.internal.JavaTypeCache;
+import org.openrewrite.java.internal.JavaTypeIndex;
 import org.openrewrite.java.marker.JavaSourceSet;
 import org.openrewrite.java.tree.J;
 import org.openrewrite.style.NamedStyles;
@@ -47,6 +48,12 @@ public interface JavaParser extends Parser<J.CompilationUnit> {
      */
     String SKIP_SOURCE_SET_TYPE_GENERATION = "org.openrewrite.java.skipSourceSetTypeGeneration";
 
+    /**
+     * Set to a {@link JavaTypeIndex} on an {@link ExecutionContext} supplied to parsing to share scanned classpath
+     * types between parsers, or to persist them. When not set, {@link JavaTypeIndex#getDefault()} is used.
+     */
+    String TYPE_INDEX = "org.openrewrite.java.typeIndex";
+
     /**
      * @deprecated Won't work in isolated classloaders.
      */
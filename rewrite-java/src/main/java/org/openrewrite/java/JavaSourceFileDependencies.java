@@ -0,0 +1,90 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java;
+
+import org.openrewrite.Incubating;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.TypeUtils;
+import org.openrewrite.tree.CachingParser;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The fully qualified names of the types a compilation unit declares and refers to, so that a
+ * {@link CachingParser} can invalidate the cached compilation units that were type attributed against a changed one.
+ */
+@Incubating(since = "7.23.0")
+public class JavaSourceFileDependencies implements CachingParser.Dependencies<J.CompilationUnit> {
+
+    @Override
+    public Set<String> getDeclared(J.CompilationUnit cu) {
+        Set<String> declared = new HashSet<>();
+        new JavaIsoVisitor<Set<String>>() {
+            @Override
+            public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, Set<String> names) {
+                if (classDecl.getType() != null) {
+                    names.add(classDecl.getType().getFullyQualifiedName());
+                }
+                return super.visitClassDeclaration(classDecl, names);
+            }
+        }.visit(cu, declared);
+        return declared;
+    }
+
+    @Override
+    @Nullable
+    public Set<String> getReferenced(J.CompilationUnit cu) {
+        Set<String> referenced = new HashSet<>();
+        for (JavaType type : cu.getTypesInUse().getTypesInUse()) {
+            if (!addReferenced(type, referenced)) {
+                return null;
+            }
+        }
+        for (JavaType.Method method : cu.getTypesInUse().getUsedMethods()) {
+            addReferenced(method.getDeclaringType(), referenced);
+        }
+        for (JavaType.Variable variable : cu.getTypesInUse().getVariables()) {
+            addReferenced(variable.getOwner(), referenced);
+        }
+        for (J.Import anImport : cu.getImports()) {
+            if (!"*".equals(anImport.getQualid().getSimpleName())) {
+                referenced.add(anImport.getTypeName());
+            }
+        }
+        referenced.removeAll(getDeclared(cu));
+        return referenced;
+    }
+
+    /**
+     * @return <code>false</code> if the type could not be resolved.
+     */
+    private static boolean addReferenced(@Nullable JavaType type, Set<String> referenced) {
+        while (type instanceof JavaType.Array) {
+            type = ((JavaType.Array) type).getElemType();
+        }
+        if (type instanceof JavaType.Unknown) {
+            return false;
+        }
+        JavaType.FullyQualified fq = TypeUtils.asFullyQualified(type);
+        if (fq != null) {
+            referenced.add(fq.getFullyQualifiedName());
+        }
+        return true;
+    }
+}
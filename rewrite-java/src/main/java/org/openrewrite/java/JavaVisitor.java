@@ -1216,7 +1216,7 @@ public class JavaVisitor<P> extends TreeVisitor<J, P> {
             return null;
         }
 
-        setCursor(new Cursor(getCursor(), right));
+        pushCursor(right);
 
         T t = right.getElement();
         if (t instanceof J) {
@@ -1224,7 +1224,7 @@ public class JavaVisitor<P> extends TreeVisitor<J, P> {
             t = visitAndCast((J) right.getElement(), p);
         }
 
-        setCursor(getCursor().getParent());
+        popCursor();
         if (t == null) {
             //noinspection ConstantConditions
             return null;
@@ -1241,7 +1241,7 @@ public class JavaVisitor<P> extends TreeVisitor<J, P> {
             return null;
         }
 
-        setCursor(new Cursor(getCursor(), left));
+        pushCursor(left);
 
         Space before = visitSpace(left.getBefore(), loc.getBeforeLocation(), p);
         T t = left.getElement();
@@ -1251,7 +1251,7 @@ public class JavaVisitor<P> extends TreeVisitor<J, P> {
             t = visitAndCast((J) left.getElement(), p);
         }
 
-        setCursor(getCursor().getParent());
+        popCursor();
         if (t == null) {
             // If nothing changed leave AST node the same
             if (left.getElement() == null && before == left.getBefore()) {
@@ -1265,12 +1265,12 @@ public class JavaVisitor<P> extends TreeVisitor<J, P> {
 
     public <J2 extends J> JContainer<J2> visitContainer(JContainer<J2> container,
                                                         JContainer.Location loc, P p) {
-        setCursor(new Cursor(getCursor(), container));
+        pushCursor(container);
 
         Space before = visitSpace(container.getBefore(), loc.getBeforeLocation(), p);
         List<JRightPadded<J2>> js = ListUtils.map(container.getPadding().getElements(), t -> visitRightPadded(t, loc.getElementLocation(), p));
 
-        setCursor(getCursor().getParent());
+        popCursor();
 
         return js == container.getPadding().getElements() && before == container.getBefore() ?
                 container :
@@ -43,36 +43,38 @@ public class JavaReflectionTypeMapping implements JavaTypeMapping<Type> {
 
     @Override
     public JavaType type(@Nullable Type type) {
-        if (type == null) {
-            return JavaType.Unknown.getInstance();
-        }
+        return typeCache.map(() -> {
+            if (type == null) {
+                return JavaType.Unknown.getInstance();
+            }
 
-        String signature = signatureBuilder.signature(type);
-        JavaType existing = typeCache.get(signature);
-        if (existing != null) {
-            return existing;
-        }
+            String signature = signatureBuilder.signature(type);
+            JavaType existing = typeCache.get(signature);
+            if (existing != null) {
+                return existing;
+            }
 
-        if (type instanceof Class) {
-            Class<?> clazz = (Class<?>) type;
-            if (clazz.isArray()) {
-                return array(clazz, signature);
-            } else if (clazz.isPrimitive()) {
-                //noinspection ConstantConditions
-                return JavaType.Primitive.fromKeyword(clazz.getName());
+            if (type instanceof Class) {
+                Class<?> clazz = (Class<?>) type;
+                if (clazz.isArray()) {
+                    return array(clazz, signature);
+                } else if (clazz.isPrimitive()) {
+                    //noinspection ConstantConditions
+                    return JavaType.Primitive.fromKeyword(clazz.getName());
+                }
+                return classType((Class<?>) type, signature);
+            } else if (type instanceof GenericArrayType) {
+                return array((GenericArrayType) type, signature);
+            } else if (type instanceof TypeVariable) {
+                return generic((TypeVariable<?>) type, signature);
+            } else if (type instanceof WildcardType) {
+                return generic((WildcardType) type, signature);
+            } else if (type instanceof ParameterizedType) {
+                return parameterized((ParameterizedType) type, signature);
             }
-            return classType((Class<?>) type, signature);
-        } else if (type instanceof GenericArrayType) {
-            return array((GenericArrayType) type, signature);
-        } else if (type instanceof TypeVariable) {
-            return generic((TypeVariable<?>) type, signature);
-        } else if (type instanceof WildcardType) {
-            return generic((WildcardType) type, signature);
-        } else if (type instanceof ParameterizedType) {
-            return parameterized((ParameterizedType) type, signature);
-        }
 
-        throw new UnsupportedOperationException("Unknown type " + type.getClass().getName());
+            throw new UnsupportedOperationException("Unknown type " + type.getClass().getName());
+        });
     }
 
     private JavaType.Array array(Class<?> clazz, String signature) {
@@ -300,11 +302,13 @@ public class JavaReflectionTypeMapping implements JavaTypeMapping<Type> {
     }
 
     public JavaType.Method method(Method method) {
-        JavaType.FullyQualified type = (JavaType.FullyQualified) type(method.getDeclaringClass());
-        if (type instanceof JavaType.Parameterized) {
-            type = ((JavaType.Parameterized) type).getType();
-        }
-        return method(method, type);
+        return typeCache.map(() -> {
+            JavaType.FullyQualified type = (JavaType.FullyQualified) type(method.getDeclaringClass());
+            if (type instanceof JavaType.Parameterized) {
+                type = ((JavaType.Parameterized) type).getType();
+            }
+            return method(method, type);
+        });
     }
 
     private JavaType.Method method(Constructor<?> method, JavaType.FullyQualified declaringType) {
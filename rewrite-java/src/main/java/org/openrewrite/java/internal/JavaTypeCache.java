@@ -15,46 +15,206 @@
  */
 package org.openrewrite.java.internal;
 
-import lombok.Value;
 import org.openrewrite.internal.lang.Nullable;
-import org.xerial.snappy.Snappy;
 
-import java.io.IOException;
-import java.io.UncheckedIOException;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 
+/**
+ * Types mapped by signature, shared by every source file a parser maps and optionally by several parsers at once.
+ * <p>
+ * The cache is split into stripes that are each guarded by their own lock, so that it can be shared by parsers on
+ * different threads. Each stripe evicts its least recently used types once it holds more than its share of the
+ * maximum number of entries or of the maximum weight, where the weight of an entry is an estimate of the memory
+ * retained by its signature. An evicted type is mapped again the next time it is needed.
+ * <p>
+ * Type mappings put a type in the cache before they fill it in, so that cyclic references back to it resolve to the
+ * same instance. Types put while a thread is inside {@link #map(Supplier)} are held aside for that thread until its
+ * outermost mapping completes, so a type is never evicted while it is still being filled in, and other threads only
+ * ever see types that are complete.
+ */
 public class JavaTypeCache {
-    @Value
-    private static class BytesKey {
-        byte[] data;
+    private static final int STRIPES = 16;
+
+    /**
+     * An estimate of the memory retained by an entry beyond its signature's characters: the map entry, its
+     * links, and the {@link String} and its backing array headers.
+     */
+    private static final int ENTRY_OVERHEAD = 96;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final int maximumStripeSize;
+    private final long maximumStripeWeight;
+
+    private final ThreadLocal<Mapping> mapping = new ThreadLocal<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public JavaTypeCache() {
+        this(1 << 20, 512L * 1024 * 1024);
+    }
+
+    /**
+     * @param maximumSize   The maximum number of types to retain.
+     * @param maximumWeight The maximum estimated number of bytes retained by type signatures.
+     */
+    public JavaTypeCache(int maximumSize, long maximumWeight) {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.maximumStripeSize = Math.max(1, maximumSize / STRIPES);
+        this.maximumStripeWeight = Math.max(1, maximumWeight / STRIPES);
     }
 
-    Map<BytesKey, Object> typeCache = new HashMap<>();
+    /**
+     * Map one or more types, publishing every type the mapping puts in the cache once the outermost mapping on this
+     * thread completes. If the outermost mapping fails, the types it put are discarded, since they may never have
+     * been filled in.
+     */
+    public <T> T map(Supplier<T> mapping) {
+        Mapping m = this.mapping.get();
+        if (m == null) {
+            m = new Mapping();
+            this.mapping.set(m);
+        }
+
+        m.depth++;
+        boolean completed = false;
+        try {
+            T mapped = mapping.get();
+            completed = true;
+            return mapped;
+        } finally {
+            if (--m.depth == 0) {
+                this.mapping.remove();
+                if (completed) {
+                    for (Map.Entry<String, Object> type : m.types.entrySet()) {
+                        publish(type.getKey(), type.getValue(), false);
+                    }
+                }
+            }
+        }
+    }
 
     @Nullable
     public <T> T get(String signature) {
+        Object type = null;
+        Mapping m = mapping.get();
+        if (m != null) {
+            type = m.types.get(signature);
+        }
+        if (type == null) {
+            Stripe stripe = stripe(signature);
+            synchronized (stripe) {
+                type = stripe.types.get(signature);
+            }
+        }
+        if (type == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
         //noinspection unchecked
-        return (T) typeCache.get(key(signature));
+        return (T) type;
     }
 
     public void put(String signature, Object o) {
-        typeCache.put(key(signature), o);
+        Mapping m = mapping.get();
+        if (m != null) {
+            m.types.put(signature, o);
+        } else {
+            publish(signature, o, true);
+        }
     }
 
-    private BytesKey key(String signature) {
-        try {
-            return new BytesKey(Snappy.compress(signature));
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
+    /**
+     * @param replace Whether to replace a type that is already cached. Types mapped on different threads at the same
+     *                time may both be published, and the first one published is kept so that the cache only ever
+     *                gives out one instance for a signature.
+     */
+    private void publish(String signature, Object o, boolean replace) {
+        Stripe stripe = stripe(signature);
+        synchronized (stripe) {
+            Object existing = replace ? stripe.types.put(signature, o) : stripe.types.putIfAbsent(signature, o);
+            if (existing == null) {
+                stripe.weight += weight(signature);
+                Iterator<Map.Entry<String, Object>> eldest = stripe.types.entrySet().iterator();
+                while ((stripe.types.size() > maximumStripeSize || stripe.weight > maximumStripeWeight) &&
+                       stripe.types.size() > 1) {
+                    stripe.weight -= weight(eldest.next().getKey());
+                    eldest.remove();
+                    evictions.increment();
+                }
+            }
         }
     }
 
     public void clear() {
-        typeCache.clear();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.types.clear();
+                stripe.weight = 0;
+            }
+        }
     }
 
     public int size() {
-        return typeCache.size();
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.types.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return The estimated number of bytes retained by the signatures of cached types.
+     */
+    public long getWeight() {
+        long weight = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                weight += stripe.weight;
+            }
+        }
+        return weight;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    private Stripe stripe(String signature) {
+        int h = signature.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static long weight(String signature) {
+        return ENTRY_OVERHEAD + 2L * signature.length();
+    }
+
+    private static class Mapping {
+        private final Map<String, Object> types = new HashMap<>();
+        private int depth;
+    }
+
+    private static class Stripe {
+        private final Map<String, Object> types = new LinkedHashMap<>(16, 0.75f, true);
+        private long weight;
     }
 }
@@ -0,0 +1,425 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.internal;
+
+import io.github.classgraph.*;
+import org.openrewrite.Incubating;
+import org.openrewrite.internal.lang.Nullable;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The declarable types of each package provided by the JDK and by classpath jars, as used to build a
+ * {@link org.openrewrite.java.marker.JavaSourceSet}.
+ * <p>
+ * Jars are indexed by the hash of their content and the JDK by its version, so a jar is scanned only the first time
+ * any parser sharing this index sees it. Given a cache directory, the index of each jar is also written there and
+ * read back lazily the first time the jar is seen by another process. Classpath directories are scanned every time.
+ */
+@Incubating(since = "7.23.0")
+public class JavaTypeIndex {
+    private static final JavaTypeIndex DEFAULT = new JavaTypeIndex(null);
+
+    private static final int MAGIC = 0x52545849;
+    private static final int VERSION = 1;
+
+    @Nullable
+    private final Path cacheDir;
+
+    /**
+     * Package names to declarable type names by jar content hash.
+     */
+    private final Map<String, Map<String, List<String>>> declarationsByHash = new ConcurrentHashMap<>();
+
+    /**
+     * Content hashes by a key of the path, size and modification time of a jar, so unchanged jars are not
+     * hashed again.
+     */
+    private final Map<String, String> hashesByFile = new ConcurrentHashMap<>();
+
+    /**
+     * @param cacheDir A directory to persist the index of each jar in, or null to hold the index in memory only.
+     */
+    public JavaTypeIndex(@Nullable Path cacheDir) {
+        this.cacheDir = cacheDir;
+    }
+
+    /**
+     * @return An in-memory index shared by all parsers in this JVM that are not given one.
+     */
+    public static JavaTypeIndex getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * @return Type declarations in the JDK's "java" packages, by package name.
+     */
+    public Map<String, List<String>> getJdkTypeDeclarations() {
+        String hash = sha256(("jdk\n" + System.getProperty("java.version") + "\n" +
+                              System.getProperty("java.vendor") + "\n" +
+                              System.getProperty("java.home")).getBytes(StandardCharsets.UTF_8));
+        return declarations(hash, () -> {
+            try (ScanResult scanResult = new ClassGraph()
+                    .enableClassInfo()
+                    .enableSystemJarsAndModules()
+                    .acceptPackages("java")
+                    .ignoreClassVisibility()
+                    .scan()) {
+                return packagesToTypeDeclarations(scanResult.getAllClasses());
+            }
+        });
+    }
+
+    /**
+     * @param classpath Jars and directories of classes.
+     * @return Type declarations in every package on the classpath, by package name.
+     */
+    public Map<String, List<String>> getTypeDeclarations(Collection<Path> classpath) {
+        Map<String, Set<String>> result = new HashMap<>();
+        Map<Path, String> unindexedJars = new LinkedHashMap<>();
+        List<Path> toScan = new ArrayList<>();
+        for (Path entry : classpath) {
+            if (Files.isRegularFile(entry)) {
+                String hash = contentHash(entry);
+                Map<String, List<String>> declarations = declarations(hash, null);
+                if (declarations == null) {
+                    unindexedJars.put(realPath(entry), hash);
+                    toScan.add(entry);
+                } else {
+                    merge(result, declarations);
+                }
+            } else if (Files.isDirectory(entry)) {
+                toScan.add(entry);
+            }
+        }
+
+        if (!toScan.isEmpty()) {
+            try (ScanResult scanResult = new ClassGraph()
+                    .overrideClasspath(toScan)
+                    .enableMemoryMapping()
+                    .enableClassInfo()
+                    .ignoreClassVisibility()
+                    .scan()) {
+                Map<Path, List<ClassInfo>> classesByElement = new HashMap<>();
+                for (ClassInfo classInfo : scanResult.getAllClasses()) {
+                    classesByElement.computeIfAbsent(realPath(classInfo.getClasspathElementFile().toPath()),
+                            element -> new ArrayList<>()).add(classInfo);
+                }
+                for (Map.Entry<Path, List<ClassInfo>> elementClasses : classesByElement.entrySet()) {
+                    Map<String, List<String>> declarations = packagesToTypeDeclarations(elementClasses.getValue());
+                    String hash = unindexedJars.remove(elementClasses.getKey());
+                    if (hash != null) {
+                        declarationsByHash.put(hash, Collections.unmodifiableMap(declarations));
+                        write(hash, declarations);
+                    }
+                    merge(result, declarations);
+                }
+            }
+
+            // jars without any declarable types
+            for (String hash : unindexedJars.values()) {
+                declarationsByHash.put(hash, Collections.emptyMap());
+                write(hash, Collections.emptyMap());
+            }
+        }
+
+        Map<String, List<String>> declarations = new HashMap<>(result.size());
+        for (Map.Entry<String, Set<String>> packageTypes : result.entrySet()) {
+            declarations.put(packageTypes.getKey(), new ArrayList<>(packageTypes.getValue()));
+        }
+        return declarations;
+    }
+
+    @Nullable
+    private Map<String, List<String>> declarations(String hash, @Nullable Supplier<Map<String, List<String>>> scan) {
+        Map<String, List<String>> declarations = declarationsByHash.get(hash);
+        if (declarations == null) {
+            declarations = read(hash);
+            if (declarations == null && scan != null) {
+                declarations = scan.get();
+                write(hash, declarations);
+            }
+            if (declarations != null) {
+                declarations = Collections.unmodifiableMap(declarations);
+                declarationsByHash.put(hash, declarations);
+            }
+        }
+        return declarations;
+    }
+
+    private static void merge(Map<String, Set<String>> result, Map<String, List<String>> declarations) {
+        for (Map.Entry<String, List<String>> packageTypes : declarations.entrySet()) {
+            result.computeIfAbsent(packageTypes.getKey(), pkg -> new LinkedHashSet<>())
+                    .addAll(packageTypes.getValue());
+        }
+    }
+
+    @Nullable
+    private Map<String, List<String>> read(String hash) {
+        if (cacheDir == null) {
+            return null;
+        }
+        Path indexFile = cacheDir.resolve(hash + ".types");
+        if (!Files.exists(indexFile)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(Files.newInputStream(indexFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return null;
+            }
+            int packages = in.readInt();
+            Map<String, List<String>> declarations = new HashMap<>(packages);
+            for (int i = 0; i < packages; i++) {
+                String pkg = in.readUTF();
+                int types = in.readInt();
+                List<String> typeDeclarations = new ArrayList<>(types);
+                for (int j = 0; j < types; j++) {
+                    typeDeclarations.add(in.readUTF());
+                }
+                declarations.put(pkg, typeDeclarations);
+            }
+            return declarations;
+        } catch (IOException e) {
+            // an unreadable index is scanned again and overwritten
+            return null;
+        }
+    }
+
+    private void write(String hash, Map<String, List<String>> declarations) {
+        if (cacheDir == null) {
+            return;
+        }
+        Path temp = null;
+        boolean moved = false;
+        try {
+            Files.createDirectories(cacheDir);
+            temp = Files.createTempFile(cacheDir, hash, ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(declarations.size());
+                for (Map.Entry<String, List<String>> packageTypes : declarations.entrySet()) {
+                    out.writeUTF(packageTypes.getKey());
+                    out.writeInt(packageTypes.getValue().size());
+                    for (String typeDeclaration : packageTypes.getValue()) {
+                        out.writeUTF(typeDeclaration);
+                    }
+                }
+            }
+            Files.move(temp, cacheDir.resolve(hash + ".types"), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            moved = true;
+        } catch (IOException ignored) {
+            // the index is still held in memory, and the jar is scanned again by the next process
+        } finally {
+            if (temp != null && !moved) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // a stray temporary file is never read as an index
+                }
+            }
+        }
+    }
+
+    private String contentHash(Path jar) {
+        try {
+            String fileKey = jar.toAbsolutePath() + "\n" + Files.size(jar) + "\n" + Files.getLastModifiedTime(jar).toMillis();
+            return hashesByFile.computeIfAbsent(fileKey, k -> {
+                try (InputStream in = Files.newInputStream(jar)) {
+                    MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                    byte[] buffer = new byte[8192];
+                    for (int n = in.read(buffer); n != -1; n = in.read(buffer)) {
+                        digest.update(buffer, 0, n);
+                    }
+                    return hex(digest.digest());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } catch (NoSuchAlgorithmException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Path realPath(Path path) {
+        try {
+            return path.toRealPath();
+        } catch (IOException e) {
+            return path.toAbsolutePath().normalize();
+        }
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return hex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    /*
+     * Create a map of package names to types contained within that package. Type names are not fully qualified, except for type parameter bounds.
+     * e.g.: "java.util" -> [List, Date]
+     */
+    private static Map<String, List<String>> packagesToTypeDeclarations(Iterable<ClassInfo> classes) {
+        Map<String, List<String>> result = new HashMap<>();
+        for (ClassInfo classInfo : classes) {
+            // Skip private classes, allowing package-private
+            if (classInfo.isAnonymousInnerClass() || classInfo.isPrivate() || classInfo.isSynthetic() || classInfo.getName().contains(".enum.")) {
+                continue;
+            }
+            // Although the classfile says its bytecode version is 50 (within the range Java 8 supports),
+            // the Java 8 compiler says these class files from kotlin-reflect are invalid
+            // The error is severe enough that all subsequent stubs have missing type information, so exclude that package
+            if (classInfo.getPackageName().startsWith("kotlin.reflect.jvm.internal.impl.resolve.jvm")) {
+                continue;
+            }
+            String typeDeclaration = typeDeclarationFor(classInfo);
+            if (typeDeclaration == null) {
+                continue;
+            }
+            result.compute(classInfo.getPackageName(), (unused, acc) -> {
+                if (acc == null) {
+                    acc = new ArrayList<>();
+                }
+                acc.add(typeDeclaration);
+                return acc;
+            });
+        }
+        return result;
+    }
+
+    /**
+     * A declaration is the text you would use to declare the type parameters and return type a method.
+     * So the declarable name of "com.foo.Clazz" is "Clazz" since to declare a variable of that type would write "Clazz <name>"
+     * Java/Kotlin/Groovy all sometimes compile lambdas/closures to classes named things like "ClassThatUsesLambda$1".
+     * These types are not declarable.
+     *
+     * @return the name a variable of the class's type can be declared with, or null if a variable of the type cannot be declared
+     */
+    @Nullable
+    private static String typeDeclarationFor(ClassInfo classInfo) {
+        String name;
+        if (classInfo.isInnerClass()) {
+            // Java allows "$" in class names, and also uses "$" as part of the names of inner classes. e.g.: OuterClass$InnerClass
+            // So if you only look at the textual representation of a class name, you can't tell if "A$B" means "class A$B {}" or "class A { class B {}}"
+            // The declarable name of "class A$B {}" is "A$B"
+            // The declarable name of class B in "class A { class B {}}" is "A.B"
+            StringBuilder sb = new StringBuilder();
+            int classNameStartIndex = classInfo.getPackageName().length() == 0 ?
+                    0 :
+                    classInfo.getPackageName().length() + 1;
+            ClassInfoList outerClasses = classInfo.getOuterClasses();
+            // Classgraph orders this collection innermost -> outermost, but type names are declared outermost -> innermost
+            for (int i = outerClasses.size() - 1; i >= 0; i--) {
+                ClassInfo outerClass = outerClasses.get(i);
+                if (outerClass.isPrivate() || outerClass.isAnonymousInnerClass() || outerClass.isSynthetic()) {
+                    return null;
+                }
+                sb.append(outerClass.getName().substring(classNameStartIndex + sb.length())).append(".");
+            }
+            String nameFragment = classInfo.getName().substring(classNameStartIndex + sb.length());
+
+            if (isUndeclarable(nameFragment)) {
+                return null;
+            }
+            sb.append(nameFragment);
+            name = sb.toString();
+        } else {
+            name = classInfo.getPackageName().length() == 0 ?
+                    classInfo.getName() :
+                    classInfo.getName().substring(classInfo.getPackageName().length() + 1);
+            if (isUndeclarable(name)) {
+                return null;
+            }
+        }
+        ClassTypeSignature cts = classInfo.getTypeSignature();
+        if (cts == null) {
+            return name;
+        }
+        List<TypeParameter> typeParameters = cts.getTypeParameters();
+        if (typeParameters == null || typeParameters.isEmpty()) {
+            return name;
+        }
+        StringBuilder withTypeParams = new StringBuilder("<");
+        for (int i = 0; i < typeParameters.size(); i++) {
+            TypeParameter typeParameter = typeParameters.get(i);
+            StringBuilder bounds = new StringBuilder();
+            if (typeParameter.getClassBound() != null) {
+                String bound = typeParameter.getClassBound().toString();
+                if (!"java.lang.Object".equals(bound)) {
+                    bounds.append(bound);
+                }
+            } else if (typeParameter.getInterfaceBounds() != null) {
+                StringJoiner interfaceBounds = new StringJoiner(" & ");
+                for (ReferenceTypeSignature interfaceBound : typeParameter.getInterfaceBounds()) {
+                    interfaceBounds.add(interfaceBound.toString());
+                }
+                bounds.append(interfaceBounds);
+            }
+
+            if (bounds.length() == 0) {
+                withTypeParams.append(typeParameter.getName());
+            } else {
+                withTypeParams.append(typeParameter.getName()).append(" extends ").append(bounds);
+            }
+            if (i < typeParameters.size() - 1) {
+                withTypeParams.append(", ");
+            }
+        }
+        withTypeParams.append(">");
+        withTypeParams.append(" ");
+        withTypeParams.append(name);
+        withTypeParams.append("<");
+        for (int i = 0; i < typeParameters.size(); i++) {
+            TypeParameter typeParameter = typeParameters.get(i);
+            withTypeParams.append(typeParameter.getName());
+            if (i < typeParameters.size() - 1) {
+                withTypeParams.append(", ");
+            }
+        }
+        withTypeParams.append(">");
+        return withTypeParams.toString();
+    }
+
+    @SuppressWarnings("SpellCheckingInspection")
+    private static boolean isUndeclarable(String className) {
+        char firstChar = className.charAt(0);
+        return !Character.isJavaIdentifierPart(firstChar) || Character.isDigit(firstChar);
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.internal;
+
+import org.openrewrite.Incubating;
+
+import java.util.Arrays;
+
+/**
+ * The offset of the first character of each line of a source file, so that the line of a position can be found
+ * without scanning the source up to it.
+ */
+@Incubating(since = "7.23.0")
+public class LineOffsets {
+    private final int[] offsets;
+
+    public LineOffsets(String source) {
+        int lines = 1;
+        for (int i = 0; i < source.length(); i++) {
+            if (source.charAt(i) == '\n') {
+                lines++;
+            }
+        }
+        offsets = new int[lines];
+        for (int i = 0, line = 1; i < source.length(); i++) {
+            if (source.charAt(i) == '\n') {
+                offsets[line++] = i + 1;
+            }
+        }
+    }
+
+    /**
+     * @param position An offset into the source.
+     * @return The line of the position, starting from 1. A newline is on the line it ends.
+     */
+    public int lineNumber(int position) {
+        int line = Arrays.binarySearch(offsets, position);
+        return line >= 0 ? line + 1 : -line - 1;
+    }
+}
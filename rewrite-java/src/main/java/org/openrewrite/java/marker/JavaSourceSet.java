@@ -15,16 +15,15 @@
  */
 package org.openrewrite.java.marker;
 
-import io.github.classgraph.*;
 import lombok.EqualsAndHashCode;
 import lombok.Value;
 import lombok.With;
 import org.intellij.lang.annotations.Language;
 import org.openrewrite.ExecutionContext;
 import org.openrewrite.InMemoryExecutionContext;
-import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.java.JavaParser;
 import org.openrewrite.java.internal.JavaTypeCache;
+import org.openrewrite.java.internal.JavaTypeIndex;
 import org.openrewrite.java.tree.J;
 import org.openrewrite.java.tree.JavaType;
 import org.openrewrite.java.tree.Statement;
@@ -54,61 +53,26 @@ public class JavaSourceSet implements Marker {
      */
     public static JavaSourceSet build(String sourceSetName, Collection<Path> classpath,
                                       JavaTypeCache typeCache, boolean fullTypeInformation) {
-        List<JavaType.FullyQualified> types;
-        // Load JRE-provided types
-        try (ScanResult scanResult = new ClassGraph()
-                .enableClassInfo()
-                .enableSystemJarsAndModules()
-                .acceptPackages("java")
-                .ignoreClassVisibility()
-                .scan()) {
-            types = typesFrom(packagesToTypeDeclarations(scanResult), typeCache, Collections.emptyList(), fullTypeInformation);
-        }
-        if (classpath.iterator().hasNext()) {
-            // Load types from the classpath
-            try (ScanResult scanResult = new ClassGraph()
-                    .overrideClasspath(classpath)
-                    .enableMemoryMapping()
-                    .enableClassInfo()
-                    .ignoreClassVisibility()
-                    .scan()) {
-                types.addAll(typesFrom(packagesToTypeDeclarations(scanResult), typeCache, classpath, fullTypeInformation));
-            }
-        }
-
-        return new JavaSourceSet(randomId(), sourceSetName, types);
+        return build(sourceSetName, classpath, typeCache, JavaTypeIndex.getDefault(), fullTypeInformation);
     }
 
-    /*
-     * Create a map of package names to types contained within that package. Type names are not fully qualified, except for type parameter bounds.
-     * e.g.: "java.util" -> [List, Date]
+    /**
+     * Extract type information from the provided classpath.
+     *
+     * @param typeIndex           the type declarations of jars that have already been scanned.
+     * @param fullTypeInformation when false classpath will be filled with shallow types (effectively just fully-qualified names).
+     *                            when true a much more memory-intensive, time-consuming approach will extract full type information
      */
-    private static Map<String, List<String>> packagesToTypeDeclarations(ScanResult scanResult) {
-        Map<String, List<String>> result = new HashMap<>();
-        for (ClassInfo classInfo : scanResult.getAllClasses()) {
-            // Skip private classes, allowing package-private
-            if (classInfo.isAnonymousInnerClass() || classInfo.isPrivate() || classInfo.isSynthetic() || classInfo.getName().contains(".enum.")) {
-                continue;
-            }
-            // Although the classfile says its bytecode version is 50 (within the range Java 8 supports),
-            // the Java 8 compiler says these class files from kotlin-reflect are invalid
-            // The error is severe enough that all subsequent stubs have missing type information, so exclude that package
-            if (classInfo.getPackageName().startsWith("kotlin.reflect.jvm.internal.impl.resolve.jvm")) {
-                continue;
-            }
-            String typeDeclaration = typeDeclarationFor(classInfo);
-            if (typeDeclaration == null) {
-                continue;
-            }
-            result.compute(classInfo.getPackageName(), (unused, acc) -> {
-                if (acc == null) {
-                    acc = new ArrayList<>();
-                }
-                acc.add(typeDeclaration);
-                return acc;
-            });
+    public static JavaSourceSet build(String sourceSetName, Collection<Path> classpath,
+                                      JavaTypeCache typeCache, JavaTypeIndex typeIndex,
+                                      boolean fullTypeInformation) {
+        List<JavaType.FullyQualified> types = typesFrom(typeIndex.getJdkTypeDeclarations(), typeCache,
+                Collections.emptyList(), fullTypeInformation);
+        if (classpath.iterator().hasNext()) {
+            types.addAll(typesFrom(typeIndex.getTypeDeclarations(classpath), typeCache, classpath, fullTypeInformation));
         }
-        return result;
+
+        return new JavaSourceSet(randomId(), sourceSetName, types);
     }
 
     private static List<JavaType.FullyQualified> typesFrom(
@@ -174,103 +138,4 @@ public class JavaSourceSet implements Marker {
         }
         return result;
     }
-
-    /**
-     * A declaration is the text you would use to declare the type parameters and return type a method.
-     * So the declarable name of "com.foo.Clazz" is "Clazz" since to declare a variable of that type would write "Clazz <name>"
-     * Java/Kotlin/Groovy all sometimes compile lambdas/closures to classes named things like "ClassThatUsesLambda$1".
-     * These types are not declarable.
-     *
-     * @return the name a variable of the class's type can be declared with, or null if a variable of the type cannot be declared
-     */
-    @Nullable
-    private static String typeDeclarationFor(ClassInfo classInfo) {
-        String name;
-        if (classInfo.isInnerClass()) {
-            // Java allows "$" in class names, and also uses "$" as part of the names of inner classes. e.g.: OuterClass$InnerClass
-            // So if you only look at the textual representation of a class name, you can't tell if "A$B" means "class A$B {}" or "class A { class B {}}"
-            // The declarable name of "class A$B {}" is "A$B"
-            // The declarable name of class B in "class A { class B {}}" is "A.B"
-            StringBuilder sb = new StringBuilder();
-            int classNameStartIndex = classInfo.getPackageName().length() == 0 ?
-                    0 :
-                    classInfo.getPackageName().length() + 1;
-            ClassInfoList outerClasses = classInfo.getOuterClasses();
-            // Classgraph orders this collection innermost -> outermost, but type names are declared outermost -> innermost
-            for (int i = outerClasses.size() - 1; i >= 0; i--) {
-                ClassInfo outerClass = outerClasses.get(i);
-                if (outerClass.isPrivate() || outerClass.isAnonymousInnerClass() || outerClass.isSynthetic()) {
-                    return null;
-                }
-                sb.append(outerClass.getName().substring(classNameStartIndex + sb.length())).append(".");
-            }
-            String nameFragment = classInfo.getName().substring(classNameStartIndex + sb.length());
-
-            if (isUndeclarable(nameFragment)) {
-                return null;
-            }
-            sb.append(nameFragment);
-            name = sb.toString();
-        } else {
-            name = classInfo.getPackageName().length() == 0 ?
-                    classInfo.getName() :
-                    classInfo.getName().substring(classInfo.getPackageName().length() + 1);
-            if (isUndeclarable(name)) {
-                return null;
-            }
-        }
-        ClassTypeSignature cts = classInfo.getTypeSignature();
-        if (cts == null) {
-            return name;
-        }
-        List<TypeParameter> typeParameters = cts.getTypeParameters();
-        if (typeParameters == null || typeParameters.isEmpty()) {
-            return name;
-        }
-        StringBuilder withTypeParams = new StringBuilder("<");
-        for (int i = 0; i < typeParameters.size(); i++) {
-            TypeParameter typeParameter = typeParameters.get(i);
-            StringBuilder bounds = new StringBuilder();
-            if (typeParameter.getClassBound() != null) {
-                String bound = typeParameter.getClassBound().toString();
-                if (!"java.lang.Object".equals(bound)) {
-                    bounds.append(bound);
-                }
-            } else if (typeParameter.getInterfaceBounds() != null) {
-                StringJoiner interfaceBounds = new StringJoiner(" & ");
-                for (ReferenceTypeSignature interfaceBound : typeParameter.getInterfaceBounds()) {
-                    interfaceBounds.add(interfaceBound.toString());
-                }
-                bounds.append(interfaceBounds);
-            }
-
-            if (bounds.length() == 0) {
-                withTypeParams.append(typeParameter.getName());
-            } else {
-                withTypeParams.append(typeParameter.getName()).append(" extends ").append(bounds);
-            }
-            if (i < typeParameters.size() - 1) {
-                withTypeParams.append(", ");
-            }
-        }
-        withTypeParams.append(">");
-        withTypeParams.append(" ");
-        withTypeParams.append(name);
-        withTypeParams.append("<");
-        for (int i = 0; i < typeParameters.size(); i++) {
-            TypeParameter typeParameter = typeParameters.get(i);
-            withTypeParams.append(typeParameter.getName());
-            if (i < typeParameters.size() - 1) {
-                withTypeParams.append(", ");
-            }
-        }
-        withTypeParams.append(">");
-        return withTypeParams.toString();
-    }
-
-    @SuppressWarnings("SpellCheckingInspection")
-    private static boolean isUndeclarable(String className) {
-        char firstChar = className.charAt(0);
-        return !Character.isJavaIdentifierPart(firstChar) || Character.isDigit(firstChar);
-    }
 }
@@ -17,13 +17,12 @@ package org.openrewrite.java.tree;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import lombok.EqualsAndHashCode;
+import org.openrewrite.internal.Interner;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.marker.Markers;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.WeakHashMap;
 
 import static java.util.Collections.emptyList;
 
@@ -45,7 +44,7 @@ public class Space {
      * e.g.: a single space between keywords, or the common indentation of every line in a block.
      * So use flyweights to avoid storing many instances of functionally identical spaces
      */
-    private static final Map<String, Space> flyweights = new WeakHashMap<>();
+    private static final Interner<String, Space> flyweights = new Interner<>("java.space", 1 << 16);
 
     private Space(@Nullable String whitespace, List<Comment> comments) {
         this.comments = comments;
@@ -58,7 +57,7 @@ public class Space {
             if (whitespace == null || whitespace.isEmpty()) {
                 return Space.EMPTY;
             }
-            return flyweights.computeIfAbsent(whitespace, k -> new Space(whitespace, comments));
+            return flyweights.intern(whitespace, k -> new Space(k, emptyList()));
         }
         return new Space(whitespace, comments);
     }
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.internal
+
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatThrownBy
+import org.junit.jupiter.api.Test
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+
+class JavaTypeCacheTest {
+
+    @Test
+    fun hitsAndMisses() {
+        val typeCache = JavaTypeCache()
+        assertThat(typeCache.get<Any>("java.lang.String")).isNull()
+
+        val type = Any()
+        typeCache.put("java.lang.String", type)
+        assertThat(typeCache.get<Any>(StringBuilder("java.lang.").append("String").toString())).isSameAs(type)
+
+        assertThat(typeCache.hitCount).isEqualTo(1)
+        assertThat(typeCache.missCount).isEqualTo(1)
+        assertThat(typeCache.size()).isEqualTo(1)
+    }
+
+    @Test
+    fun evictsLeastRecentlyUsedWhenOverSize() {
+        val typeCache = JavaTypeCache(16 * 2, Long.MAX_VALUE)
+        for (i in 0 until 1000) {
+            typeCache.put("type$i", Any())
+        }
+
+        assertThat(typeCache.size()).isLessThanOrEqualTo(32)
+        assertThat(typeCache.evictionCount).isEqualTo(1000L - typeCache.size())
+        assertThat(typeCache.get<Any>("type999")).isNotNull
+    }
+
+    @Test
+    fun evictsWhenOverWeight() {
+        val typeCache = JavaTypeCache(Int.MAX_VALUE, 16 * 1024L)
+        for (i in 0 until 1000) {
+            typeCache.put("a".repeat(100) + i, Any())
+        }
+
+        assertThat(typeCache.weight).isLessThanOrEqualTo(16 * 1024L)
+        assertThat(typeCache.evictionCount).isGreaterThan(0)
+    }
+
+    @Test
+    fun sharedAcrossThreads() {
+        val typeCache = JavaTypeCache()
+        val executor = Executors.newFixedThreadPool(8)
+        try {
+            executor.invokeAll((0 until 8).map { t ->
+                Callable {
+                    for (i in 0 until 1000) {
+                        typeCache.put("type$t.$i", i)
+                    }
+                }
+            }).forEach { it.get() }
+
+            assertThat(typeCache.size()).isEqualTo(8000)
+            assertThat(typeCache.get<Int>("type7.999")).isEqualTo(999)
+        } finally {
+            executor.shutdown()
+        }
+    }
+
+    @Test
+    fun typesBeingMappedAreNotEvicted() {
+        val typeCache = JavaTypeCache(16, Long.MAX_VALUE)
+        val placeholder = Any()
+        typeCache.map {
+            typeCache.put("cyclic", placeholder)
+            for (i in 0 until 1000) {
+                typeCache.put("type$i", Any())
+            }
+            assertThat(typeCache.get<Any>("cyclic"))
+                .`as`("A type is not evicted while it may still be filled in")
+                .isSameAs(placeholder)
+        }
+
+        assertThat(typeCache.size()).isLessThanOrEqualTo(16)
+        assertThat(typeCache.evictionCount).isEqualTo(1001L - typeCache.size())
+    }
+
+    @Test
+    fun typesBeingMappedAreOnlySharedOnceComplete() {
+        val typeCache = JavaTypeCache()
+        val executor = Executors.newSingleThreadExecutor()
+        try {
+            val placeholder = Any()
+            typeCache.map {
+                typeCache.put("cyclic", placeholder)
+                assertThat(executor.submit(Callable { typeCache.get<Any>("cyclic") }).get()).isNull()
+            }
+            assertThat(executor.submit(Callable { typeCache.get<Any>("cyclic") }).get()).isSameAs(placeholder)
+
+            assertThatThrownBy {
+                typeCache.map<Any> {
+                    typeCache.put("failed", Any())
+                    throw IllegalStateException("boom")
+                }
+            }.isInstanceOf(IllegalStateException::class.java)
+            assertThat(typeCache.get<Any>("failed"))
+                .`as`("Types put by a failed mapping may never have been filled in")
+                .isNull()
+        } finally {
+            executor.shutdown()
+        }
+    }
+
+    @Test
+    fun firstPublishedTypeIsKept() {
+        val typeCache = JavaTypeCache()
+        val first = Any()
+
+        // as if two threads had mapped the same type at the same time
+        typeCache.map { typeCache.put("type", first) }
+        typeCache.map { typeCache.put("type", Any()) }
+
+        assertThat(typeCache.get<Any>("type")).isSameAs(first)
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.internal
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import org.openrewrite.java.JavaParser
+import java.nio.file.Files
+import java.nio.file.Path
+import kotlin.streams.toList
+
+class JavaTypeIndexTest {
+
+    @Test
+    fun jdkTypes() {
+        val declarations = JavaTypeIndex(null).jdkTypeDeclarations
+        assertThat(declarations["java.util"]).contains("<E> List<E>")
+    }
+
+    @Test
+    fun persistsIndexOfEachJar(@TempDir cacheDir: Path) {
+        val jar = JavaParser.runtimeClasspath().first { it.toString().endsWith(".jar") }
+
+        val scanned = JavaTypeIndex(cacheDir).getTypeDeclarations(listOf(jar))
+        assertThat(scanned).isNotEmpty
+        assertThat(Files.list(cacheDir).use { it.toList() }).hasSize(1)
+
+        val read = JavaTypeIndex(cacheDir).getTypeDeclarations(listOf(jar))
+        assertThat(read).isEqualTo(scanned)
+    }
+
+    @Test
+    fun removesTemporaryFileWhenIndexCannotBeWritten(@TempDir cacheDir: Path) {
+        val jar = JavaParser.runtimeClasspath().first { it.toString().endsWith(".jar") }
+        JavaTypeIndex(cacheDir).getTypeDeclarations(listOf(jar))
+
+        // a non-empty directory in place of the index can't be replaced by the move
+        val index = Files.list(cacheDir).use { it.toList() }.single()
+        Files.delete(index)
+        Files.createDirectories(index.resolve("blocked"))
+
+        assertThat(JavaTypeIndex(cacheDir).getTypeDeclarations(listOf(jar))).isNotEmpty
+        assertThat(Files.list(cacheDir).use { it.toList() }).containsExactly(index)
+    }
+}
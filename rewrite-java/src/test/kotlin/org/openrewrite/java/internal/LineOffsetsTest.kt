@@ -0,0 +1,61 @@
+/*
+ * Copyright 2022 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.internal
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+
+class LineOffsetsTest {
+    private val source = "class A {\n    int n;\n\n}"
+    private val lineOffsets = LineOffsets(source)
+
+    /**
+     * The line of each position as the number of newlines before it, plus one.
+     */
+    private fun expectedLineNumber(position: Int) = source.substring(0, position).count { it == '\n' } + 1
+
+    @Test
+    fun firstLine() {
+        assertThat(lineOffsets.lineNumber(0)).isEqualTo(1)
+        assertThat(lineOffsets.lineNumber(source.indexOf('{'))).isEqualTo(1)
+    }
+
+    @Test
+    fun lastLine() {
+        assertThat(lineOffsets.lineNumber(source.lastIndexOf('}'))).isEqualTo(4)
+        assertThat(lineOffsets.lineNumber(source.length)).isEqualTo(4)
+    }
+
+    @Test
+    fun positionAtNewline() {
+        assertThat(lineOffsets.lineNumber(source.indexOf('\n'))).isEqualTo(1)
+        assertThat(lineOffsets.lineNumber(source.indexOf('\n') + 1)).isEqualTo(2)
+        // the empty third line is just its newline
+        assertThat(lineOffsets.lineNumber(source.lastIndexOf('\n'))).isEqualTo(3)
+    }
+
+    @Test
+    fun everyPosition() {
+        for (position in 0..source.length) {
+            assertThat(lineOffsets.lineNumber(position)).`as`("position $position").isEqualTo(expectedLineNumber(position))
+        }
+    }
+
+    @Test
+    fun emptySource() {
+        assertThat(LineOffsets("").lineNumber(0)).isEqualTo(1)
+    }
+}
@@ -23,7 +23,6 @@ import org.openrewrite.ExecutionContext;
 import org.openrewrite.InMemoryExecutionContext;
 import org.openrewrite.Parser;
 import org.openrewrite.internal.MetricsHelper;
-import org.openrewrite.internal.StringUtils;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.json.internal.JsonParserVisitor;
 import org.openrewrite.json.internal.grammar.JSON5Lexer;
@@ -32,7 +31,6 @@ import org.openrewrite.json.tree.Json;
 import org.openrewrite.tree.ParsingEventListener;
 import org.openrewrite.tree.ParsingExecutionContextView;
 
-import java.io.InputStream;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Objects;
@@ -49,16 +47,17 @@ public class JsonParser implements Parser<Json.Document> {
                             .description("The time spent parsing an Json file")
                             .tag("file.type", "Json");
                     Timer.Sample sample = Timer.start();
-                    try (InputStream sourceStream = sourceFile.getSource()) {
+                    try {
+                        String source = sourceFile.getContent().getText();
                         JSON5Parser parser = new JSON5Parser(new CommonTokenStream(new JSON5Lexer(
-                                CharStreams.fromStream(sourceStream))));
+                                CharStreams.fromString(source))));
 
                         parser.removeErrorListeners();
                         parser.addErrorListener(new ForwardingErrorListener(sourceFile.getPath(), ctx));
 
                         Json.Document document = new JsonParserVisitor(
                                 sourceFile.getRelativePath(relativeTo),
-                                StringUtils.readFully(sourceFile.getSource())
+                                source
                         ).visitJson5(parser.json5());
                         sample.stop(MetricsHelper.successTags(timer).register(Metrics.globalRegistry));
                         parsingListener.parsed(sourceFile, document);
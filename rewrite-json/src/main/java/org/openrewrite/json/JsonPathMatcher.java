@@ -48,14 +48,16 @@ public class JsonPathMatcher {
     }
 
     public <T> Optional<T> find(Cursor cursor) {
-        LinkedList<Tree> cursorPath = cursor.getPathAsStream()
-                .filter(o -> o instanceof Tree)
-                .map(Tree.class::cast)
-                .collect(Collectors.toCollection(LinkedList::new));
+        // outermost tree first
+        LinkedList<Tree> cursorPath = new LinkedList<>();
+        for (Cursor c = cursor; c != null; c = c.getParent()) {
+            if (c.getValue() instanceof Tree) {
+                cursorPath.addFirst(c.getValue());
+            }
+        }
         if (cursorPath.isEmpty()) {
             return Optional.empty();
         }
-        Collections.reverse(cursorPath);
 
         Tree start;
         if (jsonPath.startsWith(".") && !jsonPath.startsWith("..")) {
@@ -72,7 +74,10 @@ public class JsonPathMatcher {
     }
 
     public boolean matches(Cursor cursor) {
-        List<Object> cursorPath = cursor.getPathAsStream().collect(Collectors.toList());
+        List<Object> cursorPath = new ArrayList<>();
+        for (Cursor c = cursor; c != null; c = c.getParent()) {
+            cursorPath.add(c.getValue());
+        }
         return find(cursor).map(o -> {
             if (o instanceof List) {
                 //noinspection unchecked
@@ -15,7 +15,6 @@
  */
 package org.openrewrite.json;
 
-import org.openrewrite.Cursor;
 import org.openrewrite.SourceFile;
 import org.openrewrite.TreeVisitor;
 import org.openrewrite.internal.ListUtils;
@@ -102,7 +101,7 @@ public class JsonVisitor<P> extends TreeVisitor<Json, P> {
             return null;
         }
 
-        setCursor(new Cursor(getCursor(), right));
+        pushCursor(right);
 
         T t = right.getElement();
         if (t instanceof Json) {
@@ -110,7 +109,7 @@ public class JsonVisitor<P> extends TreeVisitor<Json, P> {
             t = (T) visit((Json) right.getElement(), p);
         }
 
-        setCursor(getCursor().getParent());
+        popCursor();
         if (t == null) {
             //noinspection ConstantConditions
             return null;
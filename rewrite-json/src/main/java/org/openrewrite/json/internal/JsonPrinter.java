@@ -32,9 +32,9 @@ public class JsonPrinter<P> extends JsonVisitor<PrintOutputCapture<P>> {
     public Json visitArray(Json.Array array, PrintOutputCapture<P> p) {
         visitSpace(array.getPrefix(), p);
         visitMarkers(array.getMarkers(), p);
-        p.out.append('[');
+        p.append('[');
         visitRightPadded(array.getPadding().getValues(), ",", p);
-        p.out.append(']');
+        p.append(']');
         return array;
     }
 
@@ -58,7 +58,7 @@ public class JsonPrinter<P> extends JsonVisitor<PrintOutputCapture<P>> {
     public Json visitIdentifier(Json.Identifier ident, PrintOutputCapture<P> p) {
         visitSpace(ident.getPrefix(), p);
         visitMarkers(ident.getMarkers(), p);
-        p.out.append(ident.getName());
+        p.append(ident.getName());
         return ident;
     }
 
@@ -66,7 +66,7 @@ public class JsonPrinter<P> extends JsonVisitor<PrintOutputCapture<P>> {
     public Json visitLiteral(Json.Literal literal, PrintOutputCapture<P> p) {
         visitSpace(literal.getPrefix(), p);
         visitMarkers(literal.getMarkers(), p);
-        p.out.append(literal.getSource());
+        p.append(literal.getSource());
         return literal;
     }
 
@@ -75,7 +75,7 @@ public class JsonPrinter<P> extends JsonVisitor<PrintOutputCapture<P>> {
         visitSpace(member.getPrefix(), p);
         visitMarkers(member.getMarkers(), p);
         visitRightPadded(member.getPadding().getKey(), p);
-        p.out.append(':');
+        p.append(':');
         visit(member.getValue(), p);
         return member;
     }
@@ -84,23 +84,23 @@ public class JsonPrinter<P> extends JsonVisitor<PrintOutputCapture<P>> {
     public Json visitObject(Json.JsonObject obj, PrintOutputCapture<P> p) {
         visitSpace(obj.getPrefix(), p);
         visitMarkers(obj.getMarkers(), p);
-        p.out.append('{');
+        p.append('{');
         visitRightPadded(obj.getPadding().getMembers(), ",", p);
-        p.out.append('}');
+        p.append('}');
         return obj;
     }
 
     public Space visitSpace(Space space, PrintOutputCapture<P> p) {
-        p.out.append(space.getWhitespace());
+        p.append(space.getWhitespace());
 
         for (Comment comment : space.getComments()) {
             visitMarkers(comment.getMarkers(), p);
             if (comment.isMultiline()) {
-                p.out.append("/*").append(comment.getText()).append("*/");
+                p.append("/*").append(comment.getText()).append("*/");
             } else {
-                p.out.append("//").append(comment.getText());
+                p.append("//").append(comment.getText());
             }
-            p.out.append(comment.getSuffix());
+            p.append(comment.getSuffix());
         }
         return space;
     }
@@ -111,7 +111,7 @@ public class JsonPrinter<P> extends JsonVisitor<PrintOutputCapture<P>> {
             visit(node.getElement(), p);
             visitSpace(node.getAfter(), p);
             if (i < nodes.size() - 1) {
-                p.out.append(suffixBetween);
+                p.append(suffixBetween);
             }
         }
     }
@@ -120,7 +120,7 @@ public class JsonPrinter<P> extends JsonVisitor<PrintOutputCapture<P>> {
     public <M extends Marker> M visitMarker(Marker marker, PrintOutputCapture<P> p) {
         if(marker instanceof SearchResult) {
             String description = ((SearchResult) marker).getDescription();
-            p.out.append("/*~~")
+            p.append("/*~~")
                     .append(description == null ? "" : "(" + description + ")~~")
                     .append(">*/");
         }
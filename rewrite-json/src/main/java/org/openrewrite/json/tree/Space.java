@@ -19,13 +19,12 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import lombok.EqualsAndHashCode;
+import org.openrewrite.internal.Interner;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.marker.Markers;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.WeakHashMap;
 
 import static java.util.Collections.emptyList;
 
@@ -48,7 +47,7 @@ public class Space {
      * e.g.: a single space between keywords, or the common indentation of every line in a block.
      * So use flyweights to avoid storing many instances of functionally identical spaces
      */
-    private static final Map<String, Space> flyweights = new WeakHashMap<>();
+    private static final Interner<String, Space> flyweights = new Interner<>("json.space", 1 << 16);
 
     private Space(@Nullable String whitespace, List<Comment> comments) {
         this.comments = comments;
@@ -61,7 +60,7 @@ public class Space {
             if (whitespace == null || whitespace.isEmpty()) {
                 return Space.EMPTY;
             }
-            return flyweights.computeIfAbsent(whitespace, k -> new Space(whitespace, comments));
+            return flyweights.intern(whitespace, k -> new Space(k, emptyList()));
         }
         return new Space(whitespace, comments);
     }
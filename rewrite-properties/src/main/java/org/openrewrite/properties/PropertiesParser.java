@@ -28,9 +28,7 @@ import org.openrewrite.properties.tree.Properties;
 import org.openrewrite.tree.ParsingEventListener;
 import org.openrewrite.tree.ParsingExecutionContextView;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
@@ -54,8 +52,9 @@ public class PropertiesParser implements Parser<Properties.File> {
                             .description("The time spent parsing a properties file")
                             .tag("file.type", "Properties");
                     Timer.Sample sample = Timer.start();
-                    try (InputStream is = sourceFile.getSource()) {
-                        Properties.File file = parseFromInput(sourceFile.getRelativePath(relativeTo), is);
+                    try {
+                        Properties.File file = parseFromInput(sourceFile.getRelativePath(relativeTo),
+                                sourceFile.getContent().getBytes());
                         sample.stop(MetricsHelper.successTags(timer).register(Metrics.globalRegistry));
                         parsingListener.parsed(sourceFile, file);
                         return file;
@@ -69,32 +68,27 @@ public class PropertiesParser implements Parser<Properties.File> {
                 .collect(toList());
     }
 
-    private Properties.File parseFromInput(Path sourceFile, InputStream source) {
+    private Properties.File parseFromInput(Path sourceFile, ByteBuffer source) {
         List<Properties.Content> contents = new ArrayList<>();
 
         StringBuilder prefix = new StringBuilder();
         StringBuilder buff = new StringBuilder();
-        int b;
-        try {
-            while ((b = source.read()) != -1) {
-                char c = (char) b;
-                if (c == '\n') {
-                    Properties.Content content = extractContent(buff.toString(), prefix);
-                    if (content != null) {
-                        contents.add(content);
-                    }
-                    buff = new StringBuilder();
-                    prefix.append(c);
-                } else {
-                    buff.append(c);
+        while (source.hasRemaining()) {
+            char c = (char) (source.get() & 0xFF);
+            if (c == '\n') {
+                Properties.Content content = extractContent(buff.toString(), prefix);
+                if (content != null) {
+                    contents.add(content);
                 }
+                buff = new StringBuilder();
+                prefix.append(c);
+            } else {
+                buff.append(c);
             }
-            Properties.Content content = extractContent(buff.toString(), prefix);
-            if (content != null) {
-                contents.add(content);
-            }
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
+        }
+        Properties.Content content = extractContent(buff.toString(), prefix);
+        if (content != null) {
+            contents.add(content);
         }
 
         return new Properties.File(
@@ -25,31 +25,31 @@ public class PropertiesPrinter<P> extends PropertiesVisitor<PrintOutputCapture<P
 
     @Override
     public Properties visitFile(Properties.File file, PrintOutputCapture<P> p) {
-        p.out.append(file.getPrefix());
+        p.append(file.getPrefix());
         visitMarkers(file.getMarkers(), p);
         visit(file.getContent(), p);
-        p.out.append(file.getEof());
+        p.append(file.getEof());
         return file;
     }
 
     @Override
     public Properties visitEntry(Properties.Entry entry, PrintOutputCapture<P> p) {
-        p.out.append(entry.getPrefix());
+        p.append(entry.getPrefix());
         visitMarkers(entry.getMarkers(), p);
-        p.out.append(entry.getKey())
+        p.append(entry.getKey())
                 .append(entry.getBeforeEquals())
                 .append('=')
                 .append(entry.getValue().getPrefix());
         visitMarkers(entry.getValue().getMarkers(), p);
-        p.out.append(entry.getValue().getText());
+        p.append(entry.getValue().getText());
         return entry;
     }
 
     @Override
     public Properties visitComment(Properties.Comment comment, PrintOutputCapture<P> p) {
-        p.out.append(comment.getPrefix());
+        p.append(comment.getPrefix());
         visitMarkers(comment.getMarkers(), p);
-        p.out.append('#')
+        p.append('#')
                 .append(comment.getMessage());
         return comment;
     }
@@ -58,7 +58,7 @@ public class PropertiesPrinter<P> extends PropertiesVisitor<PrintOutputCapture<P
     public <M extends Marker> M visitMarker(Marker marker, PrintOutputCapture<P> p) {
         if (marker instanceof SearchResult) {
             String description = ((SearchResult) marker).getDescription();
-            p.out.append("~~")
+            p.append("~~")
                     .append(description == null ? "" : "(" + description + ")~~")
                     .append(">");
         }
@@ -23,7 +23,6 @@ import org.openrewrite.ExecutionContext;
 import org.openrewrite.InMemoryExecutionContext;
 import org.openrewrite.Parser;
 import org.openrewrite.internal.MetricsHelper;
-import org.openrewrite.internal.StringUtils;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.protobuf.internal.ProtoParserVisitor;
 import org.openrewrite.protobuf.internal.grammar.Protobuf2Lexer;
@@ -32,7 +31,6 @@ import org.openrewrite.protobuf.tree.Proto;
 import org.openrewrite.tree.ParsingEventListener;
 import org.openrewrite.tree.ParsingExecutionContextView;
 
-import java.io.InputStream;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Objects;
@@ -49,18 +47,18 @@ public class ProtoParser implements Parser<Proto.Document> {
                             .description("The time spent parsing a Protobuf file")
                             .tag("file.type", "Proto");
                     Timer.Sample sample = Timer.start();
-                    try (InputStream sourceStream = sourceFile.getSource()) {
+                    try {
+                        String source = sourceFile.getContent().getText();
+                        if (source.contains("proto3")) {
+                            return null;
+                        }
+
                         Protobuf2Parser parser = new Protobuf2Parser(new CommonTokenStream(new Protobuf2Lexer(
-                                CharStreams.fromStream(sourceStream))));
+                                CharStreams.fromString(source))));
 
                         parser.removeErrorListeners();
                         parser.addErrorListener(new ForwardingErrorListener(sourceFile.getPath(), ctx));
 
-                        String source = StringUtils.readFully(sourceFile.getSource());
-                        if (source.contains("proto3")) {
-                            return null;
-                        }
-
                         Proto.Document document = new ProtoParserVisitor(
                                 sourceFile.getRelativePath(relativeTo),
                                 source
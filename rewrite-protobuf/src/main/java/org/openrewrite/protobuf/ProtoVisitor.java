@@ -15,7 +15,6 @@
  */
 package org.openrewrite.protobuf;
 
-import org.openrewrite.Cursor;
 import org.openrewrite.TreeVisitor;
 import org.openrewrite.internal.ListUtils;
 import org.openrewrite.internal.lang.Nullable;
@@ -272,12 +271,12 @@ public class ProtoVisitor<P> extends TreeVisitor<Proto, P> {
             return null;
         }
 
-        setCursor(new Cursor(getCursor(), container));
+        pushCursor(container);
 
         Space before = visitSpace(container.getBefore(), p);
         List<ProtoRightPadded<P2>> ps = ListUtils.map(container.getPadding().getElements(), t -> visitRightPadded(t, p));
 
-        setCursor(getCursor().getParent());
+        popCursor();
 
         return ps == container.getPadding().getElements() && before == container.getBefore() ?
                 container :
@@ -285,7 +284,7 @@ public class ProtoVisitor<P> extends TreeVisitor<Proto, P> {
     }
 
     public <T> ProtoLeftPadded<T> visitLeftPadded(ProtoLeftPadded<T> left, P p) {
-        setCursor(new Cursor(getCursor(), left));
+        pushCursor(left);
 
         Space before = visitSpace(left.getBefore(), p);
         T t = left.getElement();
@@ -295,7 +294,7 @@ public class ProtoVisitor<P> extends TreeVisitor<Proto, P> {
             t = visitAndCast((Proto) left.getElement(), p);
         }
 
-        setCursor(getCursor().getParent());
+        popCursor();
         if (t == null) {
             //noinspection ConstantConditions
             return null;
@@ -311,7 +310,7 @@ public class ProtoVisitor<P> extends TreeVisitor<Proto, P> {
             return null;
         }
 
-        setCursor(new Cursor(getCursor(), right));
+        pushCursor(right);
 
         T t = right.getElement();
         if (t instanceof Proto) {
@@ -319,7 +318,7 @@ public class ProtoVisitor<P> extends TreeVisitor<Proto, P> {
             t = (T) visit((Proto) right.getElement(), p);
         }
 
-        setCursor(getCursor().getParent());
+        popCursor();
         if (t == null) {
             //noinspection ConstantConditions
             return null;
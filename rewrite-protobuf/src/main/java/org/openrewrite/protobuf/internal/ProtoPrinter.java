@@ -30,10 +30,10 @@ public class ProtoPrinter<P> extends ProtoVisitor<PrintOutputCapture<P>> {
     public Proto visitBlock(Proto.Block block, PrintOutputCapture<P> p) {
         visitSpace(block.getPrefix(), p);
         visitMarkers(block.getMarkers(), p);
-        p.out.append('{');
+        p.append('{');
         visitStatements(block.getPadding().getStatements(), p);
         visitSpace(block.getEnd(), p);
-        p.out.append('}');
+        p.append('}');
         return block;
     }
 
@@ -41,7 +41,7 @@ public class ProtoPrinter<P> extends ProtoVisitor<PrintOutputCapture<P>> {
     public Proto visitConstant(Proto.Constant constant, PrintOutputCapture<P> p) {
         visitSpace(constant.getPrefix(), p);
         visitMarkers(constant.getMarkers(), p);
-        p.out.append(constant.getValueSource());
+        p.append(constant.getValueSource());
         return constant;
     }
 
@@ -66,7 +66,7 @@ public class ProtoPrinter<P> extends ProtoVisitor<PrintOutputCapture<P>> {
     public Proto visitEnum(Proto.Enum anEnum, PrintOutputCapture<P> p) {
         visitSpace(anEnum.getPrefix(), p);
         visitMarkers(anEnum.getMarkers(), p);
-        p.out.append("enum");
+        p.append("enum");
         visit(anEnum.getName(), p);
         visit(anEnum.getBody(), p);
         return anEnum;
@@ -77,7 +77,7 @@ public class ProtoPrinter<P> extends ProtoVisitor<PrintOutputCapture<P>> {
         visitSpace(enumField.getPrefix(), p);
         visitMarkers(enumField.getMarkers(), p);
         visitRightPadded(enumField.getPadding().getName(), p);
-        p.out.append('=');
+        p.append('=');
         visit(enumField.getNumber(), p);
         visitContainer("[", enumField.getPadding().getOptions(), ",", "]", p);
         return enumField;
@@ -87,7 +87,7 @@ public class ProtoPrinter<P> extends ProtoVisitor<PrintOutputCapture<P>> {
     public Proto visitExtend(Proto.Extend extend, PrintOutputCapture<P> p) {
         visitSpace(extend.getPrefix(), p);
         visitMarkers(extend.getMarkers(), p);
-        p.out.append("extend");
+        p.append("extend");
         visitFullIdentifier(extend.getName(), p);
         visitBlock(extend.getBody(), p);
         return extend;
@@ -97,9 +97,9 @@ public class ProtoPrinter<P> extends ProtoVisitor<PrintOutputCapture<P>> {
     public Proto visitExtensionName(Proto.ExtensionName extensionName, PrintOutputCapture<P> p) {
         visitSpace(extensionName.getPrefix(), p);
         visitMarkers(extensionName.getMarkers(), p);
-        p.out.append('(');
+        p.append('(');
         visitRightPadded(extensionName.getPadding().getExtension(), p);
-        p.out.append(')');
+        p.append(')');
         return extensionName;
     }
 
@@ -110,7 +110,7 @@ public class ProtoPrinter<P> extends ProtoVisitor<PrintOutputCapture<P>> {
         visit(field.getLabel(), p);
         visit(field.getType(), p);
         visitRightPadded(field.getPadding().getName(), p);
-        p.out.append('=');
+        p.append('=');
         visit(field.getNumber(), p);
         visitContainer("[", field.getPadding().getOptions(), ",", "]", p);
         return field;
@@ -122,7 +122,7 @@ public class ProtoPrinter<P> extends ProtoVisitor<PrintOutputCapture<P>> {
         visitMarkers(identifier.getMarkers(), p);
         visitRightPadded(identifier.getPadding().getTarget(), p);
         if (identifier.getTarget() != null) {
-            p.out.append('.');
+            p.append('.');
         }
         visit(identifier.getName(), p);
         return identifier;
@@ -132,7 +132,7 @@ public class ProtoPrinter<P> extends ProtoVisitor<PrintOutputCapture<P>> {
     public Proto visitIdentifier(Proto.Identifier identifier, PrintOutputCapture<P> p) {
         visitSpace(identifier.getPrefix(), p);
         visitMarkers(identifier.getMarkers(), p);
-        p.out.append(identifier.getName());
+        p.append(identifier.getName());
         return identifier;
     }
 
@@ -140,7 +140,7 @@ public class ProtoPrinter<P> extends ProtoVisitor<PrintOutputCapture<P>> {
     public Proto visitImport(Proto.Import anImport, PrintOutputCapture<P> p) {
         visitSpace(anImport.getPrefix(), p);
         visitMarkers(anImport.getMarkers(), p);
-        p.out.append("import");
+        p.append("import");
         visit(anImport.getModifier(), p);
         visitRightPadded(anImport.getPadding().getName(), p);
         return anImport;
@@ -150,7 +150,7 @@ public class ProtoPrinter<P> extends ProtoVisitor<PrintOutputCapture<P>> {
     public Proto visitKeyword(Proto.Keyword keyword, PrintOutputCapture<P> p) {
         visitSpace(keyword.getPrefix(), p);
         visitMarkers(keyword.getMarkers(), p);
-        p.out.append(keyword.getKeyword());
+        p.append(keyword.getKeyword());
         return keyword;
     }
 
@@ -158,15 +158,15 @@ public class ProtoPrinter<P> extends ProtoVisitor<PrintOutputCapture<P>> {
     public Proto visitMapField(Proto.MapField mapField, PrintOutputCapture<P> p) {
         visitSpace(mapField.getPrefix(), p);
         visitMarkers(mapField.getMarkers(), p);
-        p.out.append("map");
+        p.append("map");
         visitSpace(mapField.getPadding().getMap().getAfter(), p);
-        p.out.append('<');
+        p.append('<');
         visitRightPadded(mapField.getPadding().getKeyType(), p);
-        p.out.append(',');
+        p.append(',');
         visitRightPadded(mapField.getPadding().getValueType(), p);
-        p.out.append('>');
+        p.append('>');
         visitRightPadded(mapField.getPadding().getName(), p);
-        p.out.append('=');
+        p.append('=');
         visit(mapField.getNumber(), p);
         visitContainer("[", mapField.getPadding().getOptions(), ",", "]", p);
         return mapField;
@@ -176,7 +176,7 @@ public class ProtoPrinter<P> extends ProtoVisitor<PrintOutputCapture<P>> {
     public Proto visitMessage(Proto.Message message, PrintOutputCapture<P> p) {
         visitSpace(message.getPrefix(), p);
         visitMarkers(message.getMarkers(), p);
-        p.out.append("message");
+        p.append("message");
         visit(message.getName(), p);
         visit(message.getBody(), p);
         return message;
@@ -186,7 +186,7 @@ public class ProtoPrinter<P> extends ProtoVisitor<PrintOutputCapture<P>> {
     public Proto visitOneOf(Proto.OneOf oneOf, PrintOutputCapture<P> p) {
         visitSpace(oneOf.getPrefix(), p);
         visitMarkers(oneOf.getMarkers(), p);
-        p.out.append("oneof");
+        p.append("oneof");
         visit(oneOf.getName(), p);
         visit(oneOf.getFields(), p);
         return oneOf;
@@ -197,7 +197,7 @@ public class ProtoPrinter<P> extends ProtoVisitor<PrintOutputCapture<P>> {
         visitSpace(option.getPrefix(), p);
         visitMarkers(option.getMarkers(), p);
         visitRightPadded(option.getPadding().getName(), p);
-        p.out.append('=');
+        p.append('=');
         visit(option.getAssignment(), p);
         return option;
     }
@@ -206,9 +206,9 @@ public class ProtoPrinter<P> extends ProtoVisitor<PrintOutputCapture<P>> {
     public Proto visitOptionDeclaration(Proto.OptionDeclaration optionDeclaration, PrintOutputCapture<P> p) {
         visitSpace(optionDeclaration.getPrefix(), p);
         visitMarkers(optionDeclaration.getMarkers(), p);
-        p.out.append("option");
+        p.append("option");
         visitRightPadded(optionDeclaration.getPadding().getName(), p);
-        p.out.append('=');
+        p.append('=');
         visit(optionDeclaration.getAssignment(), p);
         return optionDeclaration;
     }
@@ -217,7 +217,7 @@ public class ProtoPrinter<P> extends ProtoVisitor<PrintOutputCapture<P>> {
     public Proto visitPackage(Proto.Package aPackage, PrintOutputCapture<P> p) {
         visitSpace(aPackage.getPrefix(), p);
         visitMarkers(aPackage.getMarkers(), p);
-        p.out.append("package");
+        p.append("package");
         visit(aPackage.getName(), p);
         return aPackage;
     }
@@ -226,7 +226,7 @@ public class ProtoPrinter<P> extends ProtoVisitor<PrintOutputCapture<P>> {
     public Proto visitPrimitive(Proto.Primitive primitive, PrintOutputCapture<P> p) {
         visitSpace(primitive.getPrefix(), p);
         visitMarkers(primitive.getMarkers(), p);
-        p.out.append(primitive.getType().toString().toLowerCase());
+        p.append(primitive.getType().toString().toLowerCase());
         return primitive;
     }
 
@@ -235,7 +235,7 @@ public class ProtoPrinter<P> extends ProtoVisitor<PrintOutputCapture<P>> {
         visitSpace(range.getPrefix(), p);
         visitMarkers(range.getMarkers(), p);
         visitRightPadded(range.getPadding().getFrom(), p);
-        p.out.append("to");
+        p.append("to");
         visit(range.getTo(), p);
         return range;
     }
@@ -244,7 +244,7 @@ public class ProtoPrinter<P> extends ProtoVisitor<PrintOutputCapture<P>> {
     public Proto visitReserved(Proto.Reserved reserved, PrintOutputCapture<P> p) {
         visitSpace(reserved.getPrefix(), p);
         visitMarkers(reserved.getMarkers(), p);
-        p.out.append("reserved");
+        p.append("reserved");
         visitContainer("", reserved.getPadding().getReservations(), ",", "", p);
         return reserved;
     }
@@ -253,7 +253,7 @@ public class ProtoPrinter<P> extends ProtoVisitor<PrintOutputCapture<P>> {
     public Proto visitRpc(Proto.Rpc rpc, PrintOutputCapture<P> p) {
         visitSpace(rpc.getPrefix(), p);
         visitMarkers(rpc.getMarkers(), p);
-        p.out.append("rpc");
+        p.append("rpc");
         visit(rpc.getName(), p);
         visit(rpc.getRequest(), p);
         visit(rpc.getReturns(), p);
@@ -266,13 +266,13 @@ public class ProtoPrinter<P> extends ProtoVisitor<PrintOutputCapture<P>> {
     public Proto visitRpcInOut(Proto.RpcInOut rpcInOut, PrintOutputCapture<P> p) {
         visitSpace(rpcInOut.getPrefix(), p);
         visitMarkers(rpcInOut.getMarkers(), p);
-        p.out.append('(');
+        p.append('(');
         if (rpcInOut.getStream() != null) {
             visitSpace(rpcInOut.getStream().getPrefix(), p);
-            p.out.append("stream");
+            p.append("stream");
         }
         visitRightPadded(rpcInOut.getPadding().getType(), p);
-        p.out.append(')');
+        p.append(')');
         return rpcInOut;
     }
 
@@ -280,7 +280,7 @@ public class ProtoPrinter<P> extends ProtoVisitor<PrintOutputCapture<P>> {
     public Proto visitService(Proto.Service service, PrintOutputCapture<P> p) {
         visitSpace(service.getPrefix(), p);
         visitMarkers(service.getMarkers(), p);
-        p.out.append("service");
+        p.append("service");
         visit(service.getName(), p);
         visit(service.getBody(), p);
         return service;
@@ -290,9 +290,9 @@ public class ProtoPrinter<P> extends ProtoVisitor<PrintOutputCapture<P>> {
     public Proto visitStringLiteral(Proto.StringLiteral stringLiteral, PrintOutputCapture<P> p) {
         visitSpace(stringLiteral.getPrefix(), p);
         visitMarkers(stringLiteral.getMarkers(), p);
-        p.out.append(stringLiteral.isSingleQuote() ? '\'' : '"');
-        p.out.append(stringLiteral.getLiteral());
-        p.out.append(stringLiteral.isSingleQuote() ? '\'' : '"');
+        p.append(stringLiteral.isSingleQuote() ? '\'' : '"');
+        p.append(stringLiteral.getLiteral());
+        p.append(stringLiteral.isSingleQuote() ? '\'' : '"');
         return stringLiteral;
     }
 
@@ -300,24 +300,24 @@ public class ProtoPrinter<P> extends ProtoVisitor<PrintOutputCapture<P>> {
     public Proto visitSyntax(Proto.Syntax syntax, PrintOutputCapture<P> p) {
         visitSpace(syntax.getPrefix(), p);
         visitMarkers(syntax.getMarkers(), p);
-        p.out.append("syntax");
+        p.append("syntax");
         visitSpace(syntax.getKeywordSuffix(), p);
-        p.out.append('=');
+        p.append('=');
         visitRightPadded(syntax.getPadding().getLevel(), p);
-        p.out.append(';');
+        p.append(';');
         return syntax;
     }
 
     public Space visitSpace(Space space, PrintOutputCapture<P> p) {
-        p.out.append(space.getWhitespace());
+        p.append(space.getWhitespace());
         for (Comment comment : space.getComments()) {
             visitMarkers(comment.getMarkers(), p);
             if (comment.isMultiline()) {
-                p.out.append("/*").append(comment.getText()).append("*/");
+                p.append("/*").append(comment.getText()).append("*/");
             } else {
-                p.out.append("//").append(comment.getText());
+                p.append("//").append(comment.getText());
             }
-            p.out.append(comment.getSuffix());
+            p.append(comment.getSuffix());
         }
         return space;
     }
@@ -337,7 +337,7 @@ public class ProtoPrinter<P> extends ProtoVisitor<PrintOutputCapture<P>> {
         if (leftPadded != null) {
             visitSpace(leftPadded.getBefore(), p);
             if (prefix != null) {
-                p.out.append(prefix);
+                p.append(prefix);
             }
             visit(leftPadded.getElement(), p);
         }
@@ -349,7 +349,7 @@ public class ProtoPrinter<P> extends ProtoVisitor<PrintOutputCapture<P>> {
             visit(node.getElement(), p);
             visitSpace(node.getAfter(), p);
             if (i < nodes.size() - 1) {
-                p.out.append(suffixBetween);
+                p.append(suffixBetween);
             }
         }
     }
@@ -358,7 +358,7 @@ public class ProtoPrinter<P> extends ProtoVisitor<PrintOutputCapture<P>> {
     public <M extends Marker> M visitMarker(Marker marker, PrintOutputCapture<P> p) {
         if (marker instanceof SearchResult) {
             String description = ((SearchResult) marker).getDescription();
-            p.out.append("/*~~")
+            p.append("/*~~")
                     .append(description == null ? "" : "(" + description + ")~~")
                     .append(">*/");
         }
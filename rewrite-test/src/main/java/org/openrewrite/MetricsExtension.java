@@ -20,6 +20,8 @@ import io.micrometer.core.instrument.config.MeterFilter;
 import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
 import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
 import org.junit.jupiter.api.extension.ExtensionContext;
+import org.openrewrite.instrumentation.Instrumentation;
+import org.openrewrite.instrumentation.MicrometerInstrumentation;
 import org.openrewrite.internal.LoggingMeterRegistry;
 
 import static org.junit.jupiter.api.extension.ExtensionContext.Namespace;
@@ -27,6 +29,7 @@ import static org.junit.jupiter.api.extension.ExtensionContext.Store;
 
 public class MetricsExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
     private static final String METER_REGISTRY = "loggingMeterRegistry";
+    private static final String INSTRUMENTATION = "instrumentation";
 
     @Override
     public void beforeTestExecution(ExtensionContext context) {
@@ -36,6 +39,7 @@ public class MetricsExtension implements BeforeTestExecutionCallback, AfterTestE
 
         Metrics.addRegistry(meterRegistry);
         getStore(context).put(METER_REGISTRY, meterRegistry);
+        getStore(context).put(INSTRUMENTATION, Instrumentation.set(new MicrometerInstrumentation(Metrics.globalRegistry)));
     }
 
     @Override
@@ -43,6 +47,7 @@ public class MetricsExtension implements BeforeTestExecutionCallback, AfterTestE
         LoggingMeterRegistry meterRegistry = getStore(context).remove(METER_REGISTRY, LoggingMeterRegistry.class);
         meterRegistry.print();
         Metrics.removeRegistry(meterRegistry);
+        Instrumentation.set(getStore(context).remove(INSTRUMENTATION, Instrumentation.class));
     }
 
     private Store getStore(ExtensionContext context) {
@@ -53,6 +53,15 @@ interface MethodDeclarationTest : JavaTreeTest {
         """
     )
 
+    @Test
+    fun varargsNextToWhitespaceAndComments(jp: JavaParser) = assertParsePrintAndProcess(
+            jp, Class, """
+            public void foo(String ... args) { }
+            public void bar(String   ...   /* ... */ args) { }
+            public void baz(int [ ] ... args) { }
+        """
+    )
+
     @Test
     fun interfaceMethodDecl(jp: JavaParser) = assertParsePrintAndProcess(
             jp, CompilationUnit, """
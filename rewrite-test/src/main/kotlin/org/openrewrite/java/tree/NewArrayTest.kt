@@ -51,6 +51,14 @@ interface NewArrayTest : JavaTreeTest {
         """
     )
 
+    @Test
+    fun emptyDimensionsNextToComments(jp: JavaParser) = assertParsePrintAndProcess(
+        jp, Block, """
+                int[][][] n = new int [ 0 ]  [ ] [
+                ] /* [ ] */ ;
+        """
+    )
+
     @Test
     fun newArrayShortcut(jp: JavaParser) = assertParsePrintAndProcess(
         jp, CompilationUnit, """
@@ -78,6 +78,15 @@ interface VariableDeclarationsTest : JavaTreeTest {
         """
     )
 
+    @Test
+    fun arrayDimensionsNextToComments(jp: JavaParser) = assertParsePrintAndProcess(
+        jp, Block, """
+           int n [ ] /* [ ] */ ;
+           String /* [ ] */ s [ ] [ ];
+           int [ ] /* [ ] */ n2;
+        """
+    )
+
     @Test
     fun multipleDeclarationOneAssignment(jp: JavaParser) = assertParsePrintAndProcess(
         jp, Block, """
@@ -19,10 +19,7 @@ import org.openrewrite.Cursor;
 import org.openrewrite.xml.tree.Xml;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Supports a limited set of XPath expressions, specifically those
@@ -36,24 +33,39 @@ import java.util.stream.Collectors;
 public class XPathMatcher {
     private final String expression;
 
+    /**
+     * The steps of the expression, from the innermost step outwards for a relative expression and from the root
+     * inwards for an absolute one, which is the order they are matched in.
+     */
+    private final String[] parts;
+
     public XPathMatcher(String expression) {
         this.expression = expression;
+        if (expression.startsWith("//") || !expression.startsWith("/")) {
+            parts = (expression.startsWith("//") ? expression.substring(2) : expression).split("/");
+            for (int i = 0, j = parts.length - 1; i < j; i++, j--) {
+                String part = parts[i];
+                parts[i] = parts[j];
+                parts[j] = part;
+            }
+        } else {
+            parts = expression.substring(1).split("/");
+        }
     }
 
     public boolean matches(Cursor cursor) {
-        List<Xml.Tag> path = cursor.getPathAsStream()
-                .filter(p -> p instanceof Xml.Tag)
-                .map(Xml.Tag.class::cast)
-                .collect(Collectors.toList());
+        // innermost tag first
+        List<Xml.Tag> path = new ArrayList<>();
+        for (Cursor c = cursor; c != null; c = c.getParent()) {
+            if (c.getValue() instanceof Xml.Tag) {
+                path.add(c.getValue());
+            }
+        }
 
         if (expression.startsWith("//") || !expression.startsWith("/")) {
-            List<String> parts = new ArrayList<>(Arrays.asList((expression.startsWith("//") ?
-                    expression.substring(2) : expression).split("/")));
-            Collections.reverse(parts);
-
             int pathIndex = 0;
-            for (int i = 0; i < parts.size(); i++, pathIndex++) {
-                String part = parts.get(i);
+            for (int i = 0; i < parts.length; i++, pathIndex++) {
+                String part = parts[i];
                 if (part.startsWith("@")) {
                     if (!(cursor.getValue() instanceof Xml.Attribute &&
                             (((Xml.Attribute) cursor.getValue()).getKeyAsString().equals(part.substring(1))) ||
@@ -72,9 +84,6 @@ public class XPathMatcher {
 
             return expression.startsWith("/") || path.size() - pathIndex <= 1;
         } else if (expression.startsWith("/")) {
-            Collections.reverse(path);
-
-            String[] parts = expression.substring(1).split("/");
             for (int i = 0; i < parts.length; i++) {
                 String part = parts[i];
                 if (part.startsWith("@")) {
@@ -83,7 +92,7 @@ public class XPathMatcher {
                                     "*".equals(part.substring(1)));
                 }
 
-                if (path.size() < i + 1 || (!path.get(i).getName().equals(part) && !"*".equals(part))) {
+                if (path.size() < i + 1 || (!path.get(path.size() - 1 - i).getName().equals(part) && !"*".equals(part))) {
                     return false;
                 }
             }
@@ -25,16 +25,16 @@ public class XmlPrinter<P> extends XmlVisitor<PrintOutputCapture<P>> {
 
     @Override
     public Xml visitDocument(Xml.Document document, PrintOutputCapture<P> p) {
-        p.out.append(document.getPrefix());
+        p.append(document.getPrefix());
         visitMarkers(document.getMarkers(), p);
         document = (Xml.Document) super.visitDocument(document, p);
-        p.out.append(document.getEof());
+        p.append(document.getEof());
         return document;
     }
 
     @Override
     public Xml visitProlog(Xml.Prolog prolog, PrintOutputCapture<P> p) {
-        p.out.append(prolog.getPrefix());
+        p.append(prolog.getPrefix());
         visitMarkers(prolog.getMarkers(), p);
         return super.visitProlog(prolog, p);
     }
@@ -42,28 +42,28 @@ public class XmlPrinter<P> extends XmlVisitor<PrintOutputCapture<P>> {
     @Override
     public Xml visitXmlDecl(Xml.XmlDecl xmlDecl, PrintOutputCapture<P> p) {
         visitMarkers(xmlDecl.getMarkers(), p);
-        p.out.append("<?")
+        p.append("<?")
                 .append(xmlDecl.getName());
         visit(xmlDecl.getAttributes(), p);
-        p.out.append(xmlDecl.getBeforeTagDelimiterPrefix())
+        p.append(xmlDecl.getBeforeTagDelimiterPrefix())
                 .append("?>");
         return xmlDecl;
     }
 
     @Override
     public Xml visitTag(Xml.Tag tag, PrintOutputCapture<P> p) {
-        p.out.append(tag.getPrefix());
+        p.append(tag.getPrefix());
         visitMarkers(tag.getMarkers(), p);
-        p.out.append('<')
+        p.append('<')
                 .append(tag.getName());
         visit(tag.getAttributes(), p);
-        p.out.append(tag.getBeforeTagDelimiterPrefix());
+        p.append(tag.getBeforeTagDelimiterPrefix());
         if (tag.getClosing() == null) {
-            p.out.append("/>");
+            p.append("/>");
         } else {
-            p.out.append('>');
+            p.append('>');
             visit(tag.getContent(), p);
-            p.out.append(tag.getClosing().getPrefix())
+            p.append(tag.getClosing().getPrefix())
                     .append("</")
                     .append(tag.getClosing().getName())
                     .append(tag.getClosing().getBeforeTagDelimiterPrefix())
@@ -81,9 +81,9 @@ public class XmlPrinter<P> extends XmlVisitor<PrintOutputCapture<P>> {
         } else {
             valueDelim = '\'';
         }
-        p.out.append(attribute.getPrefix());
+        p.append(attribute.getPrefix());
         visitMarkers(attribute.getMarkers(), p);
-        p.out.append(attribute.getKey().getPrefix())
+        p.append(attribute.getKey().getPrefix())
                 .append(attribute.getKeyAsString())
                 .append('=')
                 .append(attribute.getValue().getPrefix())
@@ -97,9 +97,9 @@ public class XmlPrinter<P> extends XmlVisitor<PrintOutputCapture<P>> {
 
     @Override
     public Xml visitComment(Xml.Comment comment, PrintOutputCapture<P> p) {
-        p.out.append(comment.getPrefix());
+        p.append(comment.getPrefix());
         visitMarkers(comment.getMarkers(), p);
-        p.out.append("<!--")
+        p.append("<!--")
                 .append(comment.getText())
                 .append("-->");
         return comment;
@@ -107,64 +107,64 @@ public class XmlPrinter<P> extends XmlVisitor<PrintOutputCapture<P>> {
 
     @Override
     public Xml visitProcessingInstruction(Xml.ProcessingInstruction processingInstruction, PrintOutputCapture<P> p) {
-        p.out.append(processingInstruction.getPrefix());
+        p.append(processingInstruction.getPrefix());
         visitMarkers(processingInstruction.getMarkers(), p);
-        p.out.append("<?")
+        p.append("<?")
                 .append(processingInstruction.getName());
         visit(processingInstruction.getProcessingInstructions(), p);
-        p.out.append(processingInstruction.getBeforeTagDelimiterPrefix())
+        p.append(processingInstruction.getBeforeTagDelimiterPrefix())
                 .append("?>");
         return processingInstruction;
     }
 
     @Override
     public Xml visitCharData(Xml.CharData charData, PrintOutputCapture<P> p) {
-        p.out.append(charData.getPrefix());
+        p.append(charData.getPrefix());
         visitMarkers(charData.getMarkers(), p);
         if (charData.isCdata()) {
-            p.out.append("<![CDATA[")
+            p.append("<![CDATA[")
                     .append(charData.getText())
                     .append("]]>");
         } else {
-            p.out.append(charData.getText());
+            p.append(charData.getText());
         }
-        p.out.append(charData.getAfterText());
+        p.append(charData.getAfterText());
         return charData;
     }
 
     @Override
     public Xml visitDocTypeDecl(Xml.DocTypeDecl docTypeDecl, PrintOutputCapture<P> p) {
-        p.out.append(docTypeDecl.getPrefix());
+        p.append(docTypeDecl.getPrefix());
         visitMarkers(docTypeDecl.getMarkers(), p);
-        p.out.append("<!DOCTYPE");
+        p.append("<!DOCTYPE");
         visit(docTypeDecl.getName(), p);
         visit(docTypeDecl.getExternalId(), p);
         visit(docTypeDecl.getInternalSubset(), p);
         if (docTypeDecl.getExternalSubsets() != null) {
-            p.out.append(docTypeDecl.getExternalSubsets().getPrefix())
+            p.append(docTypeDecl.getExternalSubsets().getPrefix())
                     .append('[');
             visit(docTypeDecl.getExternalSubsets().getElements(), p);
-            p.out.append(']');
+            p.append(']');
         }
-        p.out.append(docTypeDecl.getBeforeTagDelimiterPrefix());
-        p.out.append('>');
+        p.append(docTypeDecl.getBeforeTagDelimiterPrefix());
+        p.append('>');
         return docTypeDecl;
     }
 
     @Override
     public Xml visitElement(Xml.Element element, PrintOutputCapture<P> p) {
-        p.out.append(element.getPrefix());
+        p.append(element.getPrefix());
         visitMarkers(element.getMarkers(), p);
         visit(element.getSubset(), p);
-        p.out.append(element.getBeforeTagDelimiterPrefix());
+        p.append(element.getBeforeTagDelimiterPrefix());
         return element;
     }
 
     @Override
     public Xml visitIdent(Xml.Ident ident, PrintOutputCapture<P> p) {
-        p.out.append(ident.getPrefix());
+        p.append(ident.getPrefix());
         visitMarkers(ident.getMarkers(), p);
-        p.out.append(ident.getName());
+        p.append(ident.getName());
         return ident;
     }
 
@@ -172,7 +172,7 @@ public class XmlPrinter<P> extends XmlVisitor<PrintOutputCapture<P>> {
     public <M extends Marker> M visitMarker(Marker marker, PrintOutputCapture<P> p) {
         if(marker instanceof SearchResult) {
             String description = ((SearchResult) marker).getDescription();
-            p.out.append("<!--~~")
+            p.append("<!--~~")
                     .append(description == null ? "" : "(" + description + ")~~")
                     .append(">-->");
         }
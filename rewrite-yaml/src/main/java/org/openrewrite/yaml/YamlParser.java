@@ -23,7 +23,6 @@ import org.openrewrite.ExecutionContext;
 import org.openrewrite.InMemoryExecutionContext;
 import org.openrewrite.internal.ListUtils;
 import org.openrewrite.internal.MetricsHelper;
-import org.openrewrite.internal.StringUtils;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.marker.Markers;
 import org.openrewrite.tree.ParsingEventListener;
@@ -37,7 +36,6 @@ import org.yaml.snakeyaml.scanner.Scanner;
 import org.yaml.snakeyaml.scanner.ScannerImpl;
 
 import java.io.*;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.util.*;
 import java.util.regex.Matcher;
@@ -65,8 +63,9 @@ public class YamlParser implements org.openrewrite.Parser<Yaml.Documents> {
                             .description("The time spent parsing a YAML file")
                             .tag("file.type", "YAML");
                     Timer.Sample sample = Timer.start();
-                    try (InputStream is = sourceFile.getSource()) {
-                        Yaml.Documents yaml = parseFromInput(sourceFile.getRelativePath(relativeTo), is);
+                    try {
+                        Yaml.Documents yaml = parseFromInput(sourceFile.getRelativePath(relativeTo),
+                                sourceFile.getContent().getText());
                         sample.stop(MetricsHelper.successTags(timer).register(Metrics.globalRegistry));
                         parsingListener.parsed(sourceFile, yaml);
                         return yaml;
@@ -89,8 +88,7 @@ public class YamlParser implements org.openrewrite.Parser<Yaml.Documents> {
                 .collect(toList());
     }
 
-    private Yaml.Documents parseFromInput(Path sourceFile, InputStream source) {
-        String yamlSource = StringUtils.readFully(source);
+    private Yaml.Documents parseFromInput(Path sourceFile, String yamlSource) {
         Map<String, String> variableByUuid = new HashMap<>();
 
         StringBuilder yamlSourceWithVariablePlaceholders = new StringBuilder();
@@ -98,7 +96,7 @@ public class YamlParser implements org.openrewrite.Parser<Yaml.Documents> {
         int pos = 0;
         while (pos < yamlSource.length() && variableMatcher.find(pos)) {
             yamlSourceWithVariablePlaceholders.append(yamlSource, pos, variableMatcher.start(1));
-            String uuid = UUID.randomUUID().toString();
+            String uuid = randomId().toString();
             variableByUuid.put(uuid, variableMatcher.group(1));
             yamlSourceWithVariablePlaceholders.append(uuid);
             pos = variableMatcher.end(1);
@@ -109,8 +107,7 @@ public class YamlParser implements org.openrewrite.Parser<Yaml.Documents> {
         }
 
         try (FormatPreservingReader reader = new FormatPreservingReader(
-                new InputStreamReader(new ByteArrayInputStream(yamlSourceWithVariablePlaceholders.toString()
-                        .getBytes(StandardCharsets.UTF_8))))) {
+                new StringReader(yamlSourceWithVariablePlaceholders.toString()))) {
             StreamReader streamReader = new StreamReader(reader);
             Scanner scanner = new ScannerImpl(streamReader);
             Parser parser = new ParserImpl(scanner);
@@ -25,16 +25,16 @@ public class YamlPrinter<P> extends YamlVisitor<PrintOutputCapture<P>> {
 
     @Override
     public Yaml visitDocument(Yaml.Document document, PrintOutputCapture<P> p) {
-        p.out.append(document.getPrefix());
+        p.append(document.getPrefix());
         visitMarkers(document.getMarkers(), p);
         if (document.isExplicit()) {
-            p.out.append("---");
+            p.append("---");
         }
         visit(document.getBlock(), p);
         if (document.getEnd() != null) {
-            p.out.append(document.getEnd().getPrefix());
+            p.append(document.getEnd().getPrefix());
             if (document.getEnd().isExplicit()) {
-                p.out.append("...");
+                p.append("...");
             }
         }
         return document;
@@ -49,13 +49,13 @@ public class YamlPrinter<P> extends YamlVisitor<PrintOutputCapture<P>> {
 
     @Override
     public Yaml visitSequenceEntry(Yaml.Sequence.Entry entry, PrintOutputCapture<P> p) {
-        p.out.append(entry.getPrefix());
+        p.append(entry.getPrefix());
         if(entry.isDash()) {
-            p.out.append('-');
+            p.append('-');
         }
         visit(entry.getBlock(), p);
         if(entry.getTrailingCommaPrefix() != null) {
-            p.out.append(entry.getTrailingCommaPrefix()).append(',');
+            p.append(entry.getTrailingCommaPrefix()).append(',');
         }
         return entry;
     }
@@ -64,11 +64,11 @@ public class YamlPrinter<P> extends YamlVisitor<PrintOutputCapture<P>> {
     public Yaml visitSequence(Yaml.Sequence sequence, PrintOutputCapture<P> p) {
         visitMarkers(sequence.getMarkers(), p);
         if(sequence.getOpeningBracketPrefix() != null) {
-            p.out.append(sequence.getOpeningBracketPrefix()).append('[');
+            p.append(sequence.getOpeningBracketPrefix()).append('[');
         }
         Yaml result = super.visitSequence(sequence, p);
         if(sequence.getClosingBracketPrefix() != null) {
-            p.out.append(sequence.getClosingBracketPrefix()).append(']');
+            p.append(sequence.getClosingBracketPrefix()).append(']');
         }
 
         return result;
@@ -76,10 +76,10 @@ public class YamlPrinter<P> extends YamlVisitor<PrintOutputCapture<P>> {
 
     @Override
     public Yaml visitMappingEntry(Yaml.Mapping.Entry entry, PrintOutputCapture<P> p) {
-        p.out.append(entry.getPrefix());
+        p.append(entry.getPrefix());
         visitMarkers(entry.getMarkers(), p);
         visit(entry.getKey(), p);
-        p.out.append(entry.getBeforeMappingValueIndicator()).append(':');
+        p.append(entry.getBeforeMappingValueIndicator()).append(':');
         visit(entry.getValue(), p);
         return entry;
     }
@@ -92,33 +92,33 @@ public class YamlPrinter<P> extends YamlVisitor<PrintOutputCapture<P>> {
 
     @Override
     public Yaml visitScalar(Yaml.Scalar scalar, PrintOutputCapture<P> p) {
-        p.out.append(scalar.getPrefix());
+        p.append(scalar.getPrefix());
         visitMarkers(scalar.getMarkers(), p);
         if (scalar.getAnchor() != null) {
             visit(scalar.getAnchor(), p);
         }
         switch (scalar.getStyle()) {
             case DOUBLE_QUOTED:
-                p.out.append('"')
+                p.append('"')
                         .append(scalar.getValue().replaceAll("\\n", "\\\\n"))
                         .append('"');
                 break;
             case SINGLE_QUOTED:
-                p.out.append('\'')
+                p.append('\'')
                         .append(scalar.getValue().replaceAll("\\n", "\\\\n"))
                         .append('\'');
                 break;
             case LITERAL:
-                p.out.append('|')
+                p.append('|')
                         .append(scalar.getValue());
                 break;
             case FOLDED:
-                p.out.append('>')
+                p.append('>')
                         .append(scalar.getValue());
                 break;
             case PLAIN:
             default:
-                p.out.append(scalar.getValue());
+                p.append(scalar.getValue());
                 break;
 
         }
@@ -127,17 +127,17 @@ public class YamlPrinter<P> extends YamlVisitor<PrintOutputCapture<P>> {
 
     public Yaml visitAnchor(Yaml.Anchor anchor, PrintOutputCapture<P> p) {
         visitMarkers(anchor.getMarkers(), p);
-        p.out.append("&");
-        p.out.append(anchor.getKey());
-        p.out.append(anchor.getPostfix());
+        p.append("&");
+        p.append(anchor.getKey());
+        p.append(anchor.getPostfix());
         return anchor;
     }
 
     public Yaml visitAlias(Yaml.Alias alias, PrintOutputCapture<P> p) {
-        p.out.append(alias.getPrefix());
+        p.append(alias.getPrefix());
         visitMarkers(alias.getMarkers(), p);
-        p.out.append("*");
-        p.out.append(alias.getAnchor().getKey());
+        p.append("*");
+        p.append(alias.getAnchor().getKey());
         return alias;
     }
 
@@ -145,7 +145,7 @@ public class YamlPrinter<P> extends YamlVisitor<PrintOutputCapture<P>> {
     public <M extends Marker> M visitMarker(Marker marker, PrintOutputCapture<P> p) {
         if(marker instanceof SearchResult) {
             String description = ((SearchResult) marker).getDescription();
-            p.out.append("~~")
+            p.append("~~")
                     .append(description == null ? "" : "(" + description + ")~~")
                     .append(">");
         }